@@ -85,6 +85,7 @@ public final class Messages {
     public static final String RULE_SOURCE_USED_BY_TYPE = "The source is used by at least one type: please remove such types.";
     public static final String RULE_DISCARDED_EXECUTIONS_MUST_HAVE_REASON = "A reason is mandatory when discarding an execution.";
     public static final String RULE_EXECUTED_SCENARIO_HISTORY_MANDATORY_CUCUMBER_ID = "The cucumber ID of the scenario to get history is mandatory.";
+    public static final String RULE_EXECUTED_SCENARIO_UNKNOWN_HANDLING = "The handling to filter executed scenarios must be SUCCESS, HANDLED or UNHANDLED.";
     public static final String RULE_FUNCTIONALITY_EXCLUSIVE_STARTED_AND_NOT_AUTOMATABLE = "A functionality cannot be both non-automatable and started.";
     public static final String RULE_FUNCTIONALITY_FOLDER_MANDATORY_NAME = "A folder must have a name.";
     public static final String RULE_FUNCTIONALITY_MANDATORY_COUNTRY_CODES = "A functionality must have at least one country.";
@@ -0,0 +1,45 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+package com.decathlon.ara.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Broadcasts the evictions of in-memory caches to all ARA instances sharing the same database, so that several
+ * instances can run behind a load balancer and still keep their caches.<br>
+ * The implementation is chosen with the property {@code ara.adapter.cacheInvalidation.name}.
+ */
+public interface CacheInvalidationBus {
+
+    /**
+     * Register the code evicting an entry of a cache of this instance.
+     *
+     * @param cacheName the name of the cache, unique among all caches using the bus
+     * @param evictor   evicts the entry having the given key (as published) from the cache; it must be thread-safe
+     */
+    void subscribe(String cacheName, Consumer<String> evictor);
+
+    /**
+     * Evict an entry of a cache on all instances (including this one), once the current transaction (if any) is
+     * committed: a rolled-back change does not evict anything.
+     *
+     * @param cacheName the name of the cache, as subscribed
+     * @param key       the key of the entry to evict (at most 255 characters)
+     */
+    void publish(String cacheName, String key);
+
+}
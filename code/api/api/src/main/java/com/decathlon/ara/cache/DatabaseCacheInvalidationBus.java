@@ -0,0 +1,112 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+package com.decathlon.ara.cache;
+
+import java.sql.Timestamp;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.decathlon.ara.repository.custom.util.TransactionAppenderUtil;
+
+/**
+ * Broadcasts cache evictions through the cache_invalidation table: each eviction is inserted in the transaction of the
+ * change (so other instances only see committed changes), and each instance polls the table for the evictions of the
+ * other instances.<br>
+ * Evictions are idempotent: the rows of the last minutes are read at each poll (a long transaction can commit a row
+ * well after its creation date), and the ones already applied are skipped.
+ */
+@Component
+@ConditionalOnProperty(name = "ara.adapter.cacheInvalidation.name", havingValue = "database")
+public class DatabaseCacheInvalidationBus extends InProcessCacheInvalidationBus {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DatabaseCacheInvalidationBus.class);
+
+    /**
+     * Rows are read again during this delay after their creation, in case they are committed late.
+     */
+    private static final long LOOK_BACK_MILLIS = 10 * 60_000L;
+
+    /**
+     * Rows are deleted after this delay, by any instance.
+     */
+    private static final long RETENTION_MILLIS = 60 * 60_000L;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Identifies this instance, to not apply its own evictions twice.
+     */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    /**
+     * The IDs of the rows already applied, with their creation dates, to forget them after {@link #LOOK_BACK_MILLIS}.
+     */
+    private final Map<Long, Long> appliedIds = new ConcurrentHashMap<>();
+
+    private long lastPurgeMillis;
+
+    public DatabaseCacheInvalidationBus(TransactionAppenderUtil transactionAppenderUtil, JdbcTemplate jdbcTemplate) {
+        super(transactionAppenderUtil);
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void publish(String cacheName, String key) {
+        jdbcTemplate.update("insert into cache_invalidation (node_id, cache_name, cache_key, creation_date_time) values (?, ?, ?, ?)",
+                nodeId, cacheName, key, new Timestamp(System.currentTimeMillis()));
+        super.publish(cacheName, key);
+    }
+
+    /**
+     * Apply the evictions published by the other instances (needs the scheduling to be enabled).
+     */
+    @Scheduled(fixedDelayString = "${ara.cacheInvalidationPollingDelayInMilliseconds:1000}")
+    public void poll() {
+        final long now = System.currentTimeMillis();
+        try {
+            jdbcTemplate.query("select id, cache_name, cache_key, creation_date_time from cache_invalidation " +
+                            "where node_id <> ? and creation_date_time >= ? order by id",
+                    resultSet -> {
+                        final Long id = Long.valueOf(resultSet.getLong(1));
+                        final long creationMillis = resultSet.getTimestamp(4).getTime();
+                        if (appliedIds.putIfAbsent(id, Long.valueOf(creationMillis)) == null) {
+                            evictLocally(resultSet.getString(2), resultSet.getString(3));
+                        }
+                    },
+                    nodeId, new Timestamp(now - LOOK_BACK_MILLIS));
+            appliedIds.values().removeIf(creationMillis -> creationMillis.longValue() < now - 2 * LOOK_BACK_MILLIS);
+
+            if (now - lastPurgeMillis > RETENTION_MILLIS) {
+                jdbcTemplate.update("delete from cache_invalidation where creation_date_time < ?",
+                        new Timestamp(now - RETENTION_MILLIS));
+                lastPurgeMillis = now;
+            }
+        } catch (DataAccessException e) {
+            LOG.warn("CACHE|Cannot read the cache evictions of the other instances: will retry at next poll", e);
+        }
+    }
+
+}
@@ -0,0 +1,110 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+package com.decathlon.ara.cache;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+
+/**
+ * An in-memory cache whose entries never expire, but are evicted (see {@link CacheInvalidationBus}).<br>
+ * A value loaded from the database on a cache miss is only cached if its key was not evicted since the load began: a
+ * load reading the database before the commit of another transaction, and ending after the eviction following that
+ * commit, would otherwise cache a stale value forever. Each key has a generation, incremented at each eviction, read
+ * before loading the value and compared when caching it.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the (immutable) values
+ */
+public class EvictableCache<K, V> {
+
+    private final Map<K, V> entries = new ConcurrentHashMap<>();
+
+    private final Map<K, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    /**
+     * @param key the key of an entry
+     * @return the cached value of the entry, or null if it is not cached
+     */
+    public V get(K key) {
+        return entries.get(key);
+    }
+
+    /**
+     * @param key the key of an entry
+     * @return the generation of the key, to read before loading its value, and to give to
+     * {@link #putIfNotEvicted(Object, long, Object)}
+     */
+    public long getGeneration(K key) {
+        return generations.computeIfAbsent(key, k -> new AtomicLong()).get();
+    }
+
+    /**
+     * Cache a loaded value, unless another value got cached in the meantime, or the key got evicted since its
+     * generation was read.
+     *
+     * @param key        the key of the entry
+     * @param generation the generation of the key, read before loading the value
+     * @param value      the loaded value
+     * @return the value cached by another thread, if any, or else the loaded value (cached or not)
+     */
+    public V putIfNotEvicted(K key, long generation, V value) {
+        final V cachedValue = entries.compute(key, (k, currentValue) -> {
+            if (currentValue != null) {
+                return currentValue;
+            }
+            return getGeneration(k) == generation ? value : null;
+        });
+        return cachedValue == null ? value : cachedValue;
+    }
+
+    /**
+     * Atomically replace a cached value by a value computed from it and from data known to be up to date: concurrent
+     * replacements of the same key are applied one after the other, and none of them is lost. Nothing is cached if the
+     * key is not cached (the value is loaded on next use).<br>
+     * The function may read the entry (it gets the value being replaced), but must not cache it.
+     *
+     * @param key      the key of the entry
+     * @param function computes the new value from the cached one
+     * @return the new value, or null if the key was not cached
+     */
+    public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> function) {
+        return entries.computeIfPresent(key, function);
+    }
+
+    /**
+     * Remove an entry, and make the loads in progress for its key not cache their value.
+     *
+     * @param key the key of the entry
+     */
+    public void evict(K key) {
+        entries.compute(key, (k, currentValue) -> {
+            generations.computeIfAbsent(k, g -> new AtomicLong()).incrementAndGet();
+            return null;
+        });
+    }
+
+    /**
+     * Remove all entries, and make the loads in progress not cache their value.
+     */
+    public void clear() {
+        generations.values().forEach(AtomicLong::incrementAndGet);
+        entries.clear();
+    }
+
+}
@@ -0,0 +1,77 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+package com.decathlon.ara.cache;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.decathlon.ara.repository.custom.util.TransactionAppenderUtil;
+
+/**
+ * Evicts cache entries of this instance only: for a single ARA instance, and for tests.
+ */
+@Component
+@ConditionalOnProperty(name = "ara.adapter.cacheInvalidation.name", havingValue = "in-process", matchIfMissing = true)
+public class InProcessCacheInvalidationBus implements CacheInvalidationBus {
+
+    private static final Logger LOG = LoggerFactory.getLogger(InProcessCacheInvalidationBus.class);
+
+    private final Map<String, List<Consumer<String>>> evictors = new ConcurrentHashMap<>();
+
+    private final TransactionAppenderUtil transactionAppenderUtil;
+
+    public InProcessCacheInvalidationBus(TransactionAppenderUtil transactionAppenderUtil) {
+        this.transactionAppenderUtil = transactionAppenderUtil;
+    }
+
+    @Override
+    public void subscribe(String cacheName, Consumer<String> evictor) {
+        evictors.computeIfAbsent(cacheName, key -> new CopyOnWriteArrayList<>()).add(evictor);
+    }
+
+    @Override
+    public void publish(String cacheName, String key) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            transactionAppenderUtil.doAfterCommit(() -> evictLocally(cacheName, key));
+        } else {
+            evictLocally(cacheName, key);
+        }
+    }
+
+    /**
+     * Evict an entry of a cache of this instance, right now.
+     *
+     * @param cacheName the name of the cache, as subscribed
+     * @param key       the key of the entry to evict
+     */
+    protected void evictLocally(String cacheName, String key) {
+        LOG.debug("CACHE|Evicting {} from cache {}", key, cacheName);
+        for (Consumer<String> evictor : evictors.getOrDefault(cacheName, List.of())) {
+            evictor.accept(key);
+        }
+    }
+
+}
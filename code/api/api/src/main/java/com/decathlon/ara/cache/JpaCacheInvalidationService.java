@@ -0,0 +1,151 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+package com.decathlon.ara.cache;
+
+import java.util.Collection;
+import java.util.Set;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Service;
+
+import com.decathlon.ara.domain.Communication;
+import com.decathlon.ara.domain.Country;
+import com.decathlon.ara.domain.CycleDefinition;
+import com.decathlon.ara.domain.Functionality;
+import com.decathlon.ara.domain.Problem;
+import com.decathlon.ara.domain.ProblemPattern;
+import com.decathlon.ara.domain.Project;
+import com.decathlon.ara.domain.RootCause;
+import com.decathlon.ara.domain.Setting;
+import com.decathlon.ara.domain.Severity;
+import com.decathlon.ara.domain.Source;
+import com.decathlon.ara.domain.Team;
+import com.decathlon.ara.domain.TechnologySetting;
+import com.decathlon.ara.domain.Type;
+import com.decathlon.ara.repository.custom.util.JpaCacheManager;
+
+/**
+ * Keeps the Hibernate second-level caches of all ARA instances coherent, through the {@link CacheInvalidationBus}:
+ * <ul>
+ * <li>updated and deleted configuration entities are evicted on the other instances (Hibernate already updates the
+ * cache of this instance),</li>
+ * <li>collections changed behind Hibernate's back (eg. occurrences of problems) are evicted on all instances.</li>
+ * </ul>
+ * Entities written in bulk by the indexation (executions, runs, scenarios, errors...) are not broadcast: their cache
+ * regions expire quickly anyway.
+ */
+@Service
+public class JpaCacheInvalidationService implements PostUpdateEventListener, PostDeleteEventListener {
+
+    private static final String ENTITY_CACHE = "hibernate-entity";
+
+    private static final String COLLECTION_CACHE = "hibernate-collection";
+
+    private static final char KEY_SEPARATOR = '#';
+
+    private static final Set<String> BROADCAST_ENTITIES = Set.of(
+            Communication.class.getName(),
+            Country.class.getName(),
+            CycleDefinition.class.getName(),
+            Functionality.class.getName(),
+            Problem.class.getName(),
+            ProblemPattern.class.getName(),
+            Project.class.getName(),
+            RootCause.class.getName(),
+            Setting.class.getName(),
+            Severity.class.getName(),
+            Source.class.getName(),
+            Team.class.getName(),
+            TechnologySetting.class.getName(),
+            Type.class.getName());
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final JpaCacheManager jpaCacheManager;
+
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    public JpaCacheInvalidationService(EntityManagerFactory entityManagerFactory, JpaCacheManager jpaCacheManager,
+            CacheInvalidationBus cacheInvalidationBus) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.jpaCacheManager = jpaCacheManager;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+    }
+
+    @PostConstruct
+    public void register() {
+        final SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        final EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+
+        cacheInvalidationBus.subscribe(ENTITY_CACHE, key -> {
+            final int separator = key.lastIndexOf(KEY_SEPARATOR);
+            sessionFactory.getCache().evictEntityData(key.substring(0, separator), Long.valueOf(key.substring(separator + 1)));
+        });
+        cacheInvalidationBus.subscribe(COLLECTION_CACHE, key -> {
+            final int separator = key.lastIndexOf(KEY_SEPARATOR);
+            jpaCacheManager.evictCollection(key.substring(0, separator), Long.valueOf(key.substring(separator + 1)));
+        });
+    }
+
+    /**
+     * Evict the cache data for the given identified collection instances, on all ARA instances, once the current
+     * transaction is committed.
+     *
+     * @param collectionRegion the "collection role" (in form [owner-entity-name].[collection-property-name])
+     * @param ownerIdentifiers the identifiers of the owning entities
+     */
+    public void evictCollections(String collectionRegion, Collection<Long> ownerIdentifiers) {
+        for (Long ownerIdentifier : ownerIdentifiers) {
+            cacheInvalidationBus.publish(COLLECTION_CACHE, collectionRegion + KEY_SEPARATOR + ownerIdentifier);
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        publishEntityEviction(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        publishEntityEviction(event.getPersister(), event.getId());
+    }
+
+    private void publishEntityEviction(EntityPersister persister, Object id) {
+        if (BROADCAST_ENTITIES.contains(persister.getEntityName()) && id instanceof Long) {
+            cacheInvalidationBus.publish(ENTITY_CACHE, persister.getEntityName() + KEY_SEPARATOR + id);
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        // Evictions are published in the transaction of the change: the bus applies them once committed
+        return false;
+    }
+
+}
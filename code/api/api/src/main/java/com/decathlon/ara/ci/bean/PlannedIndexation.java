@@ -27,12 +27,23 @@ public class PlannedIndexation {
 
     private File executionFolder;
 
+    /**
+     * The cluster lease held while indexing the execution, checked before committing the indexation, or null if the
+     * indexation is not shared with other ARA instances.
+     */
+    private String lease;
+
     public PlannedIndexation() {
     }
 
     public PlannedIndexation(CycleDefinition cycleDefinition, File executionFolder) {
+        this(cycleDefinition, executionFolder, null);
+    }
+
+    public PlannedIndexation(CycleDefinition cycleDefinition, File executionFolder, String lease) {
         this.cycleDefinition = cycleDefinition;
         this.executionFolder = executionFolder;
+        this.lease = lease;
     }
 
     public CycleDefinition getCycleDefinition() {
@@ -43,4 +54,8 @@ public class PlannedIndexation {
         return executionFolder;
     }
 
+    public String getLease() {
+        return lease;
+    }
+
 }
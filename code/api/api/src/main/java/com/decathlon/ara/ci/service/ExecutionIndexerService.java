@@ -18,16 +18,23 @@
 package com.decathlon.ara.ci.service;
 
 import com.decathlon.ara.ci.bean.PlannedIndexation;
+import com.decathlon.ara.cluster.ClusterCoordinator;
 import com.decathlon.ara.domain.CycleDefinition;
 import com.decathlon.ara.domain.Error;
 import com.decathlon.ara.domain.Execution;
 import com.decathlon.ara.domain.Problem;
+import com.decathlon.ara.domain.Run;
 import com.decathlon.ara.domain.enumeration.JobStatus;
+import com.decathlon.ara.repository.ErrorRepository;
 import com.decathlon.ara.repository.ExecutionRepository;
+import com.decathlon.ara.repository.custom.ExecutionBulkInsertRepository;
 import com.decathlon.ara.repository.custom.util.TransactionAppenderUtil;
+import com.decathlon.ara.scenario.cucumber.util.ScenarioExtractorUtil;
+import com.decathlon.ara.service.CycleLastExecutionsService;
 import com.decathlon.ara.service.ErrorService;
 import com.decathlon.ara.service.ExecutionFilesProcessorService;
 import com.decathlon.ara.service.ProblemDenormalizationService;
+import com.decathlon.ara.service.RunHandlingCountsService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -45,6 +52,10 @@ public class ExecutionIndexerService {
 
     private final ExecutionRepository executionRepository;
 
+    private final ExecutionBulkInsertRepository executionBulkInsertRepository;
+
+    private final ErrorRepository errorRepository;
+
     private final ExecutionFilesProcessorService executionFilesProcessorService;
 
     private final ErrorService errorService;
@@ -53,18 +64,31 @@ public class ExecutionIndexerService {
 
     private final ProblemDenormalizationService problemDenormalizationService;
 
+    private final RunHandlingCountsService runHandlingCountsService;
+
+    private final CycleLastExecutionsService cycleLastExecutionsService;
+
     private final TransactionAppenderUtil transactionAppenderUtil;
 
+    private final ClusterCoordinator clusterCoordinator;
+
     public ExecutionIndexerService(ExecutionRepository executionRepository,
+            ExecutionBulkInsertRepository executionBulkInsertRepository, ErrorRepository errorRepository,
             ExecutionFilesProcessorService executionFilesProcessorService, ErrorService errorService,
             QualityEmailService qualityEmailService, ProblemDenormalizationService problemDenormalizationService,
-            TransactionAppenderUtil transactionAppenderUtil) {
+            RunHandlingCountsService runHandlingCountsService, CycleLastExecutionsService cycleLastExecutionsService,
+            TransactionAppenderUtil transactionAppenderUtil, ClusterCoordinator clusterCoordinator) {
         this.executionRepository = executionRepository;
+        this.executionBulkInsertRepository = executionBulkInsertRepository;
+        this.errorRepository = errorRepository;
         this.executionFilesProcessorService = executionFilesProcessorService;
         this.errorService = errorService;
         this.qualityEmailService = qualityEmailService;
         this.problemDenormalizationService = problemDenormalizationService;
+        this.runHandlingCountsService = runHandlingCountsService;
+        this.cycleLastExecutionsService = cycleLastExecutionsService;
         this.transactionAppenderUtil = transactionAppenderUtil;
+        this.clusterCoordinator = clusterCoordinator;
     }
 
     /**
@@ -97,6 +121,12 @@ public class ExecutionIndexerService {
         String cycle = cycleDefinition.getName();
         final Long projectId = cycleDefinition.getProjectId();
 
+        final String lease = plannedIndexation.getLease();
+        if (lease != null) {
+            // If this instance stalled long enough, another one may have taken the lease over to index the same cycle
+            transactionAppenderUtil.doBeforeCommit(() -> checkLease(lease));
+        }
+
         String link = rawExecutionFolder.getAbsolutePath() + File.separator;
         LOG.info("EXECUTION|Began execution indexing {}/{} for link {}", branch, cycle, link);
 
@@ -111,18 +141,41 @@ public class ExecutionIndexerService {
             return;
         }
 
-        final Execution savedExecution = executionRepository.save(processedExecution.get());
+        // Extracted once here rather than from the name each time the coverage or the teams of a scenario are displayed
+        processedExecution.get().getRuns().stream()
+                .flatMap(run -> run.getExecutedScenarios().stream())
+                .forEach(executedScenario -> executedScenario.setFunctionalityIds(
+                        ScenarioExtractorUtil.formatFunctionalityIds(executedScenario.getName())));
+
+        // Merging a re-indexed execution removes its previous errors: their problems lose occurrences
+        final Set<Problem> updatedProblems = errorRepository.getErrorsProblems(existingErrorIds).values().stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toCollection(HashSet::new));
+
+        // New executions (the vast majority) are inserted in JDBC batches; re-indexed ones are merged
+        final Execution savedExecution = processedExecution.get().getId() == null
+                ? executionBulkInsertRepository.insert(processedExecution.get())
+                : executionRepository.save(processedExecution.get());
+        cycleLastExecutionsService.evict(projectId.longValue());
 
         List<Long> newErrorIds = new ArrayList<>(getErrorIds(Optional.of(savedExecution)));
 
         newErrorIds.removeAll(existingErrorIds);
         if (!newErrorIds.isEmpty()) {
-            final Set<Problem> updatedProblems = errorService.autoAssignProblemsToNewErrors(projectId, newErrorIds);
+            updatedProblems.addAll(errorService.autoAssignProblemsToNewErrors(projectId, newErrorIds));
+        }
+        if (!updatedProblems.isEmpty()) {
             problemDenormalizationService.updateFirstAndLastSeenDateTimes(updatedProblems);
+            problemDenormalizationService.updateAggregates(updatedProblems);
         }
 
+        // Now that errors have their problems, materialize the handling counts displayed by the execution history
+        runHandlingCountsService.refreshCounts(savedExecution.getRuns().stream()
+                .map(Run::getId)
+                .collect(Collectors.toSet()));
+
         if (JobStatus.DONE.equals(savedExecution.getStatus())) {
-            transactionAppenderUtil.doAfterCommit(() -> safelySendQualityEmail(savedExecution));
+            transactionAppenderUtil.doAfterCommit(() -> safelyQueueQualityEmail(savedExecution));
         }
 
         String url = processedExecution.get().getJobUrl();
@@ -130,14 +183,25 @@ public class ExecutionIndexerService {
     }
 
     /**
-     * @param execution send the quality email for this execution without throwing any exception (errors are logged):
-     *                  an email failure is not a problem for the remaining of business logic
+     * @param lease the lease that must still be held by this instance to commit the indexation
+     * @throws IllegalStateException if the lease was lost, to roll back the indexation
+     */
+    private void checkLease(String lease) {
+        if (!clusterCoordinator.isHeld(lease)) {
+            throw new IllegalStateException("Lost the lease " + lease + " while indexing: the indexation is rolled back");
+        }
+    }
+
+    /**
+     * @param execution queue the quality email for this execution without throwing any exception (errors are logged):
+     *                  an email failure is not a problem for the remaining of business logic, and the email is sent
+     *                  later by {@link QualityEmailService#sendQueuedQualityEmails()}, away from the indexing thread
      */
-    private void safelySendQualityEmail(Execution execution) {
+    private void safelyQueueQualityEmail(Execution execution) {
         try {
-            qualityEmailService.sendQualityEmail(execution.getCycleDefinition().getProjectId(), execution.getId());
+            qualityEmailService.queueQualityEmail(execution.getCycleDefinition().getProjectId(), execution.getId());
         } catch (Exception e) {
-            LOG.warn("EXECUTION|Uncaught exception while sending quality email (continuing normally)", e);
+            LOG.warn("EXECUTION|Uncaught exception while queuing quality email (continuing normally)", e);
         }
     }
 
@@ -0,0 +1,442 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.ci.service;
+
+import java.io.File;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import com.decathlon.ara.ci.bean.Build;
+import com.decathlon.ara.ci.bean.PlannedIndexation;
+import com.decathlon.ara.cluster.ClusterCoordinator;
+import com.decathlon.ara.configuration.AraConfiguration;
+import com.decathlon.ara.domain.CycleDefinition;
+import com.decathlon.ara.repository.CycleDefinitionRepository;
+import com.decathlon.ara.repository.custom.IndexingQueueRepository;
+import com.decathlon.ara.repository.custom.IndexingQueueRepository.QueuedExecution;
+import com.decathlon.ara.service.FileProcessorService;
+import com.decathlon.ara.service.SettingService;
+import com.decathlon.ara.service.support.Settings;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Index the uploaded execution directories on a bounded pool of workers.<br>
+ * Planned indexations are queued by priority: executions whose job is finished go before re-crawls of running jobs,
+ * then in submission order. Two indexations of the same cycle definition never run at the same time: the second one
+ * waits in the queue while other cycle definitions can still be indexed.<br>
+ * When the cluster is distributed, the queue is shared in database by all ARA instances: each instance indexes the
+ * queued executions while it has free workers and can get the lease of their cycle definition, so two instances never
+ * index the same cycle definition at the same time either. If an instance dies while indexing, its lease expires and
+ * another instance indexes the execution again. An indexation is only committed if its instance still holds the lease.
+ */
+@Service
+public class ExecutionIndexingEngine {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ExecutionIndexingEngine.class);
+
+    private static final int DEFAULT_POOL_SIZE = 2;
+
+    /**
+     * Executions still in the shared queue after this delay are abandoned (eg. their directory is on no instance).
+     */
+    private static final long ABANDONED_AFTER_MILLIS = 24 * 60 * 60_000L;
+
+    private final ExecutionIndexerService executionIndexerService;
+
+    private final SettingService settingService;
+
+    private final FileProcessorService fileProcessorService;
+
+    private final ClusterCoordinator clusterCoordinator;
+
+    private final IndexingQueueRepository indexingQueueRepository;
+
+    private final CycleDefinitionRepository cycleDefinitionRepository;
+
+    private final int poolSize;
+
+    private final ExecutorService workers;
+
+    private final TreeSet<QueuedIndexation> queue = new TreeSet<>();
+
+    private final Set<Long> busyCycleDefinitionIds = new HashSet<>();
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private int activeWorkers;
+
+    /**
+     * In the shared queue, the completion callbacks of the executions submitted to this instance, by queue ID: they are
+     * called by this instance, whichever instance indexes the executions.
+     */
+    private final Map<Long, Runnable> pendingCompletions = new ConcurrentHashMap<>();
+
+    /**
+     * The number of queued indexations: in the queue of this instance, or in the shared queue (indexations running on
+     * any instance included) when the cluster is distributed.
+     */
+    private final AtomicInteger queueSizeGauge;
+
+    private final AtomicInteger activeWorkersGauge;
+
+    private final Timer waitTimer;
+
+    private final Timer indexingTimer;
+
+    private final Counter failureCounter;
+
+    public ExecutionIndexingEngine(ExecutionIndexerService executionIndexerService, SettingService settingService,
+            FileProcessorService fileProcessorService, ClusterCoordinator clusterCoordinator,
+            IndexingQueueRepository indexingQueueRepository, CycleDefinitionRepository cycleDefinitionRepository,
+            AraConfiguration araConfiguration, MeterRegistry meterRegistry) {
+        this.executionIndexerService = executionIndexerService;
+        this.settingService = settingService;
+        this.fileProcessorService = fileProcessorService;
+        this.clusterCoordinator = clusterCoordinator;
+        this.indexingQueueRepository = indexingQueueRepository;
+        this.cycleDefinitionRepository = cycleDefinitionRepository;
+
+        Integer configuredPoolSize = araConfiguration.getIndexingPoolSize();
+        this.poolSize = configuredPoolSize == null || configuredPoolSize.intValue() < 1 ? DEFAULT_POOL_SIZE : configuredPoolSize.intValue();
+        this.workers = Executors.newFixedThreadPool(poolSize, new CustomizableThreadFactory("Indexing-"));
+
+        this.queueSizeGauge = meterRegistry.gauge("ara.indexing.queue.size", new AtomicInteger());
+        this.activeWorkersGauge = meterRegistry.gauge("ara.indexing.workers.active", new AtomicInteger());
+        this.waitTimer = meterRegistry.timer("ara.indexing.queue.wait");
+        this.indexingTimer = meterRegistry.timer("ara.indexing.duration");
+        this.failureCounter = meterRegistry.counter("ara.indexing.failures");
+    }
+
+    /**
+     * Queue an execution directory to be indexed as soon as a worker is available and no other indexation of the same
+     * cycle definition is running.
+     *
+     * @param plannedIndexation the execution directory and its cycle definition
+     * @param onCompletion      called once the indexation is over, whether it succeeded or not (eg. to clean the directory)
+     */
+    public void submit(PlannedIndexation plannedIndexation, Runnable onCompletion) {
+        final boolean finished = isJobFinished(plannedIndexation);
+        final CycleDefinition cycleDefinition = plannedIndexation.getCycleDefinition();
+        if (clusterCoordinator.isDistributed() && cycleDefinition != null) {
+            final Long queueId = Long.valueOf(indexingQueueRepository.add(cycleDefinition.getId().longValue(),
+                    plannedIndexation.getExecutionFolder().getAbsolutePath(), finished));
+            pendingCompletions.put(queueId, onCompletion);
+            LOG.info("EXECUTION|Queued the indexation of {} for all instances", plannedIndexation.getExecutionFolder().getPath());
+            pollSharedQueue();
+            return;
+        }
+        final QueuedIndexation queuedIndexation = new QueuedIndexation(plannedIndexation, onCompletion, finished, sequence.getAndIncrement());
+        synchronized (this) {
+            queue.add(queuedIndexation);
+            LOG.info("EXECUTION|Queued the indexation of {} ({} waiting)", plannedIndexation.getExecutionFolder().getPath(), Integer.valueOf(queue.size()));
+            dispatch();
+        }
+    }
+
+    /**
+     * @return the number of planned indexations waiting for a worker
+     */
+    public synchronized int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * @return the number of indexations currently running
+     */
+    public synchronized int getActiveWorkers() {
+        return activeWorkers;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    /**
+     * When the cluster is distributed, call the completion callbacks of the executions indexed by other instances, and
+     * start indexing the next queued executions on the free workers of this instance (needs the scheduling to be
+     * enabled: otherwise, executions are only indexed by the instance receiving them).
+     */
+    @Scheduled(fixedDelayString = "${ara.indexingQueuePollingDelayInMilliseconds:5000}")
+    public void pollSharedQueue() {
+        if (!clusterCoordinator.isDistributed()) {
+            return;
+        }
+        try {
+            completeIndexationsOfOtherInstances();
+            final List<QueuedExecution> queuedExecutions = indexingQueueRepository.findAll();
+            queueSizeGauge.set(queuedExecutions.size());
+            for (QueuedExecution queuedExecution : queuedExecutions) {
+                if (getActiveWorkers() >= poolSize) {
+                    break;
+                }
+                tryStart(queuedExecution);
+            }
+            final int abandoned = indexingQueueRepository.deleteQueuedBefore(new Date(System.currentTimeMillis() - ABANDONED_AFTER_MILLIS));
+            if (abandoned > 0) {
+                LOG.warn("EXECUTION|Removed {} abandoned executions from the shared indexing queue", Integer.valueOf(abandoned));
+            }
+        } catch (DataAccessException e) {
+            LOG.warn("EXECUTION|Cannot read the shared indexing queue: will retry at next poll", e);
+        }
+    }
+
+    private void completeIndexationsOfOtherInstances() {
+        if (pendingCompletions.isEmpty()) {
+            return;
+        }
+        final List<Long> pendingIds = List.copyOf(pendingCompletions.keySet());
+        final Set<Long> queuedIds = indexingQueueRepository.findQueuedIds(pendingIds);
+        for (Long pendingId : pendingIds) {
+            if (!queuedIds.contains(pendingId)) {
+                complete(pendingId);
+            }
+        }
+    }
+
+    /**
+     * Start indexing a queued execution if this instance has a free worker, can read the execution directory, and gets
+     * the lease of its cycle definition.
+     */
+    private void tryStart(QueuedExecution queuedExecution) {
+        final Long cycleDefinitionId = Long.valueOf(queuedExecution.cycleDefinitionId());
+        final File executionFolder = new File(queuedExecution.executionFolder());
+        if (!executionFolder.isDirectory()) {
+            return; // Not shared with this instance
+        }
+        synchronized (this) {
+            if (activeWorkers >= poolSize || !busyCycleDefinitionIds.add(cycleDefinitionId)) {
+                return;
+            }
+            activeWorkers++;
+        }
+        boolean started = false;
+        try {
+            if (clusterCoordinator.tryAcquire(lease(cycleDefinitionId))) {
+                // Another instance may have indexed it since the queue was read, while holding the lease
+                final boolean stillQueued = !indexingQueueRepository.findQueuedIds(List.of(Long.valueOf(queuedExecution.id()))).isEmpty();
+                final Optional<CycleDefinition> cycleDefinition = stillQueued ? cycleDefinitionRepository.findById(cycleDefinitionId) : Optional.empty();
+                if (cycleDefinition.isPresent()) {
+                    final Long queueId = Long.valueOf(queuedExecution.id());
+                    final QueuedIndexation queuedIndexation = new QueuedIndexation(new PlannedIndexation(cycleDefinition.get(), executionFolder, lease(cycleDefinitionId)),
+                            () -> complete(queueId), queuedExecution.finished(), sequence.getAndIncrement(), queueId);
+                    workers.execute(() -> run(queuedIndexation));
+                    started = true;
+                } else {
+                    if (stillQueued) {
+                        LOG.warn("EXECUTION|Removed the execution {} from the shared indexing queue: its cycle definition was deleted", executionFolder.getPath());
+                        indexingQueueRepository.delete(queuedExecution.id());
+                    }
+                    clusterCoordinator.release(lease(cycleDefinitionId));
+                }
+            }
+        } finally {
+            if (!started) {
+                synchronized (this) {
+                    busyCycleDefinitionIds.remove(cycleDefinitionId);
+                    activeWorkers--;
+                }
+            }
+        }
+        activeWorkersGauge.set(getActiveWorkers());
+    }
+
+    private void complete(Long queueId) {
+        final Runnable onCompletion = pendingCompletions.remove(queueId);
+        if (onCompletion != null) {
+            try {
+                onCompletion.run();
+            } catch (Exception e) {
+                LOG.warn("EXECUTION|A problem occurred after indexing the queued execution {}", queueId, e);
+            }
+        }
+    }
+
+    private static String lease(Long cycleDefinitionId) {
+        return "indexing-cycle-definition-" + cycleDefinitionId;
+    }
+
+    /**
+     * Start as many queued indexations as there are free workers, skipping the ones whose cycle definition is already
+     * being indexed. Must be called while holding the lock on this engine.
+     */
+    private void dispatch() {
+        final Iterator<QueuedIndexation> iterator = queue.iterator();
+        while (activeWorkers < poolSize && iterator.hasNext()) {
+            final QueuedIndexation next = iterator.next();
+            if (busyCycleDefinitionIds.add(next.cycleDefinitionId)) {
+                iterator.remove();
+                activeWorkers++;
+                workers.execute(() -> run(next));
+            }
+        }
+        if (!clusterCoordinator.isDistributed()) {
+            // Otherwise, the shared queue is measured when polled
+            queueSizeGauge.set(queue.size());
+        }
+        activeWorkersGauge.set(activeWorkers);
+    }
+
+    private void run(QueuedIndexation queuedIndexation) {
+        final File executionFolder = queuedIndexation.plannedIndexation.getExecutionFolder();
+        waitTimer.record(System.nanoTime() - queuedIndexation.queuedAt, TimeUnit.NANOSECONDS);
+        try {
+            indexingTimer.record(() -> executionIndexerService.indexExecution(queuedIndexation.plannedIndexation));
+        } catch (Exception e) {
+            failureCounter.increment();
+            LOG.warn("EXECUTION|A problem occurred while indexing this execution [{}]", executionFolder.getPath(), e);
+        } finally {
+            if (queuedIndexation.queueId != null) {
+                dequeue(queuedIndexation);
+            }
+            try {
+                queuedIndexation.onCompletion.run();
+            } catch (Exception e) {
+                LOG.warn("EXECUTION|A problem occurred after indexing this execution [{}]", executionFolder.getPath(), e);
+            }
+            release(queuedIndexation);
+        }
+    }
+
+    private void dequeue(QueuedIndexation queuedIndexation) {
+        try {
+            if (!clusterCoordinator.isHeld(lease(queuedIndexation.cycleDefinitionId))) {
+                // The indexation was rolled back: the execution is indexed again by the next holder of the lease
+                LOG.warn("EXECUTION|Lost the lease of cycle definition {} while indexing: the execution stays in the shared queue [{}]",
+                        queuedIndexation.cycleDefinitionId, queuedIndexation.plannedIndexation.getExecutionFolder().getPath());
+                return;
+            }
+            indexingQueueRepository.delete(queuedIndexation.queueId.longValue());
+        } catch (DataAccessException e) {
+            LOG.warn("EXECUTION|Cannot remove this indexed execution from the shared queue: it will be indexed again [{}]",
+                    queuedIndexation.plannedIndexation.getExecutionFolder().getPath(), e);
+        }
+    }
+
+    private void release(QueuedIndexation queuedIndexation) {
+        if (queuedIndexation.queueId != null) {
+            try {
+                clusterCoordinator.release(lease(queuedIndexation.cycleDefinitionId));
+            } catch (DataAccessException e) {
+                LOG.warn("EXECUTION|Cannot release the lease of cycle definition {}: it will expire", queuedIndexation.cycleDefinitionId, e);
+            }
+        }
+        synchronized (this) {
+            busyCycleDefinitionIds.remove(queuedIndexation.cycleDefinitionId);
+            activeWorkers--;
+            dispatch();
+        }
+        if (queuedIndexation.queueId != null) {
+            pollSharedQueue();
+        }
+    }
+
+    /**
+     * @param plannedIndexation the planned indexation to inspect
+     * @return true if the build information file of the execution tells the job is not running anymore
+     */
+    private boolean isJobFinished(PlannedIndexation plannedIndexation) {
+        final CycleDefinition cycleDefinition = plannedIndexation.getCycleDefinition();
+        if (cycleDefinition == null || plannedIndexation.getExecutionFolder() == null) {
+            return false;
+        }
+        final String buildInformationFilePath = settingService.get(cycleDefinition.getProjectId(), Settings.EXECUTION_INDEXER_FILE_BUILD_INFORMATION_PATH);
+        return fileProcessorService.getMappedObjectFromFile(plannedIndexation.getExecutionFolder(), buildInformationFilePath, Build.class)
+                .map(build -> !build.isBuilding() && build.getResult() != null)
+                .orElse(Boolean.FALSE)
+                .booleanValue();
+    }
+
+    private static class QueuedIndexation implements Comparable<QueuedIndexation> {
+
+        private final PlannedIndexation plannedIndexation;
+
+        private final Runnable onCompletion;
+
+        private final boolean finished;
+
+        private final long order;
+
+        private final Long cycleDefinitionId;
+
+        /**
+         * The ID of the execution in the shared queue, or null if queued on this instance only.
+         */
+        private final Long queueId;
+
+        private final long queuedAt = System.nanoTime();
+
+        QueuedIndexation(PlannedIndexation plannedIndexation, Runnable onCompletion, boolean finished, long order) {
+            this(plannedIndexation, onCompletion, finished, order, null);
+        }
+
+        QueuedIndexation(PlannedIndexation plannedIndexation, Runnable onCompletion, boolean finished, long order, Long queueId) {
+            this.plannedIndexation = plannedIndexation;
+            this.onCompletion = onCompletion;
+            this.finished = finished;
+            this.order = order;
+            this.queueId = queueId;
+            final CycleDefinition cycleDefinition = plannedIndexation.getCycleDefinition();
+            this.cycleDefinitionId = cycleDefinition == null ? null : cycleDefinition.getId();
+        }
+
+        @Override
+        public int compareTo(QueuedIndexation other) {
+            if (finished != other.finished) {
+                return finished ? -1 : 1;
+            }
+            return Long.compare(order, other.order);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof QueuedIndexation other && order == other.order;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(order);
+        }
+
+    }
+
+}
@@ -17,12 +17,15 @@
 
 package com.decathlon.ara.ci.service;
 
+import com.decathlon.ara.cluster.ClusterCoordinator;
 import com.decathlon.ara.configuration.AraConfiguration;
 import com.decathlon.ara.domain.Project;
 import com.decathlon.ara.domain.Team;
 import com.decathlon.ara.domain.enumeration.QualityStatus;
 import com.decathlon.ara.repository.ProjectRepository;
 import com.decathlon.ara.repository.TeamRepository;
+import com.decathlon.ara.repository.custom.QualityEmailOutboxRepository;
+import com.decathlon.ara.repository.custom.QualityEmailOutboxRepository.QueuedEmail;
 import com.decathlon.ara.service.EmailService;
 import com.decathlon.ara.service.ExecutionHistoryService;
 import com.decathlon.ara.service.SettingService;
@@ -38,13 +41,24 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.mail.MailException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 
 @Service
 @Transactional
@@ -52,6 +66,19 @@ public class QualityEmailService {
 
     private static final Logger LOG = LoggerFactory.getLogger(QualityEmailService.class);
 
+    private static final String TEMPLATE_NAME = "execution-quality-status";
+
+    private static final int DEFAULT_BATCH_SIZE = 20;
+
+    private static final int DEFAULT_MAX_ATTEMPTS = 5;
+
+    /**
+     * The delay before the second attempt to send a queued email: it doubles after each failed attempt.
+     */
+    private static final long FIRST_RETRY_DELAY_IN_MILLISECONDS = 60_000;
+
+    private static final long DEFAULT_POLLING_DELAY_IN_MILLISECONDS = 10_000;
+
     private final AraConfiguration araConfiguration;
 
     private final ExecutionHistoryService executionHistoryService;
@@ -64,19 +91,177 @@ public class QualityEmailService {
 
     private final SettingService settingService;
 
+    private final QualityEmailOutboxRepository qualityEmailOutboxRepository;
+
+    private final ClusterCoordinator clusterCoordinator;
+
+    private final ScheduledExecutorService outboxExecutor =
+            Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("QualityEmailOutbox-"));
+
+    /**
+     * The IDs of the emails sent but not removed from the outbox yet (eg. the database was unreachable): they must not be
+     * sent again.
+     */
+    private final Set<Long> sentEmailIds = ConcurrentHashMap.newKeySet();
+
     public QualityEmailService(AraConfiguration araConfiguration, ExecutionHistoryService executionHistoryService,
             TeamRepository teamRepository, EmailService emailService, ProjectRepository projectRepository,
-            SettingService settingService) {
+            SettingService settingService, QualityEmailOutboxRepository qualityEmailOutboxRepository,
+            ClusterCoordinator clusterCoordinator) {
         this.araConfiguration = araConfiguration;
         this.executionHistoryService = executionHistoryService;
         this.teamRepository = teamRepository;
         this.emailService = emailService;
         this.projectRepository = projectRepository;
         this.settingService = settingService;
+        this.qualityEmailOutboxRepository = qualityEmailOutboxRepository;
+        this.clusterCoordinator = clusterCoordinator;
     }
 
     @Transactional(readOnly = true, noRollbackFor = Exception.class)
     public void sendQualityEmail(long projectId, long executionId) throws NotFoundException {
+        Optional<QualityEmail> email = getQualityEmail(projectId, executionId);
+        if (email.isPresent()) {
+            emailService.sendHtmlMessage(
+                    email.get().from(),
+                    email.get().to(),
+                    email.get().subject(),
+                    TEMPLATE_NAME,
+                    email.get().variables(),
+                    getInlineResources());
+        }
+    }
+
+    /**
+     * Snapshot the quality email of an execution in the outbox, to be sent by {@link #sendQueuedQualityEmails()}: the
+     * history of the execution is computed and the email rendered right away, but the mail server is not contacted.
+     * Nothing is queued if no mail server is configured.
+     *
+     * @param projectId   the ID of the project of the execution
+     * @param executionId the ID of the indexed execution
+     * @throws NotFoundException if the execution does not exist
+     */
+    @Transactional(readOnly = true, noRollbackFor = Exception.class)
+    public void queueQualityEmail(long projectId, long executionId) throws NotFoundException {
+        if (!emailService.isEnabled()) {
+            LOG.debug("EMAIL|No mail server configured: the quality email of execution {} is not sent", Long.valueOf(executionId));
+            return;
+        }
+        Optional<QualityEmail> email = getQualityEmail(projectId, executionId);
+        if (email.isPresent()) {
+            qualityEmailOutboxRepository.add(
+                    projectId,
+                    executionId,
+                    email.get().from(),
+                    email.get().to(),
+                    email.get().subject(),
+                    emailService.renderHtmlMessage(TEMPLATE_NAME, email.get().variables()));
+        }
+    }
+
+    /**
+     * Start sending the queued emails regularly, on a thread of their own: a slow mail server must not delay the other
+     * scheduled jobs.
+     */
+    @PostConstruct
+    public void startSendingQueuedQualityEmails() {
+        final long delay = getPositiveOrDefault(araConfiguration.getQualityEmailOutboxPollingDelayInMilliseconds(), DEFAULT_POLLING_DELAY_IN_MILLISECONDS);
+        outboxExecutor.scheduleWithFixedDelay(this::safelySendQueuedQualityEmails, delay, delay, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        outboxExecutor.shutdownNow();
+    }
+
+    private void safelySendQueuedQualityEmails() {
+        try {
+            sendQueuedQualityEmails();
+        } catch (RuntimeException e) {
+            // Never let an exception through: it would stop sending the queued emails
+            LOG.warn("EMAIL|Cannot send the queued quality emails: will retry at next poll", e);
+        }
+    }
+
+    /**
+     * Send the emails of the outbox, by batches, until there is no more email to send right now.<br>
+     * An email failing to be sent is attempted again later, with an increasing delay, and abandoned after too many
+     * attempts.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void sendQueuedQualityEmails() {
+        if (!clusterCoordinator.isLeader()) {
+            LOG.debug("EMAIL|Queued quality emails are sent by the leader instance");
+            return;
+        }
+        retryDeletingSentEmails();
+        final int batchSize = getPositiveOrDefault(araConfiguration.getQualityEmailBatchSize(), DEFAULT_BATCH_SIZE);
+        Map<String, Resource> inlineResources = null;
+        List<QueuedEmail> emails;
+        int processedCount;
+        do {
+            emails = qualityEmailOutboxRepository.findToSend(new Date(), batchSize);
+            if (inlineResources == null && !emails.isEmpty()) {
+                inlineResources = getInlineResources();
+            }
+            processedCount = 0;
+            for (QueuedEmail email : emails) {
+                if (!sentEmailIds.contains(Long.valueOf(email.id()))) {
+                    sendQueuedQualityEmail(email, inlineResources);
+                    processedCount++;
+                }
+            }
+            // A batch of sent emails that cannot be deleted yet would be read again and again
+        } while (emails.size() == batchSize && processedCount > 0);
+    }
+
+    private void sendQueuedQualityEmail(QueuedEmail email, Map<String, Resource> inlineResources) {
+        try {
+            emailService.sendHtmlContent(email.sender(), email.recipients(), email.subject(), email.content(), inlineResources);
+        } catch (MailException e) {
+            final int attempts = email.attempts() + 1;
+            final int maxAttempts = getPositiveOrDefault(araConfiguration.getQualityEmailMaxAttempts(), DEFAULT_MAX_ATTEMPTS);
+            if (attempts >= maxAttempts) {
+                LOG.error("EMAIL|Abandoning the quality email of execution {} after {} failed attempts", Long.valueOf(email.executionId()), Integer.valueOf(attempts), e);
+                qualityEmailOutboxRepository.delete(email.id());
+            } else {
+                final long delay = FIRST_RETRY_DELAY_IN_MILLISECONDS << Math.min(attempts - 1, 16);
+                LOG.warn("EMAIL|Cannot send the quality email of execution {} (attempt {}): next attempt in {} seconds", Long.valueOf(email.executionId()), Integer.valueOf(attempts), Long.valueOf(delay / 1000), e);
+                qualityEmailOutboxRepository.postpone(email.id(), attempts, new Date(System.currentTimeMillis() + delay));
+            }
+            return;
+        }
+        deleteSentEmail(email.id());
+    }
+
+    /**
+     * Remove a sent email from the outbox. If it cannot be removed right now, it is remembered as sent, so that it is
+     * not sent again, and removed at the next polls.
+     */
+    private void deleteSentEmail(long id) {
+        try {
+            qualityEmailOutboxRepository.delete(id);
+            sentEmailIds.remove(Long.valueOf(id));
+        } catch (DataAccessException e) {
+            if (sentEmailIds.add(Long.valueOf(id))) {
+                LOG.warn("EMAIL|Cannot remove the sent quality email {} from the outbox: will retry at next poll", Long.valueOf(id), e);
+            }
+        }
+    }
+
+    private void retryDeletingSentEmails() {
+        for (Long id : List.copyOf(sentEmailIds)) {
+            deleteSentEmail(id.longValue());
+        }
+    }
+
+    /**
+     * @param projectId   the ID of the project of the execution
+     * @param executionId the ID of the execution
+     * @return the quality email of the execution, or empty if the sender or the recipient is not configured
+     * @throws NotFoundException if the execution does not exist
+     */
+    private Optional<QualityEmail> getQualityEmail(long projectId, long executionId) throws NotFoundException {
         ExecutionHistoryPointDTO execution = executionHistoryService.getExecution(projectId, executionId);
 
         final String from = settingService.get(projectId, Settings.EMAIL_FROM);
@@ -105,17 +290,23 @@ public class QualityEmailService {
             variables.put("executionUrl", url);
             variables.put("projectName", project.getName());
 
-            Map<String, Resource> inlineResources = new HashMap<>();
-            addInlineResource(inlineResources, "favicon.png", "templates/mail/html/favicon.png");
-
-            emailService.sendHtmlMessage(
-                    from,
-                    to.get(),
-                    getSubject(project.getName(), execution),
-                    "execution-quality-status",
-                    variables,
-                    inlineResources);
+            return Optional.of(new QualityEmail(from, to.get(), getSubject(project.getName(), execution), variables));
         }
+        return Optional.empty();
+    }
+
+    private Map<String, Resource> getInlineResources() {
+        Map<String, Resource> inlineResources = new HashMap<>();
+        addInlineResource(inlineResources, "favicon.png", "templates/mail/html/favicon.png");
+        return inlineResources;
+    }
+
+    private static int getPositiveOrDefault(Integer value, int defaultValue) {
+        return value == null || value.intValue() <= 0 ? defaultValue : value.intValue();
+    }
+
+    private static long getPositiveOrDefault(Long value, long defaultValue) {
+        return value == null || value.longValue() <= 0 ? defaultValue : value.longValue();
     }
 
     void addInlineResource(Map<String, Resource> inlineResources, String name, String path) {
@@ -235,4 +426,13 @@ public class QualityEmailService {
         return globalRunQualities;
     }
 
+    /**
+     * @param from      the email address of the sender
+     * @param to        the comma-separated email addresses of the recipients
+     * @param subject   the subject of the email
+     * @param variables the variables of the template of the email
+     */
+    private record QualityEmail(String from, String to, String subject, Map<String, Object> variables) {
+    }
+
 }
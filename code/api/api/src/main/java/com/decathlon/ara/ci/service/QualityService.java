@@ -19,6 +19,8 @@ package com.decathlon.ara.ci.service;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -91,11 +93,21 @@ public class QualityService {
 
         List<QualitySeverityDTO> qualitySeverities = new ArrayList<>();
 
+        // Count the scenarios of all severities at once, instead of iterating over all scenarios once per severity
+        final List<Severity> allSeverities = findAllSeverities(execution);
+        final Set<Run> runsToIncludeInQuality = getRunsToIncludeInQuality(execution);
+        final SeverityScenarioCounts counts = new SeverityScenarioCounts(allSeverities);
+        for (Run run : runsToIncludeInQuality) {
+            for (ExecutedScenario executedScenario : run.getExecutedScenarios()) {
+                counts.add(executedScenario);
+            }
+        }
+
         // Compute quality for each active severity
-        for (Severity severity : getActiveSeverities(execution)) {
+        for (Severity severity : getActiveSeverities(allSeverities, runsToIncludeInQuality)) {
             final QualityThreshold threshold = (qualityThresholds == null ? null : qualityThresholds.get(severity.getCode()));
 
-            QualitySeverityDTO qualitySeverity = computeQualityOfSeverity(execution, severity, threshold);
+            QualitySeverityDTO qualitySeverity = toQualitySeverity(severity, counts.of(severity), threshold);
             qualitySeverities.add(qualitySeverity);
 
             if (threshold == null) {
@@ -110,7 +122,7 @@ public class QualityService {
         }
 
         // The quality of all scenarios included
-        QualitySeverityDTO globalQualitySeverity = computeQualityOfSeverity(execution, Severity.ALL, null);
+        QualitySeverityDTO globalQualitySeverity = toQualitySeverity(Severity.ALL, counts.of(Severity.ALL), null);
         globalQualitySeverity.setStatus(globalQualityStatus);
         qualitySeverities.add(globalQualitySeverity);
 
@@ -135,22 +147,31 @@ public class QualityService {
      * @return the sorted set of active severities (in Run#severityTags, could be equal to "all" or empty to mean "all") for all active runs of this execution, depending on
      */
     SortedSet<Severity> getActiveSeverities(Execution execution) {
-        final List<Severity> allSeverities = severityRepository.findAllByProjectIdOrderByPosition(execution.getCycleDefinition().getProjectId());
+        return getActiveSeverities(findAllSeverities(execution), getRunsToIncludeInQuality(execution));
+    }
 
+    private SortedSet<Severity> getActiveSeverities(List<Severity> allSeverities, Set<Run> runsToIncludeInQuality) {
         SortedSet<Severity> activeSeverities = new TreeSet<>(new Severity.SeverityPositionComparator());
-        final Set<Run> runsToIncludeInQuality = getRunsToIncludeInQuality(execution);
         if (runsToIncludeInQuality.isEmpty()) {
             activeSeverities.addAll(allSeverities);
         }
+        Map<String, Severity> severitiesByCode = null;
         for (Run run : runsToIncludeInQuality) {
             if (StringUtils.isEmpty(run.getSeverityTags()) || "all".equals(run.getSeverityTags())) {
                 activeSeverities.addAll(allSeverities);
             } else {
+                if (severitiesByCode == null) {
+                    severitiesByCode = new HashMap<>();
+                    for (Severity severity : allSeverities) {
+                        severitiesByCode.putIfAbsent(severity.getCode(), severity);
+                    }
+                }
                 for (final String severityCode : run.getSeverityTags().split(Run.SEVERITY_TAGS_SEPARATOR)) {
-                    activeSeverities.add(allSeverities.stream()
-                            .filter(s -> severityCode.equals(s.getCode()))
-                            .findFirst()
-                            .orElseThrow(() -> new IllegalArgumentException("Cannot find severity \"" + severityCode + "\" in " + allSeverities)));
+                    Severity severity = severitiesByCode.get(severityCode);
+                    if (severity == null) {
+                        throw new IllegalArgumentException("Cannot find severity \"" + severityCode + "\" in " + allSeverities);
+                    }
+                    activeSeverities.add(severity);
                 }
             }
         }
@@ -158,6 +179,10 @@ public class QualityService {
         return activeSeverities;
     }
 
+    private List<Severity> findAllSeverities(Execution execution) {
+        return severityRepository.findAllByProjectIdOrderByPosition(execution.getCycleDefinition().getProjectId());
+    }
+
     /**
      * @param execution with a list of runs, some may have includeInQuality, others not
      * @param severity  the severity for which to count scenarios, compute a percentage and a quality status
@@ -165,7 +190,16 @@ public class QualityService {
      * @return a fully initialized QualitySeverityDTO (but with null status if threshold is null)
      */
     QualitySeverityDTO computeQualityOfSeverity(Execution execution, Severity severity, QualityThreshold threshold) {
-        ScenarioCountDTO scenarioCounts = countScenariosOfSeverity(getRunsToIncludeInQuality(execution), severity);
+        return toQualitySeverity(severity, countScenariosOfSeverity(getRunsToIncludeInQuality(execution), severity), threshold);
+    }
+
+    /**
+     * @param severity       the severity of the counted scenarios
+     * @param scenarioCounts the counted scenarios of this severity
+     * @param threshold      the thresholds to use to compute the percentage and the quality status
+     * @return a fully initialized QualitySeverityDTO (but with null status if threshold is null)
+     */
+    private QualitySeverityDTO toQualitySeverity(Severity severity, ScenarioCountDTO scenarioCounts, QualityThreshold threshold) {
         int percent = getQualityPercentage(scenarioCounts);
         QualityStatus severityQualityStatus = (threshold == null ? null : threshold.toStatus(percent));
 
@@ -252,4 +286,66 @@ public class QualityService {
         return 100 * counts.getPassed() / counts.getTotal();
     }
 
+    /**
+     * Passed and failed scenario counters of all severities of a project (and of {@link Severity#ALL}), filled in one
+     * pass over the executed scenarios. Gives the same counts as {@link #countScenariosOfSeverity(Set, Severity)}.
+     */
+    static class SeverityScenarioCounts {
+
+        private final Map<String, Integer> indexesByCode = new HashMap<>();
+
+        private final int[] defaultOnMissingIndexes;
+
+        /**
+         * Indexed by the position of the severity in the list given at construction, the last slot counting all scenarios.
+         */
+        private final int[] passed;
+
+        private final int[] failed;
+
+        SeverityScenarioCounts(List<Severity> severities) {
+            int defaultOnMissingCount = 0;
+            int[] defaultIndexes = new int[severities.size()];
+            for (int i = 0; i < severities.size(); i++) {
+                Severity severity = severities.get(i);
+                indexesByCode.putIfAbsent(severity.getCode(), Integer.valueOf(i));
+                if (severity.isDefaultOnMissing()) {
+                    defaultIndexes[defaultOnMissingCount++] = i;
+                }
+            }
+            defaultOnMissingIndexes = Arrays.copyOf(defaultIndexes, defaultOnMissingCount);
+            passed = new int[severities.size() + 1];
+            failed = new int[severities.size() + 1];
+        }
+
+        void add(ExecutedScenario executedScenario) {
+            final int[] counts = (executedScenario.getErrors().isEmpty() ? passed : failed);
+            counts[counts.length - 1]++;
+            if (StringUtils.isEmpty(executedScenario.getSeverity())) {
+                for (int index : defaultOnMissingIndexes) {
+                    counts[index]++;
+                }
+            } else {
+                Integer index = indexesByCode.get(executedScenario.getSeverity());
+                if (index != null) {
+                    counts[index.intValue()]++;
+                }
+            }
+        }
+
+        /**
+         * @param severity one of the severities given at construction, or {@link Severity#ALL}
+         * @return the counted passed, failed &amp; total scenarios of this severity
+         */
+        ScenarioCountDTO of(Severity severity) {
+            int index = (Severity.ALL.equals(severity) ? passed.length - 1 : indexesByCode.get(severity.getCode()).intValue());
+            ScenarioCountDTO counts = new ScenarioCountDTO();
+            counts.setPassed(passed[index]);
+            counts.setFailed(failed[index]);
+            counts.setTotal(passed[index] + failed[index]);
+            return counts;
+        }
+
+    }
+
 }
@@ -0,0 +1,70 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+package com.decathlon.ara.cluster;
+
+/**
+ * Coordinates the ARA instances sharing the same database, so that they share the work instead of doing it twice:
+ * a lease is held by at most one instance at a time, and is taken over by another instance if its holder stops
+ * renewing it (eg. when it crashed).<br>
+ * The implementation is chosen with the property {@code ara.adapter.cluster.name}.
+ */
+public interface ClusterCoordinator {
+
+    /**
+     * The lease held by the instance running the scheduled jobs that must run on one instance only.
+     */
+    String LEADER_LEASE = "leader";
+
+    /**
+     * Acquire the given lease for this instance, or renew it if this instance already holds it. A held lease is renewed
+     * regularly until it is released.
+     *
+     * @param lease the name of the lease (at most 128 characters)
+     * @return true if this instance holds the lease, false if another instance holds it
+     */
+    boolean tryAcquire(String lease);
+
+    /**
+     * Check that this instance still holds the given lease, and renew it, before doing something only its holder may do
+     * (eg. committing an indexation): a lease that was not renewed in time may have been taken over by another instance.
+     *
+     * @param lease the name of the lease
+     * @return true if this instance still holds the lease, false if it expired or another instance holds it
+     */
+    boolean isHeld(String lease);
+
+    /**
+     * Release the given lease, if held by this instance, so that other instances can acquire it right away.
+     *
+     * @param lease the name of the lease
+     */
+    void release(String lease);
+
+    /**
+     * @return true if this instance is the one running the scheduled jobs that must run on one instance only
+     */
+    default boolean isLeader() {
+        return tryAcquire(LEADER_LEASE);
+    }
+
+    /**
+     * @return true if the indexing queue is shared with the other instances (in database), false if each instance
+     * indexes the executions it receives
+     */
+    boolean isDistributed();
+
+}
@@ -0,0 +1,192 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+package com.decathlon.ara.cluster;
+
+import java.sql.Timestamp;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Stores the leases in the cluster_lease table: a lease belongs to the instance that inserted its row, until the
+ * expiration date of the row. The holder pushes this date back at each heartbeat; once it is past, any other instance
+ * can take the lease over.<br>
+ * Each lease operation is committed right away, in a transaction of its own: a lease must not be held (nor released)
+ * by a transaction that is still running, nor be rolled back with it. Instances compare the expiration dates with their
+ * own clocks: they must be synchronized well below the lease duration.<br>
+ * Leases are renewed by a thread of their own: a long scheduled job (eg. the purge) must not delay the heartbeats until
+ * another instance takes the leases over.
+ */
+@Component
+@ConditionalOnProperty(name = "ara.adapter.cluster.name", havingValue = "database")
+public class DatabaseClusterCoordinator implements ClusterCoordinator {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DatabaseClusterCoordinator.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final long leaseDurationInMilliseconds;
+
+    private final long heartbeatDelayInMilliseconds;
+
+    private final ScheduledExecutorService heartbeatExecutor =
+            Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("ClusterHeartbeat-"));
+
+    /**
+     * Identifies this instance as the owner of its leases.
+     */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    /**
+     * The leases held by this instance, to renew them at each heartbeat.
+     */
+    private final Set<String> heldLeases = ConcurrentHashMap.newKeySet();
+
+    public DatabaseClusterCoordinator(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            @Value("${ara.clusterLeaseDurationInMilliseconds:60000}") long leaseDurationInMilliseconds,
+            @Value("${ara.clusterHeartbeatDelayInMilliseconds:15000}") long heartbeatDelayInMilliseconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.leaseDurationInMilliseconds = leaseDurationInMilliseconds;
+        this.heartbeatDelayInMilliseconds = heartbeatDelayInMilliseconds;
+    }
+
+    /**
+     * Start renewing the held leases.
+     */
+    @PostConstruct
+    public void start() {
+        heartbeatExecutor.scheduleWithFixedDelay(this::heartbeat,
+                heartbeatDelayInMilliseconds, heartbeatDelayInMilliseconds, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public boolean tryAcquire(String lease) {
+        final long now = System.currentTimeMillis();
+        final Timestamp expiration = new Timestamp(now + leaseDurationInMilliseconds);
+        final boolean acquired = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            // Renew the lease of this instance, or take over an abandoned one
+            int updatedRows = jdbcTemplate.update("update cluster_lease set owner = ?, expiration_date_time = ? " +
+                            "where name = ? and (owner = ? or expiration_date_time < ?)",
+                    nodeId, expiration, lease, nodeId, new Timestamp(now));
+            return Boolean.valueOf(updatedRows > 0);
+        }));
+        if (acquired || insert(lease, expiration)) {
+            if (heldLeases.add(lease)) {
+                LOG.info("CLUSTER|Acquired the lease {}", lease);
+            }
+            return true;
+        }
+        if (heldLeases.remove(lease)) {
+            LOG.warn("CLUSTER|Lost the lease {}: another instance took it over", lease);
+        }
+        return false;
+    }
+
+    private boolean insert(String lease, Timestamp expiration) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(
+                    "insert into cluster_lease (name, owner, expiration_date_time) values (?, ?, ?)",
+                    lease, nodeId, expiration));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            // Another instance holds the lease (or just inserted it)
+            return false;
+        }
+    }
+
+    @Override
+    public boolean isHeld(String lease) {
+        final long now = System.currentTimeMillis();
+        final boolean held = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            // Unlike tryAcquire, never take over an expired lease: another instance may have used it in the meantime
+            int updatedRows = jdbcTemplate.update("update cluster_lease set expiration_date_time = ? " +
+                            "where name = ? and owner = ? and expiration_date_time >= ?",
+                    new Timestamp(now + leaseDurationInMilliseconds), lease, nodeId, new Timestamp(now));
+            return Boolean.valueOf(updatedRows > 0);
+        }));
+        if (!held && heldLeases.remove(lease)) {
+            LOG.warn("CLUSTER|Lost the lease {}: it expired before being renewed", lease);
+        }
+        return held;
+    }
+
+    @Override
+    public void release(String lease) {
+        heldLeases.remove(lease);
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(
+                "delete from cluster_lease where name = ? and owner = ?", lease, nodeId));
+    }
+
+    @Override
+    public boolean isDistributed() {
+        return true;
+    }
+
+    /**
+     * Renew the leases held by this instance, before they expire (called regularly once {@link #start() started}).
+     */
+    void heartbeat() {
+        for (String lease : heldLeases) {
+            try {
+                // Only renew: a lease lost in the meantime must be acquired again by the code using it
+                isHeld(lease);
+            } catch (RuntimeException e) {
+                // Never let an exception through: it would stop the heartbeats
+                LOG.warn("CLUSTER|Cannot renew the lease {}: will retry at next heartbeat", lease, e);
+            }
+        }
+    }
+
+    /**
+     * Hand the leases over to the other instances right away, instead of letting them expire.
+     */
+    @PreDestroy
+    public void shutdown() {
+        heartbeatExecutor.shutdownNow();
+        for (String lease : heldLeases) {
+            try {
+                release(lease);
+            } catch (DataAccessException e) {
+                LOG.warn("CLUSTER|Cannot release the lease {}: it will expire", lease, e);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,49 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+package com.decathlon.ara.cluster;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Grants all leases to this instance: for a single ARA instance, and for tests.
+ */
+@Component
+@ConditionalOnProperty(name = "ara.adapter.cluster.name", havingValue = "single", matchIfMissing = true)
+public class SingleNodeClusterCoordinator implements ClusterCoordinator {
+
+    @Override
+    public boolean tryAcquire(String lease) {
+        return true;
+    }
+
+    @Override
+    public boolean isHeld(String lease) {
+        return true;
+    }
+
+    @Override
+    public void release(String lease) {
+        // Nothing to release: no other instance is waiting for it
+    }
+
+    @Override
+    public boolean isDistributed() {
+        return false;
+    }
+
+}
@@ -131,6 +131,62 @@ public class AraConfiguration {
      */
     private Integer minExecutionsToKeepPerCycle;
 
+    /**
+     * Maximum number of uploaded execution directories to index at the same time on this node.
+     * Other uploads are queued until a worker is free.
+     */
+    private Integer indexingPoolSize;
+
+    /**
+     * Number of threads parsing the reports of the country and type folders of one execution at the same time.
+     * 1 (or unset) parses them one after the other.
+     */
+    private Integer indexingParsingParallelism;
+
+    /**
+     * Number of threads extracting the entries of one uploaded ZIP file at the same time.
+     * 1 (or unset) extracts them one after the other.
+     */
+    private Integer unzipParallelism;
+
+    /**
+     * Number of threads parsing the Newman reports of one Postman run folder at the same time.
+     * 1 (or unset) parses them one after the other.
+     */
+    private Integer postmanReportParallelism;
+
+    /**
+     * Number of requests sent at the same time to a defect tracking system while synchronizing the defects of a project
+     * (GitHub issues, Jira search pages...). 1 (or unset) sends them one after the other.
+     */
+    private Integer defectFetchParallelism;
+
+    /**
+     * The time (in milliseconds) between two sendings of the quality emails queued in the outbox.
+     */
+    private Long qualityEmailOutboxPollingDelayInMilliseconds;
+
+    /**
+     * Maximum number of queued quality emails read from the outbox at once, before sending them.
+     */
+    private Integer qualityEmailBatchSize;
+
+    /**
+     * Number of failed attempts to send a queued quality email before abandoning it.
+     */
+    private Integer qualityEmailMaxAttempts;
+
+    /**
+     * Number of executions (with all their runs, scenarios, errors...) deleted and committed together by the purge.
+     */
+    private Integer purgeChunkSize;
+
+    /**
+     * Maximum number of rows (of all tables) deleted per second by the purge, so it can run while ARA is in use.
+     * 0 (or unset) deletes as fast as possible.
+     */
+    private Integer purgeMaxRowsPerSecond;
+
     public String getSshHost() {
         return sshHost;
     }
@@ -251,4 +307,84 @@ public class AraConfiguration {
         this.minExecutionsToKeepPerCycle = minExecutionsToKeepPerCycle;
     }
 
+    public Integer getIndexingPoolSize() {
+        return indexingPoolSize;
+    }
+
+    public void setIndexingPoolSize(Integer indexingPoolSize) {
+        this.indexingPoolSize = indexingPoolSize;
+    }
+
+    public Integer getIndexingParsingParallelism() {
+        return indexingParsingParallelism;
+    }
+
+    public void setIndexingParsingParallelism(Integer indexingParsingParallelism) {
+        this.indexingParsingParallelism = indexingParsingParallelism;
+    }
+
+    public Integer getPostmanReportParallelism() {
+        return postmanReportParallelism;
+    }
+
+    public void setPostmanReportParallelism(Integer postmanReportParallelism) {
+        this.postmanReportParallelism = postmanReportParallelism;
+    }
+
+    public Integer getDefectFetchParallelism() {
+        return defectFetchParallelism;
+    }
+
+    public void setDefectFetchParallelism(Integer defectFetchParallelism) {
+        this.defectFetchParallelism = defectFetchParallelism;
+    }
+
+    public Long getQualityEmailOutboxPollingDelayInMilliseconds() {
+        return qualityEmailOutboxPollingDelayInMilliseconds;
+    }
+
+    public void setQualityEmailOutboxPollingDelayInMilliseconds(Long qualityEmailOutboxPollingDelayInMilliseconds) {
+        this.qualityEmailOutboxPollingDelayInMilliseconds = qualityEmailOutboxPollingDelayInMilliseconds;
+    }
+
+    public Integer getQualityEmailBatchSize() {
+        return qualityEmailBatchSize;
+    }
+
+    public void setQualityEmailBatchSize(Integer qualityEmailBatchSize) {
+        this.qualityEmailBatchSize = qualityEmailBatchSize;
+    }
+
+    public Integer getQualityEmailMaxAttempts() {
+        return qualityEmailMaxAttempts;
+    }
+
+    public void setQualityEmailMaxAttempts(Integer qualityEmailMaxAttempts) {
+        this.qualityEmailMaxAttempts = qualityEmailMaxAttempts;
+    }
+
+    public Integer getUnzipParallelism() {
+        return unzipParallelism;
+    }
+
+    public void setUnzipParallelism(Integer unzipParallelism) {
+        this.unzipParallelism = unzipParallelism;
+    }
+
+    public Integer getPurgeChunkSize() {
+        return purgeChunkSize;
+    }
+
+    public void setPurgeChunkSize(Integer purgeChunkSize) {
+        this.purgeChunkSize = purgeChunkSize;
+    }
+
+    public Integer getPurgeMaxRowsPerSecond() {
+        return purgeMaxRowsPerSecond;
+    }
+
+    public void setPurgeMaxRowsPerSecond(Integer purgeMaxRowsPerSecond) {
+        this.purgeMaxRowsPerSecond = purgeMaxRowsPerSecond;
+    }
+
 }
@@ -0,0 +1,143 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.defect;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.stereotype.Component;
+
+import com.decathlon.ara.configuration.AraConfiguration;
+
+/**
+ * Sends the requests of the defect adapters fetching defects by batches (issues, search pages...) to their defect
+ * tracking system at the same time, with a bounded number of concurrent requests to stay below the rate limits of
+ * these systems.
+ */
+@Component
+public class DefectFetchPool {
+
+    /**
+     * Pool sending the requests, or null to send them one after the other
+     */
+    private final ForkJoinPool fetchPool;
+
+    public DefectFetchPool(AraConfiguration araConfiguration) {
+        Integer parallelism = araConfiguration.getDefectFetchParallelism();
+        this.fetchPool = parallelism == null || parallelism.intValue() < 2 ? null : new ForkJoinPool(parallelism.intValue());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (fetchPool != null) {
+            fetchPool.shutdown();
+        }
+    }
+
+    /**
+     * @return the maximum number of requests sent at the same time (1 if they are sent one after the other)
+     */
+    public int getParallelism() {
+        return fetchPool == null ? 1 : fetchPool.getParallelism();
+    }
+
+    /**
+     * Apply a fetch to each input, in the pool if there is one.<br>
+     * On the first failing fetch (in the order of the inputs), the fetches not started yet are cancelled and its
+     * exception is thrown.
+     *
+     * @param inputs the inputs (issue IDs, page URLs...)
+     * @param fetch  the fetch to apply to each input
+     * @param <T>    the type of the inputs
+     * @param <R>    the type of the outputs
+     * @param <E>    the type of the exception thrown by the fetch
+     * @return the outputs of the fetch, in the order of the inputs
+     * @throws E the exception of the first failing fetch
+     */
+    public <T, R, E extends Exception> List<R> map(List<T> inputs, Fetch<T, R, E> fetch) throws E {
+        final List<R> outputs = new ArrayList<>(inputs.size());
+        if (fetchPool == null || inputs.size() < 2) {
+            for (T input : inputs) {
+                outputs.add(fetch.apply(input));
+            }
+            return outputs;
+        }
+
+        final List<ForkJoinTask<Outcome<R>>> tasks = inputs.stream()
+                .map(input -> fetchPool.submit(() -> outcome(fetch, input)))
+                .toList();
+        for (ForkJoinTask<Outcome<R>> task : tasks) {
+            final Outcome<R> outcome = task.join();
+            if (outcome.exception() != null) {
+                tasks.forEach(remainingTask -> remainingTask.cancel(false));
+                throw this.<E> rethrow(outcome.exception());
+            }
+            outputs.add(outcome.output());
+        }
+        return outputs;
+    }
+
+    private static <T, R> Outcome<R> outcome(Fetch<T, R, ?> fetch, T input) {
+        try {
+            return new Outcome<>(fetch.apply(input), null);
+        } catch (Exception e) {
+            return new Outcome<>(null, e);
+        }
+    }
+
+    /**
+     * @param exception an exception thrown by a fetch: either a runtime exception or the declared exception of the fetch
+     * @param <E>       the type of the exception declared by the fetch
+     * @return never returns: the exception is thrown
+     * @throws E the given exception, if it is not a runtime exception
+     */
+    @SuppressWarnings("unchecked")
+    private <E extends Exception> E rethrow(Exception exception) throws E {
+        if (exception instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        throw (E) exception;
+    }
+
+    /**
+     * A request to the defect tracking system.
+     *
+     * @param <T> the type of the input of the request
+     * @param <R> the type of the output of the request
+     * @param <E> the type of the exception thrown on failure
+     */
+    @FunctionalInterface
+    public interface Fetch<T, R, E extends Exception> {
+
+        R apply(T input) throws E;
+
+    }
+
+    /**
+     * @param output    the output of a successful fetch
+     * @param exception the exception of a failed fetch
+     * @param <R>       the type of the output
+     */
+    private record Outcome<R>(R output, Exception exception) {
+    }
+
+}
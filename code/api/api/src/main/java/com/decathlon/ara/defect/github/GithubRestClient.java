@@ -27,18 +27,23 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.IntStream;
 
+import org.apache.http.Header;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.utils.URIBuilder;
 import org.apache.http.impl.client.HttpClients;
+import org.apache.http.util.EntityUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import com.decathlon.ara.defect.DefectFetchPool;
+
 /**
  * Provide Java implementation of the GitHub REST API.
  *
@@ -56,6 +61,14 @@ class GithubRestClient {
     @Autowired
     private GithubMapper githubMapper;
 
+    @Autowired
+    private DefectFetchPool defectFetchPool;
+
+    /**
+     * The root URL of the GitHub REST API (a local stub in tests).
+     */
+    private String apiUrl = PROTOCOL + "://" + BASEPATH;
+
     private HttpClient httpClient;
     private String currentOwner;
     private String currentRepo;
@@ -102,26 +115,40 @@ class GithubRestClient {
      */
     Optional<GithubIssue> requestIssue(long issueId) throws IOException, URISyntaxException {
         this.prepareClient();
+        return this.requestIssue(issueId, this.issueUri(issueId));
+    }
+
+    /**
+     * @param issueId the id of the wanted issue
+     * @param uri     the URI of the issue ({@link #issueUri(long)})
+     * @return the informations about the issue in a POJO, or empty if it does not exist
+     * @throws IOException if Github can't be accessed, or refuses the request because of its rate limit
+     */
+    Optional<GithubIssue> requestIssue(long issueId, URI uri) throws IOException {
         String repoPath = this.currentOwner + "/" + this.currentRepo;
-        URI uri = new URIBuilder()
-                .setScheme(PROTOCOL)
-                .setHost(BASEPATH)
-                .setPath("/repos/" + repoPath + "/issues/" + issueId)
-                .setParameter("filter", "all")
-                .setParameter("state", "all")
-                .build();
         HttpGet request = new HttpGet(uri);
         request.addHeader("Authorization", "token " + this.currentAuthToken);
         HttpResponse response = this.httpClient.execute(request);
-        int responseCode = response.getStatusLine().getStatusCode();
-        if (404 == responseCode || 410 == responseCode) {
-            return Optional.empty();
-        } else if (200 == responseCode) {
-            return this.githubMapper.jsonToIssue(this.getContentOf(response));
-        } else {
-            String msg = "DEFECT|github|Error while requesting issue " + issueId + " on repo " + repoPath + " : " + responseCode;
-            LOG.warn(msg);
-            throw new IOException(msg);
+        try {
+            int responseCode = response.getStatusLine().getStatusCode();
+            if (404 == responseCode || 410 == responseCode) {
+                return Optional.empty();
+            } else if (200 == responseCode) {
+                return this.githubMapper.jsonToIssue(this.getContentOf(response));
+            } else if (this.isRateLimited(response)) {
+                String msg = "DEFECT|github|Rate limit exceeded while requesting issue " + issueId + " on repo " + repoPath +
+                        " : " + responseCode + " (limit reset at epoch second " + this.getHeaderValue(response, "X-RateLimit-Reset") +
+                        ", retry after " + this.getHeaderValue(response, "Retry-After") + " seconds)";
+                LOG.warn(msg);
+                throw new IOException(msg);
+            } else {
+                String msg = "DEFECT|github|Error while requesting issue " + issueId + " on repo " + repoPath + " : " + responseCode;
+                LOG.warn(msg);
+                throw new IOException(msg);
+            }
+        } finally {
+            // Release the connection for the next requests, whatever the response
+            EntityUtils.consumeQuietly(response.getEntity());
         }
     }
 
@@ -135,10 +162,18 @@ class GithubRestClient {
      * @throws URISyntaxException if the informations provided into the owner and repository name are invalid in the URI.
      */
     List<GithubIssue> requestIssues(List<Long> issueIds) throws IOException, URISyntaxException {
-        List<GithubIssue> result = new ArrayList<>();
+        this.prepareClient();
+        List<URI> uris = new ArrayList<>(issueIds.size());
         for (Long issueId : issueIds) {
-            this.requestIssue(issueId).ifPresent(result::add);
+            uris.add(this.issueUri(issueId.longValue()));
         }
+        // The issues are requested at the same time (up to the parallelism of the pool), and the first failure (eg. the
+        // rate limit being exceeded) cancels the requests not sent yet
+        List<Optional<GithubIssue>> issues = this.defectFetchPool.map(
+                IntStream.range(0, issueIds.size()).boxed().toList(),
+                index -> this.requestIssue(issueIds.get(index.intValue()).longValue(), uris.get(index.intValue())));
+        List<GithubIssue> result = new ArrayList<>();
+        issues.forEach(issue -> issue.ifPresent(result::add));
         return result;
     }
 
@@ -156,9 +191,7 @@ class GithubRestClient {
         List<GithubIssue> result = new ArrayList<>();
         String repoPath = this.currentOwner + "/" + this.currentRepo;
         String date = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss").format(time);
-        URI uri = new URIBuilder()
-                .setScheme(PROTOCOL)
-                .setHost(BASEPATH)
+        URI uri = new URIBuilder(this.apiUrl)
                 .setPath("/repos/" + repoPath + "/issues")
                 .setParameter("filter", "all")
                 .setParameter("state", "all")
@@ -178,6 +211,37 @@ class GithubRestClient {
         return result;
     }
 
+    /**
+     * @param issueId the id of an issue
+     * @return the URI of the issue, based on the owner and repository given before
+     * @throws URISyntaxException if the informations provided into the owner and repository name are invalid in the URI.
+     */
+    private URI issueUri(long issueId) throws URISyntaxException {
+        String repoPath = this.currentOwner + "/" + this.currentRepo;
+        return new URIBuilder(this.apiUrl)
+                .setPath("/repos/" + repoPath + "/issues/" + issueId)
+                .setParameter("filter", "all")
+                .setParameter("state", "all")
+                .build();
+    }
+
+    /**
+     * @param response a response of GitHub
+     * @return true if GitHub refused the request because the primary (no remaining request) or secondary (too many
+     * requests at the same time) rate limit is exceeded
+     */
+    private boolean isRateLimited(HttpResponse response) {
+        int responseCode = response.getStatusLine().getStatusCode();
+        return (403 == responseCode || 429 == responseCode) &&
+                ("0".equals(this.getHeaderValue(response, "X-RateLimit-Remaining")) ||
+                        response.getFirstHeader("Retry-After") != null);
+    }
+
+    private String getHeaderValue(HttpResponse response, String name) {
+        Header header = response.getFirstHeader(name);
+        return header == null ? null : header.getValue();
+    }
+
     private boolean isNotEmpty(String str) {
         return null != str && !str.trim().isEmpty();
     }
@@ -197,7 +261,12 @@ class GithubRestClient {
 
     private void prepareClient() {
         if (null == this.httpClient) {
-            this.httpClient = HttpClients.createDefault();
+            // As many connections as concurrent requests (the default is only 2 connections per route)
+            int maxConnections = Math.max(2, this.defectFetchPool.getParallelism());
+            this.httpClient = HttpClients.custom()
+                    .setMaxConnPerRoute(maxConnections)
+                    .setMaxConnTotal(maxConnections)
+                    .build();
         }
     }
 }
@@ -18,6 +18,7 @@
 package com.decathlon.ara.defect.jira.api;
 
 import com.decathlon.ara.Entities;
+import com.decathlon.ara.defect.DefectFetchPool;
 import com.decathlon.ara.defect.jira.api.model.JiraIssue;
 import com.decathlon.ara.defect.jira.api.model.JiraIssueSearchResults;
 import com.decathlon.ara.service.SettingService;
@@ -37,22 +38,29 @@ import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.*;
 import java.util.stream.IntStream;
-import java.util.stream.Stream;
 
 @Service
 public class JiraRestClient {
 
     private static final Logger LOG = LoggerFactory.getLogger(JiraRestClient.class);
 
+    /**
+     * The maximum number of issue keys in the JQL of one search: the keys are searched by batches, to keep the URLs short
+     */
+    static final int ISSUE_KEYS_PER_SEARCH = 100;
+
     @Autowired
     private SettingService settingService;
 
     @Autowired
     private RestTemplate restTemplate;
 
-    public JiraRestClient(SettingService settingService, RestTemplate restTemplate) {
+    private final DefectFetchPool defectFetchPool;
+
+    public JiraRestClient(SettingService settingService, RestTemplate restTemplate, DefectFetchPool defectFetchPool) {
         this.settingService = settingService;
         this.restTemplate = restTemplate;
+        this.defectFetchPool = defectFetchPool;
     }
 
     /**
@@ -134,7 +142,8 @@ public class JiraRestClient {
     }
 
     /**
-     * Get Jira issues matching a list of keys
+     * Get Jira issues matching a list of keys.<br>
+     * The keys are searched by batches of {@link #ISSUE_KEYS_PER_SEARCH}, at the same time.
      * @param projectId the project id
      * @param issueKeys the Jira issue keys
      * @return the matching Jira issues
@@ -145,10 +154,14 @@ public class JiraRestClient {
             return new ArrayList<>();
         }
 
-        String codes = String.join(", ", issueKeys);
-        String jql = String.format("issueKey in (%s)", codes);
+        List<String> jqls = IntStream.range(0, (issueKeys.size() + ISSUE_KEYS_PER_SEARCH - 1) / ISSUE_KEYS_PER_SEARCH)
+                .mapToObj(batch -> issueKeys.subList(batch * ISSUE_KEYS_PER_SEARCH, Math.min(issueKeys.size(), (batch + 1) * ISSUE_KEYS_PER_SEARCH)))
+                .map(batchKeys -> String.format("issueKey in (%s)", String.join(", ", batchKeys)))
+                .toList();
 
-        return searchJiraIssues(projectId, jql);
+        return defectFetchPool.map(jqls, jql -> searchJiraIssues(projectId, jql)).stream()
+                .flatMap(Collection::stream)
+                .toList();
     }
 
     /**
@@ -196,14 +209,16 @@ public class JiraRestClient {
                     .map(startIndex -> String.format("%s&startAt=%s&maxResults=%d", urlWithJQL, startIndex, actualMaxResults))
                     .toList();
             LOG.debug("DEFECT|jira|[Jira] {} API calls required", paginatedUrls.size());
-            for (String paginatedUrl : paginatedUrls) {
-                JiraIssueSearchResults paginatedSearchResult = getSearchResultsFromHeaderAndUrl(header, paginatedUrl);
+            // The pages are requested at the same time, but kept in order
+            List<JiraIssueSearchResults> paginatedSearchResults = defectFetchPool.map(paginatedUrls,
+                    paginatedUrl -> getSearchResultsFromHeaderAndUrl(header, paginatedUrl));
+            allIssues = new ArrayList<>(allIssues);
+            for (int i = 0; i < paginatedUrls.size(); i++) {
+                JiraIssueSearchResults paginatedSearchResult = paginatedSearchResults.get(i);
                 if (paginatedSearchResult != null) {
                     List<JiraIssue> paginatedIssues = paginatedSearchResult.getIssues();
-                    LOG.debug("DEFECT|jira|[Jira] Pagination: loaded {} issues from url [{}]", paginatedIssues.size(), paginatedUrl);
-                    allIssues = Stream.of(allIssues, paginatedIssues)
-                            .flatMap(Collection::stream)
-                            .toList();
+                    LOG.debug("DEFECT|jira|[Jira] Pagination: loaded {} issues from url [{}]", paginatedIssues.size(), paginatedUrls.get(i));
+                    allIssues.addAll(paginatedIssues);
                     LOG.debug("DEFECT|jira|[Jira] Pagination: Now reaching {} issues", allIssues.size());
                 }
             }
@@ -15,6 +15,7 @@ import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.scheduling.support.CronTrigger;
 import org.springframework.stereotype.Component;
 
+import com.decathlon.ara.cluster.ClusterCoordinator;
 import com.decathlon.ara.purge.service.PurgeService;
 
 @Component
@@ -29,10 +30,13 @@ public class PurgeTaskScheduler {
 
     private final PurgeService purgeService;
 
+    private final ClusterCoordinator clusterCoordinator;
+
     public PurgeTaskScheduler(ThreadPoolTaskScheduler taskScheduler,
-            PurgeService purgeService) {
+            PurgeService purgeService, ClusterCoordinator clusterCoordinator) {
         this.taskScheduler = taskScheduler;
         this.purgeService = purgeService;
+        this.clusterCoordinator = clusterCoordinator;
     }
 
     /**
@@ -55,7 +59,16 @@ public class PurgeTaskScheduler {
         }
     }
 
+    /**
+     * @return the purge of all projects, run only by the leader instance
+     */
     public Runnable getPurgeRunnable() {
-        return purgeService::purgeAllProjects;
+        return () -> {
+            if (clusterCoordinator.isLeader()) {
+                purgeService.purgeAllProjects();
+            } else {
+                LOG.debug("Purge skipped: run by the leader instance");
+            }
+        };
     }
 }
@@ -0,0 +1,71 @@
+package com.decathlon.ara.purge.service;
+
+import java.util.List;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.decathlon.ara.repository.CountryDeploymentRepository;
+import com.decathlon.ara.repository.ErrorRepository;
+import com.decathlon.ara.repository.ExecutedScenarioRepository;
+import com.decathlon.ara.repository.ExecutionRepository;
+import com.decathlon.ara.repository.ProblemOccurrenceRepository;
+import com.decathlon.ara.repository.RunRepository;
+import com.decathlon.ara.repository.StoredProblemAggregateRepository;
+
+/**
+ * Deletes executions and all their children in the database, without loading any of them.
+ */
+@Service
+public class ExecutionDeletionService {
+
+    private final StoredProblemAggregateRepository storedProblemAggregateRepository;
+
+    private final ProblemOccurrenceRepository problemOccurrenceRepository;
+
+    private final ErrorRepository errorRepository;
+
+    private final ExecutedScenarioRepository executedScenarioRepository;
+
+    private final RunRepository runRepository;
+
+    private final CountryDeploymentRepository countryDeploymentRepository;
+
+    private final ExecutionRepository executionRepository;
+
+    public ExecutionDeletionService(StoredProblemAggregateRepository storedProblemAggregateRepository,
+            ProblemOccurrenceRepository problemOccurrenceRepository, ErrorRepository errorRepository,
+            ExecutedScenarioRepository executedScenarioRepository, RunRepository runRepository,
+            CountryDeploymentRepository countryDeploymentRepository, ExecutionRepository executionRepository) {
+        this.storedProblemAggregateRepository = storedProblemAggregateRepository;
+        this.problemOccurrenceRepository = problemOccurrenceRepository;
+        this.errorRepository = errorRepository;
+        this.executedScenarioRepository = executedScenarioRepository;
+        this.runRepository = runRepository;
+        this.countryDeploymentRepository = countryDeploymentRepository;
+        this.executionRepository = executionRepository;
+    }
+
+    /**
+     * Delete the given executions, children first, in a transaction of its own: once this method returns, the
+     * executions are gone for good, even if a later chunk of the same purge fails.<br>
+     * The stored aggregates of the problems occurring in these executions are deleted first, while the occurrences still
+     * tell which problems they are: they will be recomputed on the next display of the problems.
+     *
+     * @param executionIds the IDs of a chunk of executions to delete
+     * @return the number of deleted rows, in all tables
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public long deleteExecutions(List<Long> executionIds) {
+        long deletedRows = storedProblemAggregateRepository.deleteByExecutionIds(executionIds);
+        deletedRows += problemOccurrenceRepository.deleteByExecutionIds(executionIds);
+        deletedRows += errorRepository.deleteByExecutionIds(executionIds);
+        deletedRows += executedScenarioRepository.deleteByExecutionIds(executionIds);
+        deletedRows += runRepository.deleteByExecutionIds(executionIds);
+        deletedRows += countryDeploymentRepository.deleteByExecutionIds(executionIds);
+        deletedRows += executionRepository.deleteByIds(executionIds);
+        return deletedRows;
+    }
+
+}
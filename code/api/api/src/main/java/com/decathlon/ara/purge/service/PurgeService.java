@@ -3,43 +3,79 @@ package com.decathlon.ara.purge.service;
 import java.text.SimpleDateFormat;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.IntStream;
 
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.util.Pair;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import com.decathlon.ara.domain.Execution;
+import com.decathlon.ara.configuration.AraConfiguration;
 import com.decathlon.ara.repository.ExecutionRepository;
+import com.decathlon.ara.service.CycleLastExecutionsService;
 import com.decathlon.ara.service.ProjectService;
 import com.decathlon.ara.service.SettingService;
 import com.decathlon.ara.service.exception.NotFoundException;
 import com.decathlon.ara.service.support.Settings;
 import com.decathlon.ara.service.util.DateService;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Not transactional: each chunk of purged executions is committed on its own by {@link ExecutionDeletionService}, to
+ * not hold locks on the whole purge.
+ */
 @Service
-@Transactional
 public class PurgeService {
 
     private static final Logger LOG = LoggerFactory.getLogger(PurgeService.class);
 
+    private static final int DEFAULT_CHUNK_SIZE = 20;
+
     private final ExecutionRepository executionRepository;
 
+    private final ExecutionDeletionService executionDeletionService;
+
+    private final CycleLastExecutionsService cycleLastExecutionsService;
+
     private final ProjectService projectService;
 
     private final SettingService settingService;
 
     private final DateService dateService;
 
-    public PurgeService(ExecutionRepository executionRepository, ProjectService projectService,
-            SettingService settingService, DateService dateService) {
+    private final AraConfiguration araConfiguration;
+
+    private final Counter deletedExecutionsCounter;
+
+    private final Counter deletedRowsCounter;
+
+    private final AtomicLong remainingExecutionsGauge;
+
+    private final Timer chunkTimer;
+
+    public PurgeService(ExecutionRepository executionRepository, ExecutionDeletionService executionDeletionService,
+            CycleLastExecutionsService cycleLastExecutionsService, ProjectService projectService, SettingService settingService, DateService dateService,
+            AraConfiguration araConfiguration, MeterRegistry meterRegistry) {
         this.executionRepository = executionRepository;
+        this.executionDeletionService = executionDeletionService;
+        this.cycleLastExecutionsService = cycleLastExecutionsService;
         this.projectService = projectService;
         this.settingService = settingService;
         this.dateService = dateService;
+        this.araConfiguration = araConfiguration;
+        this.deletedExecutionsCounter = meterRegistry.counter("ara.purge.executions.deleted");
+        this.deletedRowsCounter = meterRegistry.counter("ara.purge.rows.deleted");
+        this.remainingExecutionsGauge = meterRegistry.gauge("ara.purge.executions.remaining", new AtomicLong());
+        this.chunkTimer = meterRegistry.timer("ara.purge.chunk.duration");
     }
 
     /**
@@ -95,21 +131,86 @@ public class PurgeService {
             return;
         }
 
-        var executionsToDelete = executionRepository.findByCycleDefinitionProjectIdAndTestDateTimeBefore(projectId, purgeThresholdDate.get());
-
-        var numberOfDeletedExecutions = executionsToDelete.size();
-        var executionsPlural = numberOfDeletedExecutions > 1 ? "s" : "";
+        var numberOfExecutionsToDelete = executionRepository.countByCycleDefinitionProjectIdAndTestDateTimeBefore(projectId, purgeThresholdDate.get());
+        var executionsPlural = numberOfExecutionsToDelete > 1 ? "s" : "";
 
         var simpleDateFormat = new SimpleDateFormat("dd/MM/yyyy");
-        LOG.info("Preparing to delete {} execution{} (older than {})...", numberOfDeletedExecutions, executionsPlural, simpleDateFormat.format(purgeThresholdDate.get()));
-        var executionIdsToDelete = executionsToDelete.stream().map(Execution::getId).toList();
+        LOG.info("Preparing to delete {} execution{} (older than {})...", numberOfExecutionsToDelete, executionsPlural, simpleDateFormat.format(purgeThresholdDate.get()));
         var purgeRunStartDate = LocalDateTime.now();
-        executionRepository.deleteAllByIdInBatch(executionIdsToDelete);
+        var numberOfDeletedExecutions = deleteExecutionsByChunk(projectId, purgeThresholdDate.get(), numberOfExecutionsToDelete);
         var purgeRunEndDate = LocalDateTime.now();
         var purgeDurationDescription = dateService.getFormattedDurationBetween2Dates(purgeRunStartDate, purgeRunEndDate);
         DateTimeFormatter detailedDateFormat = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss.SSS");
         LOG.info("Purge ran from {} to {} - ({})", purgeRunStartDate.format(detailedDateFormat), purgeRunEndDate.format(detailedDateFormat), purgeDurationDescription);
-        LOG.info("{} execution{} successfully deleted", numberOfDeletedExecutions, executionsPlural);
+        LOG.info("{} execution{} successfully deleted", numberOfDeletedExecutions, numberOfDeletedExecutions > 1 ? "s" : "");
+    }
+
+    /**
+     * Delete the executions of a project, chunk by chunk, each chunk being committed on its own.<br>
+     * Only execution IDs are queried: entities are never loaded. If the purge is interrupted or fails, the deleted
+     * chunks stay deleted and the next purge resumes with the remaining executions.<br>
+     * The deletion pace is capped by ara.purgeMaxRowsPerSecond, if configured.
+     *
+     * @param projectId                  the ID of the project of the executions to delete
+     * @param purgeThresholdDate         executions tested before this date are deleted
+     * @param numberOfExecutionsToDelete the number of executions expected to be deleted, to report the progress
+     * @return the number of deleted executions
+     */
+    private long deleteExecutionsByChunk(long projectId, Date purgeThresholdDate, long numberOfExecutionsToDelete) {
+        var chunkSize = getPositiveOrDefault(araConfiguration.getPurgeChunkSize(), DEFAULT_CHUNK_SIZE);
+        var maxRowsPerSecond = getPositiveOrDefault(araConfiguration.getPurgeMaxRowsPerSecond(), 0);
+        var startTime = System.nanoTime();
+        long deletedExecutions = 0;
+        long deletedRows = 0;
+        remainingExecutionsGauge.set(numberOfExecutionsToDelete);
+        try {
+            List<Long> executionIds;
+            while (!(executionIds = executionRepository.findIdsToPurge(projectId, purgeThresholdDate, PageRequest.of(0, chunkSize))).isEmpty()) {
+                var chunkStartTime = System.nanoTime();
+                var chunkRows = executionDeletionService.deleteExecutions(executionIds);
+                chunkTimer.record(System.nanoTime() - chunkStartTime, TimeUnit.NANOSECONDS);
+                deletedExecutions += executionIds.size();
+                deletedRows += chunkRows;
+                deletedExecutionsCounter.increment(executionIds.size());
+                deletedRowsCounter.increment(chunkRows);
+                remainingExecutionsGauge.set(Math.max(0, numberOfExecutionsToDelete - deletedExecutions));
+                LOG.info("Deleted {}/{} executions ({} rows)", deletedExecutions, numberOfExecutionsToDelete, deletedRows);
+                throttle(startTime, deletedRows, maxRowsPerSecond);
+            }
+        } catch (InterruptedException e) {
+            LOG.warn("Purge interrupted after {} deleted executions: the next purge will delete the remaining ones", deletedExecutions);
+            Thread.currentThread().interrupt();
+        } finally {
+            remainingExecutionsGauge.set(0);
+            if (deletedExecutions > 0) {
+                // The stability bars of problems must not point to deleted executions
+                cycleLastExecutionsService.evict(projectId);
+            }
+        }
+        return deletedExecutions;
+    }
+
+    /**
+     * Wait long enough for the rows deleted since the start of the purge not to exceed the configured rate.
+     *
+     * @param startTime        the System.nanoTime() at the start of the purge
+     * @param deletedRows      the number of rows deleted since the start of the purge
+     * @param maxRowsPerSecond the maximum deletion rate, or 0 for no limit
+     * @throws InterruptedException if the purge is interrupted while waiting
+     */
+    private void throttle(long startTime, long deletedRows, int maxRowsPerSecond) throws InterruptedException {
+        if (maxRowsPerSecond <= 0) {
+            return;
+        }
+        var expectedElapsedMillis = deletedRows * 1000 / maxRowsPerSecond;
+        var actualElapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+        if (expectedElapsedMillis > actualElapsedMillis) {
+            Thread.sleep(expectedElapsedMillis - actualElapsedMillis);
+        }
+    }
+
+    private static int getPositiveOrDefault(Integer value, int defaultValue) {
+        return value == null || value.intValue() <= 0 ? defaultValue : value.intValue();
     }
 
     /**
@@ -128,4 +229,5 @@ public class PurgeService {
                     purgeExecutionsByProjectId(project.getId());
                 });
     }
+
 }
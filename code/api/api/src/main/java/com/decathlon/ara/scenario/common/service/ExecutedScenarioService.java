@@ -18,13 +18,21 @@
 package com.decathlon.ara.scenario.common.service;
 
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -33,13 +41,22 @@ import com.decathlon.ara.Messages;
 import com.decathlon.ara.domain.Error;
 import com.decathlon.ara.domain.ExecutedScenario;
 import com.decathlon.ara.domain.Problem;
+import com.decathlon.ara.domain.ProblemOccurrence;
+import com.decathlon.ara.domain.ProblemPattern;
+import com.decathlon.ara.domain.Severity;
+import com.decathlon.ara.domain.enumeration.Handling;
+import com.decathlon.ara.domain.filter.ExecutedScenarioFilter;
 import com.decathlon.ara.repository.ErrorRepository;
 import com.decathlon.ara.repository.ExecutedScenarioRepository;
 import com.decathlon.ara.repository.FunctionalityRepository;
+import com.decathlon.ara.repository.SeverityRepository;
 import com.decathlon.ara.scenario.cucumber.util.ScenarioExtractorUtil;
+import com.decathlon.ara.service.ProblemService;
 import com.decathlon.ara.service.dto.error.ErrorWithProblemsDTO;
 import com.decathlon.ara.service.dto.executedscenario.ExecutedScenarioDTO;
 import com.decathlon.ara.service.dto.executedscenario.ExecutedScenarioWithRunAndTeamIdsAndExecutionAndErrorsAndProblemsDTO;
+import com.decathlon.ara.service.dto.executedscenario.ExecutedScenarioWithTeamIdsAndErrorsAndProblemsDTO;
+import com.decathlon.ara.service.dto.execution.ExecutionCriteriaDTO;
 import com.decathlon.ara.service.dto.problem.ProblemDTO;
 import com.decathlon.ara.service.dto.request.ExecutedScenarioHistoryInputDTO;
 import com.decathlon.ara.service.exception.BadRequestException;
@@ -52,20 +69,41 @@ import com.decathlon.ara.service.mapper.GenericMapper;
 @Transactional
 public class ExecutedScenarioService {
 
+    /**
+     * The team criteria of the execution page to match the executed scenarios without team.
+     */
+    static final long NO_TEAM = -404;
+
+    /**
+     * The severity criteria of the execution page to match the executed scenarios without severity.
+     */
+    static final String NO_SEVERITY = "none";
+
+    /**
+     * The order of the executed scenarios in their run (see {@link ExecutedScenario#compareTo(ExecutedScenario)}).
+     */
+    private static final Sort RUN_ORDER = Sort.by("featureFile", "name", "line");
+
     private final ExecutedScenarioRepository executedScenarioRepository;
 
     private final ErrorRepository errorRepository;
 
     private final FunctionalityRepository functionalityRepository;
 
+    private final SeverityRepository severityRepository;
+
+    private final ProblemService problemService;
+
     private final GenericMapper mapper;
 
     public ExecutedScenarioService(ExecutedScenarioRepository executedScenarioRepository,
             ErrorRepository errorRepository, FunctionalityRepository functionalityRepository,
-            GenericMapper mapper) {
+            SeverityRepository severityRepository, ProblemService problemService, GenericMapper mapper) {
         this.executedScenarioRepository = executedScenarioRepository;
         this.errorRepository = errorRepository;
         this.functionalityRepository = functionalityRepository;
+        this.severityRepository = severityRepository;
+        this.problemService = problemService;
         this.mapper = mapper;
     }
 
@@ -89,15 +127,151 @@ public class ExecutedScenarioService {
                 input.getRunTypeCode(),
                 input.getDuration());
 
+        final Map<Long, Long> functionalityTeamIds = functionalityRepository.getFunctionalityTeamIds(projectId);
         final List<ExecutedScenarioWithRunAndTeamIdsAndExecutionAndErrorsAndProblemsDTO> dtoList =
-                mapper.mapCollection(executedScenarios, ExecutedScenarioWithRunAndTeamIdsAndExecutionAndErrorsAndProblemsDTO.class);
+                mapper.mapCollection(executedScenarios, ExecutedScenarioWithRunAndTeamIdsAndExecutionAndErrorsAndProblemsDTO.class,
+                        (executedScenario, dto) -> dto.setTeamIds(getTeamIds(executedScenario, functionalityTeamIds)));
 
         assignProblemsToErrors(executedScenarios, dtoList);
-        assignTeamsToExecutedScenarios(projectId, dtoList);
 
         return dtoList;
     }
 
+    /**
+     * Get a page of the executed scenarios of a run, filtered by the database with the criteria of the execution page:
+     * only the executed scenarios of the page are loaded, with their errors and problems in batch.
+     *
+     * @param projectId   the ID of the project in which to work
+     * @param executionId the ID of the execution of the run
+     * @param runId       the ID of the run of the executed scenarios
+     * @param criteria    the filters of the execution page (an executed scenario of a team matches if one of its
+     *                    functionalities or problems is of this team)
+     * @param pageable    the page to return, in the order of the run if not sorted
+     * @return the page of the matching executed scenarios, with their team IDs, errors and problems
+     * @throws BadRequestException if the handling criteria is unknown
+     */
+    @Transactional(readOnly = true)
+    public Page<ExecutedScenarioWithTeamIdsAndErrorsAndProblemsDTO> findAllOfRun(long projectId, long executionId, long runId,
+            ExecutionCriteriaDTO criteria, Pageable pageable) throws BadRequestException {
+        final Map<Long, Long> functionalityTeamIds = functionalityRepository.getFunctionalityTeamIds(projectId);
+        ExecutedScenarioFilter filter = toFilter(projectId, executionId, runId, criteria, functionalityTeamIds);
+        if (pageable.isPaged() && pageable.getSort().isUnsorted()) {
+            pageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), RUN_ORDER);
+        }
+        Page<ExecutedScenario> page = executedScenarioRepository.findAll(filter, pageable);
+        List<ExecutedScenarioWithTeamIdsAndErrorsAndProblemsDTO> content = toDtosWithProblems(projectId,
+                page.getContent(), functionalityTeamIds, new HashMap<>());
+        return new PageImpl<>(content, page.getPageable(), page.getTotalElements());
+    }
+
+    /**
+     * Map executed scenarios with their team IDs, errors and problems, loading the problems of all their errors in one
+     * query.
+     *
+     * @param projectId            the ID of the project in which to work
+     * @param executedScenarios    the executed scenarios to map, with their errors (loaded eagerly)
+     * @param functionalityTeamIds the team IDs of the functionalities of the project, by functionality ID
+     * @param defectUrls           the defect URLs of the problems already mapped, by problem ID: filled by this method,
+     *                             to be reused between calls (the same problems occur in a lot of scenarios)
+     * @return the mapped executed scenarios, in the same order
+     */
+    public List<ExecutedScenarioWithTeamIdsAndErrorsAndProblemsDTO> toDtosWithProblems(long projectId,
+            List<ExecutedScenario> executedScenarios, Map<Long, Long> functionalityTeamIds, Map<Long, String> defectUrls) {
+        if (executedScenarios.isEmpty()) {
+            return new ArrayList<>();
+        }
+        // Initializes the problem occurrences of the errors loaded with the executed scenarios
+        errorRepository.findAllWithProblemsByExecutedScenarioIdIn(executedScenarios.stream()
+                .map(ExecutedScenario::getId)
+                .toList());
+        return mapper.mapCollection(executedScenarios, ExecutedScenarioWithTeamIdsAndErrorsAndProblemsDTO.class,
+                (executedScenario, dto) -> mapTeamIdsAndProblems(projectId, executedScenario, dto, functionalityTeamIds, defectUrls));
+    }
+
+    /**
+     * Set the team IDs of a mapped executed scenario, and the problems of its mapped errors.
+     *
+     * @param projectId            the ID of the project in which to work
+     * @param executedScenario     the executed scenario, with its errors and their problem occurrences
+     * @param executedScenarioDto  the mapped executed scenario to complete
+     * @param functionalityTeamIds the team IDs of the functionalities of the project, by functionality ID
+     * @param defectUrls           the defect URLs of the problems already mapped, by problem ID: filled by this method,
+     *                             to be reused between calls
+     */
+    public void mapTeamIdsAndProblems(long projectId, ExecutedScenario executedScenario,
+            ExecutedScenarioWithTeamIdsAndErrorsAndProblemsDTO executedScenarioDto, Map<Long, Long> functionalityTeamIds,
+            Map<Long, String> defectUrls) {
+        executedScenarioDto.setTeamIds(getTeamIds(executedScenario, functionalityTeamIds));
+        assignProblemsToErrors(projectId, executedScenario, executedScenarioDto, defectUrls);
+    }
+
+    private void assignProblemsToErrors(long projectId, ExecutedScenario executedScenario,
+            ExecutedScenarioWithTeamIdsAndErrorsAndProblemsDTO executedScenarioDto, Map<Long, String> defectUrls) {
+        Map<Long, Error> errors = executedScenario.getErrors().stream()
+                .collect(Collectors.toMap(Error::getId, Function.identity()));
+        for (ErrorWithProblemsDTO errorDto : executedScenarioDto.getErrors()) {
+            List<Problem> problems = errors.get(errorDto.getId()).getProblemOccurrences().stream()
+                    .map(ProblemOccurrence::getProblemPattern)
+                    .map(ProblemPattern::getProblem)
+                    .sorted(Comparator.nullsLast(Problem::compareTo))
+                    .distinct()
+                    .toList();
+            errorDto.setProblems(mapper.mapCollection(problems, ProblemDTO.class));
+            for (ProblemDTO problem : errorDto.getProblems()) {
+                problem.setDefectUrl(defectUrls.computeIfAbsent(problem.getId(),
+                        problemId -> problemService.retrieveDefectUrl(projectId, problem)));
+            }
+        }
+    }
+
+    private ExecutedScenarioFilter toFilter(long projectId, long executionId, long runId, ExecutionCriteriaDTO criteria,
+            Map<Long, Long> functionalityTeamIds) throws BadRequestException {
+        ExecutedScenarioFilter filter = new ExecutedScenarioFilter();
+        filter.setProjectId(projectId);
+        filter.setExecutionId(executionId);
+        filter.setRunId(runId);
+        filter.setCountryCode(criteria.getCountry());
+        filter.setTypeCode(criteria.getType());
+        filter.setFeatureName(criteria.getFeature());
+        filter.setScenarioName(criteria.getScenario());
+        filter.setStep(criteria.getStep());
+        filter.setException(criteria.getException());
+        filter.setProblemId(criteria.getProblem());
+        filter.setWithSucceed(criteria.isWithSucceed());
+
+        String severity = criteria.getSeverity();
+        if (StringUtils.isNotEmpty(severity)) {
+            // Scenarios without severity are of the default severity, as for the quality of the execution
+            Severity defaultSeverity = severityRepository.findByProjectIdAndDefaultOnMissing(projectId, true);
+            filter.setSeverity(severity);
+            filter.setSeverityMissing(NO_SEVERITY.equals(severity) ||
+                    (defaultSeverity != null && severity.equals(defaultSeverity.getCode())));
+        }
+
+        Long team = criteria.getTeam();
+        if (team != null) {
+            if (team.longValue() == NO_TEAM) {
+                filter.setExcludedFunctionalityIds(functionalityTeamIds.keySet());
+            } else {
+                filter.setFunctionalityIds(functionalityTeamIds.entrySet().stream()
+                        .filter(entry -> team.equals(entry.getValue()))
+                        .map(Map.Entry::getKey)
+                        .toList());
+                filter.setBlamedTeamId(team);
+            }
+        }
+
+        String handling = criteria.getHandling();
+        if (StringUtils.isNotEmpty(handling)) {
+            try {
+                filter.setHandling(Handling.valueOf(handling));
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException(Messages.RULE_EXECUTED_SCENARIO_UNKNOWN_HANDLING, Entities.EXECUTED_SCENARIO, "unknown_handling");
+            }
+        }
+        return filter;
+    }
+
     /**
      * Return the basic informations of an executed scenario from its id.
      *
@@ -112,37 +286,26 @@ public class ExecutedScenarioService {
 
     private void assignProblemsToErrors(List<ExecutedScenario> executedScenarios, List<ExecutedScenarioWithRunAndTeamIdsAndExecutionAndErrorsAndProblemsDTO> dtoList) {
         // Error has problemPatterns, leading to problems, but ErrorWithProblemsDTO directly has a list of problems: fill list manually
-        Map<Error, List<Problem>> errorsProblems = errorRepository.getErrorsProblems(flattenErrors(executedScenarios));
+        Map<Long, List<Problem>> errorsProblems = errorRepository.getErrorsProblems(executedScenarios.stream()
+                .flatMap(executedScenario -> executedScenario.getErrors().stream())
+                .map(Error::getId)
+                .toList());
+        // The same few problems occur in most errors of a history: map each of them once
+        Map<Long, ProblemDTO> problemDtos = new HashMap<>();
         for (ExecutedScenarioWithRunAndTeamIdsAndExecutionAndErrorsAndProblemsDTO executedScenarioDto : dtoList) {
             for (ErrorWithProblemsDTO errorDto : executedScenarioDto.getErrors()) {
-                errorDto.setProblems(mapper.mapCollection(getErrorProblems(errorsProblems, errorDto.getId()), ProblemDTO.class));
+                errorDto.setProblems(errorsProblems.getOrDefault(errorDto.getId(), List.of()).stream()
+                        .map(problem -> problemDtos.computeIfAbsent(problem.getId(), id -> mapper.map(problem, ProblemDTO.class)))
+                        .toList());
             }
         }
     }
 
-    private void assignTeamsToExecutedScenarios(long projectId, List<ExecutedScenarioWithRunAndTeamIdsAndExecutionAndErrorsAndProblemsDTO> executedScenarios) {
-        final Map<Long, Long> functionalityTeamIds = functionalityRepository.getFunctionalityTeamIds(projectId);
-        for (ExecutedScenarioWithRunAndTeamIdsAndExecutionAndErrorsAndProblemsDTO executedScenario : executedScenarios) {
-            executedScenario.setTeamIds(ScenarioExtractorUtil.extractFunctionalityIds(executedScenario.getName()).stream()
-                    .map(functionalityTeamIds::get)
-                    .filter(Objects::nonNull) // Unknown functionality IDs have null team IDs
-                    .collect(Collectors.toSet()));
-        }
-    }
-
-    private List<Error> flattenErrors(Collection<ExecutedScenario> executedScenarios) {
-        return executedScenarios.stream()
-                .flatMap(s -> s.getErrors().stream())
-                .toList();
-    }
-
-    private List<Problem> getErrorProblems(Map<Error, List<Problem>> errorsProblems, Long errorId) {
-        for (Map.Entry<Error, List<Problem>> entry : errorsProblems.entrySet()) {
-            if (entry.getKey().getId().equals(errorId)) {
-                return entry.getValue();
-            }
-        }
-        return new ArrayList<>();
+    private static Set<Long> getTeamIds(ExecutedScenario executedScenario, Map<Long, Long> functionalityTeamIds) {
+        return ScenarioExtractorUtil.getFunctionalityIds(executedScenario.getFunctionalityIds(), executedScenario.getName()).stream()
+                .map(functionalityTeamIds::get)
+                .filter(Objects::nonNull) // Unknown functionality IDs have null team IDs
+                .collect(Collectors.toSet());
     }
 
 }
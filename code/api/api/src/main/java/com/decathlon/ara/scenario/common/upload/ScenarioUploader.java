@@ -75,6 +75,7 @@ public class ScenarioUploader {
 
         functionalities = deleteScenariosFromSameSource(source, functionalities);
 
+        assignFunctionalityIds(newScenarios);
         assignWrongFunctionalityIds(functionalities, newScenarios);
         assignWrongSeverityCode(getSeverityCodes(projectId), newScenarios);
         assignWrongCountryCodes(getCountryCodes(projectId), newScenarios);
@@ -111,6 +112,15 @@ public class ScenarioUploader {
         List<Scenario> get(Source source) throws BadRequestException;
     }
 
+    /**
+     * @param scenarios the new scenarios in which to store the functionality IDs extracted from their names
+     */
+    private static void assignFunctionalityIds(List<Scenario> scenarios) {
+        for (Scenario scenario : scenarios) {
+            scenario.setFunctionalityIds(ScenarioExtractorUtil.formatFunctionalityIds(scenario.getName()));
+        }
+    }
+
     /**
      * @param functionalities the functionalities in which to assign the wrongFunctionalityIds, if any
      * @param scenarios       the new scenarios to append to matching functionalities (excluding folders)
@@ -181,9 +191,14 @@ public class ScenarioUploader {
      * @param newScenarios    the new scenarios to append to matching functionalities (excluding folders)
      */
     private static void assignCoverage(Collection<Functionality> functionalities, List<Scenario> newScenarios) {
+        Map<Long, Functionality> functionalitiesById = new HashMap<>();
         for (Functionality functionality : functionalities) {
-            for (Scenario scenario : newScenarios) {
-                if (ScenarioExtractorUtil.extractFunctionalityIds(scenario.getName()).contains(functionality.getId())) {
+            functionalitiesById.put(functionality.getId(), functionality);
+        }
+        for (Scenario scenario : newScenarios) {
+            for (Long functionalityId : new LinkedHashSet<>(ScenarioExtractorUtil.getFunctionalityIds(scenario.getFunctionalityIds(), scenario.getName()))) {
+                Functionality functionality = functionalitiesById.get(functionalityId);
+                if (functionality != null) {
                     functionality.addScenario(scenario);
                 }
             }
@@ -18,11 +18,8 @@
 package com.decathlon.ara.scenario.cucumber.bean;
 
 import java.nio.charset.StandardCharsets;
-import java.util.Base64;
 import java.util.Optional;
 
-import org.apache.commons.lang3.StringUtils;
-
 import com.decathlon.ara.lib.embed.consumer.StructuredEmbeddingsExtractor;
 import com.decathlon.ara.lib.embed.consumer.StructuredEmbeddingsHolder;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
@@ -34,14 +31,18 @@ public class Embedded {
     @JsonProperty("mime_type")
     private String mimeType;
 
-    private String data;
+    /**
+     * The base64 "data" of the JSON report, decoded by Jackson while parsing: large screenshots are never held twice
+     * (as a base64 String and as bytes).
+     */
+    private byte[] data;
 
     public Optional<String> getDecodedDataAsString() {
         return getDecodedDataAsBytes().map(bytes -> new String(bytes, StandardCharsets.UTF_8));
     }
 
     public Optional<byte[]> getDecodedDataAsBytes() {
-        return Optional.ofNullable(data).filter(StringUtils::isNotEmpty).map(d -> Base64.getDecoder().decode(d));
+        return Optional.ofNullable(data).filter(d -> d.length > 0);
     }
 
     /**
@@ -88,7 +89,7 @@ public class Embedded {
         return mimeType;
     }
 
-    public String getData() {
+    public byte[] getData() {
         return data;
     }
 
@@ -20,12 +20,17 @@ package com.decathlon.ara.scenario.cucumber.indexer;
 import com.decathlon.ara.domain.ExecutedScenario;
 import com.decathlon.ara.domain.Run;
 import com.decathlon.ara.scenario.common.indexer.ScenariosIndexer;
+import com.decathlon.ara.scenario.cucumber.bean.Element;
 import com.decathlon.ara.scenario.cucumber.bean.Feature;
 import com.decathlon.ara.scenario.cucumber.service.ExecutedScenarioExtractorService;
+import com.decathlon.ara.scenario.cucumber.service.ExecutedScenarioExtractorService.FeatureExtraction;
 import com.decathlon.ara.scenario.cucumber.settings.CucumberSettings;
 import com.decathlon.ara.service.FileProcessorService;
 import com.decathlon.ara.service.TechnologySettingService;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -69,15 +74,8 @@ public class CucumberScenariosIndexer implements ScenariosIndexer {
      */
     @Override
     public List<ExecutedScenario> getExecutedScenarios(File cucumberFolder, Run run, Long projectId) {
-        List<Feature> features = new ArrayList<>();
         List<String> stepDefinitions = new ArrayList<>();
 
-        String reportFileName = technologySettingService.getSettingValue(projectId, CucumberSettings.REPORT_PATH).orElse("");
-        Optional<File> cucumberReportFile = fileProcessorService.getMatchingSimpleFile(cucumberFolder, reportFileName);
-        if (cucumberReportFile.isPresent()) {
-            features = getCucumberFeaturesFromReport(cucumberReportFile.get());
-        }
-
         String stepDefinitionsFileName = technologySettingService.getSettingValue(projectId, CucumberSettings.STEP_DEFINITIONS_PATH).orElse("");
 
         Optional<File> stepDefinitionsFile = fileProcessorService.getMatchingSimpleFile(cucumberFolder, stepDefinitionsFileName);
@@ -85,7 +83,67 @@ public class CucumberScenariosIndexer implements ScenariosIndexer {
             stepDefinitions = getCucumberStepDefinitions(stepDefinitionsFile.get());
         }
 
-        return executedScenarioExtractorService.extractExecutedScenarios(features, stepDefinitions, run.getJobUrl());
+        String reportFileName = technologySettingService.getSettingValue(projectId, CucumberSettings.REPORT_PATH).orElse("");
+        Optional<File> cucumberReportFile = fileProcessorService.getMatchingSimpleFile(cucumberFolder, reportFileName);
+        if (cucumberReportFile.isPresent()) {
+            return streamExecutedScenariosFromReport(cucumberReportFile.get(), stepDefinitions, run.getJobUrl());
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * Parse the Cucumber report file one scenario at a time: the report (and its embedded screenshots) is never fully
+     * loaded in memory, only the largest scenario is.
+     *
+     * @param cucumberReport  the Cucumber report file
+     * @param stepDefinitions the Cucumber step definitions
+     * @param runJobUrl       the continuous integration job URL of the run of the report
+     * @return the Cucumber executed scenarios, or an empty list if the report cannot be read
+     */
+    public List<ExecutedScenario> streamExecutedScenariosFromReport(File cucumberReport, List<String> stepDefinitions, String runJobUrl) {
+        List<ExecutedScenario> executedScenarios = new ArrayList<>();
+        try (InputStream input = new FileInputStream(cucumberReport);
+                JsonParser parser = objectMapper.getFactory().createParser(input)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                LOG.info("SCENARIO|cucumber|The report file {} is not a JSON array of features", cucumberReport.getPath());
+                return new ArrayList<>();
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                executedScenarios.addAll(streamFeature(parser, stepDefinitions, runJobUrl));
+            }
+            if (parser.currentToken() != JsonToken.END_ARRAY) {
+                throw new IOException("Unexpected " + parser.currentToken() + " in the features of the report");
+            }
+        } catch (IOException e) {
+            LOG.info("Cannot download report file in {}", cucumberReport.getPath(), e);
+            return new ArrayList<>();
+        }
+        return executedScenarios;
+    }
+
+    /**
+     * @param parser a parser positioned on the start of a feature object
+     * @return the executed scenarios of the feature, once the parser is positioned on the end of the feature object
+     * @throws IOException if the feature cannot be parsed
+     */
+    private List<ExecutedScenario> streamFeature(JsonParser parser, List<String> stepDefinitions, String runJobUrl) throws IOException {
+        FeatureExtraction extraction = executedScenarioExtractorService.startFeature(stepDefinitions);
+        // Small properties (name, uri, tags...) are kept aside: Cucumber often writes them after the elements
+        ObjectNode featureProperties = objectMapper.createObjectNode();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            if (parser.nextToken() == JsonToken.START_ARRAY && "elements".equals(fieldName)) {
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    extraction.addElement(objectMapper.readValue(parser, Element.class));
+                }
+                if (parser.currentToken() != JsonToken.END_ARRAY) {
+                    throw new IOException("Unexpected " + parser.currentToken() + " in the elements of a feature");
+                }
+            } else {
+                featureProperties.set(fieldName, objectMapper.readTree(parser));
+            }
+        }
+        return extraction.complete(objectMapper.treeToValue(featureProperties, Feature.class), runJobUrl);
     }
 
     /**
@@ -65,21 +65,80 @@ public class ExecutedScenarioExtractorService {
      */
     public List<ExecutedScenario> extractExecutedScenarios(List<Feature> features, List<String> stepDefinitions, String runJobUrl) {
         final List<ExecutedScenario> executedScenarios = new ArrayList<>();
-        ExecutedScenario lastBackground = null;
         for (Feature feature : features) {
+            FeatureExtraction extraction = startFeature(stepDefinitions);
             for (Element element : feature.getElements()) {
-                if (element.isBackground()) {
-                    lastBackground = extractBackground(stepDefinitions, element);
-                } else if (element.isScenario()) {
-                    executedScenarios.add(extractExecutedScenario(stepDefinitions, feature, element, runJobUrl, lastBackground));
-                    lastBackground = null;
-                }
+                extraction.addElement(element);
             }
-            lastBackground = null;
+            executedScenarios.addAll(extraction.complete(feature, runJobUrl));
         }
         return executedScenarios;
     }
 
+    /**
+     * Start extracting the executed scenarios of a feature whose elements are streamed one at a time, for the whole
+     * report to never be held in memory.
+     *
+     * @param stepDefinitions a parsed stepDefinitions.json file/stream generated by functional-test-base-core's CliRunner containing a list of
+     *                        regular expressions for all known Cucumber' steps
+     * @return the extraction to feed with the elements of the feature, in report order, and to complete with the feature
+     */
+    public FeatureExtraction startFeature(List<String> stepDefinitions) {
+        return new FeatureExtraction(stepDefinitions);
+    }
+
+    /**
+     * Executed scenarios of a feature being extracted element by element. Each element is fully processed (and its
+     * screenshot uploaded) as soon as it is added, so it can be garbage collected right away. The feature properties
+     * are only needed at the end: Cucumber often writes them after the elements.
+     */
+    public class FeatureExtraction {
+
+        private final List<String> stepDefinitions;
+
+        private final List<ExtractedScenario> extractedScenarios = new ArrayList<>();
+
+        private ExecutedScenario lastBackground;
+
+        private FeatureExtraction(List<String> stepDefinitions) {
+            this.stepDefinitions = stepDefinitions;
+        }
+
+        /**
+         * @param element the next element (background or scenario) of the feature
+         */
+        public void addElement(Element element) {
+            if (element.isBackground()) {
+                lastBackground = extractBackground(stepDefinitions, element);
+            } else if (element.isScenario()) {
+                extractedScenarios.add(extractExecutedScenario(stepDefinitions, element, lastBackground));
+                lastBackground = null;
+            }
+        }
+
+        /**
+         * @param feature   the feature properties (its elements are ignored: they were added one by one)
+         * @param runJobUrl the continuous integration job URL of the run of this feature
+         * @return the executed-scenarios of the feature, with errors for failed scenarios; screenshots have been uploaded
+         */
+        public List<ExecutedScenario> complete(Feature feature, String runJobUrl) {
+            Set<String> featureTags = Tag.names(feature.getTags());
+            List<ExecutedScenario> executedScenarios = new ArrayList<>(extractedScenarios.size());
+            for (ExtractedScenario extractedScenario : extractedScenarios) {
+                ExecutedScenario executedScenario = extractedScenario.executedScenario;
+                Set<String> allTags = Sets.union(featureTags, extractedScenario.scenarioTags);
+                executedScenario.setFeatureFile(feature.getUri());
+                executedScenario.setFeatureName(feature.getName());
+                executedScenario.setFeatureTags(String.join(" ", featureTags));
+                executedScenario.setSeverity(Tag.extractSeverity(allTags, executedScenario.getName()));
+                executedScenario.setCucumberReportUrl(runJobUrl + "cucumber-html-reports/report-feature_" + feature.getReportFileName());
+                executedScenarios.add(executedScenario);
+            }
+            return executedScenarios;
+        }
+
+    }
+
     private ExecutedScenario extractBackground(List<String> stepDefinitions, Element element) {
         ExecutedScenario background = new ExecutedScenario();
         background.setContent(CucumberReportUtil.extractScenarioContent(element, null));
@@ -87,20 +146,17 @@ public class ExecutedScenarioExtractorService {
         return background;
     }
 
-    private ExecutedScenario extractExecutedScenario(List<String> stepDefinitions, Feature feature, Element scenario, String runJobUrl, ExecutedScenario lastBackground) {
-        Set<String> featureTags = Tag.names(feature.getTags());
+    /**
+     * @return the executed scenario with everything but the properties coming from its feature
+     */
+    private ExtractedScenario extractExecutedScenario(List<String> stepDefinitions, Element scenario, ExecutedScenario lastBackground) {
         Set<String> scenarioTags = Tag.names(scenario.getTags());
-        Set<String> allTags = Sets.union(featureTags, scenarioTags);
 
         // If the project is using StructuredEmbeddings, they have priority
         Optional<StructuredEmbeddingsHolder> structuredEmbeddings = scenario.extractStructuredEmbeddings();
 
         ExecutedScenario executedScenario = new ExecutedScenario();
-        executedScenario.setFeatureFile(feature.getUri());
-        executedScenario.setFeatureName(feature.getName());
-        executedScenario.setFeatureTags(String.join(" ", featureTags));
         executedScenario.setTags(String.join(" ", scenarioTags));
-        executedScenario.setSeverity(Tag.extractSeverity(allTags, scenario.getName()));
         executedScenario.setName(scenario.getName());
         executedScenario.setCucumberId(ScenarioExtractorUtil.removeFunctionalitiesFromScenarioCucumberId(scenario.getId()));
         executedScenario.setLine(scenario.getLine().intValue());
@@ -112,7 +168,6 @@ public class ExecutedScenarioExtractorService {
         executedScenario.setHttpRequestsUrl(extractStringData(structuredEmbeddings, "httpRequestsUrl"));
         executedScenario.setJavaScriptErrorsUrl(extractStringData(structuredEmbeddings, "javaScriptErrorsUrl"));
         executedScenario.setDiffReportUrl(extractStringData(structuredEmbeddings, "diffReportUrl"));
-        executedScenario.setCucumberReportUrl(runJobUrl + "cucumber-html-reports/report-feature_" + feature.getReportFileName());
         executedScenario.setApiServer(extractStringData(structuredEmbeddings, "apiServer"));
         executedScenario.setSeleniumNode(extractStringData(structuredEmbeddings, "seleniumNode"));
 
@@ -124,7 +179,7 @@ public class ExecutedScenarioExtractorService {
         executedScenario.addErrors(ErrorExtractorUtil.extractErrors(stepDefinitions, scenario.getSteps(), null));
         executedScenario.addErrors(ErrorExtractorUtil.extractErrors(stepDefinitions, scenario.getAfter(), "@After"));
 
-        return executedScenario;
+        return new ExtractedScenario(executedScenario, scenarioTags);
     }
 
     private String extractScreenshotUrl(Optional<StructuredEmbeddingsHolder> structuredEmbeddings, Element scenario) {
@@ -162,4 +217,17 @@ public class ExecutedScenarioExtractorService {
                 .orElse(null);
     }
 
+    private static class ExtractedScenario {
+
+        private final ExecutedScenario executedScenario;
+
+        private final Set<String> scenarioTags;
+
+        ExtractedScenario(ExecutedScenario executedScenario, Set<String> scenarioTags) {
+            this.executedScenario = executedScenario;
+            this.scenarioTags = scenarioTags;
+        }
+
+    }
+
 }
@@ -18,9 +18,14 @@
 package com.decathlon.ara.scenario.cucumber.util;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -48,6 +53,27 @@ public class ScenarioExtractorUtil {
     private static final Pattern FUNCTIONALITY_PATTERN_ON_NAME = Pattern.compile("(F[uo]nction[n]?al[l]?it[yi][e]?[s]?[ \\t][^:]*[:][ \\t]*).*", Pattern.CASE_INSENSITIVE);
     private static final String FUNCTIONALITY_IDS_SPLIT_PATTERN = "(,|&|and)";
 
+    private static final String STORED_FUNCTIONALITY_IDS_SEPARATOR = ",";
+
+    /**
+     * The maximum length of the functionality IDs stored with a scenario (the length of their column).
+     */
+    private static final int STORED_FUNCTIONALITY_IDS_MAX_LENGTH = 255;
+
+    private static final int FUNCTIONALITY_IDS_CACHE_SIZE = 10_000;
+
+    /**
+     * The functionality IDs extracted from the names of the scenarios indexed before their IDs were stored, by name:
+     * the least recently used names are evicted first.
+     */
+    private static final Map<String, List<Long>> FUNCTIONALITY_IDS_CACHE = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, List<Long>> eldest) {
+                    return size() > FUNCTIONALITY_IDS_CACHE_SIZE;
+                }
+            });
+
     public static List<Scenario> extractScenarios(Source source, List<Feature> features) {
         List<Scenario> scenarios = new ArrayList<>();
         Scenario lastBackground = null;
@@ -103,6 +129,42 @@ public class ScenarioExtractorUtil {
         return ids;
     }
 
+    /**
+     * @param scenarioName the name of a scenario being indexed or uploaded
+     * @return the functionality IDs of the scenario, in the compact form stored with it, or null if too long to be
+     * stored (they will be extracted from the name when needed)
+     */
+    public static String formatFunctionalityIds(String scenarioName) {
+        if (scenarioName == null) {
+            return null;
+        }
+        final String ids = extractFunctionalityIds(scenarioName).stream()
+                .map(String::valueOf)
+                .collect(Collectors.joining(STORED_FUNCTIONALITY_IDS_SEPARATOR));
+        return ids.length() > STORED_FUNCTIONALITY_IDS_MAX_LENGTH ? null : ids;
+    }
+
+    /**
+     * @param storedFunctionalityIds the functionality IDs stored with the scenario (see
+     *                               {@link #formatFunctionalityIds(String)}), or null if not stored
+     * @param scenarioName           the name of the scenario, to extract its functionality IDs when they are not stored
+     * @return the functionality IDs of the scenario (unmodifiable)
+     */
+    public static List<Long> getFunctionalityIds(String storedFunctionalityIds, String scenarioName) {
+        if (storedFunctionalityIds != null) {
+            if (storedFunctionalityIds.isEmpty()) {
+                return Collections.emptyList();
+            }
+            return Arrays.stream(storedFunctionalityIds.split(STORED_FUNCTIONALITY_IDS_SEPARATOR))
+                    .map(Long::valueOf)
+                    .toList();
+        }
+        if (scenarioName == null) {
+            return Collections.emptyList();
+        }
+        return FUNCTIONALITY_IDS_CACHE.computeIfAbsent(scenarioName, name -> List.copyOf(extractFunctionalityIds(name)));
+    }
+
     public static List<String> extractWrongFunctionalityIds(String scenarioName, Collection<Functionality> functionalities) {
         List<String> wrongIds = new ArrayList<>();
         for (final String rawMaybeId : maybeIds(scenarioName)) {
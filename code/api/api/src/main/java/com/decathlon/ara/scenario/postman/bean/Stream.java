@@ -17,26 +17,32 @@
 
 package com.decathlon.ara.scenario.postman.bean;
 
-import java.io.File;
-
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
+@JsonDeserialize(using = StreamDeserializer.class)
 public class Stream {
 
     /**
      * The body of an HTTP response (or request) as a stream of bytes.<br>
-     * Can potentially be big, so while streaming the JSON file, the data is saved to a temporary file on disk and the field is set to false to avoid OutOfMemoryErrors. The file can then be removed (if request was a success) or uploaded (if the request was an error and we need the response stream data to debug it).<br>
+     * Can potentially be big, and most of them are never displayed: while streaming the JSON report file, only the
+     * position of the data in the file is kept (see {@link #dataOffset}), and the data is read from the file again only
+     * if the request failed and we need the response stream data to debug it. The data is set to null once used.<br>
      * There is a "type":"Buffer" in the Stream object, but it might be for future expansion, as there is currently no other values.
      */
     private byte[] data;
 
     /**
-     * Temporary file used to temporarily dump the stream from {@code data}.
-     *
-     * @see #data data for more detailed documentation of the process
+     * The position, in bytes in the Newman report file, of the JSON array of the {@link #data} of this stream; or -1 if
+     * the data was parsed from a source without byte positions (then, it is kept in {@link #data}).
+     */
+    private long dataOffset = -1;
+
+    /**
+     * The length, in bytes in the Newman report file, of the JSON array of the {@link #data} of this stream.
      */
-    private File tempFile;
+    private long dataLength;
 
     public byte[] getData() {
         return data;
@@ -46,12 +52,28 @@ public class Stream {
         this.data = data;
     }
 
-    public File getTempFile() {
-        return tempFile;
+    public long getDataOffset() {
+        return dataOffset;
+    }
+
+    public long getDataLength() {
+        return dataLength;
     }
 
-    public void setTempFile(File tempFile) {
-        this.tempFile = tempFile;
+    /**
+     * @param dataOffset the position of the JSON array of the data in the Newman report file, in bytes
+     * @param dataLength the length of the JSON array of the data in the Newman report file, in bytes
+     */
+    public void setDataRange(long dataOffset, long dataLength) {
+        this.dataOffset = dataOffset;
+        this.dataLength = dataLength;
+    }
+
+    /**
+     * @return true if the data is still in the Newman report file, and not in {@link #data}
+     */
+    public boolean hasDataRange() {
+        return dataOffset >= 0;
     }
 
 }
@@ -0,0 +1,63 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.scenario.postman.bean;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+/**
+ * Deserialize a {@link Stream} without its data: the data JSON array is skipped, only its position in the report file
+ * is kept, to be read again only if needed.<br>
+ * If the parser does not provide byte positions (eg. when parsing a String), the data is read in memory.
+ */
+public class StreamDeserializer extends StdDeserializer<Stream> {
+
+    private static final long serialVersionUID = 1L;
+
+    public StreamDeserializer() {
+        super(Stream.class);
+    }
+
+    @Override
+    public Stream deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        Stream stream = new Stream();
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            token = parser.nextToken();
+        }
+        for (; token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+            final String fieldName = parser.getCurrentName();
+            final JsonToken valueToken = parser.nextToken();
+            final long offset = parser.getTokenLocation().getByteOffset();
+            if ("data".equals(fieldName) && valueToken == JsonToken.START_ARRAY && offset >= 0) {
+                parser.skipChildren();
+                stream.setDataRange(offset, parser.getCurrentLocation().getByteOffset() - offset);
+            } else if ("data".equals(fieldName)) {
+                stream.setData(context.readValue(parser, byte[].class));
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return stream;
+    }
+
+}
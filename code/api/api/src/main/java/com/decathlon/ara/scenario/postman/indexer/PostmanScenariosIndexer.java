@@ -18,9 +18,11 @@
 package com.decathlon.ara.scenario.postman.indexer;
 
 import com.decathlon.ara.ci.util.JsonParserConsumer;
+import com.decathlon.ara.configuration.AraConfiguration;
 import com.decathlon.ara.domain.ExecutedScenario;
 import com.decathlon.ara.domain.Run;
 import com.decathlon.ara.scenario.common.indexer.ScenariosIndexer;
+import com.decathlon.ara.scenario.postman.bean.Item;
 import com.decathlon.ara.scenario.postman.model.NewmanParsingResult;
 import com.decathlon.ara.scenario.postman.service.PostmanService;
 import com.decathlon.ara.scenario.postman.settings.PostmanSettings;
@@ -28,17 +30,33 @@ import com.decathlon.ara.service.FileProcessorService;
 import com.decathlon.ara.service.TechnologySettingService;
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonParser;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PreDestroy;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
+/**
+ * Index the Newman reports of a Postman run folder, in parallel if configured.<br>
+ * Each report gets its own range of request positions (the lines of its executed scenarios), placed in the order of
+ * the report file names: lines are unique in the run, and the same whatever the order in which reports are parsed.
+ * A report is post-processed right after being parsed, so its parsing result can be released before the others end.
+ * A report that cannot be parsed is skipped (and counted in the "ara.indexing.postman.report.failures" metric): the
+ * requests of the other reports are still indexed.
+ */
 @Component
 public class PostmanScenariosIndexer implements ScenariosIndexer {
 
@@ -52,12 +70,33 @@ public class PostmanScenariosIndexer implements ScenariosIndexer {
 
     private final FileProcessorService fileProcessorService;
 
+    /**
+     * Parses the reports of a run at the same time, or null to parse them one after the other.
+     */
+    private final ForkJoinPool reportPool;
+
+    private final Timer reportParsingTimer;
+
+    private final Counter reportFailureCounter;
+
     public PostmanScenariosIndexer(PostmanService postmanService, JsonFactory jsonFactory,
-            TechnologySettingService technologySettingService, FileProcessorService fileProcessorService) {
+            TechnologySettingService technologySettingService, FileProcessorService fileProcessorService,
+            AraConfiguration araConfiguration, MeterRegistry meterRegistry) {
         this.postmanService = postmanService;
         this.jsonFactory = jsonFactory;
         this.technologySettingService = technologySettingService;
         this.fileProcessorService = fileProcessorService;
+        Integer parallelism = araConfiguration.getPostmanReportParallelism();
+        this.reportPool = parallelism == null || parallelism.intValue() < 2 ? null : new ForkJoinPool(parallelism.intValue());
+        this.reportParsingTimer = meterRegistry.timer("ara.indexing.postman.report.parsing");
+        this.reportFailureCounter = meterRegistry.counter("ara.indexing.postman.report.failures");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (reportPool != null) {
+            reportPool.shutdown();
+        }
     }
 
     /**
@@ -69,41 +108,115 @@ public class PostmanScenariosIndexer implements ScenariosIndexer {
      */
     @Override
     public List<ExecutedScenario> getExecutedScenarios(File postmanFolder, Run run, Long projectId) {
-        List<List<ExecutedScenario>> allExecutedScenarios = new ArrayList<>();
         String postmanReportFolderName = technologySettingService.getSettingValue(projectId, PostmanSettings.REPORTS_PATH).orElse("");
         List<File> postmanReports = getNewmanReportFiles(postmanFolder, postmanReportFolderName);
         String resultFileName = technologySettingService.getSettingValue(projectId, PostmanSettings.RESULT_FILE_NAME).orElse("").toLowerCase();
         boolean containsResult = postmanReports.stream()
                 .anyMatch(file -> resultFileName.equals(file.getName().toLowerCase()));
-        if (containsResult) {
-            List<File> postmanReportsWithoutResultFile = postmanReports.stream()
-                    .filter(file -> !resultFileName.equals(file.getName().toLowerCase()))
-                    .toList();
+        if (!containsResult) {
+            return new ArrayList<>();
+        }
+        List<File> postmanReportsWithoutResultFile = postmanReports.stream()
+                .filter(file -> !resultFileName.equals(file.getName().toLowerCase()))
+                .sorted(Comparator.comparing(File::getName))
+                .toList();
 
-            AtomicInteger requestPosition = new AtomicInteger(0);
-
-            for (File postmanReportFile : postmanReportsWithoutResultFile) {
-                final NewmanParsingResult newmanParsingResult = new NewmanParsingResult();
-                try {
-                    JsonParserConsumer consumer = jsonParser -> postmanService.parse(jsonParser, newmanParsingResult);
-                    try (InputStream input = new FileInputStream(postmanReportFile); JsonParser parser = jsonFactory.createParser(input)) {
-                        consumer.accept(parser);
-                    } catch (IOException e) {
-                        LOG.error("Error while handling the postman report file {}", postmanReportFile.getPath(), e);
-                        return new ArrayList<>();
-                    }
-                    List<ExecutedScenario> currentFileExecutedScenarios = postmanService.postProcess(run, newmanParsingResult, postmanReportFile.getName(), requestPosition);
-                    allExecutedScenarios.add(currentFileExecutedScenarios);
-                } finally {
-                    postmanService.deleteTempFiles(newmanParsingResult);
-                }
+        // Each report is post-processed as soon as it is parsed, with positions starting at 0, so that only the
+        // reports being processed are in memory: their lines are then shifted in the order of the file names
+        List<ReportResult> reportResults = map(postmanReportsWithoutResultFile, file -> parseAndPostProcess(run, file));
+        List<ExecutedScenario> executedScenarios = new ArrayList<>();
+        int requestPosition = 0;
+        for (ReportResult reportResult : reportResults) {
+            for (ExecutedScenario executedScenario : reportResult.executedScenarios()) {
+                executedScenario.setLine(executedScenario.getLine() + requestPosition);
+                executedScenarios.add(executedScenario);
             }
+            requestPosition += reportResult.itemCount();
+        }
+        return executedScenarios;
+    }
+
+    /**
+     * Apply a function to each input, in the report pool if there is one.
+     *
+     * @param inputs   the inputs
+     * @param function the function to apply to each input
+     * @param <T>      the type of the inputs
+     * @param <R>      the type of the outputs
+     * @return the outputs of the function, in the order of the inputs
+     */
+    private <T, R> List<R> map(List<T> inputs, Function<T, R> function) {
+        if (reportPool == null || inputs.size() < 2) {
+            return inputs.stream()
+                    .map(function)
+                    .toList();
         }
-        return allExecutedScenarios.stream()
-                .flatMap(Collection::stream)
+        final List<ForkJoinTask<R>> tasks = inputs.stream()
+                .map(input -> reportPool.submit(() -> function.apply(input)))
+                .toList();
+        return tasks.stream()
+                .map(ForkJoinTask::join)
                 .toList();
     }
 
+    /**
+     * @param postmanReportFile a Newman report file
+     * @return the parsed report, or null if it cannot be parsed
+     */
+    private NewmanParsingResult parse(File postmanReportFile) {
+        final NewmanParsingResult newmanParsingResult = new NewmanParsingResult();
+        newmanParsingResult.setReportFile(postmanReportFile);
+        JsonParserConsumer consumer = jsonParser -> postmanService.parse(jsonParser, newmanParsingResult);
+        final long start = System.nanoTime();
+        try (InputStream input = new FileInputStream(postmanReportFile); JsonParser parser = jsonFactory.createParser(input)) {
+            consumer.accept(parser);
+            return newmanParsingResult;
+        } catch (IOException | RuntimeException e) {
+            LOG.error("Error while handling the postman report file {}: its requests are not indexed", postmanReportFile.getPath(), e);
+            reportFailureCounter.increment();
+            return null;
+        } finally {
+            reportParsingTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * @param run               the run of the report
+     * @param postmanReportFile a Newman report file
+     * @return the executed scenarios of the report (with lines starting at 1) and the number of positions it uses, or
+     * no executed scenario if they cannot be extracted from the report (and no position if it cannot even be parsed)
+     */
+    private ReportResult parseAndPostProcess(Run run, File postmanReportFile) {
+        final NewmanParsingResult newmanParsingResult = parse(postmanReportFile);
+        if (newmanParsingResult == null) {
+            return new ReportResult(new ArrayList<>(), 0);
+        }
+        final int itemCount = countItems(newmanParsingResult.getCollection() == null ? null : newmanParsingResult.getCollection().getItem());
+        try {
+            return new ReportResult(postmanService.postProcess(run, newmanParsingResult, postmanReportFile.getName(),
+                    new AtomicInteger(0)), itemCount);
+        } catch (RuntimeException e) {
+            LOG.error("Error while handling the postman report file {}: its requests are not indexed", postmanReportFile.getPath(), e);
+            reportFailureCounter.increment();
+            return new ReportResult(new ArrayList<>(), itemCount);
+        }
+    }
+
+    /**
+     * @param items a tree of folders and requests of a Postman collection
+     * @return the number of folders and requests in the tree: the number of positions used by the post-processing of
+     * the report (before removing the folders and the requests without execution)
+     */
+    private static int countItems(Item[] items) {
+        int count = 0;
+        if (items != null) {
+            for (Item item : items) {
+                count += 1 + countItems(item.getChildren());
+            }
+        }
+        return count;
+    }
+
     /**
      * Extract the Newman report files, i.e. files in the reports folder
      * @param newmanFolder the newman folder
@@ -120,4 +233,12 @@ public class PostmanScenariosIndexer implements ScenariosIndexer {
         }
         return newmanReportFiles;
     }
+
+    /**
+     * @param executedScenarios the executed scenarios of a report, with lines relative to the report
+     * @param itemCount         the number of positions used by the report
+     */
+    private record ReportResult(List<ExecutedScenario> executedScenarios, int itemCount) {
+    }
+
 }
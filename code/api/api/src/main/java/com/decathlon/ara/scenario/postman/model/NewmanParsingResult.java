@@ -17,6 +17,7 @@
 
 package com.decathlon.ara.scenario.postman.model;
 
+import java.io.File;
 import java.util.List;
 
 import com.decathlon.ara.scenario.postman.bean.Collection;
@@ -27,6 +28,12 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class NewmanParsingResult {
 
+    /**
+     * The parsed Newman report file, from which the bodies of the failed requests are read when needed (can be null if
+     * the report was not parsed from a file: the bodies are then kept in memory).
+     */
+    private File reportFile;
+
     private Collection collection;
 
     private List<Execution> executions;
@@ -57,4 +64,12 @@ public class NewmanParsingResult {
         this.failures = failures;
     }
 
+    public File getReportFile() {
+        return reportFile;
+    }
+
+    public void setReportFile(File reportFile) {
+        this.reportFile = reportFile;
+    }
+
 }
@@ -19,9 +19,8 @@ package com.decathlon.ara.scenario.postman.service;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.RandomAccessFile;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
@@ -29,7 +28,9 @@ import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -37,10 +38,7 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
-import org.apache.commons.io.FileUtils;
-import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.apache.commons.text.StringEscapeUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -119,7 +117,7 @@ public class PostmanService {
      * $.run.executions: an array with all HTTP requests made<br>
      * Each request can be huge, as it contains HTTP response bodies (as an array of integers representing the binary stream)<br>
      * We map one execution object at a time, to reduce OutOfMemory chances<br>
-     * We extract the response body and upload it: we keep only an URL to the uploaded place
+     * We skip the response body, keeping only its position in the file: it is read again only for failed requests
      * </li>
      * <li>
      * $.run.failures: contains about the same as item in collection, with useless objects like parent<br>
@@ -158,7 +156,7 @@ public class PostmanService {
      * and use RamUsageEstimator.sizeOf(object)</p>
      *
      * @param parser the parser, pointing to an open stream, ready to parse the Newman-generated report.json
-     * @param result the object where to return parsing result: at completion or if an exception occurs, it can contains temporary files that needs to be removed (after using them or not)
+     * @param result the object where to return parsing result
      * @throws IOException on streaming error or the stream was not well-formed and JSON parsing failed
      */
     public void parse(JsonParser parser, NewmanParsingResult result) throws IOException {
@@ -205,7 +203,7 @@ public class PostmanService {
 
     /**
      * Parse the content of a "run" property of the root object of a Newman JSON report: read "executions" and "failures" properties, ignoring everything else.<br>
-     * Execution response body streams are saved to file, to free up some RAM.
+     * Execution response body streams are not read, to free up some RAM.
      *
      * @param parser the parser, pointing to the START_OBJECT of the "run" object of an open stream
      * @param result the object where to put the read executions and failures
@@ -239,7 +237,7 @@ public class PostmanService {
     }
 
     /**
-     * Parse the "executions" array, one value at a time, saving the response body streams to files on the go (to free up some RAM).
+     * Parse the "executions" array, one value at a time, skipping the response body streams (to free up some RAM).
      *
      * @param parser     the parser, pointing to the START_ARRAY of the "executions" array of an open stream
      * @param executions the list where to put the read executions
@@ -254,36 +252,11 @@ public class PostmanService {
 
             if (jsonToken == JsonToken.START_OBJECT) {
                 LOG.debug("SCENARIO|postman|[json:$.run.executions] found execution: parsing it");
-                Execution execution = objectMapper.readValue(parser, Execution.class);
-                executions.add(execution); // Add BEFORE saving to file: if write fails (no space left), the "half-"file can be deleted
-                saveExecutionStreamToFile(execution);
+                executions.add(objectMapper.readValue(parser, Execution.class));
             }
         }
     }
 
-    /**
-     * Save the HTTP response body stream to file, if any, and set it to null (to free up some RAM).<br>
-     * While setting stream data to null, the stream tempFile is set.
-     *
-     * @param execution the execution (may not contain any response not any stream data)
-     * @throws IOException if something goes wrong (streaming or parsing error)
-     */
-    void saveExecutionStreamToFile(Execution execution) throws IOException {
-        if (execution.getResponse() == null ||
-                execution.getResponse().getStream() == null ||
-                execution.getResponse().getStream().getData() == null) {
-            return;
-        }
-
-        final Stream stream = execution.getResponse().getStream();
-
-        File file = File.createTempFile("ara_execution_response_stream_", ".bin");
-        file.deleteOnExit();
-        FileUtils.writeByteArrayToFile(file, stream.getData());
-        stream.setTempFile(file);
-        stream.setData(null);
-    }
-
     /**
      * Walk through the Postman tree of folders and requests in the collection and create a flat list of NewmanScenarios, with created ExecutedScenarios for each one.
      *
@@ -296,34 +269,50 @@ public class PostmanService {
      */
     List<NewmanScenario> toScenarios(Item[] items, AtomicInteger requestPosition, String parentSeverity, String... parentFolders) {
         List<NewmanScenario> newmanScenarios = new ArrayList<>();
-        if (items != null) {
-            for (Item item : items) {
-                // Compute item severity (deepest items' severity override severity of previous ones)
-                String severity = getSeverity(ArrayUtils.addAll(parentFolders, item.getName()));
-                if (StringUtils.isEmpty(severity)) {
-                    severity = parentSeverity;
-                }
+        addScenarios(newmanScenarios, items, requestPosition, parentSeverity, parentFolders);
+        return newmanScenarios;
+    }
 
-                // Compute item path (without any tag)
-                String nameWithoutTag = removeSeverityTag(item.getName());
-                String[] path = ArrayUtils.addAll(parentFolders, nameWithoutTag);
+    /**
+     * Recursive part of {@link #toScenarios(Item[], AtomicInteger, String, String...)}, appending all scenarios to the
+     * same list.
+     */
+    private void addScenarios(List<NewmanScenario> newmanScenarios, Item[] items, AtomicInteger requestPosition,
+            String parentSeverity, String[] parentFolders) {
+        if (items == null) {
+            return;
+        }
+        // The name of the parent folders is shared by all items of the folder
+        String parentName = parentFolders.length == 0 ? null : String.join(FOLDER_DELIMITER, parentFolders);
+        for (Item item : items) {
+            // The path of the item, with its name first with and then without tag
+            String[] path = Arrays.copyOf(parentFolders, parentFolders.length + 1);
+            path[parentFolders.length] = item.getName();
+
+            // Compute item severity (deepest items' severity override severity of previous ones)
+            String severity = getSeverity(path);
+            if (StringUtils.isEmpty(severity)) {
+                severity = parentSeverity;
+            }
 
-                ExecutedScenario executedScenario = new ExecutedScenario(); // UNIQUE: "runId", "featureFile", "name", "line"
-                executedScenario.setName(String.join(FOLDER_DELIMITER, path));
-                executedScenario.setLine(requestPosition.incrementAndGet());
-                executedScenario.setCucumberId(toCucumberId(path));
-                executedScenario.setSeverity(severity);
-                executedScenario.setTags(StringUtils.isEmpty(severity) ? null : Tag.SEVERITY_PREFIX + severity);
+            // Compute item path (without any tag)
+            String nameWithoutTag = removeSeverityTag(item.getName());
+            path[parentFolders.length] = nameWithoutTag;
 
-                NewmanScenario newmanScenario = new NewmanScenario();
-                newmanScenario.setScenario(executedScenario);
-                newmanScenario.setItem(item);
-                newmanScenarios.add(newmanScenario);
+            ExecutedScenario executedScenario = new ExecutedScenario(); // UNIQUE: "runId", "featureFile", "name", "line"
+            executedScenario.setName(parentName == null ? nameWithoutTag : parentName + FOLDER_DELIMITER + nameWithoutTag);
+            executedScenario.setLine(requestPosition.incrementAndGet());
+            executedScenario.setCucumberId(toCucumberId(path));
+            executedScenario.setSeverity(severity);
+            executedScenario.setTags(StringUtils.isEmpty(severity) ? null : Tag.SEVERITY_PREFIX + severity);
 
-                newmanScenarios.addAll(toScenarios(item.getChildren(), requestPosition, severity, path));
-            }
+            NewmanScenario newmanScenario = new NewmanScenario();
+            newmanScenario.setScenario(executedScenario);
+            newmanScenario.setItem(item);
+            newmanScenarios.add(newmanScenario);
+
+            addScenarios(newmanScenarios, item.getChildren(), requestPosition, severity, path);
         }
-        return newmanScenarios;
     }
 
     /**
@@ -401,11 +390,12 @@ public class PostmanService {
      * @param newmanScenarios all Newman executed requests: executions will be appended to them
      */
     void mapExecutionsToScenarios(List<Execution> executions, List<NewmanScenario> newmanScenarios) {
+        final Map<String, NewmanScenario> newmanScenariosByItemId = indexByItemId(newmanScenarios);
         for (Execution execution : executions) {
             final String itemId = execution.getItem().getId(); // execution.id is mostly the same... but not always!
-            Optional<NewmanScenario> newmanScenario = findByItemId(newmanScenarios, itemId);
-            if (newmanScenario.isPresent()) {
-                newmanScenario.get().setExecution(execution);
+            NewmanScenario newmanScenario = newmanScenariosByItemId.get(itemId);
+            if (newmanScenario != null) {
+                newmanScenario.setExecution(execution);
             } else {
                 LOG.warn("SCENARIO|postman|Execution {} has no matching item in the Postman collection", itemId);
             }
@@ -413,16 +403,17 @@ public class PostmanService {
     }
 
     /**
-     * Find a Newman scenario in the list by its UUID.
+     * Index Newman scenarios by the UUIDs of their items, to match the executions and failures of a report in one pass.
      *
      * @param newmanScenarios each one containing an item
-     * @param id              the UUID of the item to search for in the list of scenarios
-     * @return the found scenario with the given UUID, if any
+     * @return the scenarios by UUID of their item (the first one wins if several items have the same UUID)
      */
-    private Optional<NewmanScenario> findByItemId(List<NewmanScenario> newmanScenarios, String id) {
-        return newmanScenarios.stream()
-                .filter(s -> s.getItem().getId().equals(id))
-                .findFirst();
+    private Map<String, NewmanScenario> indexByItemId(List<NewmanScenario> newmanScenarios) {
+        Map<String, NewmanScenario> newmanScenariosByItemId = new HashMap<>();
+        for (NewmanScenario newmanScenario : newmanScenarios) {
+            newmanScenariosByItemId.putIfAbsent(newmanScenario.getItem().getId(), newmanScenario);
+        }
+        return newmanScenariosByItemId;
     }
 
     /**
@@ -432,10 +423,11 @@ public class PostmanService {
      * @param newmanScenarios all Newman executed requests: failures will be appended to them
      */
     void mapFailuresToScenarios(List<Failure> failures, List<NewmanScenario> newmanScenarios) {
+        final Map<String, NewmanScenario> newmanScenariosByItemId = indexByItemId(newmanScenarios);
         for (Failure failure : failures) {
-            Optional<NewmanScenario> newmanScenario = findByItemId(newmanScenarios, failure.getSource().getId());
-            if (newmanScenario.isPresent()) {
-                newmanScenario.get().getFailures().add(failure);
+            NewmanScenario newmanScenario = newmanScenariosByItemId.get(failure.getSource().getId());
+            if (newmanScenario != null) {
+                newmanScenario.getFailures().add(failure);
             } else {
                 LOG.warn("SCENARIO|postman|Failure {} has no matching item in the Postman collection", failure.getSource().getId());
             }
@@ -657,7 +649,7 @@ public class PostmanService {
 
     /**
      * The Newman report processing is a two-stage process.<br>
-     * After the streaming of the file and the saving of some data to temporary files, we get a NewmanParsingResult aggregating the useful fragments of the report.<br>
+     * After the streaming of the file (keeping only the position of response bodies in the file), we get a NewmanParsingResult aggregating the useful fragments of the report.<br>
      * This post-process method will take this NewmanParsingResult and do the heavy work of generating a list of ExecutedScenario, with errors and uploaded HTTP request+response log HTML file.<br>
      * This is mainly done by matching the 3 big objects of the report: the collection of items, the execution of request items, and the failures of these executions.
      *
@@ -683,7 +675,7 @@ public class PostmanService {
         // We will only upload HTTP logs for failed requests, to not overload the server with too much details
         for (NewmanScenario newmanScenario : newmanScenarios) {
             if (newmanScenario.getFailures().isEmpty()) {
-                deleteTempFile(newmanScenario.getExecution().getResponse());
+                releaseResponseBody(newmanScenario.getExecution().getResponse());
             }
         }
 
@@ -692,7 +684,7 @@ public class PostmanService {
         for (NewmanScenario newmanScenario : newmanScenarios) {
             newmanScenario.getScenario().setFeatureFile(collectionFileName);
             newmanScenario.getScenario().setFeatureName(collectionName);
-            newmanScenario.getScenario().setHttpRequestsUrl(uploadHttpLog(newmanScenario));
+            newmanScenario.getScenario().setHttpRequestsUrl(uploadHttpLog(newmanScenario, result.getReportFile()));
             newmanScenario.getScenario().setCucumberReportUrl(run.getJobUrl() + "Postman_Collection_Results/");
             newmanScenario.getScenario().setStartDateTime(getStartDateTime(newmanScenario.getExecution().getResponse()).map(Date::from).orElse(null));
         }
@@ -703,38 +695,35 @@ public class PostmanService {
     }
 
     /**
-     * Delete the temporary file generated for a Newman request (removing the HTTP response body file),
-     * after having processed the file or after an exception was thrown during report processing, to clean up the server's temporary folder.
+     * Free the HTTP response body of a Newman request, if it was kept in memory, once it is not needed anymore.
      *
-     * @param response an HTTP response (can be null, with or without a body stream, itself with or without temporary file)
+     * @param response an HTTP response (can be null, with or without a body stream, itself with or without data)
      */
-    void deleteTempFile(Response response) {
+    void releaseResponseBody(Response response) {
         if (response != null && response.getStream() != null) {
-            Stream stream = response.getStream();
-            final File tempFile = stream.getTempFile();
-            if (tempFile != null) {
-                try {
-                    Files.delete(Paths.get(tempFile.getPath()));
-                } catch (IOException e) {
-                    LOG.warn("SCENARIO|postman|Cannot delete temporary file {}", tempFile, e);
-                }
-                stream.setTempFile(null);
-            }
+            response.getStream().setData(null);
         }
     }
 
     /**
-     * Delete all temporary files generated for the Newman requests (removing all HTTP response body files),
-     * after having processed the files or after an exception was thrown, to clean up the server's temporary folder.
+     * Read the HTTP response body of a Newman request from the report file, if it was not kept in memory while parsing
+     * the report.
      *
-     * @param newmanParsingResult the whole Newman parsing result from a Newman JSON report
+     * @param reportFile the Newman report file from which the response was parsed
+     * @param response   an HTTP response (can be null, with or without a body stream): its stream data is set
+     * @throws IOException if the report file cannot be read
      */
-    public void deleteTempFiles(NewmanParsingResult newmanParsingResult) {
-        if (newmanParsingResult.getExecutions() != null) {
-            for (Execution execution : newmanParsingResult.getExecutions()) {
-                deleteTempFile(execution.getResponse());
-            }
+    void loadResponseBody(File reportFile, Response response) throws IOException {
+        if (reportFile == null || response == null || response.getStream() == null || !response.getStream().hasDataRange()) {
+            return;
+        }
+        final Stream stream = response.getStream();
+        byte[] json = new byte[Math.toIntExact(stream.getDataLength())];
+        try (RandomAccessFile file = new RandomAccessFile(reportFile, "r")) {
+            file.seek(stream.getDataOffset());
+            file.readFully(json);
         }
+        stream.setData(objectMapper.readValue(json, byte[].class));
     }
 
     /**
@@ -742,16 +731,22 @@ public class PostmanService {
      * Otherwise, do nothing and return null.
      *
      * @param newmanScenario containing an execution of the request by Newman
+     * @param reportFile     the Newman report file, from which to read the response body of the request
      * @return the URL of the uploaded file, or null if no file has been produced or uploaded or failed to upload
      */
-    String uploadHttpLog(NewmanScenario newmanScenario) {
+    String uploadHttpLog(NewmanScenario newmanScenario, File reportFile) {
         if (!newmanScenario.getFailures().isEmpty()) {
-            String html = generateHttpLogHtml(newmanScenario);
-
+            final Response response = newmanScenario.getExecution().getResponse();
             try {
+                try {
+                    loadResponseBody(reportFile, response);
+                } catch (IOException e) {
+                    LOG.warn("SCENARIO|postman|Cannot read the response body of a request in {}", reportFile, e);
+                }
+                String html = generateHttpLogHtml(newmanScenario);
                 return assetService.saveHttpLogs(html);
             } finally {
-                deleteTempFile(newmanScenario.getExecution().getResponse());
+                releaseResponseBody(response);
             }
         }
         return null;
@@ -875,25 +870,16 @@ public class PostmanService {
     }
 
     /**
-     * If any, reads the temp file containing the HTTP response body and append it as String (prettyified if JSON) in the build HTML.
+     * If any, append the HTTP response body as String (prettyified if JSON) in the build HTML.
      *
      * @param html        the StringBuilder in which to append the body
-     * @param stream      only tmpFile is used (but it is NOT deleted by this method, to allow several retry attempts)
-     * @param contentType the content type of the file (charset is assumed UTF-8)
+     * @param stream      only data is used (it must have been loaded from the report file before, if not in memory)
+     * @param contentType the content type of the data (charset is assumed UTF-8)
      */
     void appendResponseBody(StringBuilder html, Stream stream, String contentType) {
-        if (stream.getTempFile() != null) {
-            String fileContent;
-            try {
-                fileContent = FileUtils.readFileToString(stream.getTempFile(), StandardCharsets.UTF_8);
-                fileContent = prettyPrint(fileContent, contentType);
-            } catch (IOException e) {
-                LOG.warn("SCENARIO|postman|Cannot read temporary file {}", stream.getTempFile(), e);
-                fileContent = "Error in ARA while reading the content of the response received by Newman:\n" +
-                        ExceptionUtils.getStackTrace(e);
-            }
-
-            html.append("<pre>").append(escapeHtml(fileContent)).append("</pre>\n");
+        if (stream.getData() != null) {
+            String content = prettyPrint(new String(stream.getData(), StandardCharsets.UTF_8), contentType);
+            html.append("<pre>").append(escapeHtml(content)).append("</pre>\n");
         }
     }
 
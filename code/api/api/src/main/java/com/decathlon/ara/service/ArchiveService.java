@@ -18,18 +18,30 @@
 package com.decathlon.ara.service;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
+import java.util.zip.ZipFile;
 
+import javax.annotation.PreDestroy;
+
+import org.apache.commons.io.FileUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.decathlon.ara.configuration.AraConfiguration;
+
 /**
  * This service provide operation to easily manipulate Archives files (for now only ZIP files).
  *
@@ -39,59 +51,104 @@ public class ArchiveService {
 
     private static final Logger LOG = LoggerFactory.getLogger(ArchiveService.class);
 
+    /**
+     * Extracts the entries of one uploaded ZIP file in parallel, or null to extract them one after the other.
+     */
+    private final ForkJoinPool unzipPool;
+
+    public ArchiveService(AraConfiguration araConfiguration) {
+        Integer parallelism = araConfiguration.getUnzipParallelism();
+        this.unzipPool = parallelism == null || parallelism.intValue() < 2 ? null : new ForkJoinPool(parallelism.intValue());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (unzipPool != null) {
+            unzipPool.shutdown();
+        }
+    }
+
     /**
      * Unzip the given file to the given destination.
      *
+     * The upload is not read through a stream: it is moved to a temporary file (most of the time, the file the servlet
+     * container already wrote the upload in is just renamed), whose central directory gives all entries at once, so
+     * they can be extracted in parallel (see {@link AraConfiguration#getUnzipParallelism()}).
      *
      * Note that if the given file is empty, then this method will log in Warning level this fact and do nothing.
      *
      * @param file        the Multipart file to unzip.
      * @param destination the destination where to put the resulting tree hierarchy in the zip.
-     * @throws IOException If the file is empty, can't be read or if the process doesn't have the rights to write
+     * @return the extracted files (not the directories), as absolute and normalized paths, in the order of the zip
+     * @throws IOException If the file can't be read or if the process doesn't have the rights to write
      *                     at the given destination.
      */
-    public void unzip(MultipartFile file, File destination) throws IOException {
+    public List<Path> unzip(MultipartFile file, File destination) throws IOException {
         if (file.isEmpty()) {
             LOG.warn("The given ZIP file is empty !");
+            return Collections.emptyList();
+        }
+        Path spoolDirectory = Files.createTempDirectory("ara-upload-");
+        try {
+            Path spooledFile = spoolDirectory.resolve("upload.zip");
+            file.transferTo(spooledFile);
+            try (ZipFile zipFile = new ZipFile(spooledFile.toFile())) {
+                return unzip(zipFile, destination.toPath().toAbsolutePath().normalize());
+            }
+        } finally {
+            FileUtils.deleteQuietly(spoolDirectory.toFile());
         }
-        this.unzip(file.getInputStream(), destination);
     }
 
-    /**
-     * Unzip the given file to the given destination.
-     *
-     * @param inputStream the InputStream to the zip file to unzip.
-     * @param destination the destination where to put the resulting tree hierarchy in the zip.
-     * @throws IOException If the file is empty, can't be read or if the process doesn't have the rights to write
-     *                     at the given destination.
-     */
-    public void unzip(InputStream inputStream, File destination) throws IOException {
-        try (ZipInputStream zis = new ZipInputStream(inputStream)) {
-            ZipEntry entry = zis.getNextEntry();
-            while (null != entry) {
-                File target = new File(destination, entry.getName());
-                String canonicalPath = target.getCanonicalPath();
-                if (!canonicalPath.startsWith(destination.getCanonicalPath())) {
-                    throw new IOException("Entry is outside of the target directory");
-                }
-                LOG.debug("Unzipping : {}", target.getAbsolutePath());
-                if (!entry.isDirectory()) {
-                    this.writeEntry(zis, target);
+    private List<Path> unzip(ZipFile zipFile, Path destination) throws IOException {
+        List<ZipEntry> entries = new ArrayList<>();
+        List<Path> targets = new ArrayList<>();
+        for (ZipEntry entry : Collections.list(zipFile.entries())) {
+            Path target = destination.resolve(entry.getName()).normalize();
+            if (!target.startsWith(destination)) {
+                throw new IOException("Entry is outside of the target directory");
+            }
+            if (!entry.isDirectory()) {
+                entries.add(entry);
+                targets.add(target);
+            }
+        }
+
+        if (unzipPool == null || entries.size() < 2) {
+            for (int i = 0; i < entries.size(); i++) {
+                writeEntry(zipFile, entries.get(i), targets.get(i));
+            }
+            return targets;
+        }
+
+        List<ForkJoinTask<Path>> extractions = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            ZipEntry entry = entries.get(i);
+            Path target = targets.get(i);
+            extractions.add(unzipPool.submit(() -> writeEntry(zipFile, entry, target)));
+        }
+        for (ForkJoinTask<Path> extraction : extractions) {
+            try {
+                extraction.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while unzipping to " + destination, e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException ioException) {
+                    throw ioException;
                 }
-                entry = zis.getNextEntry();
+                throw new IOException("Unable to unzip to " + destination, e.getCause());
             }
         }
+        return targets;
     }
 
-    private void writeEntry(ZipInputStream zis, File target) throws IOException {
-        Files.createDirectories(target.getParentFile().toPath());
-        byte[] buffer = new byte[4096];
-        try (FileOutputStream fos = new FileOutputStream(target)) {
-            int len = zis.read(buffer);
-            while (len > 0) {
-                fos.write(buffer, 0, len);
-                len = zis.read(buffer);
-            }
+    private Path writeEntry(ZipFile zipFile, ZipEntry entry, Path target) throws IOException {
+        LOG.debug("Unzipping : {}", target);
+        Files.createDirectories(target.getParent());
+        try (InputStream inputStream = zipFile.getInputStream(entry)) {
+            Files.copy(inputStream, target, StandardCopyOption.REPLACE_EXISTING);
         }
+        return target;
     }
 }
@@ -47,11 +47,14 @@ public class CycleDefinitionService {
 
     private final ExecutionRepository executionRepository;
 
+    private final CycleLastExecutionsService cycleLastExecutionsService;
+
     public CycleDefinitionService(CycleDefinitionRepository repository, GenericMapper mapper,
-            ExecutionRepository executionRepository) {
+            ExecutionRepository executionRepository, CycleLastExecutionsService cycleLastExecutionsService) {
         this.repository = repository;
         this.mapper = mapper;
         this.executionRepository = executionRepository;
+        this.cycleLastExecutionsService = cycleLastExecutionsService;
     }
 
     /**
@@ -68,6 +71,7 @@ public class CycleDefinitionService {
         entity.setProjectId(projectId);
         final CycleDefinition savedEntity = repository.save(entity);
         updateBranchPositions(projectId, savedEntity.getBranch(), savedEntity.getBranchPosition());
+        cycleLastExecutionsService.evict(projectId);
         return mapper.map(savedEntity, CycleDefinitionDTO.class);
     }
 
@@ -93,6 +97,7 @@ public class CycleDefinitionService {
         entity.setProjectId(projectId);
         final CycleDefinition savedEntity = repository.save(entity);
         updateBranchPositions(projectId, savedEntity.getBranch(), savedEntity.getBranchPosition());
+        cycleLastExecutionsService.evict(projectId);
         return mapper.map(savedEntity, CycleDefinitionDTO.class);
     }
 
@@ -126,6 +131,7 @@ public class CycleDefinitionService {
         }
 
         repository.delete(entity);
+        cycleLastExecutionsService.evict(projectId);
     }
 
     private void validateBusinessRules(long projectId, CycleDefinitionDTO dto) throws NotUniqueException {
@@ -0,0 +1,102 @@
+package com.decathlon.ara.service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.decathlon.ara.cache.CacheInvalidationBus;
+import com.decathlon.ara.cache.EvictableCache;
+import com.decathlon.ara.domain.CycleDefinition;
+import com.decathlon.ara.domain.Execution;
+import com.decathlon.ara.repository.CycleDefinitionRepository;
+import com.decathlon.ara.repository.ExecutionRepository;
+
+/**
+ * Keeps in memory, for each project, the last executions of each cycle: they are displayed in the stability bars of
+ * the problems, and only change when executions are indexed or purged, or when cycles are modified (on any ARA
+ * instance, through the {@link CacheInvalidationBus}).
+ */
+@Service
+@Transactional(readOnly = true)
+public class CycleLastExecutionsService {
+
+    /**
+     * The number of executions of each cycle displayed in the stability bars.
+     */
+    public static final int LAST_EXECUTION_COUNT = 10;
+
+    private static final String CACHE_NAME = "cycle-last-executions";
+
+    private final EvictableCache<Long, List<CycleLastExecutions>> cache = new EvictableCache<>();
+
+    private final CycleDefinitionRepository cycleDefinitionRepository;
+
+    private final ExecutionRepository executionRepository;
+
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    public CycleLastExecutionsService(CycleDefinitionRepository cycleDefinitionRepository,
+            ExecutionRepository executionRepository, CacheInvalidationBus cacheInvalidationBus) {
+        this.cycleDefinitionRepository = cycleDefinitionRepository;
+        this.executionRepository = executionRepository;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        cacheInvalidationBus.subscribe(CACHE_NAME, projectId -> cache.evict(Long.valueOf(projectId)));
+    }
+
+    /**
+     * @param projectId the ID of the project in which to work
+     * @return all cycles of the project (in their display order), each with its last executions (from the newest to the
+     * oldest, at most {@link #LAST_EXECUTION_COUNT})
+     */
+    public List<CycleLastExecutions> getLastExecutions(long projectId) {
+        final Long key = Long.valueOf(projectId);
+        List<CycleLastExecutions> cycles = cache.get(key);
+        if (cycles == null) {
+            final long generation = cache.getGeneration(key);
+            cycles = cache.putIfNotEvicted(key, generation, loadLastExecutions(projectId));
+        }
+        return cycles;
+    }
+
+    /**
+     * Forget the last executions of a project on all ARA instances, once the current transaction (if any) is committed.
+     *
+     * @param projectId the ID of the project whose executions or cycles changed
+     */
+    public void evict(long projectId) {
+        cacheInvalidationBus.publish(CACHE_NAME, String.valueOf(projectId));
+    }
+
+    private List<CycleLastExecutions> loadLastExecutions(long projectId) {
+        List<CycleLastExecutions> cycles = new ArrayList<>();
+        for (CycleDefinition cycleDefinition : cycleDefinitionRepository.findAllByProjectIdOrderByBranchPositionAscBranchAscNameAsc(projectId)) {
+            List<LastExecution> lastExecutions = executionRepository
+                    .findTop10ByCycleDefinitionProjectIdAndCycleDefinitionBranchAndCycleDefinitionNameOrderByTestDateTimeDesc(
+                            cycleDefinition.getProjectId(), cycleDefinition.getBranch(), cycleDefinition.getName())
+                    .stream()
+                    .map(execution -> new LastExecution(execution.getId(), execution.getTestDateTime()))
+                    .toList();
+            cycles.add(new CycleLastExecutions(cycleDefinition.getBranch(), cycleDefinition.getName(), lastExecutions));
+        }
+        return List.copyOf(cycles);
+    }
+
+    /**
+     * @param branch     the branch of the cycle
+     * @param name       the name of the cycle
+     * @param executions the last executions of the cycle, from the newest to the oldest
+     */
+    public record CycleLastExecutions(String branch, String name, List<LastExecution> executions) {
+    }
+
+    /**
+     * @param id           the {@link Execution} ID
+     * @param testDateTime the date and time of the tests of the execution
+     */
+    public record LastExecution(Long id, Date testDateTime) {
+    }
+
+}
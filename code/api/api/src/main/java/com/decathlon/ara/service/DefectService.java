@@ -18,6 +18,7 @@
 package com.decathlon.ara.service;
 
 import com.decathlon.ara.ci.util.FetchException;
+import com.decathlon.ara.cluster.ClusterCoordinator;
 import com.decathlon.ara.common.NotGonnaHappenException;
 import com.decathlon.ara.defect.DefectAdapter;
 import com.decathlon.ara.defect.bean.Defect;
@@ -30,6 +31,8 @@ import com.decathlon.ara.repository.ProjectRepository;
 import com.decathlon.ara.repository.custom.util.TransactionAppenderUtil;
 import com.decathlon.ara.service.support.Settings;
 import com.decathlon.ara.service.util.DateService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -41,6 +44,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Handles synchronization of problem statuses with their external defects.<br>
@@ -64,24 +68,34 @@ public class DefectService {
 
     private final DateService dateService;
 
+    private final RunHandlingCountsService runHandlingCountsService;
+
     private final TransactionAppenderUtil transactionAppenderUtil;
 
     private final ApplicationContext applicationContext;
 
+    private final ClusterCoordinator clusterCoordinator;
+
+    private final MeterRegistry meterRegistry;
+
     /**
      * Lazy-loaded: to be used through {@link #getAdapters()}.
      */
     private List<DefectAdapter> adapters;
 
     public DefectService(@Lazy SettingService settingService, ProjectRepository projectRepository,
-            ProblemRepository problemRepository, DateService dateService,
-            TransactionAppenderUtil transactionAppenderUtil, ApplicationContext applicationContext) {
+            ProblemRepository problemRepository, DateService dateService, RunHandlingCountsService runHandlingCountsService,
+            TransactionAppenderUtil transactionAppenderUtil, ApplicationContext applicationContext,
+            ClusterCoordinator clusterCoordinator, MeterRegistry meterRegistry) {
         this.settingService = settingService;
         this.projectRepository = projectRepository;
         this.problemRepository = problemRepository;
         this.dateService = dateService;
+        this.runHandlingCountsService = runHandlingCountsService;
         this.transactionAppenderUtil = transactionAppenderUtil;
         this.applicationContext = applicationContext;
+        this.clusterCoordinator = clusterCoordinator;
+        this.meterRegistry = meterRegistry;
     }
 
     /**
@@ -126,6 +140,10 @@ public class DefectService {
             initialDelayString = "${ara.defectSyncSchedulingInitialDelayInMilliseconds}")
     @Transactional
     public void updateStatuses() {
+        if (!clusterCoordinator.isLeader()) {
+            LOG.debug("DEFECT|Defect statuses are synchronized by the leader instance");
+            return;
+        }
         for (Project project : projectRepository.findAllByOrderByName()) {
             getAdapter(project.getId().longValue())
                     .ifPresent(adapter -> updateStatuses(project, adapter));
@@ -172,8 +190,8 @@ public class DefectService {
         final long projectId = project.getId();
         final List<Problem> problems = problemRepository.findAllByProjectIdAndDefectIdIsNotEmpty(projectId);
 
-        final List<String> defectIds = problems.stream().map(Problem::getDefectId).toList();
-        final List<Defect> statuses = defectAdapter.getStatuses(projectId, defectIds);
+        final List<String> defectIds = problems.stream().map(Problem::getDefectId).distinct().toList();
+        final List<Defect> statuses = getStatuses(projectId, defectAdapter, defectIds);
         updateDefectAssignations(problems, statuses);
     }
 
@@ -203,13 +221,13 @@ public class DefectService {
 
     private void incrementalIndex(long projectId, DefectAdapter defectAdapter, Date since, List<Problem> problems) throws FetchException {
         // Get updated/created defects since last successful indexing, and update associated problems, if any
+        final Map<String, List<Problem>> problemsByDefectId = new HashMap<>();
+        for (Problem problem : problems) {
+            problemsByDefectId.computeIfAbsent(problem.getDefectId(), id -> new ArrayList<>()).add(problem);
+        }
         final List<Problem> problemsToUpdate = new ArrayList<>();
-        for (Defect defect : defectAdapter.getChangedDefects(projectId, since)) {
-            final Optional<Problem> maybeProblem = problems.stream()
-                    .filter(p -> defect.getId().equals(p.getDefectId()))
-                    .findFirst();
-            if (maybeProblem.isPresent()) {
-                Problem problem = maybeProblem.get();
+        for (Defect defect : getChangedDefects(projectId, defectAdapter, since)) {
+            for (Problem problem : problemsByDefectId.getOrDefault(defect.getId(), Collections.emptyList())) {
                 if (problem.getDefectExistence() != DefectExistence.EXISTS ||
                         problem.getStatus() != defect.getStatus() ||
                         !areEqualDownToSeconds(problem.getClosingDateTime(), defect.getCloseDateTime())) {
@@ -220,7 +238,7 @@ public class DefectService {
                 }
             }
         }
-        problemRepository.saveAll(problemsToUpdate);
+        saveChangedProblems(problemsToUpdate);
 
         // Force indexing UNKNOWN for defects assigned while the defect tracking system was down
         final List<Problem> unknownProblems = problems.stream()
@@ -228,18 +246,68 @@ public class DefectService {
                 .toList();
         final List<String> unknownDefectIds = unknownProblems.stream()
                 .map(Problem::getDefectId)
+                .distinct()
                 .toList();
         if (!unknownDefectIds.isEmpty()) {
-            updateDefectAssignations(unknownProblems, defectAdapter.getStatuses(projectId, unknownDefectIds));
+            updateDefectAssignations(unknownProblems, getStatuses(projectId, defectAdapter, unknownDefectIds));
+        }
+    }
+
+    /**
+     * Get the statuses of defects, recording the latency of the defect tracking system in the
+     * "ara.defects.fetch" timer, tagged with the code of the adapter and the "statuses" operation.
+     *
+     * @param projectId     the ID of the project in which to work
+     * @param defectAdapter the adapter of the defect tracking system of the project
+     * @param defectIds     the IDs of the defects to get
+     * @return the statuses of the existing defects
+     * @throws FetchException on any error of the defect tracking system
+     */
+    private List<Defect> getStatuses(long projectId, DefectAdapter defectAdapter, List<String> defectIds) throws FetchException {
+        final long start = System.nanoTime();
+        try {
+            return defectAdapter.getStatuses(projectId, defectIds);
+        } finally {
+            fetchTimer(defectAdapter, "statuses").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         }
     }
 
+    /**
+     * Get the defects changed since a date, recording the latency of the defect tracking system in the
+     * "ara.defects.fetch" timer, tagged with the code of the adapter and the "changes" operation.
+     *
+     * @param projectId     the ID of the project in which to work
+     * @param defectAdapter the adapter of the defect tracking system of the project
+     * @param since         the date from which to get changed defects
+     * @return the changed defects
+     * @throws FetchException on any error of the defect tracking system
+     */
+    private List<Defect> getChangedDefects(long projectId, DefectAdapter defectAdapter, Date since) throws FetchException {
+        final long start = System.nanoTime();
+        try {
+            return defectAdapter.getChangedDefects(projectId, since);
+        } finally {
+            fetchTimer(defectAdapter, "changes").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer fetchTimer(DefectAdapter defectAdapter, String operation) {
+        return Timer.builder("ara.defects.fetch")
+                .description("Latency of the requests of defects to the defect tracking systems")
+                .tag("adapter", defectAdapter.getCode())
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
     void updateDefectAssignations(List<Problem> problems, List<Defect> statuses) {
+        final Map<String, Defect> defectsById = new HashMap<>();
+        for (Defect status : statuses) {
+            defectsById.putIfAbsent(status.getId(), status);
+        }
         final List<Problem> problemsToUpdate = new ArrayList<>();
         for (Problem problem : problems) {
-            final Optional<Defect> defect = statuses.stream()
-                    .filter(d -> problem.getDefectId().equals(d.getId()))
-                    .findFirst();
+            final Optional<Defect> defect = Optional.ofNullable(defectsById.get(problem.getDefectId()));
             if (defect.isPresent()) {
                 if (problem.getDefectExistence() != DefectExistence.EXISTS ||
                         problem.getStatus() != defect.get().getStatus() ||
@@ -261,7 +329,15 @@ public class DefectService {
             }
         }
 
-        problemRepository.saveAll(problemsToUpdate);
+        saveChangedProblems(problemsToUpdate);
+    }
+
+    /**
+     * @param problems problems whose status or closing date changed: the handling of their errors may have changed too
+     */
+    private void saveChangedProblems(List<Problem> problems) {
+        problemRepository.saveAll(problems);
+        runHandlingCountsService.invalidateProblems(problems.stream().map(Problem::getId).toList());
     }
 
     /**
@@ -49,6 +49,13 @@ public class EmailService {
         this.emailSender = emailSender;
     }
 
+    /**
+     * @return true if a mail server is configured (with the spring.mail.* properties), false if no email can be sent
+     */
+    public boolean isEnabled() {
+        return emailSender.isPresent();
+    }
+
     /**
      * Send an HTML mail message.
      *
@@ -60,6 +67,34 @@ public class EmailService {
      * @param inlineResources the optional (can be null and can be empty) map of inline resources (images...) to be used by the template (the key is the name to use in the template: eg. key="signature.png" to use it as "&lt;img src="cid:signature.png"/&gt;" in the template)
      */
     public void sendHtmlMessage(String from, String to, String subject, String templateName, Map<String, Object> variables, Map<String, Resource> inlineResources) {
+        sendHtmlContent(from, to, subject, buildHtmlContent(templateName, variables), inlineResources);
+    }
+
+    /**
+     * Generate the HTML body of a mail message, to send it later with
+     * {@link #sendHtmlContent(String, String, String, String, Map)}.
+     *
+     * @param templateName the name of the HTML template to use to generate the email body
+     * @param variables    the optional variables to be used by the template to generate the email body
+     * @return the HTML body of the email
+     */
+    public String renderHtmlMessage(String templateName, Map<String, Object> variables) {
+        return buildHtmlContent(templateName, variables);
+    }
+
+    /**
+     * Send an HTML mail message whose body is already generated.<br>
+     * A message that cannot be built (eg. a malformed address) is logged and not sent, but a failure of the mail
+     * server is thrown, for the message to be sent again later.
+     *
+     * @param from            the email address of the sender of the mail
+     * @param to              the email address of the recipient(s) to which to send the mail
+     * @param subject         the subject line of the email
+     * @param html            the HTML body of the email
+     * @param inlineResources the optional (can be null and can be empty) map of inline resources (images...) used by the HTML body
+     * @throws org.springframework.mail.MailException if the mail server cannot be reached or refuses the message
+     */
+    public void sendHtmlContent(String from, String to, String subject, String html, Map<String, Resource> inlineResources) {
         var emailSenderInit = emailSender.orElseThrow(() -> new RuntimeException("No Spring mail been configured"));
         try {
             MimeMessage message = emailSenderInit.createMimeMessage();
@@ -68,7 +103,7 @@ public class EmailService {
             helper.setFrom(from);
             helper.setTo(to.split(","));
             helper.setSubject(subject);
-            helper.setText(buildHtmlContent(templateName, variables), true);
+            helper.setText(html, true);
             addInlineResources(inlineResources, helper);
 
             emailSenderInit.send(message);
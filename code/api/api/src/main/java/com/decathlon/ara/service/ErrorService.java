@@ -26,6 +26,7 @@ import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -35,6 +36,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.decathlon.ara.Entities;
 import com.decathlon.ara.Messages;
+import com.decathlon.ara.cache.JpaCacheInvalidationService;
 import com.decathlon.ara.domain.Error;
 import com.decathlon.ara.domain.Problem;
 import com.decathlon.ara.domain.ProblemOccurrence;
@@ -45,8 +47,6 @@ import com.decathlon.ara.repository.ExecutionRepository;
 import com.decathlon.ara.repository.ProblemOccurrenceRepository;
 import com.decathlon.ara.repository.ProblemPatternRepository;
 import com.decathlon.ara.repository.RunRepository;
-import com.decathlon.ara.repository.custom.util.JpaCacheManager;
-import com.decathlon.ara.repository.custom.util.TransactionAppenderUtil;
 import com.decathlon.ara.service.dto.country.CountryDTO;
 import com.decathlon.ara.service.dto.error.ErrorWithExecutedScenarioAndRunAndExecutionAndProblemsDTO;
 import com.decathlon.ara.service.dto.error.ErrorWithExecutedScenarioAndRunAndExecutionDTO;
@@ -56,6 +56,7 @@ import com.decathlon.ara.service.dto.response.DistinctStatisticsDTO;
 import com.decathlon.ara.service.dto.type.TypeWithSourceDTO;
 import com.decathlon.ara.service.exception.NotFoundException;
 import com.decathlon.ara.service.mapper.GenericMapper;
+import com.decathlon.ara.service.support.ProblemPatternIndex;
 
 /**
  * Service for managing Error.
@@ -84,18 +85,24 @@ public class ErrorService {
 
     private final ProblemPatternRepository problemPatternRepository;
 
+    private final RunHandlingCountsService runHandlingCountsService;
+
     private final GenericMapper mapper;
 
-    private final JpaCacheManager jpaCacheManager;
+    private final JpaCacheInvalidationService jpaCacheInvalidationService;
 
-    private final TransactionAppenderUtil transactionAppenderUtil;
+    /**
+     * True if the database compares texts ignoring case (MySQL): problem patterns are then matched the same way.
+     */
+    private final boolean caseInsensitiveDatabase;
 
     @Autowired
     public ErrorService(ErrorRepository errorRepository, ExecutedScenarioRepository executedScenarioRepository,
             ExecutionRepository executionRepository, RunRepository runRepository,
             ProblemService problemService, ProblemOccurrenceRepository problemOccurrenceRepository,
-            ProblemPatternRepository problemPatternRepository,
-            GenericMapper mapper, JpaCacheManager jpaCacheManager, TransactionAppenderUtil transactionService) {
+            ProblemPatternRepository problemPatternRepository, RunHandlingCountsService runHandlingCountsService,
+            GenericMapper mapper, JpaCacheInvalidationService jpaCacheInvalidationService,
+            @Value("${ara.database.target:}") String databaseTarget) {
         this.errorRepository = errorRepository;
         this.executedScenarioRepository = executedScenarioRepository;
         this.executionRepository = executionRepository;
@@ -103,9 +110,10 @@ public class ErrorService {
         this.problemService = problemService;
         this.problemOccurrenceRepository = problemOccurrenceRepository;
         this.problemPatternRepository = problemPatternRepository;
+        this.runHandlingCountsService = runHandlingCountsService;
         this.mapper = mapper;
-        this.jpaCacheManager = jpaCacheManager;
-        this.transactionAppenderUtil = transactionService;
+        this.jpaCacheInvalidationService = jpaCacheInvalidationService;
+        this.caseInsensitiveDatabase = "mysql".equalsIgnoreCase(databaseTarget);
     }
 
     /**
@@ -138,10 +146,12 @@ public class ErrorService {
 
         Page<Error> errors = errorRepository.findByProjectIdAndProblemPattern(projectId, mapper.map(pattern, ProblemPattern.class), effectivePageable);
 
-        Map<Error, List<Problem>> errorsProblems = errorRepository.getErrorsProblems(errors.getContent());
+        Map<Long, List<Problem>> errorsProblems = errorRepository.getErrorsProblems(errors.getContent().stream()
+                .map(Error::getId)
+                .toList());
 
         return errors.map(error -> mapper.map(error, ErrorWithExecutedScenarioAndRunAndExecutionAndProblemsDTO.class, (errorEntity, errorDto) -> {
-            List<Problem> problems = errorsProblems.get(errorEntity);
+            List<Problem> problems = errorsProblems.get(errorEntity.getId());
             if (problems != null) {
                 errorDto.setProblems(mapper.mapCollection(problems, ProblemDTO.class, (problemEntity, problemDto) -> problemDto.setDefectUrl(problemService.retrieveDefectUrl(problemEntity))));
             }
@@ -218,9 +228,10 @@ public class ErrorService {
             matchingErrorIds.add(error.getId());
         }
 
-        transactionAppenderUtil.doAfterCommit(() -> jpaCacheManager.evictCollections(Error.PROBLEM_OCCURRENCES_COLLECTION_CACHE, matchingErrorIds));
+        jpaCacheInvalidationService.evictCollections(Error.PROBLEM_OCCURRENCES_COLLECTION_CACHE, matchingErrorIds);
 
         problemOccurrenceRepository.saveAll(problemOccurrences);
+        runHandlingCountsService.invalidateErrors(matchingErrorIds);
 
         LOG.info("PROBLEM|error|Inserted {} problemOccurrences", problemOccurrences.size());
     }
@@ -236,12 +247,13 @@ public class ErrorService {
     public Set<Problem> autoAssignProblemsToNewErrors(long projectId, List<Long> errorIds) {
         Set<Problem> updatedProblems = new HashSet<>();
         List<ProblemOccurrence> problemOccurrences = new ArrayList<>();
-        for (ProblemPattern pattern : problemPatternRepository.findAllByProjectId(projectId)) {
-            List<Error> matchingError = errorRepository.findByProjectIdAndProblemPatternAndErrorIds(projectId, pattern, errorIds);
-            if (!matchingError.isEmpty()) {
-                updatedProblems.add(pattern.getProblem());
-                for (Error error : matchingError) {
-                    problemOccurrences.add(new ProblemOccurrence(error, pattern));
+        List<ProblemPattern> patterns = problemPatternRepository.findAllByProjectId(projectId);
+        if (!patterns.isEmpty() && !errorIds.isEmpty()) {
+            ProblemPatternIndex patternIndex = new ProblemPatternIndex(patterns, !caseInsensitiveDatabase);
+            for (Error error : errorRepository.findAllForProblemMatching(projectId, errorIds)) {
+                for (ProblemPattern pattern : patternIndex.findMatchingPatterns(error)) {
+                    updatedProblems.add(pattern.getProblem());
+                    problemOccurrences.add(ProblemOccurrence.ofNewError(error, pattern));
                 }
             }
         }
@@ -23,6 +23,7 @@ import com.decathlon.ara.ci.bean.PlannedIndexation;
 import com.decathlon.ara.ci.bean.PlatformRule;
 import com.decathlon.ara.ci.service.QualityService;
 import com.decathlon.ara.common.NotGonnaHappenException;
+import com.decathlon.ara.configuration.AraConfiguration;
 import com.decathlon.ara.domain.*;
 import com.decathlon.ara.domain.enumeration.ExecutionAcceptance;
 import com.decathlon.ara.domain.enumeration.JobStatus;
@@ -45,9 +46,12 @@ import org.springframework.data.util.Pair;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.annotation.PreDestroy;
 import java.io.File;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 @Service
 @Transactional
@@ -73,12 +77,17 @@ public class ExecutionFilesProcessorService {
 
     private final FileProcessorService fileProcessorService;
 
+    /**
+     * Pool parsing the reports of several type folders at once, or null to parse them one after the other
+     */
+    private final ForkJoinPool parsingPool;
+
     @Autowired
     public ExecutionFilesProcessorService(SettingService settingService, ObjectMapper objectMapper,
             ExecutionCompletionRequestRepository executionCompletionRequestRepository,
             ExecutionRepository executionRepository, CountryRepository countryRepository, TypeRepository typeRepository,
             QualityService qualityService, ScenariosIndexerStrategy scenariosIndexerStrategy,
-            FileProcessorService fileProcessorService) {
+            FileProcessorService fileProcessorService, AraConfiguration araConfiguration) {
         this.settingService = settingService;
         this.objectMapper = objectMapper;
         this.executionCompletionRequestRepository = executionCompletionRequestRepository;
@@ -88,6 +97,15 @@ public class ExecutionFilesProcessorService {
         this.qualityService = qualityService;
         this.scenariosIndexerStrategy = scenariosIndexerStrategy;
         this.fileProcessorService = fileProcessorService;
+        Integer parallelism = araConfiguration.getIndexingParsingParallelism();
+        this.parsingPool = parallelism == null || parallelism.intValue() < 2 ? null : new ForkJoinPool(parallelism.intValue());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (parsingPool != null) {
+            parsingPool.shutdown();
+        }
     }
 
     /**
@@ -268,6 +286,7 @@ public class ExecutionFilesProcessorService {
     private Pair<List<CountryDeployment>, List<Run>> getCountryDeploymentsAndRunsPair(File rawExecutionFile, CycleDef cycleDef, Long projectId, JobStatus executionJobStatus, String buildInformationPath) {
         List<CountryDeployment> countryDeployments = new ArrayList<>();
         List<Run> runs = new ArrayList<>();
+        List<RunParsing> runParsings = new ArrayList<>();
         final File[] allExecutionFolderContents = rawExecutionFile.listFiles();
         final File[] countryJobDirectories = Arrays.stream(allExecutionFolderContents).filter(File::isDirectory).toArray(File[]::new);
 
@@ -341,10 +360,7 @@ public class ExecutionFilesProcessorService {
 
                         Technology technology = source.getTechnology();
                         Optional<ScenariosIndexer> scenariosIndexer = scenariosIndexerStrategy.getScenariosIndexer(technology);
-                        scenariosIndexer.ifPresent(indexer -> {
-                            final List<ExecutedScenario> executedScenarios = indexer.getExecutedScenarios(typeJobFolder.get(), run, projectId);
-                            run.addExecutedScenarios(new TreeSet<>(executedScenarios));
-                        });
+                        scenariosIndexer.ifPresent(indexer -> runParsings.add(new RunParsing(indexer, typeJobFolder.get(), run)));
 
                         runs.add(run);
                     }
@@ -352,9 +368,35 @@ public class ExecutionFilesProcessorService {
             }
         }
 
+        addExecutedScenarios(runParsings, projectId);
+
         return Pair.of(countryDeployments, runs);
     }
 
+    /**
+     * Parse the reports of the type folders and add their executed scenarios to their runs.
+     * When a parsing pool is configured, the folders are parsed concurrently, but the results are still added to the
+     * runs from the calling thread, in the order of the platform rules, so that the indexed execution does not depend
+     * on which parsing ended first
+     * @param runParsings the runs to fill, with the folder and indexer to use for each of them
+     * @param projectId the project id
+     */
+    private void addExecutedScenarios(List<RunParsing> runParsings, Long projectId) {
+        if (parsingPool == null || runParsings.size() < 2) {
+            for (RunParsing runParsing : runParsings) {
+                runParsing.run.addExecutedScenarios(new TreeSet<>(runParsing.parse(projectId)));
+            }
+            return;
+        }
+
+        final List<ForkJoinTask<List<ExecutedScenario>>> parsings = runParsings.stream()
+                .map(runParsing -> parsingPool.submit(() -> runParsing.parse(projectId)))
+                .toList();
+        for (int i = 0; i < runParsings.size(); i++) {
+            runParsings.get(i).run.addExecutedScenarios(new TreeSet<>(parsings.get(i).join()));
+        }
+    }
+
     /**
      * Split type codes using a separator ({@link PlatformRule#TEST_TYPES_SEPARATOR})
      * @param rawTypeString the unprocessed string containing all the type codes
@@ -565,4 +607,28 @@ public class ExecutionFilesProcessorService {
 
         return jobStatusToConvert;
     }
+
+    /**
+     * A run waiting for the executed scenarios of its type folder to be parsed
+     */
+    private static class RunParsing {
+
+        private final ScenariosIndexer indexer;
+
+        private final File typeJobFolder;
+
+        private final Run run;
+
+        RunParsing(ScenariosIndexer indexer, File typeJobFolder, Run run) {
+            this.indexer = indexer;
+            this.typeJobFolder = typeJobFolder;
+            this.run = run;
+        }
+
+        List<ExecutedScenario> parse(Long projectId) {
+            return indexer.getExecutedScenarios(typeJobFolder, run, projectId);
+        }
+
+    }
+
 }
@@ -19,6 +19,7 @@ package com.decathlon.ara.service;
 
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -26,24 +27,25 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.decathlon.ara.Entities;
 import com.decathlon.ara.Messages;
 import com.decathlon.ara.domain.ExecutedScenario;
 import com.decathlon.ara.domain.Execution;
-import com.decathlon.ara.domain.Problem;
 import com.decathlon.ara.domain.Run;
 import com.decathlon.ara.domain.Severity;
 import com.decathlon.ara.domain.Team;
-import com.decathlon.ara.domain.projection.ExecutedScenarioWithErrorAndProblemJoin;
-import com.decathlon.ara.repository.ExecutedScenarioRepository;
 import com.decathlon.ara.repository.ExecutionRepository;
 import com.decathlon.ara.repository.FunctionalityRepository;
-import com.decathlon.ara.scenario.cucumber.util.ScenarioExtractorUtil;
 import com.decathlon.ara.service.dto.execution.ExecutionHistoryPointDTO;
 import com.decathlon.ara.service.dto.quality.QualitySeverityDTO;
+import com.decathlon.ara.service.dto.run.ExecutedScenarioGroupHandlingCountsDTO;
 import com.decathlon.ara.service.dto.run.ExecutedScenarioHandlingCountsDTO;
 import com.decathlon.ara.service.dto.run.RunDTO;
 import com.decathlon.ara.service.dto.run.RunWithQualitiesDTO;
@@ -55,11 +57,13 @@ import com.decathlon.ara.service.mapper.GenericMapper;
 @Transactional
 public class ExecutionHistoryService {
 
+    private static final Logger LOG = LoggerFactory.getLogger(ExecutionHistoryService.class);
+
     private final ExecutionRepository executionRepository;
 
     private final GenericMapper mapper;
 
-    private final ExecutedScenarioRepository executedScenarioRepository;
+    private final RunHandlingCountsService runHandlingCountsService;
 
     private final FunctionalityRepository functionalityRepository;
 
@@ -67,11 +71,11 @@ public class ExecutionHistoryService {
 
     public ExecutionHistoryService(ExecutionRepository executionRepository,
             GenericMapper mapper,
-            ExecutedScenarioRepository executedScenarioRepository, FunctionalityRepository functionalityRepository,
+            RunHandlingCountsService runHandlingCountsService, FunctionalityRepository functionalityRepository,
             SeverityService severityService) {
         this.executionRepository = executionRepository;
         this.mapper = mapper;
-        this.executedScenarioRepository = executedScenarioRepository;
+        this.runHandlingCountsService = runHandlingCountsService;
         this.functionalityRepository = functionalityRepository;
         this.severityService = severityService;
     }
@@ -116,7 +120,7 @@ public class ExecutionHistoryService {
                 .flatMap(executionHistoryPointDTO -> executionHistoryPointDTO.getRuns().stream())
                 .map(RunDTO::getId)
                 .collect(Collectors.toSet());
-        final List<ExecutedScenarioWithErrorAndProblemJoin> allErrorCounts = executedScenarioRepository.findAllErrorAndProblemCounts(runIds);
+        final Map<Long, List<ExecutedScenarioGroupHandlingCountsDTO>> countsByRunId = getHandlingCounts(runIds);
 
         final List<Long> executionIds = executions.stream().map(Execution::getId).toList();
 
@@ -124,13 +128,37 @@ public class ExecutionHistoryService {
         List<Execution> previousExecutions = executionRepository.findPreviousOf(executionIds);
 
         for (ExecutionHistoryPointDTO dto : dtoList) {
-            fillExecutionHistoryPoint(dto, allErrorCounts, functionalityTeamIds);
+            fillExecutionHistoryPoint(dto, countsByRunId, functionalityTeamIds);
             dto.setNextId(findExecutionByBranchAndName(nextExecutions, dto.getBranch(), dto.getName()));
             dto.setPreviousId(findExecutionByBranchAndName(previousExecutions, dto.getBranch(), dto.getName()));
         }
         return dtoList;
     }
 
+    /**
+     * Get the materialized handling counts of the given runs, computing and storing the ones that are missing (never
+     * computed, or invalidated by a change of their problems).
+     *
+     * @param runIds the IDs of the runs for which to get the counts
+     * @return the counts of all the given runs, by run ID
+     */
+    private Map<Long, List<ExecutedScenarioGroupHandlingCountsDTO>> getHandlingCounts(Set<Long> runIds) {
+        final Map<Long, List<ExecutedScenarioGroupHandlingCountsDTO>> countsByRunId = runHandlingCountsService.findCounts(runIds);
+        final Set<Long> missingRunIds = new HashSet<>(runIds);
+        missingRunIds.removeAll(countsByRunId.keySet());
+        if (!missingRunIds.isEmpty()) {
+            final Map<Long, List<ExecutedScenarioGroupHandlingCountsDTO>> computedCounts = runHandlingCountsService.computeCounts(missingRunIds);
+            countsByRunId.putAll(computedCounts);
+            try {
+                runHandlingCountsService.saveCounts(computedCounts);
+            } catch (DataAccessException | TransactionException e) {
+                // Most probably stored by a concurrent request: they will be computed again next time, if needed
+                LOG.debug("EXECUTION|Cannot store the handling counts of runs {}", missingRunIds, e);
+            }
+        }
+        return countsByRunId;
+    }
+
     private Long findExecutionByBranchAndName(List<Execution> executions, String branch, String name) {
         return executions.stream()
                 .filter(c -> c.getBranch().equals(branch) && c.getName().equals(name))
@@ -145,124 +173,102 @@ public class ExecutionHistoryService {
                 .collect(Collectors.toSet());
 
         ExecutedScenarioHandlingCountsDTO executedScenarioHandlingCounts = new ExecutedScenarioHandlingCountsDTO();
-        for (ExecutedScenarioWithErrorAndProblemJoin executedScenarioJoin : executedScenarioRepository.findAllErrorAndProblemCounts(runIds)) {
-            incrementCountsByHandling(executedScenarioJoin, executedScenarioHandlingCounts);
+        for (List<ExecutedScenarioGroupHandlingCountsDTO> countsOfRun : getHandlingCounts(runIds).values()) {
+            countsOfRun.forEach(executedScenarioHandlingCounts::add);
         }
         return executedScenarioHandlingCounts;
     }
 
-    private void fillExecutionHistoryPoint(ExecutionHistoryPointDTO execution, List<ExecutedScenarioWithErrorAndProblemJoin> allErrorCounts, Map<Long, Long> functionalityTeamIds) {
+    private void fillExecutionHistoryPoint(ExecutionHistoryPointDTO execution, Map<Long, List<ExecutedScenarioGroupHandlingCountsDTO>> countsByRunId, Map<Long, Long> functionalityTeamIds) {
         List<SeverityDTO> activeSeverities = execution.getQualitySeverities().stream()
                 .map(QualitySeverityDTO::getSeverity)
                 .toList();
         String defaultSeverityCode = severityService.getDefaultSeverityCode(activeSeverities);
 
         for (RunWithQualitiesDTO run : execution.getRuns()) {
-            fillQualities(allErrorCounts, run, functionalityTeamIds, defaultSeverityCode);
+            fillQualities(countsByRunId.getOrDefault(run.getId(), Collections.emptyList()), run, functionalityTeamIds, defaultSeverityCode);
         }
     }
 
     /**
      * Fill quality aggregates of a RunWithQualitiesDTO (counts of scenarios per severity and per team+severity).
      *
-     * @param allExecutedScenarioJoin all executed-scenarios of the the given run, joined with their errors and problems
+     * @param countsOfRun the handling counts of the executed-scenarios of the given run, grouped by severity and
+     *                    functionality IDs
      * @param run this method will fill {@code qualitiesPerSeverity} and {@code qualitiesPerTeamAndSeverity} in it
      * @param functionalityTeamIds a map of key functionality.id and value functionality.teamId
      * @param defaultSeverityCode the default severity code to use if the scenario has none
      */
-    void fillQualities(List<ExecutedScenarioWithErrorAndProblemJoin> allExecutedScenarioJoin,
+    void fillQualities(List<ExecutedScenarioGroupHandlingCountsDTO> countsOfRun,
                        RunWithQualitiesDTO run,
                        Map<Long, Long> functionalityTeamIds,
                        String defaultSeverityCode) {
         run.setQualitiesPerSeverity(new HashMap<>());
         run.setQualitiesPerTeamAndSeverity(new HashMap<>());
 
-        final List<ExecutedScenarioWithErrorAndProblemJoin> allExecutedScenarioJoinOfRun = allExecutedScenarioJoin
-                .stream()
-                .filter(e -> run.getId().longValue() == e.getRunId())
-                .toList();
-        for (ExecutedScenarioWithErrorAndProblemJoin executedScenarioJoin : allExecutedScenarioJoinOfRun) {
-            // Count the scenario for its severity and for global
-            addScenario(executedScenarioJoin, run.getQualitiesPerSeverity(), defaultSeverityCode);
-
-            // Do the same for the teams of the scenario
-            final List<Long> functionalityIds = ScenarioExtractorUtil
-                    .extractFunctionalityIds(executedScenarioJoin.getName());
-            final Set<Long> teamIds = functionalityIds.stream()
+        for (ExecutedScenarioGroupHandlingCountsDTO counts : countsOfRun) {
+            // Count the scenarios for their severity and for global
+            addScenarios(counts, run.getQualitiesPerSeverity(), defaultSeverityCode);
+
+            // Do the same for the teams of the scenarios
+            final Set<Long> teamIds = counts.getFunctionalityIds().stream()
                     .map(functionalityTeamIds::get)
                     .filter(Objects::nonNull) // Unknown functionality IDs have null team IDs
                     .collect(Collectors.toSet());
             if (teamIds.isEmpty()) {
-                addScenarioForTeamAndSeverity(run, defaultSeverityCode, executedScenarioJoin, Team.NOT_ASSIGNED.getId());
+                addScenariosForTeamAndSeverity(run, defaultSeverityCode, counts, Team.NOT_ASSIGNED.getId());
             }
             for (Long teamId : teamIds) {
-                addScenarioForTeamAndSeverity(run, defaultSeverityCode, executedScenarioJoin, teamId);
+                addScenariosForTeamAndSeverity(run, defaultSeverityCode, counts, teamId);
             }
         }
     }
 
-    private void addScenarioForTeamAndSeverity(RunWithQualitiesDTO run,
-                                               String defaultSeverityCode,
-                                               ExecutedScenarioWithErrorAndProblemJoin executedScenarioJoin,
-                                               Long teamId) {
+    private void addScenariosForTeamAndSeverity(RunWithQualitiesDTO run,
+                                                String defaultSeverityCode,
+                                                ExecutedScenarioGroupHandlingCountsDTO counts,
+                                                Long teamId) {
         Map<String, ExecutedScenarioHandlingCountsDTO> countsWithErrors = run.getQualitiesPerTeamAndSeverity()
                 .computeIfAbsent(teamId.toString(), k -> new HashMap<>());
-        addScenario(executedScenarioJoin, countsWithErrors, defaultSeverityCode);
+        addScenarios(counts, countsWithErrors, defaultSeverityCode);
     }
 
     /**
-     * Given an {@link ExecutedScenario}+{@link Error}+{@link Problem} join, increment the given handling-count for the
-     * severity of the scenario (using the default severity if needed) AND the global "ALL" virtual-severity.
+     * Given the handling counts of a group of {@link ExecutedScenario}s sharing the same severity, add them to the
+     * given handling-count for the severity of the scenarios (using the default severity if needed) AND the global
+     * "ALL" virtual-severity.
      *
-     * @param executedScenarioJoin information to be used to deduce the handling state of the executed-scenario
-     * @param qualitiesPerSeverity the counts in which to increment the handling of the executed-scenario, by severity
+     * @param counts               the handling counts of scenarios sharing the same severity
+     * @param qualitiesPerSeverity the counts in which to add the handling of the executed-scenarios, by severity
      *                             code (the key of the map)
-     * @param defaultSeverityCode  the default severity code to use if the scenario has none (can be null, in which
+     * @param defaultSeverityCode  the default severity code to use if the scenarios have none (can be null, in which
      *                             case, only "ALL" counts will be incremented)
      */
-    void addScenario(ExecutedScenarioWithErrorAndProblemJoin executedScenarioJoin,
-                     Map<String, ExecutedScenarioHandlingCountsDTO> qualitiesPerSeverity,
-                     String defaultSeverityCode) {
-        final String effectiveSeverityCode = (StringUtils.isEmpty(executedScenarioJoin.getSeverity()) ? defaultSeverityCode : executedScenarioJoin.getSeverity());
+    void addScenarios(ExecutedScenarioGroupHandlingCountsDTO counts,
+                      Map<String, ExecutedScenarioHandlingCountsDTO> qualitiesPerSeverity,
+                      String defaultSeverityCode) {
+        final String effectiveSeverityCode = (StringUtils.isEmpty(counts.getSeverity()) ? defaultSeverityCode : counts.getSeverity());
         if (effectiveSeverityCode != null) { // when no mandatory severity was asked to run => no default severity to find => null
-            addScenarioForSeverity(executedScenarioJoin, qualitiesPerSeverity, effectiveSeverityCode);
+            addScenariosForSeverity(counts, qualitiesPerSeverity, effectiveSeverityCode);
         }
-        addScenarioForSeverity(executedScenarioJoin, qualitiesPerSeverity, Severity.ALL.getCode());
+        addScenariosForSeverity(counts, qualitiesPerSeverity, Severity.ALL.getCode());
     }
 
     /**
-     * Given an {@link ExecutedScenario}+{@link Error}+{@link Problem} join, increment the given handling-count for the
+     * Given the handling counts of a group of {@link ExecutedScenario}s, add them to the given handling-count for the
      * severity.
      *
-     * @param executedScenarioJoin information to be used to deduce the handling state of the executed-scenario
-     * @param qualitiesPerSeverity the counts in which to increment the handling of the executed-scenario, by severity
+     * @param counts               the handling counts of scenarios to add
+     * @param qualitiesPerSeverity the counts in which to add the handling of the executed-scenarios, by severity
      *                             code (the key of the map)
      * @param severityCode         the key of the map entry to increment (entry will be created if nonexistent)
      */
-    void addScenarioForSeverity(ExecutedScenarioWithErrorAndProblemJoin executedScenarioJoin,
-                                Map<String, ExecutedScenarioHandlingCountsDTO> qualitiesPerSeverity,
-                                String severityCode) {
-        ExecutedScenarioHandlingCountsDTO executedScenarioHandlingCounts = qualitiesPerSeverity
-                .computeIfAbsent(severityCode, k -> new ExecutedScenarioHandlingCountsDTO());
-
-        incrementCountsByHandling(executedScenarioJoin, executedScenarioHandlingCounts);
-    }
-
-    /**
-     * Given an {@link ExecutedScenario}+{@link Error}+{@link Problem} join, increment the given handling-count.
-     *
-     * @param executedScenarioJoin information to be used to deduce the handling state of the executed-scenario
-     * @param executedScenarioHandlingCounts the counts in which to increment the handling of the executed-scenario
-     */
-    private void incrementCountsByHandling(ExecutedScenarioWithErrorAndProblemJoin executedScenarioJoin,
-                                           ExecutedScenarioHandlingCountsDTO executedScenarioHandlingCounts) {
-        if (executedScenarioJoin.getHandledCount() > 0) {
-            executedScenarioHandlingCounts.setHandled(executedScenarioHandlingCounts.getHandled() + 1);
-        } else if (executedScenarioJoin.getUnhandledCount() > 0) {
-            executedScenarioHandlingCounts.setUnhandled(executedScenarioHandlingCounts.getUnhandled() + 1);
-        } else {
-            executedScenarioHandlingCounts.setPassed(executedScenarioHandlingCounts.getPassed() + 1);
-        }
+    void addScenariosForSeverity(ExecutedScenarioHandlingCountsDTO counts,
+                                 Map<String, ExecutedScenarioHandlingCountsDTO> qualitiesPerSeverity,
+                                 String severityCode) {
+        qualitiesPerSeverity
+                .computeIfAbsent(severityCode, k -> new ExecutedScenarioHandlingCountsDTO())
+                .add(counts);
     }
 
 }
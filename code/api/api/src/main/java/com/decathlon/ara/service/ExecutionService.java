@@ -20,19 +20,18 @@ package com.decathlon.ara.service;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 import org.apache.commons.io.FileUtils;
-import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -47,14 +46,11 @@ import com.decathlon.ara.Entities;
 import com.decathlon.ara.Messages;
 import com.decathlon.ara.ci.bean.PlannedIndexation;
 import com.decathlon.ara.ci.service.ExecutionIndexerService;
+import com.decathlon.ara.ci.service.ExecutionIndexingEngine;
 import com.decathlon.ara.domain.CycleDefinition;
-import com.decathlon.ara.domain.Error;
 import com.decathlon.ara.domain.ExecutedScenario;
 import com.decathlon.ara.domain.Execution;
 import com.decathlon.ara.domain.ExecutionCompletionRequest;
-import com.decathlon.ara.domain.Problem;
-import com.decathlon.ara.domain.ProblemOccurrence;
-import com.decathlon.ara.domain.ProblemPattern;
 import com.decathlon.ara.domain.Run;
 import com.decathlon.ara.domain.enumeration.ExecutionAcceptance;
 import com.decathlon.ara.domain.enumeration.JobStatus;
@@ -63,14 +59,12 @@ import com.decathlon.ara.repository.CycleDefinitionRepository;
 import com.decathlon.ara.repository.ExecutionCompletionRequestRepository;
 import com.decathlon.ara.repository.ExecutionRepository;
 import com.decathlon.ara.repository.FunctionalityRepository;
-import com.decathlon.ara.scenario.cucumber.util.ScenarioExtractorUtil;
-import com.decathlon.ara.service.dto.error.ErrorWithProblemsDTO;
+import com.decathlon.ara.scenario.common.service.ExecutedScenarioService;
 import com.decathlon.ara.service.dto.executedscenario.ExecutedScenarioWithTeamIdsAndErrorsAndProblemsDTO;
 import com.decathlon.ara.service.dto.execution.ExecutionCriteriaDTO;
 import com.decathlon.ara.service.dto.execution.ExecutionDTO;
 import com.decathlon.ara.service.dto.execution.ExecutionWithCountryDeploymentsAndRunsAndExecutedScenariosAndTeamIdsAndErrorsAndProblemsDTO;
 import com.decathlon.ara.service.dto.execution.ExecutionWithHandlingCountsDTO;
-import com.decathlon.ara.service.dto.problem.ProblemDTO;
 import com.decathlon.ara.service.exception.BadRequestException;
 import com.decathlon.ara.service.exception.NotFoundException;
 import com.decathlon.ara.service.mapper.GenericMapper;
@@ -105,14 +99,17 @@ public class ExecutionService {
 
     private final CycleDefinitionRepository cycleDefinitionRepository;
 
-    private final ProblemService problemService;
+    private final ExecutionIndexingEngine executionIndexingEngine;
+
+    private final ExecutedScenarioService executedScenarioService;
 
     @Autowired
     public ExecutionService(ExecutionRepository executionRepository,
             ExecutionCompletionRequestRepository executionCompletionRequestRepository,
             FunctionalityRepository functionalityRepository, GenericMapper mapper, ExecutionHistoryService executionHistoryService,
             ArchiveService archiveService, SettingService settingService,
-            ExecutionIndexerService executionIndexerService, CycleDefinitionRepository cycleDefinitionRepository, ProblemService problemService) {
+            ExecutionIndexerService executionIndexerService, CycleDefinitionRepository cycleDefinitionRepository,
+            ExecutionIndexingEngine executionIndexingEngine, ExecutedScenarioService executedScenarioService) {
         this.executionRepository = executionRepository;
         this.executionCompletionRequestRepository = executionCompletionRequestRepository;
         this.functionalityRepository = functionalityRepository;
@@ -122,7 +119,8 @@ public class ExecutionService {
         this.settingService = settingService;
         this.executionIndexerService = executionIndexerService;
         this.cycleDefinitionRepository = cycleDefinitionRepository;
-        this.problemService = problemService;
+        this.executionIndexingEngine = executionIndexingEngine;
+        this.executedScenarioService = executedScenarioService;
     }
 
     /**
@@ -162,35 +160,16 @@ public class ExecutionService {
     }
 
     private void mapExecutionProblem(Long projectId, Execution execution, ExecutionWithCountryDeploymentsAndRunsAndExecutedScenariosAndTeamIdsAndErrorsAndProblemsDTO dto) {
-        int[] positions = { 0, 0, 0 };
         final Map<Long, Long> functionalityTeamIds = functionalityRepository.getFunctionalityTeamIds(projectId);
+        final Map<Long, String> defectUrls = new HashMap<>();
+        int runIndex = 0;
         for (Run run : safeToIterate(execution.getRuns())) {
+            List<ExecutedScenarioWithTeamIdsAndErrorsAndProblemsDTO> executedScenarioDtos = dto.getRuns().get(runIndex++).getExecutedScenarios();
+            int executedScenarioIndex = 0;
             for (ExecutedScenario executedScenario : safeToIterate(run.getExecutedScenarios())) {
-                ExecutedScenarioWithTeamIdsAndErrorsAndProblemsDTO executedScenarioDto = dto.getRuns().get(positions[0]).getExecutedScenarios().get(positions[1]);
-                executedScenarioDto.setTeamIds(ScenarioExtractorUtil.extractFunctionalityIds(executedScenario.getName()).stream()
-                        .map(functionalityTeamIds::get)
-                        .filter(Objects::nonNull) // Unknown functionality IDs have null team IDs
-                        .collect(Collectors.toSet()));
-                for (Error error : safeToIterate(executedScenario.getErrors())) {
-                    List<Problem> problems = error.getProblemOccurrences().stream()
-                            .map(ProblemOccurrence::getProblemPattern)
-                            .map(ProblemPattern::getProblem)
-                            .sorted(Comparator.nullsLast(Problem::compareTo))
-                            .distinct()
-                            .toList();
-                    ErrorWithProblemsDTO errorDto = executedScenarioDto.getErrors().get(positions[2]);
-                    errorDto.setProblems(mapper.mapCollection(problems, ProblemDTO.class));
-                    for (ProblemDTO problem : errorDto.getProblems()) {
-                        problem.setDefectUrl(problemService.retrieveDefectUrl(projectId, problem));
-                    }
-                    positions[2] = positions[2] + 1;
-                }
-                positions[1] = positions[1] + 1;
-                positions[2] = 0;
+                executedScenarioService.mapTeamIdsAndProblems(projectId.longValue(), executedScenario,
+                        executedScenarioDtos.get(executedScenarioIndex++), functionalityTeamIds, defectUrls);
             }
-            positions[0] = positions[0] + 1;
-            positions[1] = 0;
-            positions[2] = 0;
         }
     }
 
@@ -353,33 +332,27 @@ public class ExecutionService {
         File destinationDirectory = new File(path, "incoming");
         String buildInformationFilePath = settingService.get(projectId, Settings.EXECUTION_INDEXER_FILE_BUILD_INFORMATION_PATH);
         List<File> executionDirectories = unzipExecutions(destinationDirectory, zipFile, buildInformationFilePath);
-        launchExecutionDirectoriesProcessingThread(projectId, executionDirectories, cycleDefinition);
+        queueExecutionDirectoriesProcessing(projectId, executionDirectories, cycleDefinition);
     }
 
     /**
-     * Process the execution directories asynchronously
+     * Queue the execution directories to be processed asynchronously by the indexing engine
      * @param projectId the project id
      * @param executionDirectories the execution directories
      * @param cycleDefinition the cycle definition
      */
-    public synchronized void launchExecutionDirectoriesProcessingThread(
-                                                                        Long projectId,
-                                                                        List<File> executionDirectories,
-                                                                        CycleDefinition cycleDefinition) {
-        Thread processExecutionDirectoriesThread = new Thread(() -> {
-            LOG.info("EXECUTION|Processing execution files in a new thread");
-            for (final File executionDirectory : executionDirectories) {
-                try {
-                    processSpecificDirectory(cycleDefinition, executionDirectory);
-                } catch (Exception e) {
-                    LOG.warn("EXECUTION|A problem occurred while indexing this execution [{}]", executionDirectory.getPath(), e);
-                } finally {
-                    LOG.info("EXECUTION|Cleaning the incoming folder: {}", executionDirectory.getAbsolutePath());
-                    cleanExecutionFiles(projectId, executionDirectory);
-                }
-            }
-        });
-        processExecutionDirectoriesThread.start();
+    public void queueExecutionDirectoriesProcessing(
+                                                    Long projectId,
+                                                    List<File> executionDirectories,
+                                                    CycleDefinition cycleDefinition) {
+        for (final File executionDirectory : executionDirectories) {
+            LOG.info("EXECUTION|Received new execution report in {}", executionDirectory.getAbsolutePath());
+            PlannedIndexation plannedIndexation = new PlannedIndexation(cycleDefinition, executionDirectory);
+            executionIndexingEngine.submit(plannedIndexation, () -> {
+                LOG.info("EXECUTION|Cleaning the incoming folder: {}", executionDirectory.getAbsolutePath());
+                cleanExecutionFiles(projectId, executionDirectory);
+            });
+        }
     }
 
     public void processSpecificDirectory(CycleDefinition cycleDefinition, File executionDirectory) {
@@ -391,33 +364,43 @@ public class ExecutionService {
 
     List<File> unzipExecutions(File destinationDirectory, MultipartFile zipFile, String buildInformationFilePath) throws IOException {
         Files.createDirectories(destinationDirectory.toPath());
-        this.archiveService.unzip(zipFile, destinationDirectory);
-        return retrieveAllExecutionDirectories(destinationDirectory, buildInformationFilePath);
+        List<Path> extractedFiles = this.archiveService.unzip(zipFile, destinationDirectory);
+        return retrieveAllExecutionDirectories(destinationDirectory, extractedFiles, buildInformationFilePath);
     }
 
-    List<File> retrieveAllExecutionDirectories(File file, String buildInformationFilePath) {
-        if (ArrayUtils.isEmpty(file.list())) {
-            LOG.warn("EXECUTION|No entries found in the zip file {}", file.getAbsolutePath());
+    /**
+     * Find the execution directories among the files just extracted from an uploaded ZIP, without listing the
+     * destination directory: it can contain other executions, still being indexed or kept after their indexation.
+     *
+     * @param directory                the directory where the ZIP was extracted
+     * @param extractedFiles           the files extracted from the ZIP, as absolute and normalized paths
+     * @param buildInformationFilePath the path of the build information file, relative to an execution directory
+     * @return the given directory if it is an execution directory, or else its extracted execution sub-directories
+     */
+    List<File> retrieveAllExecutionDirectories(File directory, List<Path> extractedFiles, String buildInformationFilePath) {
+        if (extractedFiles.isEmpty()) {
+            LOG.warn("EXECUTION|No entries found in the zip file {}", directory.getAbsolutePath());
             return new ArrayList<>();
         }
 
-        if (isExecutionDirectory(file, buildInformationFilePath)) {
-            return Collections.singletonList(file);
+        Path root = directory.toPath().toAbsolutePath().normalize();
+        Set<Path> files = new HashSet<>(extractedFiles);
+        if (isExecutionDirectory(root, files, buildInformationFilePath)) {
+            return Collections.singletonList(directory);
         }
 
-        List<File> executionDirectories = new ArrayList<>();
-        File[] entries = file.listFiles();
-        if (null != entries) {
-            executionDirectories = Arrays.asList(entries).stream()
-                    .filter(f -> isExecutionDirectory(f, buildInformationFilePath))
-                    .toList();
-        }
-        return executionDirectories;
+        return extractedFiles.stream()
+                .filter(file -> file.startsWith(root) && root.relativize(file).getNameCount() > 1)
+                .map(file -> root.resolve(root.relativize(file).getName(0)))
+                .distinct()
+                .filter(subDirectory -> isExecutionDirectory(subDirectory, files, buildInformationFilePath))
+                .map(Path::toFile)
+                .toList();
     }
 
-    boolean isExecutionDirectory(File file, String buildInformationFilePath) {
-        return file.isDirectory() && file.getName().matches("[0-9]+")
-                && new File(file, buildInformationFilePath).exists();
+    boolean isExecutionDirectory(Path directory, Set<Path> extractedFiles, String buildInformationFilePath) {
+        return directory.getFileName() != null && directory.getFileName().toString().matches("[0-9]+")
+                && extractedFiles.contains(directory.resolve(buildInformationFilePath).normalize());
     }
 
     /**
@@ -0,0 +1,198 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import javax.persistence.EntityManager;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.decathlon.ara.Entities;
+import com.decathlon.ara.Messages;
+import com.decathlon.ara.domain.ExecutedScenario;
+import com.decathlon.ara.domain.Execution;
+import com.decathlon.ara.domain.projection.ExecutedScenarioSortKey;
+import com.decathlon.ara.repository.ExecutedScenarioRepository;
+import com.decathlon.ara.repository.ExecutionRepository;
+import com.decathlon.ara.repository.FunctionalityRepository;
+import com.decathlon.ara.scenario.common.service.ExecutedScenarioService;
+import com.decathlon.ara.service.dto.countrydeployment.CountryDeploymentDTO;
+import com.decathlon.ara.service.dto.executedscenario.ExecutedScenarioWithTeamIdsAndErrorsAndProblemsDTO;
+import com.decathlon.ara.service.dto.execution.ExecutionCriteriaDTO;
+import com.decathlon.ara.service.dto.execution.ExecutionDTO;
+import com.decathlon.ara.service.dto.run.RunDTO;
+import com.decathlon.ara.service.exception.NotFoundException;
+import com.decathlon.ara.service.mapper.GenericMapper;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Writes an execution as JSON, with the same content as
+ * {@link ExecutionService#findOneWithRuns(long, long, ExecutionCriteriaDTO)}, without building the whole DTO tree in
+ * memory: the executed scenarios of each run are sorted by their business keys, then loaded, written and detached by
+ * pages, in the order of {@link ExecutedScenario#compareTo(ExecutedScenario)}.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ExecutionStreamingService {
+
+    /**
+     * The number of executed scenarios loaded and written at once.
+     */
+    static final int PAGE_SIZE = 500;
+
+    private final ExecutionRepository executionRepository;
+
+    private final ExecutedScenarioRepository executedScenarioRepository;
+
+    private final FunctionalityRepository functionalityRepository;
+
+    private final ExecutedScenarioService executedScenarioService;
+
+    private final GenericMapper mapper;
+
+    private final ObjectMapper objectMapper;
+
+    private final EntityManager entityManager;
+
+    public ExecutionStreamingService(ExecutionRepository executionRepository,
+            ExecutedScenarioRepository executedScenarioRepository, FunctionalityRepository functionalityRepository,
+            ExecutedScenarioService executedScenarioService, GenericMapper mapper, ObjectMapper objectMapper,
+            EntityManager entityManager) {
+        this.executionRepository = executionRepository;
+        this.executedScenarioRepository = executedScenarioRepository;
+        this.functionalityRepository = functionalityRepository;
+        this.executedScenarioService = executedScenarioService;
+        this.mapper = mapper;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Check the execution exists before starting to write it (once the response is committed, its status cannot change).
+     *
+     * @param projectId the ID of the project in which to work
+     * @param id        the ID of the execution
+     * @throws NotFoundException when the execution cannot be found
+     */
+    public void checkExists(long projectId, long id) throws NotFoundException {
+        if (executionRepository.findByProjectIdAndId(projectId, id) == null) {
+            throw new NotFoundException(Messages.NOT_FOUND_EXECUTION, Entities.EXECUTION);
+        }
+    }
+
+    /**
+     * Write the execution, with its country deployments, runs, executed scenarios, team IDs, errors and problems.
+     *
+     * @param projectId    the ID of the project in which to work
+     * @param id           the ID of the execution (see {@link #checkExists(long, long)})
+     * @param withSucceed  true to write the executed scenarios without error, false to only write the failed ones
+     * @param outputStream where to write the JSON (not closed by this method)
+     * @throws IOException if the JSON cannot be written (eg. the client went away)
+     */
+    public void write(long projectId, long id, boolean withSucceed, OutputStream outputStream) throws IOException {
+        Execution execution = executionRepository.findByProjectIdAndId(projectId, id);
+        if (execution == null) {
+            throw new IllegalStateException("Execution " + id + " was deleted before being written");
+        }
+        ExecutionDTO executionDto = mapper.map(execution, ExecutionDTO.class);
+        List<CountryDeploymentDTO> countryDeploymentDtos = mapper.mapCollection(execution.getCountryDeployments(), CountryDeploymentDTO.class);
+        List<RunDTO> runDtos = mapper.mapCollection(execution.getRuns(), RunDTO.class);
+        Context context = new Context(projectId, functionalityRepository.getFunctionalityTeamIds(projectId));
+
+        try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+            // Same properties, in the same order, as ExecutionWithCountryDeploymentsAndRunsAndExecutedScenariosAndTeamIdsAndErrorsAndProblemsDTO
+            generator.writeStartObject();
+            writeProperties(generator, executionDto);
+            generator.writeObjectField("countryDeployments", countryDeploymentDtos);
+            generator.writeArrayFieldStart("runs");
+            for (RunDTO runDto : runDtos) {
+                generator.writeStartObject();
+                writeProperties(generator, runDto);
+                generator.writeArrayFieldStart("executedScenarios");
+                writeExecutedScenarios(generator, runDto.getId().longValue(), withSucceed, context);
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * Write the properties of a DTO into the JSON object being written, so that the object can get more properties.
+     */
+    private void writeProperties(JsonGenerator generator, Object dto) throws IOException {
+        Iterator<Map.Entry<String, JsonNode>> properties = objectMapper.valueToTree(dto).fields();
+        while (properties.hasNext()) {
+            Map.Entry<String, JsonNode> property = properties.next();
+            generator.writeFieldName(property.getKey());
+            generator.writeTree(property.getValue());
+        }
+    }
+
+    private void writeExecutedScenarios(JsonGenerator generator, long runId, boolean withSucceed, Context context) throws IOException {
+        // Only the business keys of all the scenarios of the run are in memory at once: they are sorted in Java, as
+        // the scenarios of ExecutionService (the order of the database depends on its collation)
+        List<Long> ids = executedScenarioRepository.findSortKeysByRunId(runId, withSucceed).stream()
+                .sorted()
+                .map(ExecutedScenarioSortKey::id)
+                .toList();
+        for (int from = 0; from < ids.size(); from += PAGE_SIZE) {
+            writeExecutedScenarioPage(generator, ids.subList(from, Math.min(from + PAGE_SIZE, ids.size())), context);
+        }
+    }
+
+    private void writeExecutedScenarioPage(JsonGenerator generator, List<Long> ids, Context context) throws IOException {
+        // A page is a range of the sorted scenarios: sorting the page keeps the order of the run
+        List<ExecutedScenario> executedScenarios = executedScenarioRepository.findAllById(ids).stream()
+                .sorted()
+                .toList();
+        for (ExecutedScenarioWithTeamIdsAndErrorsAndProblemsDTO executedScenarioDto : executedScenarioService.toDtosWithProblems(
+                context.projectId(), executedScenarios, context.functionalityTeamIds(), context.defectUrls())) {
+            generator.writeObject(executedScenarioDto);
+        }
+        generator.flush();
+
+        // The page is written: do not keep it in the persistence context until the end of the execution
+        entityManager.clear();
+    }
+
+    /**
+     * @param projectId            the ID of the project in which to work
+     * @param functionalityTeamIds the team IDs of the functionalities of the project, by functionality ID
+     * @param defectUrls           the defect URLs of the problems already written, by problem ID (the same problems
+     *                             occur in a lot of scenarios)
+     */
+    private record Context(long projectId, Map<Long, Long> functionalityTeamIds, Map<Long, String> defectUrls) {
+
+        Context(long projectId, Map<Long, Long> functionalityTeamIds) {
+            this(projectId, functionalityTeamIds, new HashMap<>());
+        }
+
+    }
+
+}
@@ -18,15 +18,20 @@
 package com.decathlon.ara.service;
 
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.decathlon.ara.domain.Problem;
+import com.decathlon.ara.domain.StoredProblemAggregate;
 import com.decathlon.ara.domain.projection.FirstAndLastProblemOccurrence;
 import com.decathlon.ara.repository.ProblemRepository;
+import com.decathlon.ara.repository.StoredProblemAggregateRepository;
 
 /**
  * Service for updating de-normalized fields of Problem.
@@ -37,8 +42,12 @@ public class ProblemDenormalizationService {
 
     private final ProblemRepository problemRepository;
 
-    public ProblemDenormalizationService(ProblemRepository problemRepository) {
+    private final StoredProblemAggregateRepository storedProblemAggregateRepository;
+
+    public ProblemDenormalizationService(ProblemRepository problemRepository,
+            StoredProblemAggregateRepository storedProblemAggregateRepository) {
         this.problemRepository = problemRepository;
+        this.storedProblemAggregateRepository = storedProblemAggregateRepository;
     }
 
     public void updateFirstAndLastSeenDateTimes(Collection<Problem> problems) {
@@ -58,4 +67,65 @@ public class ProblemDenormalizationService {
         }
     }
 
+    /**
+     * Compute and store the aggregates of the given problems: to call once their occurrences changed.
+     *
+     * @param problems the problems whose errors or patterns changed
+     */
+    public void updateAggregates(Collection<Problem> problems) {
+        if (!problems.isEmpty()) {
+            storedProblemAggregateRepository.saveAll(computeAggregates(problems.stream().map(Problem::getId).toList()));
+        }
+    }
+
+    /**
+     * @param problemIds the IDs of the problems for which to compute the aggregates
+     * @return the aggregates of all given problems (with zero counts for problems without any occurrence)
+     */
+    @Transactional(readOnly = true)
+    public List<StoredProblemAggregate> computeAggregates(List<Long> problemIds) {
+        Map<Long, StoredProblemAggregate> aggregates = new HashMap<>();
+        for (Long problemId : problemIds) {
+            aggregates.put(problemId, new StoredProblemAggregate(problemId));
+        }
+        for (Object[] row : problemRepository.findProblemAggregatesNotFormatted(problemIds)) {
+            StoredProblemAggregate aggregate = aggregates.get((Long) row[0]);
+            aggregate.setPatternCount((long) row[1]);
+            aggregate.setErrorCount((long) row[2]);
+
+            aggregate.setScenarioCount((long) row[3]);
+            aggregate.setFirstScenarioName((String) row[4]);
+
+            aggregate.setBranchCount((long) row[5]);
+            aggregate.setFirstBranch((String) row[6]);
+
+            aggregate.setReleaseCount((long) row[7]);
+            aggregate.setFirstRelease((String) row[8]);
+
+            aggregate.setVersionCount((long) row[9]);
+            aggregate.setFirstVersion((String) row[10]);
+
+            aggregate.setCountryCount((long) row[11]);
+            aggregate.setFirstCountryCode((String) row[12]);
+
+            aggregate.setTypeCount((long) row[13]);
+            aggregate.setFirstTypeCode((String) row[14]);
+
+            aggregate.setPlatformCount((long) row[15]);
+            aggregate.setFirstPlatform((String) row[16]);
+        }
+        return List.copyOf(aggregates.values());
+    }
+
+    /**
+     * Store aggregates computed while reading problems, in a transaction of its own: a concurrent request storing the
+     * same aggregates must not fail the caller.
+     *
+     * @param aggregates the aggregates to store
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void saveAggregates(List<StoredProblemAggregate> aggregates) {
+        storedProblemAggregateRepository.saveAll(aggregates);
+    }
+
 }
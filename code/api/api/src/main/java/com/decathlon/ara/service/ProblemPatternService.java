@@ -36,6 +36,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.decathlon.ara.Entities;
 import com.decathlon.ara.Messages;
+import com.decathlon.ara.cache.JpaCacheInvalidationService;
 import com.decathlon.ara.domain.Country;
 import com.decathlon.ara.domain.Error;
 import com.decathlon.ara.domain.Problem;
@@ -46,8 +47,6 @@ import com.decathlon.ara.repository.CountryRepository;
 import com.decathlon.ara.repository.ProblemPatternRepository;
 import com.decathlon.ara.repository.ProblemRepository;
 import com.decathlon.ara.repository.TypeRepository;
-import com.decathlon.ara.repository.custom.util.JpaCacheManager;
-import com.decathlon.ara.repository.custom.util.TransactionAppenderUtil;
 import com.decathlon.ara.service.dto.error.ErrorWithExecutedScenarioAndRunAndExecutionDTO;
 import com.decathlon.ara.service.dto.problem.ProblemDTO;
 import com.decathlon.ara.service.dto.problempattern.ProblemPatternDTO;
@@ -76,27 +75,27 @@ public class ProblemPatternService {
 
     private final TypeRepository typeRepository;
 
-    private final GenericMapper mapper;
+    private final RunHandlingCountsService runHandlingCountsService;
 
-    private final JpaCacheManager jpaCacheManager;
+    private final GenericMapper mapper;
 
-    private final TransactionAppenderUtil transactionService;
+    private final JpaCacheInvalidationService jpaCacheInvalidationService;
 
     @Autowired
     public ProblemPatternService(ProblemDenormalizationService problemDenormalizationService,
             ProblemPatternRepository problemPatternRepository, ProblemRepository problemRepository,
             @Lazy ErrorService errorService, CountryRepository countryRepository, TypeRepository typeRepository,
-            GenericMapper mapper,
-            JpaCacheManager jpaCacheManager, TransactionAppenderUtil transactionService) {
+            RunHandlingCountsService runHandlingCountsService, GenericMapper mapper,
+            JpaCacheInvalidationService jpaCacheInvalidationService) {
         this.problemDenormalizationService = problemDenormalizationService;
         this.problemPatternRepository = problemPatternRepository;
         this.problemRepository = problemRepository;
         this.errorService = errorService;
         this.countryRepository = countryRepository;
         this.typeRepository = typeRepository;
+        this.runHandlingCountsService = runHandlingCountsService;
         this.mapper = mapper;
-        this.jpaCacheManager = jpaCacheManager;
-        this.transactionService = transactionService;
+        this.jpaCacheInvalidationService = jpaCacheInvalidationService;
     }
 
     /**
@@ -134,6 +133,7 @@ public class ProblemPatternService {
 
         // Detach the pattern from its problem
         Problem sourceProblem = pattern.getProblem();
+        runHandlingCountsService.invalidateProblems(Collections.singleton(sourceProblem.getId())); // While errors are still assigned
         sourceProblem.removePattern(pattern);
         sourceProblem = problemRepository.save(sourceProblem);
 
@@ -147,6 +147,7 @@ public class ProblemPatternService {
             response.setDeletedProblem(mapper.map(sourceProblem, ProblemDTO.class));
         } else {
             problemDenormalizationService.updateFirstAndLastSeenDateTimes(Collections.singleton(sourceProblem));
+            problemDenormalizationService.updateAggregates(Collections.singleton(sourceProblem));
         }
 
         return response;
@@ -207,6 +208,7 @@ public class ProblemPatternService {
 
         // Evict errors' cache of the OLD pattern
         evictErrorProblemPatternsCacheFor(problemPattern);
+        runHandlingCountsService.invalidateProblems(Collections.singleton(problemPattern.getProblem().getId()));
 
         // Update the pattern: this will remove all occurrences, as the DTO has no error
         problemPattern = problemPatternRepository.save(entityToUpdate);
@@ -214,6 +216,7 @@ public class ProblemPatternService {
         // Reassign errors to the new pattern, and update the first and last seen occurrences
         errorService.assignPatternToErrors(projectId, problemPattern); // Also evict errors' cache of the NEW pattern
         problemDenormalizationService.updateFirstAndLastSeenDateTimes(Collections.singleton(problemPattern.getProblem()));
+        problemDenormalizationService.updateAggregates(Collections.singleton(problemPattern.getProblem()));
 
         return mapper.map(problemPattern, ProblemPatternDTO.class);
     }
@@ -231,7 +234,7 @@ public class ProblemPatternService {
                 .map(ProblemOccurrence::getError)
                 .map(Error::getId)
                 .collect(Collectors.toSet());
-        transactionService.doAfterCommit(() -> jpaCacheManager.evictCollections(Error.PROBLEM_OCCURRENCES_COLLECTION_CACHE, errorIds));
+        jpaCacheInvalidationService.evictCollections(Error.PROBLEM_OCCURRENCES_COLLECTION_CACHE, errorIds);
     }
 
     void assignExistingEntities(long projectId, ProblemPattern problemPattern) throws NotFoundException {
@@ -27,6 +27,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
@@ -34,6 +35,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -41,35 +43,37 @@ import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Sort.Direction;
 import org.springframework.data.domain.Sort.Order;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.decathlon.ara.Entities;
 import com.decathlon.ara.Messages;
 import com.decathlon.ara.SpringApplicationContext;
+import com.decathlon.ara.cache.JpaCacheInvalidationService;
 import com.decathlon.ara.ci.util.FetchException;
 import com.decathlon.ara.defect.DefectAdapter;
 import com.decathlon.ara.defect.bean.Defect;
-import com.decathlon.ara.domain.CycleDefinition;
+import com.decathlon.ara.domain.Country;
 import com.decathlon.ara.domain.Error;
-import com.decathlon.ara.domain.Execution;
 import com.decathlon.ara.domain.Problem;
 import com.decathlon.ara.domain.ProblemOccurrence;
 import com.decathlon.ara.domain.ProblemPattern;
 import com.decathlon.ara.domain.RootCause;
+import com.decathlon.ara.domain.StoredProblemAggregate;
 import com.decathlon.ara.domain.Team;
+import com.decathlon.ara.domain.Type;
 import com.decathlon.ara.domain.enumeration.DefectExistence;
 import com.decathlon.ara.domain.enumeration.ProblemStatus;
 import com.decathlon.ara.domain.filter.ProblemFilter;
 import com.decathlon.ara.domain.projection.ProblemAggregate;
 import com.decathlon.ara.repository.CountryRepository;
-import com.decathlon.ara.repository.CycleDefinitionRepository;
-import com.decathlon.ara.repository.ExecutionRepository;
 import com.decathlon.ara.repository.ProblemPatternRepository;
 import com.decathlon.ara.repository.ProblemRepository;
 import com.decathlon.ara.repository.RootCauseRepository;
+import com.decathlon.ara.repository.StoredProblemAggregateRepository;
 import com.decathlon.ara.repository.TypeRepository;
-import com.decathlon.ara.repository.custom.util.JpaCacheManager;
-import com.decathlon.ara.repository.custom.util.TransactionAppenderUtil;
+import com.decathlon.ara.service.CycleLastExecutionsService.CycleLastExecutions;
+import com.decathlon.ara.service.CycleLastExecutionsService.LastExecution;
 import com.decathlon.ara.service.dto.error.ErrorWithExecutedScenarioAndRunAndExecutionDTO;
 import com.decathlon.ara.service.dto.problem.ProblemAggregateDTO;
 import com.decathlon.ara.service.dto.problem.ProblemDTO;
@@ -117,9 +121,9 @@ public class ProblemService {
 
     private final ProblemPatternRepository problemPatternRepository;
 
-    private final ExecutionRepository executionRepository;
+    private final StoredProblemAggregateRepository storedProblemAggregateRepository;
 
-    private final CycleDefinitionRepository cycleDefinitionRepository;
+    private final CycleLastExecutionsService cycleLastExecutionsService;
 
     private final RootCauseRepository rootCauseRepository;
 
@@ -135,29 +139,30 @@ public class ProblemService {
 
     private final DefectService defectService;
 
-    private final GenericMapper mapper;
+    private final RunHandlingCountsService runHandlingCountsService;
 
-    private final JpaCacheManager jpaCacheManager;
+    private final GenericMapper mapper;
 
-    private final TransactionAppenderUtil transactionService;
+    private final JpaCacheInvalidationService jpaCacheInvalidationService;
 
     @Autowired
     public ProblemService(ProblemRepository problemRepository, CountryRepository countryRepository,
             TypeRepository typeRepository, @Lazy ErrorService errorService,
-            ProblemPatternRepository problemPatternRepository, ExecutionRepository executionRepository,
-            CycleDefinitionRepository cycleDefinitionRepository, RootCauseRepository rootCauseRepository,
+            ProblemPatternRepository problemPatternRepository,
+            StoredProblemAggregateRepository storedProblemAggregateRepository,
+            CycleLastExecutionsService cycleLastExecutionsService, RootCauseRepository rootCauseRepository,
             ProblemPatternService problemPatternService, ProblemDenormalizationService problemDenormalizationService,
             RootCauseService rootCauseService, TeamService teamService, DateService dateService,
-            DefectService defectService,
+            DefectService defectService, RunHandlingCountsService runHandlingCountsService,
             GenericMapper mapper,
-            JpaCacheManager jpaCacheManager, TransactionAppenderUtil transactionService) {
+            JpaCacheInvalidationService jpaCacheInvalidationService) {
         this.problemRepository = problemRepository;
         this.countryRepository = countryRepository;
         this.typeRepository = typeRepository;
         this.errorService = errorService;
         this.problemPatternRepository = problemPatternRepository;
-        this.executionRepository = executionRepository;
-        this.cycleDefinitionRepository = cycleDefinitionRepository;
+        this.storedProblemAggregateRepository = storedProblemAggregateRepository;
+        this.cycleLastExecutionsService = cycleLastExecutionsService;
         this.rootCauseRepository = rootCauseRepository;
         this.problemPatternService = problemPatternService;
         this.problemDenormalizationService = problemDenormalizationService;
@@ -165,9 +170,9 @@ public class ProblemService {
         this.teamService = teamService;
         this.dateService = dateService;
         this.defectService = defectService;
+        this.runHandlingCountsService = runHandlingCountsService;
         this.mapper = mapper;
-        this.jpaCacheManager = jpaCacheManager;
-        this.transactionService = transactionService;
+        this.jpaCacheInvalidationService = jpaCacheInvalidationService;
     }
 
     private static void validateClosedProblemHasRootCause(ProblemDTO problemDto) throws BadRequestException {
@@ -180,7 +185,7 @@ public class ProblemService {
     }
 
     private static List<ExecutionStabilityDTO> computeExecutionStability(int lastExecutionCount,
-                                                                         List<Execution> lastExecutions,
+                                                                         List<LastExecution> lastExecutions,
                                                                          List<Long> failedExecutionIds) {
         ExecutionStabilityDTO[] executionStabilityDTOS = new ExecutionStabilityDTO[lastExecutionCount];
         for (int i = 0; i < lastExecutionCount; i++) {
@@ -189,12 +194,12 @@ public class ProblemService {
                 executionStabilityDTOS[pos] = new ExecutionStabilityDTO(STABILITY_NOT_RUN);
             } else {
                 String status;
-                if (failedExecutionIds != null && failedExecutionIds.contains(lastExecutions.get(i).getId())) {
+                if (failedExecutionIds != null && failedExecutionIds.contains(lastExecutions.get(i).id())) {
                     status = STABILITY_ERROR;
                 } else {
                     status = STABILITY_OK;
                 }
-                executionStabilityDTOS[pos] = new ExecutionStabilityDTO(lastExecutions.get(i).getId(), lastExecutions.get(i).getTestDateTime(), status);
+                executionStabilityDTOS[pos] = new ExecutionStabilityDTO(lastExecutions.get(i).id(), lastExecutions.get(i).testDateTime(), status);
             }
         }
         return Arrays.asList(executionStabilityDTOS);
@@ -237,6 +242,7 @@ public class ProblemService {
         }
 
         problemDenormalizationService.updateFirstAndLastSeenDateTimes(Collections.singleton(problem));
+        problemDenormalizationService.updateAggregates(Collections.singleton(problem));
 
         ProblemWithPatternsDTO result = mapper.map(problem, ProblemWithPatternsDTO.class);
         result.setDefectUrl(this.retrieveDefectUrl(problem));
@@ -261,6 +267,8 @@ public class ProblemService {
         }
 
         String oldDefectId = dataBaseEntity.getDefectId();
+        ProblemStatus oldStatus = dataBaseEntity.getStatus();
+        Date oldClosingDateTime = dataBaseEntity.getClosingDateTime();
 
         // If defectId has not changed, validateBusinessRules()/handleDefectIdChange() will not update these fields
         dtoToUpdate.setDefectExistence(dataBaseEntity.getDefectExistence());
@@ -286,6 +294,9 @@ public class ProblemService {
         dataBaseEntity.setDefectExistence(dtoToUpdate.getDefectExistence());
         dataBaseEntity.setStatus(dtoToUpdate.getStatus());
         dataBaseEntity.setClosingDateTime(dtoToUpdate.getClosingDateTime());
+        if (oldStatus != dataBaseEntity.getStatus() || !Objects.equals(oldClosingDateTime, dataBaseEntity.getClosingDateTime())) {
+            runHandlingCountsService.invalidateProblems(Collections.singleton(dataBaseEntity.getId()));
+        }
 
         ProblemDTO result = mapper.map(problemRepository.save(dataBaseEntity), ProblemDTO.class);
         result.setDefectUrl(this.retrieveDefectUrl(projectId, result));
@@ -454,6 +465,7 @@ public class ProblemService {
         }
 
         evictErrorProblemPatternsCacheFor(problem);
+        runHandlingCountsService.invalidateProblems(Collections.singleton(problem.getId())); // While errors are still assigned
 
         problemRepository.delete(problem);
     }
@@ -474,7 +486,7 @@ public class ProblemService {
                 .map(Error::getId)
                 .collect(Collectors.toSet());
 
-        transactionService.doAfterCommit(() -> jpaCacheManager.evictCollections(Error.PROBLEM_OCCURRENCES_COLLECTION_CACHE, errorIds));
+        jpaCacheInvalidationService.evictCollections(Error.PROBLEM_OCCURRENCES_COLLECTION_CACHE, errorIds);
     }
 
     /**
@@ -529,32 +541,56 @@ public class ProblemService {
      * @return for each problem ID, an aggregate object listing various counts and statistics about this problem
      */
     private Map<Long, ProblemAggregate> findProblemAggregates(long projectId, List<Long> problemIds) {
-        return problemRepository.findProblemAggregatesNotFormatted(problemIds).stream().collect(Collectors.toMap(errorAggregate -> (Long) errorAggregate[0],
-                errorAggregate -> {
+        List<StoredProblemAggregate> storedAggregates = new ArrayList<>(storedProblemAggregateRepository.findAllByProblemIdIn(problemIds));
+        Set<Long> storedProblemIds = storedAggregates.stream().map(StoredProblemAggregate::getProblemId).collect(Collectors.toSet());
+        List<Long> missingProblemIds = problemIds.stream().filter(id -> !storedProblemIds.contains(id)).toList();
+        if (!missingProblemIds.isEmpty()) {
+            // Problems created before the aggregates were stored, or whose executions got purged
+            List<StoredProblemAggregate> computedAggregates = problemDenormalizationService.computeAggregates(missingProblemIds);
+            try {
+                problemDenormalizationService.saveAggregates(computedAggregates);
+            } catch (DataAccessException | TransactionException e) {
+                // Another request stored them concurrently: they will be read next time
+                LOG.debug("PROBLEM|Cannot store the aggregates of problems {}", missingProblemIds, e);
+            }
+            storedAggregates.addAll(computedAggregates);
+        }
+
+        // Problems without any occurrence have no aggregate
+        storedAggregates.removeIf(storedAggregate -> storedAggregate.getPatternCount() == 0);
+        if (storedAggregates.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, Country> countries = countryRepository.findAllByProjectIdOrderByCode(projectId).stream()
+                .collect(Collectors.toMap(Country::getCode, Function.identity()));
+        Map<String, Type> types = typeRepository.findAllByProjectIdOrderByCode(projectId).stream()
+                .collect(Collectors.toMap(Type::getCode, Function.identity()));
+        return storedAggregates.stream().collect(Collectors.toMap(StoredProblemAggregate::getProblemId,
+                storedAggregate -> {
                     ProblemAggregate problemAggregate = new ProblemAggregate();
-                    problemAggregate.setPatternCount((long) errorAggregate[1]);
-                    problemAggregate.setErrorCount((long) errorAggregate[2]);
+                    problemAggregate.setPatternCount(storedAggregate.getPatternCount());
+                    problemAggregate.setErrorCount(storedAggregate.getErrorCount());
 
-                    problemAggregate.setScenarioCount((long) errorAggregate[3]);
-                    problemAggregate.setFirstScenarioName((String) errorAggregate[4]);
+                    problemAggregate.setScenarioCount(storedAggregate.getScenarioCount());
+                    problemAggregate.setFirstScenarioName(storedAggregate.getFirstScenarioName());
 
-                    problemAggregate.setBranchCount((long) errorAggregate[5]);
-                    problemAggregate.setFirstBranch((String) errorAggregate[6]);
+                    problemAggregate.setBranchCount(storedAggregate.getBranchCount());
+                    problemAggregate.setFirstBranch(storedAggregate.getFirstBranch());
 
-                    problemAggregate.setReleaseCount((long) errorAggregate[7]);
-                    problemAggregate.setFirstRelease((String) errorAggregate[8]);
+                    problemAggregate.setReleaseCount(storedAggregate.getReleaseCount());
+                    problemAggregate.setFirstRelease(storedAggregate.getFirstRelease());
 
-                    problemAggregate.setVersionCount((long) errorAggregate[9]);
-                    problemAggregate.setFirstVersion((String) errorAggregate[10]);
+                    problemAggregate.setVersionCount(storedAggregate.getVersionCount());
+                    problemAggregate.setFirstVersion(storedAggregate.getFirstVersion());
 
-                    problemAggregate.setCountryCount((long) errorAggregate[11]);
-                    problemAggregate.setFirstCountry(countryRepository.findByProjectIdAndCode(projectId, (String) errorAggregate[12]));
+                    problemAggregate.setCountryCount(storedAggregate.getCountryCount());
+                    problemAggregate.setFirstCountry(countries.get(storedAggregate.getFirstCountryCode()));
 
-                    problemAggregate.setTypeCount((long) errorAggregate[13]);
-                    problemAggregate.setFirstType(typeRepository.findByProjectIdAndCode(projectId, (String) errorAggregate[14]));
+                    problemAggregate.setTypeCount(storedAggregate.getTypeCount());
+                    problemAggregate.setFirstType(types.get(storedAggregate.getFirstTypeCode()));
 
-                    problemAggregate.setPlatformCount((long) errorAggregate[15]);
-                    problemAggregate.setFirstPlatform((String) errorAggregate[16]);
+                    problemAggregate.setPlatformCount(storedAggregate.getPlatformCount());
+                    problemAggregate.setFirstPlatform(storedAggregate.getFirstPlatform());
 
                     return problemAggregate;
                 }));
@@ -620,6 +656,7 @@ public class ProblemService {
         errorService.assignPatternToErrors(projectId, newPattern);
 
         problemDenormalizationService.updateFirstAndLastSeenDateTimes(Collections.singleton(problem));
+        problemDenormalizationService.updateAggregates(Collections.singleton(problem));
 
         return mapper.map(newPattern, ProblemPatternDTO.class);
     }
@@ -661,7 +698,8 @@ public class ProblemService {
             }
         }
 
-        // Do the real work
+        // Do the real work (the errors of the moved pattern may change of handling if the problems have different statuses)
+        runHandlingCountsService.invalidateProblems(Collections.singleton(sourceProblem.getId()));
         sourceProblem.removePattern(sourcePattern);
         destinationProblem.addPattern(sourcePattern);
         List<Problem> updatedProblems = problemRepository.saveAll(Arrays.asList(sourceProblem, destinationProblem));
@@ -669,6 +707,7 @@ public class ProblemService {
         destinationProblem = updatedProblems.get(1);
 
         problemDenormalizationService.updateFirstAndLastSeenDateTimes(updatedProblems);
+        problemDenormalizationService.updateAggregates(updatedProblems);
 
         // Build the response the result of the work
         PickUpPatternDTO response = new PickUpPatternDTO();
@@ -714,6 +753,7 @@ public class ProblemService {
         problem.setClosingDateTime(dateService.now());
         problem.setRootCause(rootCause);
         problem.setPatterns(problem.getPatterns());
+        runHandlingCountsService.invalidateProblems(Collections.singleton(problem.getId()));
         return mapper.map(problemRepository.save(problem), ProblemDTO.class);
     }
 
@@ -740,6 +780,7 @@ public class ProblemService {
         // Change status, but keep other properties and patterns
         problem.setStatus(ProblemStatus.OPEN);
         problem.setClosingDateTime(null);
+        runHandlingCountsService.invalidateProblems(Collections.singleton(problem.getId()));
         return mapper.map(problemRepository.save(problem), ProblemDTO.class);
     }
 
@@ -784,6 +825,7 @@ public class ProblemService {
                 problem.setStatus(statuses.get(0).getStatus());
                 problem.setClosingDateTime(statuses.get(0).getCloseDateTime());
             }
+            runHandlingCountsService.invalidateProblems(Collections.singleton(problem.getId()));
             return mapper.map(problemRepository.save(problem), ProblemDTO.class);
         } catch (FetchException e) {
             // Also catch RuntimeException to not impact calling code in case of a faulty DefectAdapter in a custom ARA
@@ -809,22 +851,23 @@ public class ProblemService {
     }
 
     private void assignProblemStabilities(long projectId, List<ProblemWithAggregateDTO> problems) {
-        int lastExecutionCount = 10;
-
         // Given the problem IDs
         List<Long> problemIds = problems.stream().map(ProblemDTO::getId).toList();
 
-        for (CycleDefinition cycleDefinition : cycleDefinitionRepository.findAllByProjectIdOrderByBranchPositionAscBranchAscNameAsc(projectId)) {
-            List<Execution> lastExecutions = executionRepository
-                    .findTop10ByCycleDefinitionProjectIdAndCycleDefinitionBranchAndCycleDefinitionNameOrderByTestDateTimeDesc(
-                            cycleDefinition.getProjectId(), cycleDefinition.getBranch(), cycleDefinition.getName());
-            List<Long> lastExecutionIds = lastExecutions.stream().map(Execution::getId).toList();
-            Map<Long, List<Long>> problemIdsToExecutionIds = problemRepository
-                    .findProblemIdsToExecutionIdsAssociations(problemIds, lastExecutionIds);
-
+        // Find the problems of the last executions of all cycles at once
+        List<CycleLastExecutions> cycles = cycleLastExecutionsService.getLastExecutions(projectId);
+        List<Long> lastExecutionIds = cycles.stream()
+                .flatMap(cycle -> cycle.executions().stream())
+                .map(LastExecution::id)
+                .toList();
+        Map<Long, List<Long>> problemIdsToExecutionIds = problemIds.isEmpty() || lastExecutionIds.isEmpty()
+                ? Collections.emptyMap()
+                : problemRepository.findProblemIdsToExecutionIdsAssociations(problemIds, lastExecutionIds);
+
+        for (CycleLastExecutions cycle : cycles) {
             for (ProblemWithAggregateDTO problem : problems) {
                 List<Long> failedExecutionIds = problemIdsToExecutionIds.get(problem.getId());
-                CycleStabilityDTO stability = computeStability(cycleDefinition, lastExecutionCount, lastExecutions,
+                CycleStabilityDTO stability = computeStability(cycle, CycleLastExecutionsService.LAST_EXECUTION_COUNT,
                         failedExecutionIds);
                 problem.getAggregate().getCycleStabilities().add(stability);
             }
@@ -832,15 +875,15 @@ public class ProblemService {
     }
 
     /**
+     * @param cycle              the cycle with its latest executions (may be fewer that lastExecutionCount, but never
+     *                           more), from the newest execution to the oldest
      * @param lastExecutionCount the size of the stability bar: the number of latest executions to include in the bar
-     * @param lastExecutions     the latest execution IDs (may be fewer that lastExecutionCount, but never more), from the
-     *                           newest execution to the oldest
      * @param failedExecutionIds the IDs of the failed executions to pinpoint on the stability bar
      * @return a string of each character being one of the STABILITY_* constants, from the oldest execution to the newest
      */
-    private CycleStabilityDTO computeStability(CycleDefinition cycleDefinition, int lastExecutionCount,
-                                               List<Execution> lastExecutions, List<Long> failedExecutionIds) {
-        return new CycleStabilityDTO(cycleDefinition.getBranch(), cycleDefinition.getName(), computeExecutionStability(lastExecutionCount, lastExecutions, failedExecutionIds));
+    private CycleStabilityDTO computeStability(CycleLastExecutions cycle, int lastExecutionCount,
+                                               List<Long> failedExecutionIds) {
+        return new CycleStabilityDTO(cycle.branch(), cycle.name(), computeExecutionStability(lastExecutionCount, cycle.executions(), failedExecutionIds));
     }
 
     public String retrieveDefectUrl(Problem entity) {
@@ -0,0 +1,201 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.decathlon.ara.domain.RunHandlingCounts;
+import com.decathlon.ara.domain.projection.ExecutedScenarioWithErrorAndProblemJoin;
+import com.decathlon.ara.repository.ExecutedScenarioRepository;
+import com.decathlon.ara.repository.RunHandlingCountsRepository;
+import com.decathlon.ara.scenario.cucumber.util.ScenarioExtractorUtil;
+import com.decathlon.ara.service.dto.run.ExecutedScenarioGroupHandlingCountsDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Materializes the handling counts of the executed-scenarios of runs: they are computed when indexing a run, and
+ * deleted when the problems of the run change (they are then computed again the next time they are needed).
+ */
+@Service
+@Transactional
+public class RunHandlingCountsService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RunHandlingCountsService.class);
+
+    private static final TypeReference<List<ExecutedScenarioGroupHandlingCountsDTO>> COUNTS_TYPE = new TypeReference<>() {
+    };
+
+    private final RunHandlingCountsRepository runHandlingCountsRepository;
+
+    private final ExecutedScenarioRepository executedScenarioRepository;
+
+    private final ObjectMapper objectMapper;
+
+    public RunHandlingCountsService(RunHandlingCountsRepository runHandlingCountsRepository,
+            ExecutedScenarioRepository executedScenarioRepository, ObjectMapper objectMapper) {
+        this.runHandlingCountsRepository = runHandlingCountsRepository;
+        this.executedScenarioRepository = executedScenarioRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @param runIds the IDs of the runs for which to get the materialized counts
+     * @return the counts of the runs that are materialized and up to date, by run ID (other runs are absent of the map)
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, List<ExecutedScenarioGroupHandlingCountsDTO>> findCounts(Collection<Long> runIds) {
+        Map<Long, List<ExecutedScenarioGroupHandlingCountsDTO>> countsByRunId = new HashMap<>();
+        if (runIds.isEmpty()) {
+            return countsByRunId;
+        }
+        for (RunHandlingCounts runHandlingCounts : runHandlingCountsRepository.findAllByRunIdIn(runIds)) {
+            try {
+                countsByRunId.put(runHandlingCounts.getRunId(), objectMapper.readValue(runHandlingCounts.getCounts(), COUNTS_TYPE));
+            } catch (JsonProcessingException e) {
+                LOG.warn("EXECUTION|Cannot parse the handling counts of run {}: they will be computed again", runHandlingCounts.getRunId(), e);
+            }
+        }
+        return countsByRunId;
+    }
+
+    /**
+     * @param runIds the IDs of the runs for which to compute the counts from their scenarios, errors and problems
+     * @return the computed counts, by run ID (all given runs are present, even those without any executed-scenario)
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, List<ExecutedScenarioGroupHandlingCountsDTO>> computeCounts(Set<Long> runIds) {
+        Map<Long, List<ExecutedScenarioGroupHandlingCountsDTO>> countsByRunId = new HashMap<>();
+        if (runIds.isEmpty()) {
+            return countsByRunId;
+        }
+        countsByRunId.putAll(aggregate(executedScenarioRepository.findAllErrorAndProblemCounts(runIds)));
+        for (Long runId : runIds) {
+            countsByRunId.computeIfAbsent(runId, k -> new ArrayList<>());
+        }
+        return countsByRunId;
+    }
+
+    /**
+     * Store the counts of runs in a transaction of its own: a concurrent request storing the same runs must not
+     * fail the caller.
+     *
+     * @param countsByRunId the counts to store (replacing the existing ones, if any), by run ID
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void saveCounts(Map<Long, List<ExecutedScenarioGroupHandlingCountsDTO>> countsByRunId) {
+        saveAll(countsByRunId);
+    }
+
+    /**
+     * Compute and store the counts of the given runs, in the current transaction (eg. at the end of an indexation).
+     *
+     * @param runIds the IDs of the runs to compute
+     */
+    public void refreshCounts(Set<Long> runIds) {
+        saveAll(computeCounts(runIds));
+    }
+
+    /**
+     * Forget the counts of all runs having errors matched by the given problems: call it before AND after changing the
+     * patterns of problems (so both the previously and newly matched errors are concerned) or when changing their
+     * status or closing date.
+     *
+     * @param problemIds the IDs of the problems being changed
+     */
+    public void invalidateProblems(Collection<Long> problemIds) {
+        if (!problemIds.isEmpty()) {
+            int count = runHandlingCountsRepository.deleteByProblemIds(problemIds);
+            LOG.debug("EXECUTION|Invalidated the handling counts of {} runs", Integer.valueOf(count));
+        }
+    }
+
+    /**
+     * @param errorIds the IDs of errors which got new problems: forget the counts of their runs
+     */
+    public void invalidateErrors(Collection<Long> errorIds) {
+        if (!errorIds.isEmpty()) {
+            int count = runHandlingCountsRepository.deleteByErrorIds(errorIds);
+            LOG.debug("EXECUTION|Invalidated the handling counts of {} runs", Integer.valueOf(count));
+        }
+    }
+
+    private void saveAll(Map<Long, List<ExecutedScenarioGroupHandlingCountsDTO>> countsByRunId) {
+        List<RunHandlingCounts> entities = new ArrayList<>(countsByRunId.size());
+        for (Map.Entry<Long, List<ExecutedScenarioGroupHandlingCountsDTO>> entry : countsByRunId.entrySet()) {
+            try {
+                entities.add(new RunHandlingCounts(entry.getKey(), objectMapper.writeValueAsString(entry.getValue())));
+            } catch (JsonProcessingException e) {
+                LOG.warn("EXECUTION|Cannot serialize the handling counts of run {}: they will be computed again", entry.getKey(), e);
+            }
+        }
+        runHandlingCountsRepository.saveAll(entities);
+    }
+
+    /**
+     * Group executed-scenarios by run, then by severity and functionality IDs, and count their handling.
+     *
+     * @param executedScenarioJoins executed-scenarios joined with their errors and problems
+     * @return the counts of the groups, by run ID
+     */
+    static Map<Long, List<ExecutedScenarioGroupHandlingCountsDTO>> aggregate(List<ExecutedScenarioWithErrorAndProblemJoin> executedScenarioJoins) {
+        Map<Long, Map<GroupKey, ExecutedScenarioGroupHandlingCountsDTO>> groupsByRunId = new HashMap<>();
+        for (ExecutedScenarioWithErrorAndProblemJoin executedScenarioJoin : executedScenarioJoins) {
+            List<Long> functionalityIds = ScenarioExtractorUtil.getFunctionalityIds(executedScenarioJoin.getFunctionalityIds(), executedScenarioJoin.getName())
+                    .stream()
+                    .distinct()
+                    .sorted()
+                    .toList();
+            ExecutedScenarioGroupHandlingCountsDTO group = groupsByRunId
+                    .computeIfAbsent(Long.valueOf(executedScenarioJoin.getRunId()), k -> new LinkedHashMap<>())
+                    .computeIfAbsent(new GroupKey(executedScenarioJoin.getSeverity(), functionalityIds),
+                            key -> new ExecutedScenarioGroupHandlingCountsDTO(key.severity(), key.functionalityIds()));
+            increment(executedScenarioJoin, group);
+        }
+        Map<Long, List<ExecutedScenarioGroupHandlingCountsDTO>> countsByRunId = new HashMap<>();
+        groupsByRunId.forEach((runId, groups) -> countsByRunId.put(runId, new ArrayList<>(groups.values())));
+        return countsByRunId;
+    }
+
+    private static void increment(ExecutedScenarioWithErrorAndProblemJoin executedScenarioJoin, ExecutedScenarioGroupHandlingCountsDTO counts) {
+        if (executedScenarioJoin.getHandledCount() > 0) {
+            counts.setHandled(counts.getHandled() + 1);
+        } else if (executedScenarioJoin.getUnhandledCount() > 0) {
+            counts.setUnhandled(counts.getUnhandled() + 1);
+        } else {
+            counts.setPassed(counts.getPassed() + 1);
+        }
+    }
+
+    private record GroupKey(String severity, List<Long> functionalityIds) {
+    }
+
+}
@@ -17,12 +17,11 @@
 
 package com.decathlon.ara.service;
 
-import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.function.UnaryOperator;
 
@@ -32,6 +31,8 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.decathlon.ara.Entities;
 import com.decathlon.ara.Messages;
+import com.decathlon.ara.cache.CacheInvalidationBus;
+import com.decathlon.ara.cache.EvictableCache;
 import com.decathlon.ara.common.NotGonnaHappenException;
 import com.decathlon.ara.domain.Setting;
 import com.decathlon.ara.repository.SettingRepository;
@@ -50,17 +51,24 @@ public class SettingService {
 
     private static final String VALIDATION_ERROR_KEY = "validation";
 
+    private static final String CACHE_NAME = "settings";
+
     private final SettingRepository repository;
 
     private final SettingProviderService settingProviderService;
 
-    // A SettingService can be used by several threads at once:
-    // make sure the global cache is reliably thread-safe with ConcurrentHashMap.computeIfAbsent and synchronizedMap()
-    private Map<Long, Map<String, String>> projectsValuesCache = new ConcurrentHashMap<>();
+    // A SettingService can be used by several threads at once: snapshots are immutable, and replaced as a whole in a
+    // cache when a setting changes, so reads never lock
+    private final EvictableCache<Long, ProjectSettings> projectsSettingsCache = new EvictableCache<>();
+
+    private final CacheInvalidationBus cacheInvalidationBus;
 
-    public SettingService(SettingRepository repository, SettingProviderService settingProviderService) {
+    public SettingService(SettingRepository repository, SettingProviderService settingProviderService,
+            CacheInvalidationBus cacheInvalidationBus) {
         this.repository = repository;
         this.settingProviderService = settingProviderService;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        cacheInvalidationBus.subscribe(CACHE_NAME, projectId -> projectsSettingsCache.evict(Long.valueOf(projectId)));
     }
 
     /**
@@ -87,13 +95,7 @@ public class SettingService {
      */
     @Transactional(readOnly = true)
     public String get(long projectId, String code) {
-        String value = getValues(projectId).get(code);
-        if (StringUtils.isEmpty(value)) {
-            value = getSettingDefinition(projectId, code)
-                    .map(SettingDTO::getDefaultValue)
-                    .orElse(null);
-        }
-        return value;
+        return getSettingValue(projectId, code).value();
     }
 
     /**
@@ -106,11 +108,11 @@ public class SettingService {
      */
     @Transactional(readOnly = true)
     public int getInt(long projectId, String code) {
-        String value = get(projectId, code);
-        if (value == null) {
+        SettingValue value = getSettingValue(projectId, code);
+        if (value.value() == null) {
             throw new NotGonnaHappenException("Integer settings must have a default value defined in the code.");
         }
-        return Integer.parseInt(value);
+        return value.intValue() != null ? value.intValue().intValue() : Integer.parseInt(value.value());
     }
 
     /**
@@ -123,8 +125,7 @@ public class SettingService {
      */
     @Transactional(readOnly = true)
     public boolean getBoolean(long projectId, String code) {
-        String value = get(projectId, code);
-        return Boolean.TRUE.toString().equals(value);
+        return getSettingValue(projectId, code).booleanValue();
     }
 
     /**
@@ -138,11 +139,11 @@ public class SettingService {
      */
     @Transactional(readOnly = true)
     public List<String> getList(long projectId, String code) {
-        String value = get(projectId, code);
-        if (StringUtils.isEmpty(value)) {
-            return Collections.emptyList();
-        }
-        return Arrays.asList(value.split(","));
+        return getSettingValue(projectId, code).listValue();
+    }
+
+    private SettingValue getSettingValue(long projectId, String code) {
+        return getProjectSettings(projectId).settings().getOrDefault(code, SettingValue.NONE);
     }
 
     /**
@@ -179,8 +180,17 @@ public class SettingService {
             changeApplier.accept(newValue);
         }
 
-        // Save was successful: update cache
-        getValues(projectId).put(code, newValue);
+        // Save was successful: replace the snapshot (readers keep using the previous one until then).
+        // Copied and replaced atomically, so that concurrent updates of other settings of the project are not lost
+        getProjectSettings(projectId);
+        projectsSettingsCache.computeIfPresent(Long.valueOf(projectId), (key, projectSettings) -> {
+            Map<String, String> newValues = new HashMap<>(projectSettings.values());
+            newValues.put(code, newValue);
+            return compile(projectId, newValues);
+        });
+
+        // All ARA instances reload the settings once the change is committed (this snapshot was compiled before that)
+        cacheInvalidationBus.publish(CACHE_NAME, String.valueOf(projectId));
     }
 
     /**
@@ -188,12 +198,50 @@ public class SettingService {
      * use anywhere in the ARA source code.
      *
      * @param projectId the ID of the project in which to work
-     * @return all setting raw values for the requested project, for ARA internal working
+     * @return all setting raw values for the requested project (unmodifiable), for ARA internal working
      */
     @Transactional
     public Map<String, String> getValues(long projectId) {
-        // Lazy-loading of the cache (thread-safe with ConcurrentHashMap.computeIfAbsent and synchronizedMap())
-        return projectsValuesCache.computeIfAbsent(projectId, key -> Collections.synchronizedMap(repository.getProjectSettings(projectId)));
+        return getProjectSettings(projectId).values();
+    }
+
+    /**
+     * @param projectId the ID of the project in which to work
+     * @return the snapshot of the settings of the project, compiled on first use
+     */
+    private ProjectSettings getProjectSettings(long projectId) {
+        final Long key = Long.valueOf(projectId);
+        ProjectSettings projectSettings = projectsSettingsCache.get(key);
+        if (projectSettings == null) {
+            // Not compiled in computeIfAbsent: setting definitions come from other services, that may read settings too.
+            // If a setting got updated in the meantime, keep the snapshot of the update, and if the settings got evicted
+            // since the read began (it may predate the commit of a change), do not cache them
+            final long generation = projectsSettingsCache.getGeneration(key);
+            projectSettings = projectsSettingsCache.putIfNotEvicted(key, generation,
+                    compile(projectId, repository.getProjectSettings(projectId)));
+        }
+        return projectSettings;
+    }
+
+    /**
+     * Resolve once the effective values (or default values) of all settings of a project, and parse them.
+     *
+     * @param projectId the ID of the project in which to work
+     * @param values    the raw values of the settings of the project
+     * @return the immutable snapshot of the settings of the project
+     */
+    private ProjectSettings compile(long projectId, Map<String, String> values) {
+        final Map<String, String> rawValues = Collections.unmodifiableMap(new HashMap<>(values));
+        final Map<String, SettingValue> settings = new HashMap<>();
+        for (SettingGroupDTO group : settingProviderService.getDefinitions(projectId, rawValues)) {
+            for (SettingDTO setting : group.getSettings()) {
+                String value = rawValues.get(setting.getCode());
+                settings.put(setting.getCode(), SettingValue.of(StringUtils.isEmpty(value) ? setting.getDefaultValue() : value));
+            }
+        }
+        // Values of settings not defined anymore for the project (eg. of a disabled defect adapter) are still readable
+        rawValues.forEach((code, value) -> settings.putIfAbsent(code, SettingValue.of(StringUtils.isEmpty(value) ? null : value)));
+        return new ProjectSettings(rawValues, Map.copyOf(settings));
     }
 
     /**
@@ -321,7 +369,39 @@ public class SettingService {
      * Clear the settings code/value contained in cache
      */
     public void clearProjectsValuesCache() {
-        projectsValuesCache.clear();
+        projectsSettingsCache.clear();
+    }
+
+    /**
+     * @param values   the raw values of the settings of a project (unmodifiable)
+     * @param settings the effective values of the settings of a project, by code
+     */
+    private record ProjectSettings(Map<String, String> values, Map<String, SettingValue> settings) {
+    }
+
+    /**
+     * @param value        the value of a setting, or its default value if not set
+     * @param intValue     the value parsed as an integer, or null if it is not an integer
+     * @param booleanValue true if the value is "true"
+     * @param listValue    the value split by commas, or an empty list if there is no value
+     */
+    private record SettingValue(String value, Integer intValue, boolean booleanValue, List<String> listValue) {
+
+        private static final SettingValue NONE = of(null);
+
+        private static SettingValue of(String value) {
+            Integer intValue = null;
+            if (value != null) {
+                try {
+                    intValue = Integer.valueOf(value);
+                } catch (NumberFormatException e) {
+                    // Not an INT setting
+                }
+            }
+            List<String> listValue = StringUtils.isEmpty(value) ? Collections.emptyList() : List.of(value.split(","));
+            return new SettingValue(value, intValue, Boolean.TRUE.toString().equals(value), listValue);
+        }
+
     }
 
 }
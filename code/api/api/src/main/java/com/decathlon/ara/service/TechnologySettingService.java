@@ -19,6 +19,8 @@ package com.decathlon.ara.service;
 
 import com.decathlon.ara.Entities;
 import com.decathlon.ara.Messages;
+import com.decathlon.ara.cache.CacheInvalidationBus;
+import com.decathlon.ara.cache.EvictableCache;
 import com.decathlon.ara.domain.TechnologySetting;
 import com.decathlon.ara.domain.enumeration.Technology;
 import com.decathlon.ara.repository.TechnologySettingRepository;
@@ -28,6 +30,8 @@ import com.decathlon.ara.service.dto.setting.SettingDTO.SettingDTOBuilder;
 import com.decathlon.ara.service.dto.setting.TechnologySettingGroupDTO;
 import com.decathlon.ara.service.exception.BadRequestException;
 import com.decathlon.ara.service.exception.NotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.text.WordUtils;
 import org.slf4j.Logger;
@@ -38,7 +42,9 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -47,14 +53,29 @@ public class TechnologySettingService {
 
     private static final Logger LOG = LoggerFactory.getLogger(TechnologySettingService.class);
 
+    private static final String CACHE_NAME = "technology-settings";
+
     private final TechnologySettingRepository technologySettingRepository;
 
     private final SettingService settingService;
 
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    private final Counter cacheHitCounter;
+
+    private final Counter cacheMissCounter;
+
+    // Indexers of several executions read the settings at once: thread-safe cache, with immutable values
+    private final EvictableCache<Long, Map<String, String>> projectsValuesCache = new EvictableCache<>();
+
     public TechnologySettingService(TechnologySettingRepository technologySettingRepository,
-            SettingService settingService) {
+            SettingService settingService, CacheInvalidationBus cacheInvalidationBus, MeterRegistry meterRegistry) {
         this.technologySettingRepository = technologySettingRepository;
         this.settingService = settingService;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.cacheHitCounter = meterRegistry.counter("ara.settings.technology.cache", "result", "hit");
+        this.cacheMissCounter = meterRegistry.counter("ara.settings.technology.cache", "result", "miss");
+        cacheInvalidationBus.subscribe(CACHE_NAME, projectId -> projectsValuesCache.evict(Long.valueOf(projectId)));
     }
 
     /**
@@ -180,7 +201,9 @@ public class TechnologySettingService {
     }
 
     /**
-     * Get the value from the project id and the {@link AvailableTechnologySettings}, if found
+     * Get the value from the project id and the {@link AvailableTechnologySettings}, if found.<br>
+     * The saved values of a project are read all at once, and kept in memory until they are updated (on any ARA
+     * instance): indexers read them for each run of each execution.
      * @param projectId the project id
      * @param availableTechnologySettings the available technology setting
      * @return the value, if found
@@ -189,12 +212,12 @@ public class TechnologySettingService {
     public Optional<String> getSettingValue(Long projectId, AvailableTechnologySettings availableTechnologySettings) {
         String code = availableTechnologySettings.getCode();
         Technology technology = availableTechnologySettings.getTechnology();
-        Optional<TechnologySetting> savedSetting = technologySettingRepository.findByProjectIdAndCodeAndTechnology(projectId, code, technology);
-        String value = null;
-        if (savedSetting.isPresent()) {
-            return Optional.of(savedSetting.get().getValue());
+        String savedValue = getSavedValues(projectId).get(getCacheKey(technology, code));
+        if (savedValue != null) {
+            return Optional.of(savedValue);
         }
 
+        String value = null;
         Optional<SettingDTO> setting = getSettingDefinitionFromTechnologyAndCode(technology, code);
         if (setting.isPresent()) {
             value = setting.get().getDefaultValue();
@@ -203,6 +226,47 @@ public class TechnologySettingService {
         return Optional.ofNullable(value);
     }
 
+    /**
+     * @param projectId the project id
+     * @return the saved values of the project, by technology and code (see {@link #getCacheKey(Technology, String)})
+     */
+    private Map<String, String> getSavedValues(Long projectId) {
+        Map<String, String> cachedValues = projectsValuesCache.get(projectId);
+        if (cachedValues != null) {
+            cacheHitCounter.increment();
+            return cachedValues;
+        }
+
+        cacheMissCounter.increment();
+        final long generation = projectsValuesCache.getGeneration(projectId);
+        Map<String, String> values = new HashMap<>();
+        for (TechnologySetting savedSetting : technologySettingRepository.findByProjectId(projectId)) {
+            if (savedSetting.getTechnology() != null && savedSetting.getCode() != null && savedSetting.getValue() != null) {
+                values.put(getCacheKey(savedSetting.getTechnology(), savedSetting.getCode()), savedSetting.getValue());
+            }
+        }
+        return projectsValuesCache.putIfNotEvicted(projectId, generation, Map.copyOf(values));
+    }
+
+    private static String getCacheKey(Technology technology, String code) {
+        return technology.name() + ':' + code;
+    }
+
+    /**
+     * Forget the saved values of a project on all ARA instances, once the current transaction (if any) is committed.
+     * @param projectId the id of the project whose technology settings changed
+     */
+    public void evict(Long projectId) {
+        cacheInvalidationBus.publish(CACHE_NAME, String.valueOf(projectId));
+    }
+
+    /**
+     * Clear the technology settings values contained in cache
+     */
+    public void clearProjectsValuesCache() {
+        projectsValuesCache.clear();
+    }
+
     /**
      * Get the default setting technology matching a code and a technology, if found
      * @param technology the technology
@@ -244,6 +308,7 @@ public class TechnologySettingService {
                         new TechnologySetting(projectId, code, technology));
         settingToSave.setValue(newValue);
         technologySettingRepository.save(settingToSave);
+        evict(projectId);
     }
 
 }
@@ -0,0 +1,68 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.service.dto.run;
+
+import java.util.List;
+
+import com.decathlon.ara.domain.ExecutedScenario;
+import com.decathlon.ara.domain.RunHandlingCounts;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Holds the handling counts of the {@link ExecutedScenario} entities of a run sharing the same severity and
+ * functionality IDs: the JSON form of a list of these objects is stored in {@link RunHandlingCounts#getCounts()}.
+ */
+@JsonIgnoreProperties("total")
+public class ExecutedScenarioGroupHandlingCountsDTO extends ExecutedScenarioHandlingCountsDTO {
+
+    /**
+     * The {@link ExecutedScenario#getSeverity() severity} of the scenarios of the group, as provided by the scenarios
+     * (null if the scenarios have none).
+     */
+    private String severity;
+
+    /**
+     * The functionality IDs extracted from the names of the scenarios of the group.
+     */
+    private List<Long> functionalityIds;
+
+    public ExecutedScenarioGroupHandlingCountsDTO() {
+    }
+
+    public ExecutedScenarioGroupHandlingCountsDTO(String severity, List<Long> functionalityIds) {
+        this.severity = severity;
+        this.functionalityIds = functionalityIds;
+    }
+
+    public String getSeverity() {
+        return severity;
+    }
+
+    public void setSeverity(String severity) {
+        this.severity = severity;
+    }
+
+    public List<Long> getFunctionalityIds() {
+        return functionalityIds;
+    }
+
+    public void setFunctionalityIds(List<Long> functionalityIds) {
+        this.functionalityIds = functionalityIds;
+    }
+
+}
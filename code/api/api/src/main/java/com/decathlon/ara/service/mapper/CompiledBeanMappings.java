@@ -0,0 +1,489 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.service.mapper;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.AnnotatedConstructor;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+
+/**
+ * Compiled bean-to-bean mappings used by {@link GenericMapper} instead of a Jackson round-trip, when it is safe to do so.
+ * <br>
+ * For each (source class, target type) pair, the properties are discovered once with the very same Jackson
+ * introspection as the round-trip (same naming, same ignored properties, same getters, setters and inferred field
+ * mutators) and turned into {@link MethodHandle}s. Values that need no conversion are copied as-is, dates are copied,
+ * collections and nested beans are mapped recursively, and anything else (number coercion, enum to String, maps,
+ * arrays...) is still converted by Jackson, one property at a time.<br>
+ * A pair is not compiled (and is mapped by Jackson as a whole) when one of its classes relies on Jackson features the
+ * copy cannot honor: creators, any-getters/setters, {@code @JsonValue} beans, class-level annotations or annotated
+ * source properties. Target properties annotated for deserialization (eg. {@code @JsonDeserialize}) are still
+ * deserialized by Jackson, into the compiled target.
+ */
+class CompiledBeanMappings {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+
+    private static final Set<Class<?>> IMMUTABLE_VALUE_TYPES = Set.of(
+            String.class, Boolean.class, Character.class, Byte.class, Short.class, Integer.class, Long.class,
+            Float.class, Double.class, BigDecimal.class, BigInteger.class, UUID.class,
+            LocalDate.class, LocalDateTime.class, LocalTime.class, Instant.class);
+
+    private static final Map<Class<?>, Object> PRIMITIVE_DEFAULTS = Map.of(
+            boolean.class, Boolean.FALSE, char.class, Character.valueOf('\0'), byte.class, Byte.valueOf((byte) 0),
+            short.class, Short.valueOf((short) 0), int.class, Integer.valueOf(0), long.class, Long.valueOf(0),
+            float.class, Float.valueOf(0), double.class, Double.valueOf(0));
+
+    private static final ValueConverter IDENTITY = value -> value;
+
+    private static final ValueConverter DATE_COPY = value -> new Date(((Date) value).getTime());
+
+    private final ObjectMapper objectMapper;
+
+    private final GenericMapper jacksonMapper;
+
+    /**
+     * Empty when the pair cannot be compiled and must be mapped by Jackson.
+     */
+    private final Map<MappingKey, Optional<BeanMapping>> beanMappings = new ConcurrentHashMap<>();
+
+    private final Map<MappingKey, ValueConverter> elementConverters = new ConcurrentHashMap<>();
+
+    CompiledBeanMappings(ObjectMapper objectMapper, GenericMapper jacksonMapper) {
+        this.objectMapper = objectMapper;
+        this.jacksonMapper = jacksonMapper;
+    }
+
+    /**
+     * @param source     the non-null object to map
+     * @param targetType the type to map to
+     * @return the mapped object, or empty if this pair is not compiled and the caller must use Jackson
+     */
+    Optional<Object> map(Object source, JavaType targetType) {
+        Optional<BeanMapping> beanMapping = findBeanMapping(source.getClass(), targetType);
+        if (beanMapping.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(beanMapping.get().map(source));
+    }
+
+    private Optional<BeanMapping> findBeanMapping(Class<?> sourceClass, JavaType targetType) {
+        if (!isBean(sourceClass) || !isBean(targetType)) {
+            return Optional.empty();
+        }
+        // Not computeIfAbsent: compiling a mapping can recursively need other mappings
+        MappingKey key = new MappingKey(sourceClass, targetType);
+        Optional<BeanMapping> beanMapping = beanMappings.get(key);
+        if (beanMapping == null) {
+            beanMapping = compile(sourceClass, targetType);
+            beanMappings.putIfAbsent(key, beanMapping);
+        }
+        return beanMapping;
+    }
+
+    private Optional<BeanMapping> compile(Class<?> sourceClass, JavaType targetType) {
+        try {
+            BeanDescription sourceDescription = objectMapper.getSerializationConfig().introspect(objectMapper.constructType(sourceClass));
+            BeanDescription targetDescription = objectMapper.getDeserializationConfig().introspect(targetType);
+            if (!isCompilableSource(sourceDescription) || !isCompilableTarget(targetDescription)) {
+                return Optional.empty();
+            }
+
+            Map<String, BeanPropertyDefinition> sourceProperties = new HashMap<>();
+            for (BeanPropertyDefinition sourceProperty : sourceDescription.findProperties()) {
+                if (sourceProperty.getAccessor() != null) {
+                    if (hasNonTrivialAnnotation(sourceProperty)) {
+                        return Optional.empty();
+                    }
+                    sourceProperties.put(sourceProperty.getName(), sourceProperty);
+                }
+            }
+            if (sourceProperties.isEmpty()) {
+                // Jackson fails on empty beans: keep its behavior
+                return Optional.empty();
+            }
+
+            List<PropertyMapping> propertyMappings = new ArrayList<>();
+            for (BeanPropertyDefinition targetProperty : targetDescription.findProperties()) {
+                BeanPropertyDefinition sourceProperty = sourceProperties.get(targetProperty.getName());
+                if (sourceProperty != null) {
+                    Optional<PropertyMapping> propertyMapping = compileProperty(sourceProperty, targetProperty);
+                    if (propertyMapping == null) {
+                        return Optional.empty();
+                    }
+                    propertyMapping.ifPresent(propertyMappings::add);
+                }
+            }
+
+            Constructor<?> constructor = targetDescription.findDefaultConstructor().getAnnotated();
+            return Optional.of(new BeanMapping(
+                    unreflect(constructor).asType(CONSTRUCTOR_TYPE),
+                    propertyMappings.toArray(new PropertyMapping[0])));
+        } catch (IllegalAccessException | RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @return the mapping of the property, empty if Jackson would not set it, or null if the whole bean cannot be compiled
+     */
+    private Optional<PropertyMapping> compileProperty(BeanPropertyDefinition sourceProperty, BeanPropertyDefinition targetProperty) throws IllegalAccessException {
+        if (targetProperty.hasConstructorParameter()) {
+            return null; // NOSONAR: tri-state
+        }
+        AnnotatedMember mutator = targetProperty.hasSetter() ? targetProperty.getSetter() : targetProperty.getField();
+        JavaType targetPropertyType = targetProperty.getPrimaryType();
+        if (mutator == null) {
+            // Jackson would use the getter to fill the existing collection or map
+            return targetPropertyType.isContainerType() ? null : Optional.empty(); // NOSONAR: tri-state
+        }
+        if (mutator.getMember() instanceof Field field && Modifier.isFinal(field.getModifiers())) {
+            return null; // NOSONAR: tri-state
+        }
+
+        MethodHandle getter = unreflectAccessor(sourceProperty.getAccessor());
+        if (hasNonTrivialAnnotation(targetProperty)) {
+            return Optional.of(new JacksonPropertyMapping(getter, targetProperty.getName(), targetPropertyType));
+        }
+        Class<?> targetClass = targetPropertyType.getRawClass();
+        return Optional.of(new PropertyMapping(
+                getter,
+                unreflectMutator(mutator),
+                converterFor(sourceProperty.getAccessor().getRawType(), targetPropertyType),
+                PRIMITIVE_DEFAULTS.get(targetClass)));
+    }
+
+    private ValueConverter converterFor(Class<?> sourceClass, JavaType targetType) {
+        Class<?> targetClass = targetType.getRawClass();
+        Class<?> boxedSourceClass = box(sourceClass);
+        if (targetClass.isPrimitive() || IMMUTABLE_VALUE_TYPES.contains(targetClass)) {
+            return boxedSourceClass == box(targetClass) ? IDENTITY : jacksonConverter(targetType);
+        }
+        if (targetClass.isEnum()) {
+            return sourceClass == targetClass ? IDENTITY : jacksonConverter(targetType);
+        }
+        if (targetClass == Date.class) {
+            return Date.class.isAssignableFrom(sourceClass) ? DATE_COPY : jacksonConverter(targetType);
+        }
+        if (targetType.isCollectionLikeType() && Collection.class.isAssignableFrom(sourceClass)) {
+            Supplier<Collection<Object>> collectionFactory = collectionFactory(targetClass);
+            if (collectionFactory != null) {
+                return new CollectionConverter(collectionFactory, targetType.getContentType());
+            }
+            return jacksonConverter(targetType);
+        }
+        if (isBean(targetType) && isBean(sourceClass)) {
+            return value -> mapBean(value, targetType);
+        }
+        return jacksonConverter(targetType);
+    }
+
+    private ValueConverter jacksonConverter(JavaType targetType) {
+        return value -> jacksonMapper.convertPropertyWithJackson(value, targetType);
+    }
+
+    private Object mapBean(Object value, JavaType targetType) throws Throwable {
+        Optional<BeanMapping> beanMapping = findBeanMapping(value.getClass(), targetType);
+        if (beanMapping.isPresent()) {
+            return beanMapping.get().map(value);
+        }
+        return jacksonMapper.convertPropertyWithJackson(value, targetType);
+    }
+
+    private Object convertElement(Object element, JavaType contentType) throws Throwable {
+        if (element == null) {
+            return null;
+        }
+        MappingKey key = new MappingKey(element.getClass(), contentType);
+        ValueConverter converter = elementConverters.get(key);
+        if (converter == null) {
+            converter = converterFor(element.getClass(), contentType);
+            elementConverters.putIfAbsent(key, converter);
+        }
+        return converter.convert(element);
+    }
+
+    /**
+     * @return the collection Jackson would instantiate for the given declared type, or null to let Jackson do it
+     */
+    private static Supplier<Collection<Object>> collectionFactory(Class<?> collectionClass) {
+        if (collectionClass == List.class || collectionClass == Collection.class || collectionClass == ArrayList.class) {
+            return ArrayList::new;
+        }
+        if (collectionClass == Set.class || collectionClass == HashSet.class) {
+            return HashSet::new;
+        }
+        if (collectionClass == SortedSet.class || collectionClass == TreeSet.class) {
+            return TreeSet::new;
+        }
+        if (collectionClass == LinkedHashSet.class) {
+            return LinkedHashSet::new;
+        }
+        return null;
+    }
+
+    private boolean isCompilableSource(BeanDescription description) {
+        return description.findJsonValueAccessor() == null
+                && description.findAnyGetter() == null
+                && !hasNonTrivialAnnotation(description.getBeanClass());
+    }
+
+    private boolean isCompilableTarget(BeanDescription description) {
+        AnnotatedConstructor defaultConstructor = description.findDefaultConstructor();
+        if (defaultConstructor == null
+                || description.findAnySetterAccessor() != null
+                || hasNonTrivialAnnotation(description.getBeanClass())) {
+            return false;
+        }
+        for (AnnotatedConstructor constructor : description.getConstructors()) {
+            if (hasJacksonAnnotation(constructor.getAnnotated())) {
+                return false;
+            }
+        }
+        return description.getFactoryMethods().stream().noneMatch(method -> hasJacksonAnnotation(method.getAnnotated()));
+    }
+
+    private static boolean isBean(Class<?> type) {
+        return !type.isPrimitive()
+                && !type.isArray()
+                && !type.isEnum()
+                && !type.isInterface()
+                && !Modifier.isAbstract(type.getModifiers())
+                && !Collection.class.isAssignableFrom(type)
+                && !Map.class.isAssignableFrom(type)
+                && !type.getName().startsWith("java.");
+    }
+
+    private static boolean isBean(JavaType type) {
+        return !type.isContainerType() && !type.hasGenericTypes() && isBean(type.getRawClass());
+    }
+
+    private static boolean hasNonTrivialAnnotation(BeanPropertyDefinition property) {
+        return hasNonTrivialAnnotation(property.getField())
+                || hasNonTrivialAnnotation(property.getGetter())
+                || hasNonTrivialAnnotation(property.getSetter());
+    }
+
+    private static boolean hasNonTrivialAnnotation(AnnotatedMember member) {
+        return member != null && member.getMember() instanceof AnnotatedElement element && hasNonTrivialAnnotation(element);
+    }
+
+    /**
+     * Names are ignored by {@link GenericMapper}, and ignored properties are already absent from the introspection:
+     * every other Jackson annotation could change the result of the round-trip.
+     */
+    private static boolean hasNonTrivialAnnotation(AnnotatedElement element) {
+        for (Annotation annotation : element.getAnnotations()) {
+            if (isJacksonAnnotation(annotation)
+                    && !(annotation instanceof JsonIgnore)
+                    && !(annotation instanceof JsonProperty jsonProperty && jsonProperty.access() == JsonProperty.Access.AUTO)
+                    && !(annotation instanceof JsonIgnoreProperties jsonIgnoreProperties && jsonIgnoreProperties.value().length == 0)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasJacksonAnnotation(AnnotatedElement element) {
+        for (Annotation annotation : element.getAnnotations()) {
+            if (isJacksonAnnotation(annotation)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isJacksonAnnotation(Annotation annotation) {
+        return annotation.annotationType().getName().startsWith("com.fasterxml.jackson.");
+    }
+
+    private static Class<?> box(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return type;
+        }
+        return PRIMITIVE_DEFAULTS.get(type).getClass();
+    }
+
+    private static MethodHandle unreflectAccessor(AnnotatedMember accessor) throws IllegalAccessException {
+        if (accessor.getMember() instanceof Field field) {
+            return MethodHandles.lookup().unreflectGetter(accessible(field)).asType(GETTER_TYPE);
+        }
+        return MethodHandles.lookup().unreflect(accessible((Method) accessor.getMember())).asType(GETTER_TYPE);
+    }
+
+    private static MethodHandle unreflectMutator(AnnotatedMember mutator) throws IllegalAccessException {
+        if (mutator.getMember() instanceof Field field) {
+            return MethodHandles.lookup().unreflectSetter(accessible(field)).asType(SETTER_TYPE);
+        }
+        return MethodHandles.lookup().unreflect(accessible((Method) mutator.getMember())).asType(SETTER_TYPE);
+    }
+
+    private static MethodHandle unreflect(Constructor<?> constructor) throws IllegalAccessException {
+        return MethodHandles.lookup().unreflectConstructor(accessible(constructor));
+    }
+
+    private static <T extends AccessibleObject> T accessible(T member) {
+        member.setAccessible(true);
+        return member;
+    }
+
+    @FunctionalInterface
+    private interface ValueConverter {
+
+        Object convert(Object value) throws Throwable; // NOSONAR: MethodHandle invocations throw Throwable
+
+    }
+
+    private record MappingKey(Class<?> sourceClass, JavaType targetType) {
+    }
+
+    private static final class BeanMapping {
+
+        private final MethodHandle constructor;
+
+        private final PropertyMapping[] properties;
+
+        BeanMapping(MethodHandle constructor, PropertyMapping[] properties) {
+            this.constructor = constructor;
+            this.properties = properties;
+        }
+
+        Object map(Object source) {
+            try {
+                Object target = constructor.invokeExact();
+                for (PropertyMapping property : properties) {
+                    property.copy(source, target);
+                }
+                return target;
+            } catch (RuntimeException | java.lang.Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalArgumentException("Cannot map " + source.getClass().getName(), e);
+            }
+        }
+
+    }
+
+    private static class PropertyMapping {
+
+        protected final MethodHandle getter;
+
+        private final MethodHandle setter;
+
+        private final ValueConverter converter;
+
+        private final Object nullValue;
+
+        PropertyMapping(MethodHandle getter, MethodHandle setter, ValueConverter converter, Object nullValue) {
+            this.getter = getter;
+            this.setter = setter;
+            this.converter = converter;
+            this.nullValue = nullValue;
+        }
+
+        void copy(Object source, Object target) throws Throwable {
+            Object value = getter.invokeExact(source);
+            setter.invokeExact(target, value == null ? nullValue : converter.convert(value));
+        }
+
+    }
+
+    /**
+     * Property whose target is annotated for Jackson (eg. a custom deserializer): only this property is round-tripped.
+     */
+    private class JacksonPropertyMapping extends PropertyMapping {
+
+        private final String name;
+
+        private final JavaType type;
+
+        JacksonPropertyMapping(MethodHandle getter, String name, JavaType type) {
+            super(getter, null, null, null);
+            this.name = name;
+            this.type = type;
+        }
+
+        @Override
+        void copy(Object source, Object target) throws Throwable {
+            jacksonMapper.updatePropertyWithJackson(target, name, getter.invokeExact(source), type);
+        }
+
+    }
+
+    private class CollectionConverter implements ValueConverter {
+
+        private final Supplier<Collection<Object>> collectionFactory;
+
+        private final JavaType contentType;
+
+        CollectionConverter(Supplier<Collection<Object>> collectionFactory, JavaType contentType) {
+            this.collectionFactory = collectionFactory;
+            this.contentType = contentType;
+        }
+
+        @Override
+        public Object convert(Object value) throws Throwable {
+            Collection<Object> collection = collectionFactory.get();
+            for (Object element : (Collection<?>) value) {
+                collection.add(convertElement(element, contentType));
+            }
+            return collection;
+        }
+
+    }
+
+}
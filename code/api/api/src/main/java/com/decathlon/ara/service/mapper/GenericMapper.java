@@ -1,11 +1,13 @@
 package com.decathlon.ara.service.mapper;
 
+import java.io.IOException;
 import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.BiConsumer;
 import java.util.function.Supplier;
 
@@ -13,6 +15,7 @@ import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.stereotype.Component;
 
 import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.BeanDescription;
 import com.fasterxml.jackson.databind.JavaType;
@@ -27,13 +30,15 @@ import com.fasterxml.jackson.databind.introspect.JacksonAnnotationIntrospector;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
 import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 
 /**
  * Generic mapper to map an Object A to an Object B based on java property name.<br/>
  * This mapper use {@link ObjectMapper#convertValue(Object, JavaType)} with custom configuration and custom serializer.<br/>
  * Configuration disable annotation that change the name of the property in serialization/deserialization to only use java property name.
  * Custom serializer only serialize field that will be attempted to be deserialized, to avoid useless serialization.<br/>
- * When using this mapper, to map an Entity to a DTO, if a property OneToMany is defined in the entity and not exist in the DTO, the getter will not be called and no additional request is send to the database. 
+ * When using this mapper, to map an Entity to a DTO, if a property OneToMany is defined in the entity and not exist in the DTO, the getter will not be called and no additional request is send to the database. <br/>
+ * To avoid serializing the whole object graph into a token buffer, simple beans are copied by {@link CompiledBeanMappings} instead, with the same result: see its documentation for the cases still handled by Jackson.
  */
 @Component
 public class GenericMapper {
@@ -44,13 +49,23 @@ public class GenericMapper {
 
     private ThreadLocal<Deque<JavaType>> typeDequeThreadLocal = new ThreadLocal<>();
 
+    private final CompiledBeanMappings compiledBeanMappings;
+
     public GenericMapper() {
+        this(true);
+    }
+
+    /**
+     * @param compiled false to always map with a Jackson round-trip (to compare the compiled mappings against it)
+     */
+    GenericMapper(boolean compiled) {
         objectMapper = Jackson2ObjectMapperBuilder.json().build();
         objectMapper.setPropertyNamingStrategy(PropertyNamingStrategies.LOWER_CAMEL_CASE);
         objectMapper.setAnnotationIntrospector(new IgnorePropertyNameOverloadAnnotationIntrospector());
         SimpleModule module = new SimpleModule();
         module.setSerializerModifier(new OnlyNecessaryBeanSerializerModifier());
         objectMapper.registerModule(module);
+        compiledBeanMappings = compiled ? new CompiledBeanMappings(objectMapper, this) : null;
     }
 
     public <E, F extends Collection<E>, T> List<T> mapCollection(F toMap, Class<T> targetClass) {
@@ -89,17 +104,76 @@ public class GenericMapper {
         if (toMap == null) {
             return null;
         }
+        T mappedValue = mapWithoutTransformation(toMap, targetType);
+        if (additionalTransformation != null) {
+            additionalTransformation.accept(toMap, mappedValue);
+        }
+        return mappedValue;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T mapWithoutTransformation(Object toMap, JavaType targetType) {
+        if (compiledBeanMappings != null) {
+            Optional<Object> mappedValue = compiledBeanMappings.map(toMap, targetType);
+            if (mappedValue.isPresent()) {
+                return (T) mappedValue.get();
+            }
+        }
+        return withTypeDeque(targetType, () -> objectMapper.convertValue(toMap, targetType));
+    }
+
+    /**
+     * Map a property value the way the Jackson round-trip would have mapped it as part of its bean.
+     *
+     * @param value      the non-null value of the source property
+     * @param targetType the type of the target property
+     * @return the converted value
+     */
+    Object convertPropertyWithJackson(Object value, JavaType targetType) {
+        return withTypeDeque(propertyFilterType(targetType), () -> objectMapper.convertValue(value, targetType));
+    }
+
+    /**
+     * Deserialize a single property into an existing target bean, honoring the Jackson annotations of that property.
+     *
+     * @param target     the bean to update
+     * @param name       the name of the property
+     * @param value      the value of the source property
+     * @param targetType the type of the target property
+     */
+    void updatePropertyWithJackson(Object target, String name, Object value, JavaType targetType) {
+        withTypeDeque(propertyFilterType(targetType), () -> {
+            try (TokenBuffer buffer = new TokenBuffer(objectMapper, false)) {
+                buffer.writeStartObject();
+                buffer.writeFieldName(name);
+                buffer.writeObject(value);
+                buffer.writeEndObject();
+                try (JsonParser parser = buffer.asParser()) {
+                    return objectMapper.readerForUpdating(target).readValue(parser);
+                }
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Cannot map property " + name + " of " + target.getClass().getName(), e);
+            }
+        });
+    }
+
+    private static JavaType propertyFilterType(JavaType targetType) {
+        return targetType.isCollectionLikeType() || targetType.isMapLikeType() ? targetType.getContentType() : targetType;
+    }
+
+    private <T> T withTypeDeque(JavaType targetType, Supplier<T> mapping) {
+        Deque<JavaType> previousTypeDeque = typeDequeThreadLocal.get();
         try {
             Deque<JavaType> typeDeque = new ArrayDeque<>();
             typeDeque.add(targetType);
             typeDequeThreadLocal.set(typeDeque);
-            T mappedValue = objectMapper.convertValue(toMap, targetType);
-            if (additionalTransformation != null) {
-                additionalTransformation.accept(toMap, mappedValue);
-            }
-            return mappedValue;
+            return mapping.get();
         } finally {
-            typeDequeThreadLocal.remove();
+            if (previousTypeDeque == null) {
+                typeDequeThreadLocal.remove();
+            } else {
+                typeDequeThreadLocal.set(previousTypeDeque);
+            }
         }
     }
 
@@ -0,0 +1,423 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.service.support;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.decathlon.ara.domain.Country;
+import com.decathlon.ara.domain.Error;
+import com.decathlon.ara.domain.ExecutedScenario;
+import com.decathlon.ara.domain.Execution;
+import com.decathlon.ara.domain.ProblemPattern;
+import com.decathlon.ara.domain.Run;
+import com.decathlon.ara.domain.Type;
+
+/**
+ * In-memory index of the problem patterns of a project, to find the patterns matching a lot of new errors without
+ * running one SQL query per pattern.<br>
+ * The matching rules are the ones of {@code SpecificationUtil.toErrorSpecification()}: an empty pattern field does not
+ * constrain the error, featureFile, featureName, release, platform, country and type codes are compared for equality,
+ * scenarioName, step and stepDefinition are compared for equality or with a LIKE 'value%' depending on
+ * their startsWith flag, and exception is always compared with LIKE 'value%' (so '%' and '_' are wildcards and '\'
+ * escapes the next character, as with the default escape character of H2, MySQL and PostgreSQL).<br>
+ * Like the SQL queries, all these comparisons are case-sensitive on H2 and PostgreSQL, but case-insensitive on MySQL
+ * (its default collations ignore case): values are then lower-cased on both sides before being compared.<br>
+ * Each pattern is registered under only one anchor: the first exact field it constrains (hash lookup), or else the
+ * literal beginning of one of its LIKE fields (prefix tree lookup). An error then only gets verified against the
+ * patterns found under its own field values, plus the few patterns that do not constrain anything indexable.
+ */
+public class ProblemPatternIndex {
+
+    private final List<ExactAnchor> exactAnchors = new ArrayList<>();
+
+    private final List<PrefixAnchor> prefixAnchors = new ArrayList<>();
+
+    private final List<CompiledPattern> unanchoredPatterns = new ArrayList<>();
+
+    /**
+     * Applied to the values of the patterns and of the errors before comparing them: identity if case-sensitive.
+     */
+    private final UnaryOperator<String> normalizer;
+
+    public ProblemPatternIndex(List<ProblemPattern> patterns) {
+        this(patterns, true);
+    }
+
+    /**
+     * @param patterns      the patterns to index
+     * @param caseSensitive false to compare texts ignoring case, like the default collations of MySQL
+     */
+    public ProblemPatternIndex(List<ProblemPattern> patterns, boolean caseSensitive) {
+        this.normalizer = caseSensitive ? UnaryOperator.identity() : ProblemPatternIndex::toLowerCase;
+
+        exactAnchors.add(new ExactAnchor(normalizer, p -> p.featureFile, e -> e.getExecutedScenario().getFeatureFile()));
+        exactAnchors.add(new ExactAnchor(normalizer, p -> p.featureName, e -> e.getExecutedScenario().getFeatureName()));
+        exactAnchors.add(new ExactAnchor(normalizer, p -> p.scenarioName.exactValue(), e -> e.getExecutedScenario().getName()));
+        exactAnchors.add(new ExactAnchor(normalizer, p -> p.step.exactValue(), Error::getStep));
+        exactAnchors.add(new ExactAnchor(normalizer, p -> p.stepDefinition.exactValue(), Error::getStepDefinition));
+        exactAnchors.add(new ExactAnchor(normalizer, p -> p.release, e -> execution(e).getRelease()));
+        exactAnchors.add(new ExactAnchor(normalizer, p -> p.platform, e -> run(e).getPlatform()));
+        exactAnchors.add(new ExactAnchor(normalizer, p -> p.countryCode, ProblemPatternIndex::countryCode));
+        exactAnchors.add(new ExactAnchor(normalizer, p -> p.typeCode, ProblemPatternIndex::typeCode));
+
+        prefixAnchors.add(new PrefixAnchor(normalizer, p -> p.exception.literalPrefix(), Error::getException));
+        prefixAnchors.add(new PrefixAnchor(normalizer, p -> p.step.literalPrefix(), Error::getStep));
+        prefixAnchors.add(new PrefixAnchor(normalizer, p -> p.stepDefinition.literalPrefix(), Error::getStepDefinition));
+        prefixAnchors.add(new PrefixAnchor(normalizer, p -> p.scenarioName.literalPrefix(), e -> e.getExecutedScenario().getName()));
+
+        for (ProblemPattern pattern : patterns) {
+            register(new CompiledPattern(pattern, normalizer));
+        }
+    }
+
+    /**
+     * @param error an error, with its executed scenario, run (with country and type) and execution loaded
+     * @return all indexed patterns matching the error (each pattern at most once)
+     */
+    public List<ProblemPattern> findMatchingPatterns(Error error) {
+        List<ProblemPattern> matchingPatterns = new ArrayList<>();
+        for (ExactAnchor anchor : exactAnchors) {
+            anchor.collectMatches(error, matchingPatterns);
+        }
+        for (PrefixAnchor anchor : prefixAnchors) {
+            anchor.collectMatches(error, matchingPatterns);
+        }
+        for (CompiledPattern pattern : unanchoredPatterns) {
+            if (pattern.matches(error)) {
+                matchingPatterns.add(pattern.pattern);
+            }
+        }
+        return matchingPatterns;
+    }
+
+    private void register(CompiledPattern pattern) {
+        for (ExactAnchor anchor : exactAnchors) {
+            if (anchor.add(pattern)) {
+                return;
+            }
+        }
+        for (PrefixAnchor anchor : prefixAnchors) {
+            if (anchor.add(pattern)) {
+                return;
+            }
+        }
+        unanchoredPatterns.add(pattern);
+    }
+
+    private static String toLowerCase(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    private static Run run(Error error) {
+        return error.getExecutedScenario().getRun();
+    }
+
+    private static Execution execution(Error error) {
+        return run(error).getExecution();
+    }
+
+    private static String countryCode(Error error) {
+        Country country = run(error).getCountry();
+        return country == null ? null : country.getCode();
+    }
+
+    private static String typeCode(Error error) {
+        Type type = run(error).getType();
+        return type == null ? null : type.getCode();
+    }
+
+    /**
+     * Patterns registered by the value they require for one field of the errors.
+     */
+    private static class ExactAnchor {
+
+        private final Function<CompiledPattern, String> patternValue;
+
+        private final Function<Error, String> errorValue;
+
+        private final Map<String, List<CompiledPattern>> patternsByValue = new HashMap<>();
+
+        ExactAnchor(UnaryOperator<String> normalizer, Function<CompiledPattern, String> patternValue,
+                Function<Error, String> errorValue) {
+            this.patternValue = patternValue;
+            this.errorValue = errorValue.andThen(normalizer);
+        }
+
+        boolean add(CompiledPattern pattern) {
+            String value = patternValue.apply(pattern);
+            if (value == null) {
+                return false;
+            }
+            patternsByValue.computeIfAbsent(value, k -> new ArrayList<>()).add(pattern);
+            return true;
+        }
+
+        void collectMatches(Error error, List<ProblemPattern> matchingPatterns) {
+            if (patternsByValue.isEmpty()) {
+                return;
+            }
+            String value = errorValue.apply(error);
+            List<CompiledPattern> candidates = value == null ? null : patternsByValue.get(value);
+            if (candidates != null) {
+                for (CompiledPattern candidate : candidates) {
+                    if (candidate.matches(error)) {
+                        matchingPatterns.add(candidate.pattern);
+                    }
+                }
+            }
+        }
+
+    }
+
+    /**
+     * Patterns registered in a prefix tree by the literal beginning of one of their LIKE fields: walking the tree
+     * along the value of an error yields all patterns whose literal beginning is a prefix of that value.
+     */
+    private static class PrefixAnchor {
+
+        private final Function<CompiledPattern, String> patternPrefix;
+
+        private final Function<Error, String> errorValue;
+
+        private final PrefixNode root = new PrefixNode();
+
+        private boolean empty = true;
+
+        PrefixAnchor(UnaryOperator<String> normalizer, Function<CompiledPattern, String> patternPrefix,
+                Function<Error, String> errorValue) {
+            this.patternPrefix = patternPrefix;
+            this.errorValue = errorValue.andThen(normalizer);
+        }
+
+        boolean add(CompiledPattern pattern) {
+            String prefix = patternPrefix.apply(pattern);
+            if (StringUtils.isEmpty(prefix)) {
+                return false;
+            }
+            PrefixNode node = root;
+            for (int i = 0; i < prefix.length(); i++) {
+                node = node.children.computeIfAbsent(Character.valueOf(prefix.charAt(i)), k -> new PrefixNode());
+            }
+            node.patterns.add(pattern);
+            empty = false;
+            return true;
+        }
+
+        void collectMatches(Error error, List<ProblemPattern> matchingPatterns) {
+            if (empty) {
+                return;
+            }
+            String value = errorValue.apply(error);
+            if (value == null) {
+                return;
+            }
+            PrefixNode node = root;
+            for (int i = 0; i < value.length() && node != null; i++) {
+                node = node.children.get(Character.valueOf(value.charAt(i)));
+                if (node != null) {
+                    for (CompiledPattern candidate : node.patterns) {
+                        if (candidate.matches(error)) {
+                            matchingPatterns.add(candidate.pattern);
+                        }
+                    }
+                }
+            }
+        }
+
+    }
+
+    private static class PrefixNode {
+
+        private final Map<Character, PrefixNode> children = new HashMap<>();
+
+        private final List<CompiledPattern> patterns = new ArrayList<>(0);
+
+    }
+
+    /**
+     * A problem pattern with its conditions prepared once for all the errors to check (with normalized values).
+     */
+    private static class CompiledPattern {
+
+        private final ProblemPattern pattern;
+
+        private final UnaryOperator<String> normalizer;
+
+        private final String featureFile;
+
+        private final String featureName;
+
+        private final TextCondition scenarioName;
+
+        private final TextCondition step;
+
+        private final TextCondition stepDefinition;
+
+        private final TextCondition exception;
+
+        private final String release;
+
+        private final String countryCode;
+
+        private final String platform;
+
+        private final String typeCode;
+
+        private final Boolean typeIsBrowser;
+
+        private final Boolean typeIsMobile;
+
+        CompiledPattern(ProblemPattern pattern, UnaryOperator<String> normalizer) {
+            this.pattern = pattern;
+            this.normalizer = normalizer;
+            this.featureFile = normalizer.apply(emptyToNull(pattern.getFeatureFile()));
+            this.featureName = normalizer.apply(emptyToNull(pattern.getFeatureName()));
+            this.scenarioName = TextCondition.of(normalizer.apply(pattern.getScenarioName()), pattern.isScenarioNameStartsWith());
+            this.step = TextCondition.of(normalizer.apply(pattern.getStep()), pattern.isStepStartsWith());
+            this.stepDefinition = TextCondition.of(normalizer.apply(pattern.getStepDefinition()), pattern.isStepDefinitionStartsWith());
+            this.exception = TextCondition.of(normalizer.apply(pattern.getException()), true);
+            this.release = normalizer.apply(emptyToNull(pattern.getRelease()));
+            Country country = pattern.getCountry();
+            this.countryCode = country == null ? null : normalizer.apply(emptyToNull(country.getCode()));
+            this.platform = normalizer.apply(emptyToNull(pattern.getPlatform()));
+            Type type = pattern.getType();
+            this.typeCode = type == null ? null : normalizer.apply(emptyToNull(type.getCode()));
+            this.typeIsBrowser = pattern.getTypeIsBrowser();
+            this.typeIsMobile = pattern.getTypeIsMobile();
+        }
+
+        boolean matches(Error error) {
+            ExecutedScenario executedScenario = error.getExecutedScenario();
+            Run run = executedScenario.getRun();
+            return equalsIfSet(featureFile, normalizer.apply(executedScenario.getFeatureFile()))
+                    && equalsIfSet(featureName, normalizer.apply(executedScenario.getFeatureName()))
+                    && scenarioName.matches(normalizer.apply(executedScenario.getName()))
+                    && step.matches(normalizer.apply(error.getStep()))
+                    && stepDefinition.matches(normalizer.apply(error.getStepDefinition()))
+                    && exception.matches(normalizer.apply(error.getException()))
+                    && equalsIfSet(release, normalizer.apply(run.getExecution().getRelease()))
+                    && equalsIfSet(countryCode, normalizer.apply(countryCode(error)))
+                    && equalsIfSet(platform, normalizer.apply(run.getPlatform()))
+                    && equalsIfSet(typeCode, normalizer.apply(typeCode(error)))
+                    && (typeIsBrowser == null || (run.getType() != null && typeIsBrowser.booleanValue() == run.getType().isBrowser()))
+                    && (typeIsMobile == null || (run.getType() != null && typeIsMobile.booleanValue() == run.getType().isMobile()));
+        }
+
+        private static boolean equalsIfSet(String expected, String actual) {
+            return expected == null || expected.equals(actual);
+        }
+
+        private static String emptyToNull(String value) {
+            return StringUtils.isEmpty(value) ? null : value;
+        }
+
+    }
+
+    /**
+     * Condition on a text field of the errors: none (pattern field empty), equality, or LIKE 'value%'.
+     */
+    private static class TextCondition {
+
+        private static final TextCondition NONE = new TextCondition(null, null, null);
+
+        private final String exactValue;
+
+        private final String literalPrefix;
+
+        /**
+         * Only set if the LIKE expression has wildcards or escapes besides its trailing '%'.
+         */
+        private final Pattern likePattern;
+
+        private TextCondition(String exactValue, String literalPrefix, Pattern likePattern) {
+            this.exactValue = exactValue;
+            this.literalPrefix = literalPrefix;
+            this.likePattern = likePattern;
+        }
+
+        static TextCondition of(String value, boolean startsWith) {
+            if (StringUtils.isEmpty(value)) {
+                return NONE;
+            }
+            if (!startsWith) {
+                return new TextCondition(value, null, null);
+            }
+            int firstSpecialCharacter = StringUtils.indexOfAny(value, '%', '_', '\\');
+            if (firstSpecialCharacter < 0) {
+                return new TextCondition(null, value, null);
+            }
+            return new TextCondition(null, value.substring(0, firstSpecialCharacter), toRegularExpression(value + '%'));
+        }
+
+        String exactValue() {
+            return exactValue;
+        }
+
+        String literalPrefix() {
+            return literalPrefix;
+        }
+
+        boolean matches(String value) {
+            if (exactValue != null) {
+                return exactValue.equals(value);
+            }
+            if (literalPrefix == null) {
+                return true;
+            }
+            return value != null
+                    && value.startsWith(literalPrefix)
+                    && (likePattern == null || likePattern.matcher(value).matches());
+        }
+
+        private static Pattern toRegularExpression(String likeExpression) {
+            StringBuilder regex = new StringBuilder();
+            StringBuilder literal = new StringBuilder();
+            for (int i = 0; i < likeExpression.length(); i++) {
+                char c = likeExpression.charAt(i);
+                if (c == '\\' && i + 1 < likeExpression.length()) {
+                    literal.append(likeExpression.charAt(++i));
+                } else if (c == '%' || c == '_') {
+                    appendQuoted(regex, literal);
+                    regex.append(c == '%' ? ".*" : ".");
+                } else {
+                    literal.append(c);
+                }
+            }
+            appendQuoted(regex, literal);
+            return Pattern.compile(regex.toString(), Pattern.DOTALL);
+        }
+
+        private static void appendQuoted(StringBuilder regex, StringBuilder literal) {
+            if (literal.length() > 0) {
+                regex.append(Pattern.quote(literal.toString()));
+                literal.setLength(0);
+            }
+        }
+
+    }
+
+}
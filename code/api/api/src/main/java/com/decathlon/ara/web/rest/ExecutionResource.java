@@ -19,9 +19,12 @@ package com.decathlon.ara.web.rest;
 
 import com.decathlon.ara.Entities;
 import com.decathlon.ara.domain.enumeration.QualityStatus;
+import com.decathlon.ara.scenario.common.service.ExecutedScenarioService;
 import com.decathlon.ara.service.ExecutionHistoryService;
 import com.decathlon.ara.service.ExecutionService;
+import com.decathlon.ara.service.ExecutionStreamingService;
 import com.decathlon.ara.service.ProjectService;
+import com.decathlon.ara.service.dto.executedscenario.ExecutedScenarioWithTeamIdsAndErrorsAndProblemsDTO;
 import com.decathlon.ara.service.dto.execution.*;
 import com.decathlon.ara.service.exception.BadRequestException;
 import com.decathlon.ara.service.exception.NotFoundException;
@@ -31,9 +34,11 @@ import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
 import java.util.List;
@@ -58,11 +63,18 @@ public class ExecutionResource {
 
     private final ProjectService projectService;
 
+    private final ExecutionStreamingService executionStreamingService;
+
+    private final ExecutedScenarioService executedScenarioService;
+
     public ExecutionResource(ExecutionService service, ExecutionHistoryService executionHistoryService,
-            ProjectService projectService) {
+            ProjectService projectService, ExecutionStreamingService executionStreamingService,
+            ExecutedScenarioService executedScenarioService) {
         this.service = service;
         this.executionHistoryService = executionHistoryService;
         this.projectService = projectService;
+        this.executionStreamingService = executionStreamingService;
+        this.executedScenarioService = executedScenarioService;
     }
 
     /**
@@ -117,6 +129,29 @@ public class ExecutionResource {
         }
     }
 
+    /**
+     * GET one entity, written while its executed scenarios are read from the database: same body as
+     * {@link #getOne(String, long)} and {@link #getOneWithSuccesses(String, long)}, without building it in memory first.
+     *
+     * @param projectCode   the code of the project in which to work
+     * @param id            the id of the single entity to retrieve
+     * @param withSuccesses true to also return the executed scenarios without error
+     * @return the ResponseEntity with status 200 (OK) and with the execution streamed in body, or with status 404 (Not Found)
+     */
+    @GetMapping("/{id:[0-9]+}/stream")
+    public ResponseEntity<StreamingResponseBody> getOneStreamed(@PathVariable String projectCode, @PathVariable long id,
+            @RequestParam(defaultValue = "false") boolean withSuccesses) {
+        try {
+            long projectId = projectService.toId(projectCode);
+            executionStreamingService.checkExists(projectId, id);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(outputStream -> executionStreamingService.write(projectId, id, withSuccesses, outputStream));
+        } catch (NotFoundException e) {
+            return ResponseUtil.handle(e);
+        }
+    }
+
     /**
      * PUT to discard an execution while assigning it a discard reason.
      *
@@ -273,4 +308,28 @@ public class ExecutionResource {
         }
     }
 
+    /**
+     * POST to get a page of the executed scenarios of a run of an execution, filtered by the database: only the
+     * returned executed scenarios are loaded, instead of the whole execution as for
+     * {@link #getOneFiltered(String, long, ExecutionCriteriaDTO)}.
+     *
+     * @param projectCode the code of the project in which to work
+     * @param id          the ID of the execution
+     * @param runId       the ID of the run of the execution
+     * @param criteria    the filters of the execution page
+     * @param pageable    the page to return (in the order of the run if not sorted)
+     * @return the ResponseEntity with status 200 (OK) and with body the page of matching executed scenarios, with
+     * their team IDs, errors and problems, or with status 400 (Bad Request) if a criteria is invalid
+     */
+    @PostMapping("/{id:[0-9]+}/runs/{runId:[0-9]+}/executed-scenarios")
+    public ResponseEntity<Page<ExecutedScenarioWithTeamIdsAndErrorsAndProblemsDTO>> getExecutedScenariosOfRun(@PathVariable String projectCode,
+            @PathVariable long id, @PathVariable long runId, @RequestBody ExecutionCriteriaDTO criteria, Pageable pageable) {
+        try {
+            long projectId = projectService.toId(projectCode);
+            return ResponseEntity.ok(executedScenarioService.findAllOfRun(projectId, id, runId, criteria, pageable));
+        } catch (BadRequestException e) {
+            return ResponseUtil.handle(e);
+        }
+    }
+
 }
@@ -0,0 +1,94 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+package com.decathlon.ara.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import com.decathlon.ara.repository.custom.util.TransactionAppenderUtil;
+
+@ExtendWith(MockitoExtension.class)
+class DatabaseCacheInvalidationBusTest {
+
+    @Mock
+    private TransactionAppenderUtil transactionAppenderUtil;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private DatabaseCacheInvalidationBus cut;
+
+    private final List<String> evictedKeys = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        cut = new DatabaseCacheInvalidationBus(transactionAppenderUtil, jdbcTemplate);
+        cut.subscribe("settings", evictedKeys::add);
+    }
+
+    @Test
+    void publish_ShouldInsertTheEvictionAndEvictLocally_WhenOutsideOfATransaction() {
+        // WHEN
+        cut.publish("settings", "42");
+
+        // THEN
+        verify(jdbcTemplate).update(anyString(), anyString(), eq("settings"), eq("42"), any(Timestamp.class));
+        assertThat(evictedKeys).containsExactly("42");
+    }
+
+    @Test
+    void poll_ShouldApplyEachEvictionOfOtherInstancesOnlyOnce_WhenPolledSeveralTimes() throws SQLException {
+        // GIVEN
+        ResultSet row = mock(ResultSet.class);
+        when(row.getLong(1)).thenReturn(1L);
+        when(row.getString(2)).thenReturn("settings");
+        when(row.getString(3)).thenReturn("42");
+        when(row.getTimestamp(4)).thenReturn(new Timestamp(System.currentTimeMillis()));
+        doAnswer(invocation -> {
+            invocation.getArgument(1, RowCallbackHandler.class).processRow(row);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), anyString(), any(Timestamp.class));
+
+        // WHEN
+        cut.poll();
+        cut.poll();
+
+        // THEN
+        assertThat(evictedKeys).containsExactly("42");
+    }
+
+}
@@ -0,0 +1,117 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+package com.decathlon.ara.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class EvictableCacheTest {
+
+    private final EvictableCache<Long, String> cut = new EvictableCache<>();
+
+    @Test
+    void putIfNotEvicted_ShouldCacheTheLoadedValue_WhenTheKeyWasNotEvictedDuringTheLoad() {
+        // GIVEN
+        long generation = cut.getGeneration(Long.valueOf(1));
+
+        // WHEN
+        String value = cut.putIfNotEvicted(Long.valueOf(1), generation, "loaded");
+
+        // THEN
+        assertThat(value).isEqualTo("loaded");
+        assertThat(cut.get(Long.valueOf(1))).isEqualTo("loaded");
+    }
+
+    @Test
+    void putIfNotEvicted_ShouldNotCacheTheLoadedValue_WhenTheKeyWasEvictedDuringTheLoad() {
+        // GIVEN
+        long generation = cut.getGeneration(Long.valueOf(1));
+        cut.evict(Long.valueOf(1));
+
+        // WHEN
+        String value = cut.putIfNotEvicted(Long.valueOf(1), generation, "stale");
+
+        // THEN
+        assertThat(value).isEqualTo("stale");
+        assertThat(cut.get(Long.valueOf(1))).isNull();
+    }
+
+    @Test
+    void putIfNotEvicted_ShouldNotCacheTheLoadedValue_WhenTheCacheWasClearedDuringTheLoad() {
+        // GIVEN
+        long generation = cut.getGeneration(Long.valueOf(1));
+        cut.clear();
+
+        // WHEN
+        cut.putIfNotEvicted(Long.valueOf(1), generation, "stale");
+
+        // THEN
+        assertThat(cut.get(Long.valueOf(1))).isNull();
+    }
+
+    @Test
+    void putIfNotEvicted_ShouldKeepTheValueCachedInTheMeantime_WhenThereIsOne() {
+        // GIVEN
+        long generation = cut.getGeneration(Long.valueOf(1));
+        cut.putIfNotEvicted(Long.valueOf(1), cut.getGeneration(Long.valueOf(1)), "updated");
+
+        // WHEN
+        String value = cut.putIfNotEvicted(Long.valueOf(1), generation, "loaded");
+
+        // THEN
+        assertThat(value).isEqualTo("updated");
+        assertThat(cut.get(Long.valueOf(1))).isEqualTo("updated");
+    }
+
+    @Test
+    void computeIfPresent_ShouldReplaceTheCachedValue_WhenThereIsOne() {
+        // GIVEN
+        cut.putIfNotEvicted(Long.valueOf(1), cut.getGeneration(Long.valueOf(1)), "loaded");
+
+        // WHEN
+        String value = cut.computeIfPresent(Long.valueOf(1), (key, cachedValue) -> cachedValue + "+updated");
+
+        // THEN
+        assertThat(value).isEqualTo("loaded+updated");
+        assertThat(cut.get(Long.valueOf(1))).isEqualTo("loaded+updated");
+    }
+
+    @Test
+    void computeIfPresent_ShouldCacheNothing_WhenTheKeyIsNotCached() {
+        // WHEN
+        String value = cut.computeIfPresent(Long.valueOf(1), (key, cachedValue) -> "updated");
+
+        // THEN
+        assertThat(value).isNull();
+        assertThat(cut.get(Long.valueOf(1))).isNull();
+    }
+
+    @Test
+    void evict_ShouldOnlyMakeTheLoadsOfTheEvictedKeyNotCacheTheirValue() {
+        // GIVEN
+        long generation = cut.getGeneration(Long.valueOf(2));
+        cut.evict(Long.valueOf(1));
+
+        // WHEN
+        cut.putIfNotEvicted(Long.valueOf(2), generation, "loaded");
+
+        // THEN
+        assertThat(cut.get(Long.valueOf(2))).isEqualTo("loaded");
+    }
+
+}
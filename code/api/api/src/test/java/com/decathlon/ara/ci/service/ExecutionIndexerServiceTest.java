@@ -17,10 +17,12 @@
 
 package com.decathlon.ara.ci.service;
 
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anySet;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -29,18 +31,22 @@ import static org.mockito.Mockito.when;
 
 import java.io.File;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeSet;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import com.decathlon.ara.ci.bean.PlannedIndexation;
+import com.decathlon.ara.cluster.ClusterCoordinator;
 import com.decathlon.ara.domain.CycleDefinition;
 import com.decathlon.ara.domain.Error;
 import com.decathlon.ara.domain.ExecutedScenario;
@@ -48,11 +54,15 @@ import com.decathlon.ara.domain.Execution;
 import com.decathlon.ara.domain.Problem;
 import com.decathlon.ara.domain.Run;
 import com.decathlon.ara.domain.enumeration.JobStatus;
+import com.decathlon.ara.repository.ErrorRepository;
 import com.decathlon.ara.repository.ExecutionRepository;
+import com.decathlon.ara.repository.custom.ExecutionBulkInsertRepository;
 import com.decathlon.ara.repository.custom.util.TransactionAppenderUtil;
+import com.decathlon.ara.service.CycleLastExecutionsService;
 import com.decathlon.ara.service.ErrorService;
 import com.decathlon.ara.service.ExecutionFilesProcessorService;
 import com.decathlon.ara.service.ProblemDenormalizationService;
+import com.decathlon.ara.service.RunHandlingCountsService;
 
 @ExtendWith(MockitoExtension.class)
 class ExecutionIndexerServiceTest {
@@ -60,6 +70,12 @@ class ExecutionIndexerServiceTest {
     @Mock
     private ExecutionRepository executionRepository;
 
+    @Mock
+    private ExecutionBulkInsertRepository executionBulkInsertRepository;
+
+    @Mock
+    private ErrorRepository errorRepository;
+
     @Mock
     private ErrorService errorService;
 
@@ -69,9 +85,18 @@ class ExecutionIndexerServiceTest {
     @Mock
     private ProblemDenormalizationService problemDenormalizationService;
 
+    @Mock
+    private RunHandlingCountsService runHandlingCountsService;
+
+    @Mock
+    private CycleLastExecutionsService cycleLastExecutionsService;
+
     @Mock
     private TransactionAppenderUtil transactionService;
 
+    @Mock
+    private ClusterCoordinator clusterCoordinator;
+
     @Mock
     private ExecutionFilesProcessorService executionFilesProcessorService;
 
@@ -166,7 +191,27 @@ class ExecutionIndexerServiceTest {
     }
 
     @Test
-    void indexExecution_saveIndexedExecution_whenExecutionIndexed() {
+    void indexExecution_rollBack_whenTheLeaseIsLostBeforeCommit() {
+        // Given
+        CycleDefinition cycleDefinition = mock(CycleDefinition.class);
+        PlannedIndexation plannedIndexation = new PlannedIndexation(cycleDefinition, new File("/execution/folder"), "indexing-cycle-definition-1");
+        when(cycleDefinition.getProjectId()).thenReturn(1L);
+        when(executionFilesProcessorService.getExecution(plannedIndexation)).thenReturn(Optional.empty());
+        when(clusterCoordinator.isHeld("indexing-cycle-definition-1")).thenReturn(false);
+
+        // When
+        cut.indexExecution(plannedIndexation);
+
+        // Then
+        ArgumentCaptor<Runnable> beforeCommit = ArgumentCaptor.forClass(Runnable.class);
+        verify(transactionService).doBeforeCommit(beforeCommit.capture());
+        assertThatThrownBy(() -> beforeCommit.getValue().run())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("indexing-cycle-definition-1");
+    }
+
+    @Test
+    void indexExecution_insertIndexedExecution_whenNewExecutionIndexed() {
         // Given
         PlannedIndexation plannedIndexation = mock(PlannedIndexation.class);
         File executionFile = mock(File.class);
@@ -183,7 +228,7 @@ class ExecutionIndexerServiceTest {
         when(cycleDefinition.getBranch()).thenReturn("branch");
         when(cycleDefinition.getName()).thenReturn("cycle");
         when(executionFilesProcessorService.getExecution(plannedIndexation)).thenReturn(Optional.of(indexedExecution));
-        when(executionRepository.save(indexedExecution)).thenReturn(savedExecution);
+        when(executionBulkInsertRepository.insert(indexedExecution)).thenReturn(savedExecution);
         when(indexedExecution.getJobUrl()).thenReturn("http://execution-url.build.org");
         when(savedExecution.getStatus()).thenReturn(JobStatus.UNAVAILABLE);
         when(executionRepository.findByCycleDefinitionProjectIdAndJobLinkAndJobLinkNotNull(1L, "/execution/folder/location/in/disk" + File.separator)).thenReturn(Optional.empty());
@@ -192,7 +237,8 @@ class ExecutionIndexerServiceTest {
         cut.indexExecution(plannedIndexation);
 
         verify(executionFilesProcessorService).getExecution(plannedIndexation);
-        verify(executionRepository).save(indexedExecution);
+        verify(executionBulkInsertRepository).insert(indexedExecution);
+        verify(executionRepository, never()).save(any(Execution.class));
         verify(executionRepository).findByCycleDefinitionProjectIdAndJobLinkAndJobLinkNotNull(1L, "/execution/folder/location/in/disk" + File.separator);
         verify(errorService, never()).autoAssignProblemsToNewErrors(anyLong(), anyList());
         verify(problemDenormalizationService, never()).updateFirstAndLastSeenDateTimes(anyCollection());
@@ -260,6 +306,7 @@ class ExecutionIndexerServiceTest {
         when(cycleDefinition.getBranch()).thenReturn("branch");
         when(cycleDefinition.getName()).thenReturn("cycle");
         when(executionFilesProcessorService.getExecution(plannedIndexation)).thenReturn(Optional.of(indexedExecution));
+        when(indexedExecution.getId()).thenReturn(42L);
         when(executionRepository.save(indexedExecution)).thenReturn(savedExecution);
         when(indexedExecution.getJobUrl()).thenReturn("http://execution-url.build.org");
         when(savedExecution.getStatus()).thenReturn(JobStatus.UNAVAILABLE);
@@ -295,9 +342,74 @@ class ExecutionIndexerServiceTest {
         verify(executionRepository).findByCycleDefinitionProjectIdAndJobLinkAndJobLinkNotNull(1L, "/execution/folder/location/in/disk" + File.separator);
         verify(errorService).autoAssignProblemsToNewErrors(1L, Arrays.asList(111L, 113L, 211L, 221L, 222L));
         verify(problemDenormalizationService).updateFirstAndLastSeenDateTimes(problems);
+        verify(runHandlingCountsService).refreshCounts(anySet());
         verify(transactionService, never()).doAfterCommit(any(Runnable.class));
     }
 
+    @Test
+    void indexExecution_updateProblemsOfRemovedErrors_whenErrorsDisappearOnReindex() {
+        // Given
+        PlannedIndexation plannedIndexation = mock(PlannedIndexation.class);
+        File executionFile = mock(File.class);
+        CycleDefinition cycleDefinition = mock(CycleDefinition.class);
+
+        Execution indexedExecution = mock(Execution.class);
+
+        Execution savedExecution = mock(Execution.class);
+        Run savedRun = mock(Run.class);
+        ExecutedScenario savedScenario = mock(ExecutedScenario.class);
+        Set<ExecutedScenario> savedScenarios = new TreeSet<>();
+        savedScenarios.add(savedScenario);
+        Set<Run> savedRuns = new TreeSet<>();
+        savedRuns.add(savedRun);
+
+        Execution previousExecution = mock(Execution.class);
+        Run previousRun = mock(Run.class);
+        Set<Run> previousRuns = new TreeSet<>();
+        previousRuns.add(previousRun);
+        ExecutedScenario previousScenario = mock(ExecutedScenario.class);
+        Set<ExecutedScenario> previousExecutedScenarios = new TreeSet<>();
+        previousExecutedScenarios.add(previousScenario);
+        Error previousError = mock(Error.class);
+        Set<Error> previousErrors = new TreeSet<>();
+        previousErrors.add(previousError);
+
+        Problem problem = mock(Problem.class);
+
+        // When
+        when(plannedIndexation.getExecutionFolder()).thenReturn(executionFile);
+        when(plannedIndexation.getCycleDefinition()).thenReturn(cycleDefinition);
+        when(executionFile.getAbsolutePath()).thenReturn("/execution/folder/location/in/disk");
+        when(cycleDefinition.getProjectId()).thenReturn(1L);
+        when(cycleDefinition.getBranch()).thenReturn("branch");
+        when(cycleDefinition.getName()).thenReturn("cycle");
+        when(executionFilesProcessorService.getExecution(plannedIndexation)).thenReturn(Optional.of(indexedExecution));
+        when(indexedExecution.getId()).thenReturn(42L);
+        when(executionRepository.save(indexedExecution)).thenReturn(savedExecution);
+        when(indexedExecution.getJobUrl()).thenReturn("http://execution-url.build.org");
+        when(savedExecution.getStatus()).thenReturn(JobStatus.UNAVAILABLE);
+        when(executionRepository.findByCycleDefinitionProjectIdAndJobLinkAndJobLinkNotNull(1L, "/execution/folder/location/in/disk" + File.separator)).thenReturn(Optional.of(previousExecution));
+
+        when(previousExecution.getRuns()).thenReturn(previousRuns);
+        when(previousRun.getExecutedScenarios()).thenReturn(previousExecutedScenarios);
+        when(previousScenario.getErrors()).thenReturn(previousErrors);
+        when(previousError.getId()).thenReturn(112L);
+        when(errorRepository.getErrorsProblems(Arrays.asList(112L))).thenReturn(Map.of(112L, Arrays.asList(problem)));
+
+        when(savedExecution.getRuns()).thenReturn(savedRuns);
+        when(savedRun.getExecutedScenarios()).thenReturn(savedScenarios);
+        when(savedScenario.getErrors()).thenReturn(Collections.emptySet());
+
+        // Then
+        cut.indexExecution(plannedIndexation);
+
+        verify(executionRepository).save(indexedExecution);
+        verify(errorService, never()).autoAssignProblemsToNewErrors(anyLong(), anyList());
+        verify(problemDenormalizationService).updateFirstAndLastSeenDateTimes(Set.of(problem));
+        verify(problemDenormalizationService).updateAggregates(Set.of(problem));
+        verify(runHandlingCountsService).refreshCounts(anySet());
+    }
+
     @Test
     void indexExecution_sendEmail_whenExecutionStatusIsDone() {
         // Given
@@ -359,6 +471,7 @@ class ExecutionIndexerServiceTest {
         when(cycleDefinition.getBranch()).thenReturn("branch");
         when(cycleDefinition.getName()).thenReturn("cycle");
         when(executionFilesProcessorService.getExecution(plannedIndexation)).thenReturn(Optional.of(indexedExecution));
+        when(indexedExecution.getId()).thenReturn(42L);
         when(executionRepository.save(indexedExecution)).thenReturn(savedExecution);
         when(indexedExecution.getJobUrl()).thenReturn("http://execution-url.build.org");
         when(savedExecution.getStatus()).thenReturn(JobStatus.DONE);
@@ -0,0 +1,289 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.ci.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import com.decathlon.ara.ci.bean.Build;
+import com.decathlon.ara.ci.bean.PlannedIndexation;
+import com.decathlon.ara.cluster.ClusterCoordinator;
+import com.decathlon.ara.cluster.SingleNodeClusterCoordinator;
+import com.decathlon.ara.configuration.AraConfiguration;
+import com.decathlon.ara.domain.CycleDefinition;
+import com.decathlon.ara.domain.enumeration.Result;
+import com.decathlon.ara.repository.CycleDefinitionRepository;
+import com.decathlon.ara.repository.custom.IndexingQueueRepository;
+import com.decathlon.ara.repository.custom.IndexingQueueRepository.QueuedExecution;
+import com.decathlon.ara.service.FileProcessorService;
+import com.decathlon.ara.service.SettingService;
+import com.decathlon.ara.util.factory.CycleDefinitionFactory;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ExecutionIndexingEngineTest {
+
+    @Mock
+    private ExecutionIndexerService executionIndexerService;
+
+    @Mock
+    private SettingService settingService;
+
+    @Mock
+    private FileProcessorService fileProcessorService;
+
+    @Mock
+    private ClusterCoordinator clusterCoordinator;
+
+    @Mock
+    private IndexingQueueRepository indexingQueueRepository;
+
+    @Mock
+    private CycleDefinitionRepository cycleDefinitionRepository;
+
+    private ExecutionIndexingEngine cut;
+
+    @AfterEach
+    void tearDown() {
+        if (cut != null) {
+            cut.shutdown();
+        }
+    }
+
+    @Test
+    void submit_should_index_the_execution_then_call_the_completion_callback() throws InterruptedException {
+        // Given
+        cut = engineWithPoolSize(2);
+        CycleDefinition cycleDefinition = CycleDefinitionFactory.get(1L, 1L, "master", "day", 1);
+        PlannedIndexation plannedIndexation = new PlannedIndexation(cycleDefinition, new File("/opt/executions/1"));
+        CountDownLatch completed = new CountDownLatch(1);
+
+        // When
+        cut.submit(plannedIndexation, completed::countDown);
+
+        // Then
+        assertThat(completed.await(5, TimeUnit.SECONDS)).isTrue();
+        verify(executionIndexerService).indexExecution(plannedIndexation);
+    }
+
+    @Test
+    void submit_should_call_the_completion_callback_even_when_indexing_fails() throws InterruptedException {
+        // Given
+        cut = engineWithPoolSize(1);
+        CycleDefinition cycleDefinition = CycleDefinitionFactory.get(1L, 1L, "master", "day", 1);
+        PlannedIndexation plannedIndexation = new PlannedIndexation(cycleDefinition, new File("/opt/executions/1"));
+        doAnswer(invocation -> {
+            throw new IllegalStateException("Broken report");
+        }).when(executionIndexerService).indexExecution(plannedIndexation);
+        CountDownLatch completed = new CountDownLatch(1);
+
+        // When
+        cut.submit(plannedIndexation, completed::countDown);
+
+        // Then
+        assertThat(completed.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void submit_should_never_index_two_executions_of_the_same_cycle_definition_at_the_same_time() throws InterruptedException {
+        // Given
+        cut = engineWithPoolSize(4);
+        CycleDefinition cycleDefinition = CycleDefinitionFactory.get(1L, 1L, "master", "day", 1);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        doAnswer(invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            running.decrementAndGet();
+            return null;
+        }).when(executionIndexerService).indexExecution(any(PlannedIndexation.class));
+        CountDownLatch completed = new CountDownLatch(4);
+
+        // When
+        for (int i = 0; i < 4; i++) {
+            cut.submit(new PlannedIndexation(cycleDefinition, new File("/opt/executions/" + i)), completed::countDown);
+        }
+
+        // Then
+        assertThat(completed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(maxRunning.get()).isEqualTo(1);
+    }
+
+    @Test
+    void submit_should_index_finished_jobs_before_running_jobs() throws InterruptedException {
+        // Given
+        cut = engineWithPoolSize(1);
+        CycleDefinition blockingCycle = CycleDefinitionFactory.get(1L, 1L, "master", "day", 1);
+        CycleDefinition otherCycle = CycleDefinitionFactory.get(2L, 1L, "master", "night", 1);
+        File blockingFolder = new File("/opt/executions/blocking");
+        File runningFolder = new File("/opt/executions/running");
+        File doneFolder = new File("/opt/executions/done");
+        when(settingService.get(anyLong(), anyString())).thenReturn("buildInformation.json");
+        when(fileProcessorService.getMappedObjectFromFile(any(File.class), anyString(), eq(Build.class))).thenReturn(Optional.empty());
+        when(fileProcessorService.getMappedObjectFromFile(eq(doneFolder), anyString(), eq(Build.class)))
+                .thenReturn(Optional.of(new Build("url", Result.SUCCESS, 1L)));
+
+        CountDownLatch release = new CountDownLatch(1);
+        List<File> indexedFolders = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            PlannedIndexation plannedIndexation = invocation.getArgument(0);
+            if (blockingFolder.equals(plannedIndexation.getExecutionFolder())) {
+                release.await(5, TimeUnit.SECONDS);
+            }
+            indexedFolders.add(plannedIndexation.getExecutionFolder());
+            return null;
+        }).when(executionIndexerService).indexExecution(any(PlannedIndexation.class));
+        CountDownLatch completed = new CountDownLatch(3);
+
+        // When
+        cut.submit(new PlannedIndexation(blockingCycle, blockingFolder), completed::countDown);
+        cut.submit(new PlannedIndexation(otherCycle, runningFolder), completed::countDown);
+        cut.submit(new PlannedIndexation(otherCycle, doneFolder), completed::countDown);
+        assertThat(cut.getQueueSize()).isEqualTo(2);
+        release.countDown();
+
+        // Then
+        assertThat(completed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(indexedFolders).containsExactly(blockingFolder, doneFolder, runningFolder);
+    }
+
+    @Test
+    void submit_should_queue_the_execution_in_database_and_index_it_under_the_lease_of_its_cycle_definition_when_distributed(@TempDir File executionFolder)
+            throws InterruptedException {
+        // Given
+        AraConfiguration araConfiguration = new AraConfiguration();
+        araConfiguration.setIndexingPoolSize(Integer.valueOf(2));
+        cut = new ExecutionIndexingEngine(executionIndexerService, settingService, fileProcessorService, clusterCoordinator,
+                indexingQueueRepository, cycleDefinitionRepository, araConfiguration, new SimpleMeterRegistry());
+        CycleDefinition cycleDefinition = CycleDefinitionFactory.get(1L, 1L, "master", "day", 1);
+        when(clusterCoordinator.isDistributed()).thenReturn(true);
+        when(clusterCoordinator.tryAcquire("indexing-cycle-definition-1")).thenReturn(true);
+        when(clusterCoordinator.isHeld("indexing-cycle-definition-1")).thenReturn(true);
+        when(indexingQueueRepository.add(1L, executionFolder.getAbsolutePath(), false)).thenReturn(7L);
+        when(indexingQueueRepository.findAll())
+                .thenReturn(List.of(new QueuedExecution(7L, 1L, executionFolder.getAbsolutePath(), false)), List.of());
+        when(indexingQueueRepository.findQueuedIds(any())).thenReturn(Set.of(Long.valueOf(7L)));
+        when(cycleDefinitionRepository.findById(Long.valueOf(1L))).thenReturn(Optional.of(cycleDefinition));
+        CountDownLatch completed = new CountDownLatch(1);
+
+        // When
+        cut.submit(new PlannedIndexation(cycleDefinition, executionFolder), completed::countDown);
+
+        // Then
+        assertThat(completed.await(5, TimeUnit.SECONDS)).isTrue();
+        ArgumentCaptor<PlannedIndexation> indexed = ArgumentCaptor.forClass(PlannedIndexation.class);
+        verify(executionIndexerService).indexExecution(indexed.capture());
+        assertThat(indexed.getValue().getExecutionFolder()).isEqualTo(executionFolder);
+        assertThat(indexed.getValue().getCycleDefinition()).isSameAs(cycleDefinition);
+        assertThat(indexed.getValue().getLease()).isEqualTo("indexing-cycle-definition-1");
+        verify(indexingQueueRepository).delete(7L);
+        verify(clusterCoordinator, timeout(5000)).release("indexing-cycle-definition-1");
+    }
+
+    @Test
+    void submit_should_leave_the_execution_in_the_shared_queue_when_the_lease_was_lost_while_indexing(@TempDir File executionFolder)
+            throws InterruptedException {
+        // Given
+        AraConfiguration araConfiguration = new AraConfiguration();
+        araConfiguration.setIndexingPoolSize(Integer.valueOf(2));
+        cut = new ExecutionIndexingEngine(executionIndexerService, settingService, fileProcessorService, clusterCoordinator,
+                indexingQueueRepository, cycleDefinitionRepository, araConfiguration, new SimpleMeterRegistry());
+        CycleDefinition cycleDefinition = CycleDefinitionFactory.get(1L, 1L, "master", "day", 1);
+        when(clusterCoordinator.isDistributed()).thenReturn(true);
+        when(clusterCoordinator.tryAcquire("indexing-cycle-definition-1")).thenReturn(true);
+        when(clusterCoordinator.isHeld("indexing-cycle-definition-1")).thenReturn(false);
+        when(indexingQueueRepository.add(1L, executionFolder.getAbsolutePath(), false)).thenReturn(7L);
+        when(indexingQueueRepository.findAll())
+                .thenReturn(List.of(new QueuedExecution(7L, 1L, executionFolder.getAbsolutePath(), false)), List.of());
+        when(indexingQueueRepository.findQueuedIds(any())).thenReturn(Set.of(Long.valueOf(7L)));
+        when(cycleDefinitionRepository.findById(Long.valueOf(1L))).thenReturn(Optional.of(cycleDefinition));
+        doAnswer(invocation -> {
+            throw new IllegalStateException("Lost the lease indexing-cycle-definition-1 while indexing");
+        }).when(executionIndexerService).indexExecution(any());
+        CountDownLatch released = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            released.countDown();
+            return null;
+        }).when(clusterCoordinator).release("indexing-cycle-definition-1");
+
+        // When
+        cut.submit(new PlannedIndexation(cycleDefinition, executionFolder), () -> {
+            // Completed by the instance indexing it
+        });
+
+        // Then
+        assertThat(released.await(5, TimeUnit.SECONDS)).isTrue();
+        verify(indexingQueueRepository, never()).delete(anyLong());
+    }
+
+    @Test
+    void pollSharedQueue_should_measure_the_size_of_the_shared_queue_when_distributed(@TempDir File otherInstanceFolder) {
+        // Given
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        cut = new ExecutionIndexingEngine(executionIndexerService, settingService, fileProcessorService, clusterCoordinator,
+                indexingQueueRepository, cycleDefinitionRepository, new AraConfiguration(), meterRegistry);
+        when(clusterCoordinator.isDistributed()).thenReturn(true);
+        when(indexingQueueRepository.findAll()).thenReturn(List.of(
+                new QueuedExecution(7L, 1L, new File(otherInstanceFolder, "not-shared-1").getAbsolutePath(), true),
+                new QueuedExecution(8L, 2L, new File(otherInstanceFolder, "not-shared-2").getAbsolutePath(), false)));
+
+        // When
+        cut.pollSharedQueue();
+
+        // Then
+        assertThat(meterRegistry.get("ara.indexing.queue.size").gauge().value()).isEqualTo(2.0);
+        verify(executionIndexerService, never()).indexExecution(any());
+    }
+
+    private ExecutionIndexingEngine engineWithPoolSize(int poolSize) {
+        AraConfiguration araConfiguration = new AraConfiguration();
+        araConfiguration.setIndexingPoolSize(Integer.valueOf(poolSize));
+        return new ExecutionIndexingEngine(executionIndexerService, settingService, fileProcessorService, new SingleNodeClusterCoordinator(),
+                indexingQueueRepository, cycleDefinitionRepository, araConfiguration, new SimpleMeterRegistry());
+    }
+
+}
@@ -108,7 +108,7 @@ class QualityEmailServiceManualTester {
 
         EmailService emailService = new EmailService(templateEngine, Optional.of(emailSender));
 
-        cut = new QualityEmailService(araConfiguration, executionHistoryService, teamRepository, emailService, projectRepository, settingService);
+        cut = new QualityEmailService(araConfiguration, executionHistoryService, teamRepository, emailService, projectRepository, settingService, null, null);
 
         when(araConfiguration.getClientBaseUrl()).thenReturn("http://localhost:8081/");
         when(projectRepository.findById(Long.valueOf(1))).thenReturn(Optional.of(new Project("projectCode", "projectName")));
@@ -22,12 +22,18 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import java.sql.Timestamp;
@@ -50,14 +56,19 @@ import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.mail.MailSendException;
 
 import com.decathlon.ara.ci.bean.QualityThreshold;
+import com.decathlon.ara.cluster.ClusterCoordinator;
 import com.decathlon.ara.configuration.AraConfiguration;
 import com.decathlon.ara.domain.Project;
 import com.decathlon.ara.domain.Team;
 import com.decathlon.ara.domain.enumeration.QualityStatus;
 import com.decathlon.ara.repository.ProjectRepository;
 import com.decathlon.ara.repository.TeamRepository;
+import com.decathlon.ara.repository.custom.QualityEmailOutboxRepository;
+import com.decathlon.ara.repository.custom.QualityEmailOutboxRepository.QueuedEmail;
 import com.decathlon.ara.service.EmailService;
 import com.decathlon.ara.service.ExecutionHistoryService;
 import com.decathlon.ara.service.SettingService;
@@ -97,6 +108,12 @@ class QualityEmailServiceTest {
     @Mock
     private SettingService settingService;
 
+    @Mock
+    private QualityEmailOutboxRepository qualityEmailOutboxRepository;
+
+    @Mock
+    private ClusterCoordinator clusterCoordinator;
+
     @Spy
     @InjectMocks
     private QualityEmailService cut;
@@ -179,6 +196,143 @@ class QualityEmailServiceTest {
         assertThat(inlineResources.get("favicon.png")).isNotNull();
     }
 
+    @Test
+    void queueQualityEmail_should_add_the_rendered_email_to_the_outbox() throws NotFoundException {
+        // GIVEN
+        long projectId = 42;
+        long executionId = 1;
+        ExecutionHistoryPointDTO execution = executionHistoryPointDTO(Long.valueOf(1), new Date(), new Date(), Collections.emptyList());
+        when(executionHistoryService.getExecution(projectId, executionId)).thenReturn(execution);
+        when(settingService.get(projectId, Settings.EMAIL_FROM)).thenReturn("from");
+        when(settingService.get(projectId, Settings.EMAIL_TO_EXECUTION_CRASHED)).thenReturn("to");
+        when(projectRepository.findById(Long.valueOf(projectId))).thenReturn(Optional.of(new Project("projectCode", "theProjectName")));
+        doReturn(new HashMap<>()).when(cut).aggregateQualitiesPerTeamAndSeverity(execution);
+        doReturn("subject").when(cut).getSubject("theProjectName", execution);
+        doReturn("eligibility").when(cut).getEligibilityMessage(same(execution));
+        when(emailService.isEnabled()).thenReturn(true);
+        when(emailService.renderHtmlMessage(eq("execution-quality-status"), any())).thenReturn("<html/>");
+
+        // WHEN
+        cut.queueQualityEmail(projectId, executionId);
+
+        // THEN
+        verify(qualityEmailOutboxRepository).add(projectId, executionId, "from", "to", "subject", "<html/>");
+        verify(emailService, never()).sendHtmlContent(anyString(), anyString(), anyString(), anyString(), any());
+    }
+
+    @Test
+    void queueQualityEmail_should_not_queue_anything_when_no_recipient_address_configured() throws NotFoundException {
+        // GIVEN
+        when(emailService.isEnabled()).thenReturn(true);
+        when(executionHistoryService.getExecution(42, 1)).thenReturn(new ExecutionHistoryPointDTO());
+
+        // WHEN
+        cut.queueQualityEmail(42, 1);
+
+        // THEN
+        verifyNoInteractions(qualityEmailOutboxRepository);
+    }
+
+    @Test
+    void queueQualityEmail_should_not_queue_anything_when_no_mail_server_configured() throws NotFoundException {
+        // GIVEN
+        when(emailService.isEnabled()).thenReturn(false);
+
+        // WHEN
+        cut.queueQualityEmail(42, 1);
+
+        // THEN
+        verifyNoInteractions(executionHistoryService, qualityEmailOutboxRepository);
+    }
+
+    @Test
+    void sendQueuedQualityEmails_should_send_and_remove_the_queued_emails() {
+        // GIVEN
+        when(clusterCoordinator.isLeader()).thenReturn(true);
+        when(araConfiguration.getQualityEmailBatchSize()).thenReturn(Integer.valueOf(10));
+        when(qualityEmailOutboxRepository.findToSend(any(Date.class), eq(10))).thenReturn(List.of(
+                new QueuedEmail(1, 42, 11, "from", "to1", "subject1", "content1", 0),
+                new QueuedEmail(2, 42, 12, "from", "to2", "subject2", "content2", 1)));
+
+        // WHEN
+        cut.sendQueuedQualityEmails();
+
+        // THEN
+        verify(emailService).sendHtmlContent(eq("from"), eq("to1"), eq("subject1"), eq("content1"), any());
+        verify(emailService).sendHtmlContent(eq("from"), eq("to2"), eq("subject2"), eq("content2"), any());
+        verify(qualityEmailOutboxRepository).delete(1);
+        verify(qualityEmailOutboxRepository).delete(2);
+        verify(qualityEmailOutboxRepository, never()).postpone(anyLong(), anyInt(), any());
+    }
+
+    @Test
+    void sendQueuedQualityEmails_should_postpone_an_email_failing_to_be_sent() {
+        // GIVEN
+        when(clusterCoordinator.isLeader()).thenReturn(true);
+        when(qualityEmailOutboxRepository.findToSend(any(Date.class), anyInt())).thenReturn(List.of(
+                new QueuedEmail(1, 42, 11, "from", "to", "subject", "content", 1)));
+        doThrow(new MailSendException("Server down")).when(emailService)
+                .sendHtmlContent(anyString(), anyString(), anyString(), anyString(), any());
+        long before = System.currentTimeMillis();
+
+        // WHEN
+        cut.sendQueuedQualityEmails();
+
+        // THEN
+        ArgumentCaptor<Date> nextAttemptDate = ArgumentCaptor.forClass(Date.class);
+        verify(qualityEmailOutboxRepository).postpone(eq(1L), eq(2), nextAttemptDate.capture());
+        assertThat(nextAttemptDate.getValue().getTime()).isGreaterThanOrEqualTo(before + 2 * 60_000);
+        verify(qualityEmailOutboxRepository, never()).delete(anyLong());
+    }
+
+    @Test
+    void sendQueuedQualityEmails_should_not_send_an_email_again_when_it_cannot_be_removed_after_being_sent() {
+        // GIVEN
+        QueuedEmail email = new QueuedEmail(1, 42, 11, "from", "to", "subject", "content", 0);
+        when(clusterCoordinator.isLeader()).thenReturn(true);
+        when(qualityEmailOutboxRepository.findToSend(any(Date.class), anyInt())).thenReturn(List.of(email));
+        doThrow(new CannotGetJdbcConnectionException("Database down")).when(qualityEmailOutboxRepository).delete(1);
+
+        // WHEN
+        cut.sendQueuedQualityEmails();
+        cut.sendQueuedQualityEmails();
+
+        // THEN
+        verify(emailService, times(1)).sendHtmlContent(anyString(), anyString(), anyString(), anyString(), any());
+        verify(qualityEmailOutboxRepository, times(2)).delete(1);
+        verify(qualityEmailOutboxRepository, never()).postpone(anyLong(), anyInt(), any());
+    }
+
+    @Test
+    void sendQueuedQualityEmails_should_abandon_an_email_after_the_maximum_attempts() {
+        // GIVEN
+        when(clusterCoordinator.isLeader()).thenReturn(true);
+        when(araConfiguration.getQualityEmailMaxAttempts()).thenReturn(Integer.valueOf(3));
+        when(qualityEmailOutboxRepository.findToSend(any(Date.class), anyInt())).thenReturn(List.of(
+                new QueuedEmail(1, 42, 11, "from", "to", "subject", "content", 2)));
+        doThrow(new MailSendException("Server down")).when(emailService)
+                .sendHtmlContent(anyString(), anyString(), anyString(), anyString(), any());
+
+        // WHEN
+        cut.sendQueuedQualityEmails();
+
+        // THEN
+        verify(qualityEmailOutboxRepository).delete(1);
+        verify(qualityEmailOutboxRepository, never()).postpone(anyLong(), anyInt(), any());
+    }
+
+    @Test
+    void sendQueuedQualityEmails_should_do_nothing_when_not_the_leader() {
+        // GIVEN
+        when(clusterCoordinator.isLeader()).thenReturn(false);
+
+        // WHEN
+        cut.sendQueuedQualityEmails();
+
+        // THEN
+        verifyNoInteractions(qualityEmailOutboxRepository, emailService);
+    }
+
     @Test
     void addInlineResource_should_do_nothing_and_not_crash_when_resource_not_found() {
         // GIVEN
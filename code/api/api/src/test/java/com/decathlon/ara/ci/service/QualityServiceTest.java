@@ -195,6 +195,67 @@ class QualityServiceTest {
         assertThat(qualitySeverities.get(2).getStatus()).isEqualTo(QualityStatus.WARNING);
     }
 
+    @Test
+    void computeQuality_should_count_the_scenarios_of_each_severity_like_computeQualityOfSeverity() throws IOException {
+        // GIVEN
+        Execution execution = new ExecutionBuilder()
+                .withCycleDefinition(CycleDefinitionFactory.get(PROJECT_ID))
+                .withQualityThresholds("the_ones")
+                .withRuns(new HashSet<>(Arrays.asList(
+                        run()
+                                .withIncludeInThresholds(Boolean.TRUE)
+                                .withStatus(JobStatus.DONE)
+                                .withSeverityTags("1")
+                                .withExecutedScenarios(new HashSet<>(Arrays.asList(
+                                        passedScenario(null),
+                                        failedScenario("1"),
+                                        passedScenario("2")))).build(),
+                        run()
+                                .withIncludeInThresholds(Boolean.TRUE)
+                                .withStatus(JobStatus.DONE)
+                                .withSeverityTags("3")
+                                .withExecutedScenarios(new HashSet<>(Arrays.asList(
+                                        failedScenario(null),
+                                        passedScenario("3"),
+                                        failedScenario("3")))).build(),
+                        run()
+                                .withIncludeInThresholds(Boolean.FALSE)
+                                .withStatus(JobStatus.DONE)
+                                .withExecutedScenarios(new HashSet<>(Arrays.asList(
+                                        failedScenario("1"),
+                                        failedScenario("2")))).build()))).build();
+
+        Map<String, QualityThreshold> qualityThresholds = new HashMap<>();
+        qualityThresholds.put("1", new QualityThreshold(50, 90));
+        qualityThresholds.put("2", new QualityThreshold(50, 90));
+        qualityThresholds.put("3", new QualityThreshold(50, 90));
+        when(objectMapper.readValue(eq("the_ones"), eq(QualityService.TYPE_REFERENCE_TO_MAP_STRING_QUALITY_THRESHOLD))).thenReturn(qualityThresholds);
+
+        final List<Severity> severities = Arrays.asList(
+                severity("1", 1, false),
+                severity("2", 2, true),
+                severity("3", 3, false));
+        when(severityRepository.findAllByProjectIdOrderByPosition(PROJECT_ID)).thenReturn(severities);
+
+        when(objectMapper.writeValueAsString(qualitySeverityListArgument.capture())).thenReturn("result");
+
+        // WHEN
+        cut.computeQuality(execution);
+
+        // THEN the only active severities are the ones of the included runs, then comes the global severity
+        List<QualitySeverityDTO> qualitySeverities = qualitySeverityListArgument.getValue();
+        assertThat(qualitySeverities).hasSize(3);
+        assertThat(qualitySeverities.get(0).getScenarioCounts()).usingRecursiveComparison()
+                .isEqualTo(cut.computeQualityOfSeverity(execution, severities.get(0), null).getScenarioCounts())
+                .isEqualTo(scenarioCountDTO(1, 1, 0));
+        assertThat(qualitySeverities.get(1).getScenarioCounts()).usingRecursiveComparison()
+                .isEqualTo(cut.computeQualityOfSeverity(execution, severities.get(2), null).getScenarioCounts())
+                .isEqualTo(scenarioCountDTO(2, 1, 1));
+        assertThat(qualitySeverities.get(2).getScenarioCounts()).usingRecursiveComparison()
+                .isEqualTo(cut.computeQualityOfSeverity(execution, Severity.ALL, null).getScenarioCounts())
+                .isEqualTo(scenarioCountDTO(6, 3, 3));
+    }
+
     @Test
     void getActiveSeverities_should_return_all_if_one_run_has_all() {
         // GIVEN
@@ -579,6 +640,35 @@ class QualityServiceTest {
         assertThat(counts.getFailed()).isEqualTo(1);
     }
 
+    @Test
+    void severityScenarioCounts_should_count_all_severities_like_countScenariosOfSeverity() {
+        // GIVEN
+        final List<ExecutedScenario> executedScenarios = Arrays.asList(
+                passedScenario(null),
+                failedScenario(""),
+                passedScenario("high"),
+                failedScenario("high"),
+                failedScenario("medium"),
+                passedScenario("unknown"));
+        final Set<Run> runs = Collections.singleton(run()
+                .withExecutedScenarios(new HashSet<>(executedScenarios)).build());
+        final List<Severity> severities = Arrays.asList(
+                severity("high", 1, false),
+                severity("medium", 2, true),
+                severity("low", 3, false));
+
+        // WHEN
+        QualityService.SeverityScenarioCounts counts = new QualityService.SeverityScenarioCounts(severities);
+        executedScenarios.forEach(counts::add);
+
+        // THEN
+        for (Severity severity : Arrays.asList(severities.get(0), severities.get(1), severities.get(2), Severity.ALL)) {
+            assertThat(counts.of(severity)).usingRecursiveComparison().isEqualTo(cut.countScenariosOfSeverity(runs, severity));
+        }
+        assertThat(counts.of(severities.get(1))).usingRecursiveComparison().isEqualTo(scenarioCountDTO(3, 2, 1));
+        assertThat(counts.of(Severity.ALL)).usingRecursiveComparison().isEqualTo(scenarioCountDTO(6, 3, 3));
+    }
+
     @Test
     void countScenario_should_increment_total_count() {
         // GIVEN
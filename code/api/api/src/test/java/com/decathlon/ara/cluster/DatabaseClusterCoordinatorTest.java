@@ -0,0 +1,157 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+package com.decathlon.ara.cluster;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+/**
+ * Two coordinators sharing the same H2 database, as two ARA instances would.
+ */
+class DatabaseClusterCoordinatorTest {
+
+    private static final long LEASE_DURATION = 400;
+
+    private EmbeddedDatabase database;
+
+    private DatabaseClusterCoordinator firstInstance;
+
+    private DatabaseClusterCoordinator secondInstance;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("create table cluster_lease (name varchar(128) primary key, owner varchar(64) not null, " +
+                "expiration_date_time timestamp not null)");
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(database);
+        firstInstance = new DatabaseClusterCoordinator(jdbcTemplate, transactionManager, LEASE_DURATION, LEASE_DURATION / 4);
+        secondInstance = new DatabaseClusterCoordinator(jdbcTemplate, transactionManager, LEASE_DURATION, LEASE_DURATION / 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        firstInstance.shutdown();
+        secondInstance.shutdown();
+        database.shutdown();
+    }
+
+    @Test
+    void tryAcquire_ShouldGrantTheLeaseToOneInstanceOnly_WhenBothInstancesAskForIt() {
+        // WHEN
+        boolean firstAcquired = firstInstance.tryAcquire(ClusterCoordinator.LEADER_LEASE);
+        boolean secondAcquired = secondInstance.tryAcquire(ClusterCoordinator.LEADER_LEASE);
+
+        // THEN
+        assertThat(firstAcquired).isTrue();
+        assertThat(secondAcquired).isFalse();
+        assertThat(firstInstance.isLeader()).isTrue();
+    }
+
+    @Test
+    void tryAcquire_ShouldTakeTheLeaseOver_WhenItsHolderStoppedRenewingIt() throws InterruptedException {
+        // GIVEN
+        firstInstance.tryAcquire("indexing-cycle-definition-1");
+
+        // WHEN
+        Thread.sleep(LEASE_DURATION * 2);
+        boolean secondAcquired = secondInstance.tryAcquire("indexing-cycle-definition-1");
+
+        // THEN
+        assertThat(secondAcquired).isTrue();
+        assertThat(firstInstance.tryAcquire("indexing-cycle-definition-1")).isFalse();
+    }
+
+    @Test
+    void heartbeat_ShouldKeepTheLease_WhenRenewedBeforeItExpires() throws InterruptedException {
+        // GIVEN
+        firstInstance.tryAcquire("indexing-cycle-definition-1");
+
+        // WHEN
+        for (int i = 0; i < 4; i++) {
+            Thread.sleep(LEASE_DURATION / 4);
+            firstInstance.heartbeat();
+        }
+
+        // THEN
+        assertThat(secondInstance.tryAcquire("indexing-cycle-definition-1")).isFalse();
+    }
+
+    @Test
+    void start_ShouldRenewTheLeasesOnItsOwnThread_WhenNothingElseUsesThem() throws InterruptedException {
+        // GIVEN
+        firstInstance.tryAcquire("indexing-cycle-definition-1");
+
+        // WHEN
+        firstInstance.start();
+        Thread.sleep(LEASE_DURATION * 2);
+
+        // THEN
+        assertThat(secondInstance.tryAcquire("indexing-cycle-definition-1")).isFalse();
+    }
+
+    @Test
+    void isHeld_ShouldReturnTrue_WhenTheLeaseIsStillHeld() {
+        // GIVEN
+        firstInstance.tryAcquire("indexing-cycle-definition-1");
+
+        // WHEN / THEN
+        assertThat(firstInstance.isHeld("indexing-cycle-definition-1")).isTrue();
+        assertThat(secondInstance.isHeld("indexing-cycle-definition-1")).isFalse();
+    }
+
+    @Test
+    void isHeld_ShouldReturnFalse_WhenTheLeaseWasTakenOverAndReleasedByAnotherInstance() throws InterruptedException {
+        // GIVEN
+        firstInstance.tryAcquire("indexing-cycle-definition-1");
+        Thread.sleep(LEASE_DURATION * 2);
+        secondInstance.tryAcquire("indexing-cycle-definition-1");
+        secondInstance.release("indexing-cycle-definition-1");
+
+        // WHEN
+        boolean held = firstInstance.isHeld("indexing-cycle-definition-1");
+        firstInstance.heartbeat();
+
+        // THEN
+        assertThat(held).isFalse();
+        assertThat(secondInstance.tryAcquire("indexing-cycle-definition-1")).isTrue();
+    }
+
+    @Test
+    void release_ShouldLetAnotherInstanceAcquireTheLease_WithoutWaitingForItsExpiration() {
+        // GIVEN
+        firstInstance.tryAcquire("indexing-cycle-definition-1");
+
+        // WHEN
+        firstInstance.release("indexing-cycle-definition-1");
+
+        // THEN
+        assertThat(secondInstance.tryAcquire("indexing-cycle-definition-1")).isTrue();
+    }
+
+}
@@ -19,14 +19,23 @@ package com.decathlon.ara.defect.github;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
@@ -46,7 +55,12 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 
+import com.decathlon.ara.configuration.AraConfiguration;
+import com.decathlon.ara.defect.DefectFetchPool;
 import com.decathlon.ara.util.TestUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
 
 @ExtendWith(MockitoExtension.class)
 @MockitoSettings(strictness = Strictness.LENIENT)
@@ -57,6 +71,9 @@ class GithubRestClientTest {
     @Mock
     private HttpClient httpClient;
 
+    @Spy
+    private DefectFetchPool defectFetchPool = new DefectFetchPool(new AraConfiguration());
+
     @Spy
     @InjectMocks
     private GithubRestClient cut;
@@ -148,11 +165,67 @@ class GithubRestClientTest {
         String token = "token";
         List<Long> issueIds = Lists.list(1L, 2L, 3L, 4L, 5L, 6L, 7L);
         this.cut.forOwnerAndRepository(owner, repo).withToken(token);
-        Mockito.doReturn(Optional.of(new GithubIssue())).when(this.cut).requestIssue(Mockito.anyLong());
+        Mockito.doReturn(Optional.of(new GithubIssue())).when(this.cut).requestIssue(Mockito.anyLong(), Mockito.any(URI.class));
         // When
         this.cut.requestIssues(issueIds);
         // Then
-        Mockito.verify(this.cut, Mockito.times(7)).requestIssue(Mockito.anyLong());
+        Mockito.verify(this.cut, Mockito.times(7)).requestIssue(Mockito.anyLong(), Mockito.any(URI.class));
+    }
+
+    @Test
+    void requestIssues_should_request_the_issues_at_the_same_time_and_keep_their_order() throws IOException, URISyntaxException {
+        // Given
+        CountDownLatch concurrentRequests = new CountDownLatch(2);
+        AtomicBoolean requestedAtTheSameTime = new AtomicBoolean();
+        HttpServer server = this.given_a_github_stub(exchange -> {
+            // The first two requests wait for each other: they only both pass if they are sent at the same time
+            concurrentRequests.countDown();
+            try {
+                if (concurrentRequests.await(5, TimeUnit.SECONDS)) {
+                    requestedAtTheSameTime.set(true);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            String path = exchange.getRequestURI().getPath();
+            String number = path.substring(path.lastIndexOf('/') + 1);
+            if ("3".equals(number)) {
+                this.respond(exchange, 404, "{\"message\": \"Not Found\"}");
+            } else {
+                this.respond(exchange, 200, "{\"number\": " + number + ", \"state\": \"open\"}");
+            }
+        });
+        GithubRestClient client = this.given_a_client_of(server, 4);
+        try {
+            // When
+            List<GithubIssue> issues = client.requestIssues(Lists.list(1L, 2L, 3L, 4L, 5L));
+            // Then
+            Assertions.assertThat(requestedAtTheSameTime).isTrue();
+            Assertions.assertThat(issues).extracting(GithubIssue::getNumber).containsExactly(1L, 2L, 4L, 5L);
+        } finally {
+            this.stop(server, client);
+        }
+    }
+
+    @Test
+    void requestIssues_should_throw_exception_when_the_rate_limit_is_exceeded() throws IOException {
+        // Given
+        HttpServer server = this.given_a_github_stub(exchange -> {
+            exchange.getResponseHeaders().add("X-RateLimit-Remaining", "0");
+            exchange.getResponseHeaders().add("X-RateLimit-Reset", "1554351660");
+            this.respond(exchange, 403, "{\"message\": \"API rate limit exceeded\"}");
+        });
+        GithubRestClient client = this.given_a_client_of(server, 4);
+        try {
+            // When
+            Assertions.assertThatThrownBy(() -> client.requestIssues(Lists.list(1L, 2L, 3L)))
+                    // Then
+                    .isInstanceOf(IOException.class)
+                    .hasMessageStartingWith("DEFECT|github|Rate limit exceeded while requesting issue 1 on repo owner/test : 403")
+                    .hasMessageContaining("1554351660");
+        } finally {
+            this.stop(server, client);
+        }
     }
 
     @Test
@@ -223,6 +296,44 @@ class GithubRestClientTest {
         }
     }
 
+    private HttpServer given_a_github_stub(StubHandler handler) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        server.createContext("/repos/owner/test/issues/", exchange -> {
+            try {
+                handler.handle(exchange);
+            } finally {
+                exchange.close();
+            }
+        });
+        server.start();
+        return server;
+    }
+
+    private GithubRestClient given_a_client_of(HttpServer server, int parallelism) {
+        AraConfiguration araConfiguration = new AraConfiguration();
+        araConfiguration.setDefectFetchParallelism(Integer.valueOf(parallelism));
+        GithubRestClient client = new GithubRestClient();
+        TestUtil.setField(client, "githubMapper", new GithubMapper(new ObjectMapper()));
+        TestUtil.setField(client, "defectFetchPool", new DefectFetchPool(araConfiguration));
+        TestUtil.setField(client, "apiUrl", "http://localhost:" + server.getAddress().getPort());
+        return client.forOwnerAndRepository("owner", "test").withToken("token");
+    }
+
+    private void respond(HttpExchange exchange, int code, String body) throws IOException {
+        byte[] content = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(code, content.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(content);
+        }
+    }
+
+    private void stop(HttpServer server, GithubRestClient client) {
+        server.stop(0);
+        ((ExecutorService) server.getExecutor()).shutdownNow();
+        ((DefectFetchPool) TestUtil.getField(client, "defectFetchPool")).shutdown();
+    }
+
     private HttpResponse given_an_issue_response(int code, String body) throws IOException {
         HttpResponse response = Mockito.mock(HttpResponse.class);
         // Status Line
@@ -261,4 +372,11 @@ class GithubRestClientTest {
         TestUtil.setField(githubIssue, "number", number);
         return githubIssue;
     }
+
+    @FunctionalInterface
+    private interface StubHandler {
+
+        void handle(HttpExchange exchange) throws IOException;
+
+    }
 }
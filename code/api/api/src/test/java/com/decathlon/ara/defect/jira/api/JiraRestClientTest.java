@@ -17,6 +17,8 @@
 
 package com.decathlon.ara.defect.jira.api;
 
+import com.decathlon.ara.configuration.AraConfiguration;
+import com.decathlon.ara.defect.DefectFetchPool;
 import com.decathlon.ara.defect.jira.api.model.JiraIssue;
 import com.decathlon.ara.defect.jira.api.model.JiraIssueSearchResults;
 import com.decathlon.ara.service.SettingService;
@@ -27,6 +29,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
@@ -37,6 +40,7 @@ import org.springframework.web.client.RestTemplate;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.assertThrows;
@@ -54,6 +58,9 @@ class JiraRestClientTest {
     @Mock
     private RestTemplate restTemplate;
 
+    @Spy
+    private DefectFetchPool defectFetchPool = new DefectFetchPool(new AraConfiguration());
+
     @InjectMocks
     private JiraRestClient jiraRestClient;
 
@@ -336,6 +343,59 @@ class JiraRestClientTest {
         assertThat(issues).contains(issue1, issue2, issue3);
     }
 
+    @Test
+    void getIssuesFromKeys_searchKeysByBatchesAtTheSameTime_whenThereAreMoreKeysThanInOneSearch() throws BadRequestException {
+        // Given
+        Long projectId = 1L;
+        List<String> codes = IntStream.rangeClosed(1, 150).mapToObj(i -> "PRJ-" + i).toList();
+
+        ResponseEntity<JiraIssueSearchResults> firstResponseEntity = mock(ResponseEntity.class);
+        JiraIssueSearchResults firstSearchResults = mock(JiraIssueSearchResults.class);
+        ResponseEntity<JiraIssueSearchResults> secondResponseEntity = mock(ResponseEntity.class);
+        JiraIssueSearchResults secondSearchResults = mock(JiraIssueSearchResults.class);
+
+        JiraIssue issue1 = mock(JiraIssue.class);
+        JiraIssue issue2 = mock(JiraIssue.class);
+
+        String firstExpectedUrl = "https://your_company.the_jira_base_url.org/rest/api/2/search?jql=(issueKey in (" +
+                String.join(", ", codes.subList(0, 100)) + "))&maxResults=100";
+        String secondExpectedUrl = "https://your_company.the_jira_base_url.org/rest/api/2/search?jql=(issueKey in (" +
+                String.join(", ", codes.subList(100, 150)) + "))&maxResults=100";
+
+        AraConfiguration araConfiguration = new AraConfiguration();
+        araConfiguration.setDefectFetchParallelism(2);
+        DefectFetchPool concurrentPool = new DefectFetchPool(araConfiguration);
+        JiraRestClient concurrentClient = new JiraRestClient(settingService, restTemplate, concurrentPool);
+
+        // When
+        when(settingService.get(projectId, Settings.DEFECT_JIRA_BASE_URL)).thenReturn("https://your_company.the_jira_base_url.org");
+        when(settingService.get(projectId, Settings.DEFECT_JIRA_TOKEN)).thenReturn("my_jira_token");
+        when(settingService.get(projectId, Settings.DEFECT_JIRA_LOGIN)).thenReturn("my_login");
+
+        when(restTemplate.exchange(eq(firstExpectedUrl), eq(HttpMethod.GET), any(HttpEntity.class), any(ParameterizedTypeReference.class))).thenReturn(firstResponseEntity);
+        when(firstResponseEntity.getStatusCode()).thenReturn(HttpStatus.OK);
+        when(firstResponseEntity.getBody()).thenReturn(firstSearchResults);
+        when(firstSearchResults.getIssues()).thenReturn(List.of(issue1));
+        when(firstSearchResults.getMaxResults()).thenReturn(100);
+        when(firstSearchResults.getTotal()).thenReturn(1);
+        when(restTemplate.exchange(eq(secondExpectedUrl), eq(HttpMethod.GET), any(HttpEntity.class), any(ParameterizedTypeReference.class))).thenReturn(secondResponseEntity);
+        when(secondResponseEntity.getStatusCode()).thenReturn(HttpStatus.OK);
+        when(secondResponseEntity.getBody()).thenReturn(secondSearchResults);
+        when(secondSearchResults.getIssues()).thenReturn(List.of(issue2));
+        when(secondSearchResults.getMaxResults()).thenReturn(100);
+        when(secondSearchResults.getTotal()).thenReturn(1);
+
+        // Then
+        try {
+            List<JiraIssue> issues = concurrentClient.getIssuesFromKeys(projectId, codes);
+
+            verify(restTemplate, times(2)).exchange(anyString(), any(HttpMethod.class), any(HttpEntity.class), any(ParameterizedTypeReference.class));
+            assertThat(issues).containsExactly(issue1, issue2);
+        } finally {
+            concurrentPool.shutdown();
+        }
+    }
+
     @Test
     void getIssuesFromKeys_returnIssues_whenResponseCodeStatusIs200AndThereIsPaginationAndInitialMaxResultsEqualsToJiraMaxResultsThreshold() throws BadRequestException {
         // Given
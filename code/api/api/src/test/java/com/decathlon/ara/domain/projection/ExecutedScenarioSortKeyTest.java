@@ -0,0 +1,66 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.domain.projection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+import com.decathlon.ara.domain.ExecutedScenario;
+
+class ExecutedScenarioSortKeyTest {
+
+    @Test
+    void compareTo_ShouldSortLikeExecutedScenarios_WhenNullsAndCasesAreMixed() {
+        // GIVEN
+        List<ExecutedScenarioSortKey> keys = List.of(
+                new ExecutedScenarioSortKey(Long.valueOf(1), "b.feature", "Scenario", 12),
+                new ExecutedScenarioSortKey(Long.valueOf(2), "B.feature", "scenario", 3),
+                new ExecutedScenarioSortKey(Long.valueOf(3), null, "Scenario", 7),
+                new ExecutedScenarioSortKey(Long.valueOf(4), "b.feature", null, 5),
+                new ExecutedScenarioSortKey(Long.valueOf(5), "b.feature", "Scenario", 2),
+                new ExecutedScenarioSortKey(Long.valueOf(6), "a.feature", "scenario", 1),
+                new ExecutedScenarioSortKey(Long.valueOf(7), "b.feature", "scenario", 1));
+        TreeSet<ExecutedScenario> executedScenarios = new TreeSet<>();
+        keys.forEach(key -> executedScenarios.add(executedScenario(key)));
+
+        // WHEN
+        List<Long> sortedIds = keys.stream()
+                .sorted()
+                .map(ExecutedScenarioSortKey::id)
+                .toList();
+
+        // THEN
+        assertThat(sortedIds)
+                .containsExactly(3L, 2L, 6L, 4L, 5L, 1L, 7L)
+                .containsExactlyElementsOf(executedScenarios.stream().map(ExecutedScenario::getId).toList());
+    }
+
+    private static ExecutedScenario executedScenario(ExecutedScenarioSortKey key) {
+        ExecutedScenario executedScenario = new ExecutedScenario();
+        executedScenario.setId(key.id());
+        executedScenario.setFeatureFile(key.featureFile());
+        executedScenario.setName(key.name());
+        executedScenario.setLine(key.line());
+        return executedScenario;
+    }
+
+}
@@ -1,5 +1,6 @@
 package com.decathlon.ara.purge.scheduler;
 
+import com.decathlon.ara.cluster.ClusterCoordinator;
 import com.decathlon.ara.purge.service.PurgeService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -20,6 +21,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class PurgeTaskSchedulerTest {
@@ -30,6 +32,9 @@ class PurgeTaskSchedulerTest {
     @Mock
     private PurgeService purgeService;
 
+    @Mock
+    private ClusterCoordinator clusterCoordinator;
+
     @InjectMocks
     private PurgeTaskScheduler purgeTaskScheduler;
 
@@ -91,4 +96,28 @@ class PurgeTaskSchedulerTest {
 
         verify(taskScheduler, never()).schedule(any(), any(CronTrigger.class));
     }
+
+    @Test
+    void getPurgeRunnable_purgeAllProjects_whenLeader() {
+        // Given
+        when(clusterCoordinator.isLeader()).thenReturn(true);
+
+        // When
+        purgeTaskScheduler.getPurgeRunnable().run();
+
+        // Then
+        verify(purgeService).purgeAllProjects();
+    }
+
+    @Test
+    void getPurgeRunnable_doNothing_whenNotLeader() {
+        // Given
+        when(clusterCoordinator.isLeader()).thenReturn(false);
+
+        // When
+        purgeTaskScheduler.getPurgeRunnable().run();
+
+        // Then
+        verify(purgeService, never()).purgeAllProjects();
+    }
 }
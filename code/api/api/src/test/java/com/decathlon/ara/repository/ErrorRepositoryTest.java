@@ -0,0 +1,91 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.decathlon.ara.domain.Problem;
+
+@ExtendWith(MockitoExtension.class)
+class ErrorRepositoryTest {
+
+    @Mock(answer = Answers.CALLS_REAL_METHODS)
+    private ErrorRepository cut;
+
+    @Test
+    void getErrorsProblems_should_query_the_problems_by_chunks_and_group_them_by_error_id() {
+        // GIVEN
+        List<Long> errorIds = LongStream.rangeClosed(1, 2 * ErrorRepository.ERROR_IDS_PER_QUERY + 1).boxed().toList();
+        Problem oddProblem = new Problem();
+        Problem lastProblem = new Problem();
+        List<Integer> querySizes = new ArrayList<>();
+        doAnswer(invocation -> {
+            Collection<Long> idsOfQuery = invocation.getArgument(0);
+            querySizes.add(Integer.valueOf(idsOfQuery.size()));
+            List<Object[]> errorIdsAndProblems = new ArrayList<>();
+            for (Long errorId : idsOfQuery) {
+                if (errorId.longValue() % 2 == 1) {
+                    errorIdsAndProblems.add(new Object[] { errorId, oddProblem });
+                }
+                if (errorId.longValue() == errorIds.size()) {
+                    errorIdsAndProblems.add(new Object[] { errorId, lastProblem });
+                }
+            }
+            return errorIdsAndProblems;
+        }).when(cut).getErrorIdsAndProblems(anyCollection());
+
+        // WHEN
+        Map<Long, List<Problem>> errorsProblems = cut.getErrorsProblems(errorIds);
+
+        // THEN
+        assertThat(querySizes).containsExactly(
+                Integer.valueOf(ErrorRepository.ERROR_IDS_PER_QUERY), Integer.valueOf(ErrorRepository.ERROR_IDS_PER_QUERY), Integer.valueOf(1));
+        assertThat(errorsProblems).hasSize(ErrorRepository.ERROR_IDS_PER_QUERY + 1);
+        assertThat(errorsProblems.get(Long.valueOf(1))).containsExactly(oddProblem);
+        assertThat(errorsProblems.get(Long.valueOf(1))).first().isSameAs(errorsProblems.get(Long.valueOf(3)).get(0));
+        assertThat(errorsProblems).doesNotContainKey(Long.valueOf(2));
+        assertThat(errorsProblems.get(Long.valueOf(errorIds.size()))).containsExactly(oddProblem, lastProblem);
+    }
+
+    @Test
+    void getErrorsProblems_should_not_query_anything_without_error() {
+        // WHEN
+        Map<Long, List<Problem>> errorsProblems = cut.getErrorsProblems(List.of());
+
+        // THEN
+        assertThat(errorsProblems).isEmpty();
+        verify(cut, never()).getErrorIdsAndProblems(anyCollection());
+    }
+
+}
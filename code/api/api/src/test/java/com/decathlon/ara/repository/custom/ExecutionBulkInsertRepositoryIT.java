@@ -0,0 +1,168 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.repository.custom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.util.Date;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.transaction.Transactional;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestExecutionListeners;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.support.DependencyInjectionTestExecutionListener;
+import org.springframework.test.context.transaction.TransactionalTestExecutionListener;
+
+import com.decathlon.ara.domain.Country;
+import com.decathlon.ara.domain.CountryDeployment;
+import com.decathlon.ara.domain.Error;
+import com.decathlon.ara.domain.ExecutedScenario;
+import com.decathlon.ara.domain.Execution;
+import com.decathlon.ara.domain.Run;
+import com.decathlon.ara.domain.Type;
+import com.decathlon.ara.domain.enumeration.ExecutionAcceptance;
+import com.decathlon.ara.domain.enumeration.JobStatus;
+import com.decathlon.ara.domain.enumeration.Result;
+import com.decathlon.ara.repository.CountryRepository;
+import com.decathlon.ara.repository.CycleDefinitionRepository;
+import com.decathlon.ara.repository.ExecutionRepository;
+import com.decathlon.ara.repository.TypeRepository;
+import com.github.springtestdbunit.DbUnitTestExecutionListener;
+import com.github.springtestdbunit.annotation.DatabaseSetup;
+
+@SpringBootTest
+@TestExecutionListeners({
+        TransactionalTestExecutionListener.class,
+        DependencyInjectionTestExecutionListener.class,
+        DbUnitTestExecutionListener.class
+})
+@TestPropertySource(properties = {
+        "ara.database.target=h2"
+})
+@Transactional
+class ExecutionBulkInsertRepositoryIT {
+
+    @Autowired
+    private ExecutionBulkInsertRepository cut;
+
+    @Autowired
+    private ExecutionRepository executionRepository;
+
+    @Autowired
+    private CycleDefinitionRepository cycleDefinitionRepository;
+
+    @Autowired
+    private CountryRepository countryRepository;
+
+    @Autowired
+    private TypeRepository typeRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    @DatabaseSetup({ "/dbunit/ExecutionBulkInsertRepositoryIT-insert.xml" })
+    void insert_ShouldInsertTheExecutionAndAllItsChildren_WhenTheExecutionIsNew() {
+        // GIVEN
+        Country country = countryRepository.findById(Long.valueOf(1)).orElseThrow();
+        Type type = typeRepository.findById(Long.valueOf(1)).orElseThrow();
+        Execution execution = new Execution();
+        execution.setBranch("any");
+        execution.setName("any");
+        execution.setRelease("v2");
+        execution.setVersion("1.0.0");
+        execution.setBuildDateTime(new Date(1_600_000_000_000L));
+        execution.setTestDateTime(new Date(1_600_000_100_000L));
+        execution.setJobUrl("http://jobs/1/");
+        execution.setStatus(JobStatus.DONE);
+        execution.setResult(Result.SUCCESS);
+        execution.setAcceptance(ExecutionAcceptance.NEW);
+        execution.setCycleDefinition(cycleDefinitionRepository.findById(Long.valueOf(1)).orElseThrow());
+        CountryDeployment countryDeployment = new CountryDeployment();
+        countryDeployment.setCountry(country);
+        countryDeployment.setPlatform("integ");
+        countryDeployment.setStatus(JobStatus.DONE);
+        execution.addCountryDeployment(countryDeployment);
+        Run run = new Run();
+        run.setCountry(country);
+        run.setType(type);
+        run.setPlatform("integ");
+        run.setStatus(JobStatus.DONE);
+        run.setIncludeInThresholds(Boolean.TRUE);
+        execution.addRun(run);
+        run.addExecutedScenario(executedScenario(1, "Scenario 1"));
+        ExecutedScenario failedScenario = executedScenario(2, "Scenario 2");
+        Error error = new Error();
+        error.setStep("Then a result");
+        error.setStepLine(3);
+        error.setException("java.lang.AssertionError: expected result");
+        failedScenario.addError(error);
+        run.addExecutedScenario(failedScenario);
+
+        // WHEN
+        Execution insertedExecution = cut.insert(execution);
+
+        // THEN
+        assertThat(insertedExecution.getId()).isNotNull();
+        assertThat(countryDeployment.getId()).isNotNull();
+        assertThat(run.getId()).isNotNull();
+        assertThat(error.getId()).isNotNull();
+        entityManager.flush();
+        entityManager.clear();
+        Execution readExecution = executionRepository.findById(insertedExecution.getId()).orElseThrow();
+        assertThat(readExecution.getJobUrl()).isEqualTo("http://jobs/1/");
+        assertThat(readExecution.getStatus()).isEqualTo(JobStatus.DONE);
+        assertThat(readExecution.getAcceptance()).isEqualTo(ExecutionAcceptance.NEW);
+        assertThat(readExecution.getCycleDefinition().getId()).isEqualTo(Long.valueOf(1));
+        assertThat(readExecution.getCountryDeployments())
+                .extracting(CountryDeployment::getId, CountryDeployment::getPlatform)
+                .containsExactly(tuple(countryDeployment.getId(), "integ"));
+        assertThat(readExecution.getRuns())
+                .extracting(Run::getId, runOfExecution -> runOfExecution.getType().getCode())
+                .containsExactly(tuple(run.getId(), "any"));
+        Run readRun = readExecution.getRuns().iterator().next();
+        assertThat(readRun.getExecutedScenarios())
+                .extracting(ExecutedScenario::getLine, ExecutedScenario::getName, executedScenario -> Integer.valueOf(executedScenario.getErrors().size()))
+                .containsExactlyInAnyOrder(
+                        tuple(Integer.valueOf(1), "Scenario 1", Integer.valueOf(0)),
+                        tuple(Integer.valueOf(2), "Scenario 2", Integer.valueOf(1)));
+        assertThat(readRun.getExecutedScenarios())
+                .flatExtracting(ExecutedScenario::getErrors)
+                .extracting(Error::getId, Error::getStepLine, Error::getException)
+                .containsExactly(tuple(error.getId(), Integer.valueOf(3), "java.lang.AssertionError: expected result"));
+    }
+
+    private static ExecutedScenario executedScenario(int line, String name) {
+        ExecutedScenario executedScenario = new ExecutedScenario();
+        executedScenario.setFeatureFile("a.feature");
+        executedScenario.setFeatureName("Feature A");
+        executedScenario.setSeverity("high");
+        executedScenario.setName(name);
+        executedScenario.setCucumberId("feature-a;" + line);
+        executedScenario.setLine(line);
+        executedScenario.setContent("1:passed:Given a step");
+        return executedScenario;
+    }
+
+}
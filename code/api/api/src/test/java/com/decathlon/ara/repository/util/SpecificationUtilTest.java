@@ -403,13 +403,16 @@ class SpecificationUtilTest {
         PredicateWithInfo predicate = (PredicateWithInfo) errorSpecification.toPredicate(root, null, criteriaBuilder);
         Assertions.assertEquals(PredicateType.AND, predicate.type());
         List<PredicateWithInfo> predicates = predicate.getElements();
-        Assertions.assertEquals(2, predicates.size());
+        Assertions.assertEquals(3, predicates.size());
         Assertions.assertEquals(1l, predicates.get(0).value());
         Assertions.assertEquals("root.executedScenario.run.execution.cycleDefinition.projectId", predicates.get(0).getName());
         Assertions.assertEquals(PredicateType.EQUAL, predicates.get(0).type());
         Assertions.assertEquals(problemPattern.getStep(), predicates.get(1).value());
         Assertions.assertEquals("root.step", predicates.get(1).getName());
         Assertions.assertEquals(PredicateType.EQUAL, predicates.get(1).type());
+        Assertions.assertEquals(problemPattern.getStep(), predicates.get(2).value());
+        Assertions.assertEquals("root.stepPrefix", predicates.get(2).getName());
+        Assertions.assertEquals(PredicateType.EQUAL, predicates.get(2).type());
     }
 
     @Test
@@ -426,13 +429,16 @@ class SpecificationUtilTest {
         PredicateWithInfo predicate = (PredicateWithInfo) errorSpecification.toPredicate(root, null, criteriaBuilder);
         Assertions.assertEquals(PredicateType.AND, predicate.type());
         List<PredicateWithInfo> predicates = predicate.getElements();
-        Assertions.assertEquals(2, predicates.size());
+        Assertions.assertEquals(3, predicates.size());
         Assertions.assertEquals(1l, predicates.get(0).value());
         Assertions.assertEquals("root.executedScenario.run.execution.cycleDefinition.projectId", predicates.get(0).getName());
         Assertions.assertEquals(PredicateType.EQUAL, predicates.get(0).type());
         Assertions.assertEquals(problemPattern.getStep() + "%", predicates.get(1).value());
         Assertions.assertEquals("root.step", predicates.get(1).getName());
         Assertions.assertEquals(PredicateType.LIKE, predicates.get(1).type());
+        Assertions.assertEquals(problemPattern.getStep() + "%", predicates.get(2).value());
+        Assertions.assertEquals("root.stepPrefix", predicates.get(2).getName());
+        Assertions.assertEquals(PredicateType.LIKE, predicates.get(2).type());
     }
 
     @Test
@@ -448,13 +454,16 @@ class SpecificationUtilTest {
         PredicateWithInfo predicate = (PredicateWithInfo) errorSpecification.toPredicate(root, null, criteriaBuilder);
         Assertions.assertEquals(PredicateType.AND, predicate.type());
         List<PredicateWithInfo> predicates = predicate.getElements();
-        Assertions.assertEquals(2, predicates.size());
+        Assertions.assertEquals(3, predicates.size());
         Assertions.assertEquals(1l, predicates.get(0).value());
         Assertions.assertEquals("root.executedScenario.run.execution.cycleDefinition.projectId", predicates.get(0).getName());
         Assertions.assertEquals(PredicateType.EQUAL, predicates.get(0).type());
         Assertions.assertEquals(problemPattern.getStepDefinition(), predicates.get(1).value());
         Assertions.assertEquals("root.stepDefinition", predicates.get(1).getName());
         Assertions.assertEquals(PredicateType.EQUAL, predicates.get(1).type());
+        Assertions.assertEquals(problemPattern.getStepDefinition(), predicates.get(2).value());
+        Assertions.assertEquals("root.stepDefinitionPrefix", predicates.get(2).getName());
+        Assertions.assertEquals(PredicateType.EQUAL, predicates.get(2).type());
     }
 
     @Test
@@ -471,13 +480,16 @@ class SpecificationUtilTest {
         PredicateWithInfo predicate = (PredicateWithInfo) errorSpecification.toPredicate(root, null, criteriaBuilder);
         Assertions.assertEquals(PredicateType.AND, predicate.type());
         List<PredicateWithInfo> predicates = predicate.getElements();
-        Assertions.assertEquals(2, predicates.size());
+        Assertions.assertEquals(3, predicates.size());
         Assertions.assertEquals(1l, predicates.get(0).value());
         Assertions.assertEquals("root.executedScenario.run.execution.cycleDefinition.projectId", predicates.get(0).getName());
         Assertions.assertEquals(PredicateType.EQUAL, predicates.get(0).type());
         Assertions.assertEquals(problemPattern.getStepDefinition() + "%", predicates.get(1).value());
         Assertions.assertEquals("root.stepDefinition", predicates.get(1).getName());
         Assertions.assertEquals(PredicateType.LIKE, predicates.get(1).type());
+        Assertions.assertEquals(problemPattern.getStepDefinition() + "%", predicates.get(2).value());
+        Assertions.assertEquals("root.stepDefinitionPrefix", predicates.get(2).getName());
+        Assertions.assertEquals(PredicateType.LIKE, predicates.get(2).type());
     }
 
     @Test
@@ -493,13 +505,37 @@ class SpecificationUtilTest {
         PredicateWithInfo predicate = (PredicateWithInfo) errorSpecification.toPredicate(root, null, criteriaBuilder);
         Assertions.assertEquals(PredicateType.AND, predicate.type());
         List<PredicateWithInfo> predicates = predicate.getElements();
-        Assertions.assertEquals(2, predicates.size());
+        Assertions.assertEquals(3, predicates.size());
         Assertions.assertEquals(1l, predicates.get(0).value());
         Assertions.assertEquals("root.executedScenario.run.execution.cycleDefinition.projectId", predicates.get(0).getName());
         Assertions.assertEquals(PredicateType.EQUAL, predicates.get(0).type());
         Assertions.assertEquals(problemPattern.getException() + "%", predicates.get(1).value());
         Assertions.assertEquals("root.exception", predicates.get(1).getName());
         Assertions.assertEquals(PredicateType.LIKE, predicates.get(1).type());
+        Assertions.assertEquals(problemPattern.getException() + "%", predicates.get(2).value());
+        Assertions.assertEquals("root.exceptionPrefix", predicates.get(2).getName());
+        Assertions.assertEquals(PredicateType.LIKE, predicates.get(2).type());
+    }
+
+    @Test
+    void errorSpecificationShouldHaveStartWithPredicateOnTheLiteralPrefixOfExceptionWhenExceptionIsLongOrHasWildcards() {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Error> criteriaQuery = criteriaBuilder.createQuery(Error.class);
+        Root<Error> root = criteriaQuery.from(Error.class);
+        criteriaBuilder = Mockito.spy(criteriaBuilder);
+        prepareTest(criteriaBuilder, PredicateType.LIKE);
+        ProblemPattern longPattern = new ProblemPattern();
+        TestUtil.setField(longPattern, "exception", "e".repeat(Error.PREFIX_LENGTH + 10));
+        ProblemPattern wildcardPattern = new ProblemPattern();
+        TestUtil.setField(wildcardPattern, "exception", "java.lang.AssertionError: expected %d items");
+
+        PredicateWithInfo longPredicate = (PredicateWithInfo) SpecificationUtil.toErrorSpecification(1, longPattern, null).toPredicate(root, null, criteriaBuilder);
+        PredicateWithInfo wildcardPredicate = (PredicateWithInfo) SpecificationUtil.toErrorSpecification(1, wildcardPattern, null).toPredicate(root, null, criteriaBuilder);
+
+        Assertions.assertEquals("e".repeat(Error.PREFIX_LENGTH) + "%", longPredicate.getElements().get(2).value());
+        Assertions.assertEquals("root.exceptionPrefix", longPredicate.getElements().get(2).getName());
+        Assertions.assertEquals("java.lang.AssertionError: expected %", wildcardPredicate.getElements().get(2).value());
+        Assertions.assertEquals("root.exceptionPrefix", wildcardPredicate.getElements().get(2).getName());
     }
 
     @Test
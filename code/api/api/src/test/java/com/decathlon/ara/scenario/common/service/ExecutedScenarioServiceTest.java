@@ -0,0 +1,211 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.scenario.common.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import com.decathlon.ara.domain.Error;
+import com.decathlon.ara.domain.ExecutedScenario;
+import com.decathlon.ara.domain.Problem;
+import com.decathlon.ara.domain.Severity;
+import com.decathlon.ara.domain.enumeration.Handling;
+import com.decathlon.ara.domain.filter.ExecutedScenarioFilter;
+import com.decathlon.ara.repository.ErrorRepository;
+import com.decathlon.ara.repository.ExecutedScenarioRepository;
+import com.decathlon.ara.repository.FunctionalityRepository;
+import com.decathlon.ara.repository.SeverityRepository;
+import com.decathlon.ara.service.ProblemService;
+import com.decathlon.ara.service.dto.error.ErrorWithProblemsDTO;
+import com.decathlon.ara.service.dto.executedscenario.ExecutedScenarioWithRunAndTeamIdsAndExecutionAndErrorsAndProblemsDTO;
+import com.decathlon.ara.service.dto.execution.ExecutionCriteriaDTO;
+import com.decathlon.ara.service.dto.problem.ProblemDTO;
+import com.decathlon.ara.service.dto.request.ExecutedScenarioHistoryInputDTO;
+import com.decathlon.ara.service.exception.BadRequestException;
+import com.decathlon.ara.service.mapper.GenericMapper;
+import com.decathlon.ara.util.TestUtil;
+
+@ExtendWith(MockitoExtension.class)
+class ExecutedScenarioServiceTest {
+
+    private static final long PROJECT_ID = 1;
+
+    @Mock
+    private ExecutedScenarioRepository executedScenarioRepository;
+
+    @Mock
+    private ErrorRepository errorRepository;
+
+    @Mock
+    private FunctionalityRepository functionalityRepository;
+
+    @Mock
+    private SeverityRepository severityRepository;
+
+    @Mock
+    private ProblemService problemService;
+
+    @Mock
+    private GenericMapper mapper;
+
+    @InjectMocks
+    private ExecutedScenarioService cut;
+
+    @Test
+    void findAllOfRun_should_filter_on_the_functionalities_of_the_team_in_the_order_of_the_run() throws BadRequestException {
+        // GIVEN
+        ExecutionCriteriaDTO criteria = new ExecutionCriteriaDTO();
+        TestUtil.setField(criteria, "team", Long.valueOf(10));
+        TestUtil.setField(criteria, "severity", "medium");
+        TestUtil.setField(criteria, "handling", "UNHANDLED");
+        Severity defaultSeverity = new Severity();
+        TestUtil.setField(defaultSeverity, "code", "medium");
+        when(functionalityRepository.getFunctionalityTeamIds(PROJECT_ID)).thenReturn(Map.of(
+                Long.valueOf(1), Long.valueOf(10),
+                Long.valueOf(2), Long.valueOf(20),
+                Long.valueOf(3), Long.valueOf(10)));
+        when(severityRepository.findByProjectIdAndDefaultOnMissing(PROJECT_ID, true)).thenReturn(defaultSeverity);
+        when(executedScenarioRepository.findAll(any(ExecutedScenarioFilter.class), any(Pageable.class)))
+                .thenAnswer(invocation -> Page.empty(invocation.getArgument(1)));
+
+        // WHEN
+        Page<?> page = cut.findAllOfRun(PROJECT_ID, 2, 3, criteria, PageRequest.of(1, 50));
+
+        // THEN
+        assertThat(page.getContent()).isEmpty();
+        ArgumentCaptor<ExecutedScenarioFilter> filter = ArgumentCaptor.forClass(ExecutedScenarioFilter.class);
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(executedScenarioRepository).findAll(filter.capture(), pageable.capture());
+        assertThat(filter.getValue().getProjectId()).isEqualTo(PROJECT_ID);
+        assertThat(filter.getValue().getExecutionId()).isEqualTo(2);
+        assertThat(filter.getValue().getRunId()).isEqualTo(3);
+        assertThat(filter.getValue().getFunctionalityIds()).containsExactlyInAnyOrder(Long.valueOf(1), Long.valueOf(3));
+        assertThat(filter.getValue().getBlamedTeamId()).isEqualTo(10);
+        assertThat(filter.getValue().getExcludedFunctionalityIds()).isNull();
+        assertThat(filter.getValue().getSeverity()).isEqualTo("medium");
+        assertThat(filter.getValue().isSeverityMissing()).isTrue();
+        assertThat(filter.getValue().getHandling()).isEqualTo(Handling.UNHANDLED);
+        assertThat(pageable.getValue().getPageNumber()).isEqualTo(1);
+        assertThat(pageable.getValue().getPageSize()).isEqualTo(50);
+        assertThat(pageable.getValue().getSort()).isEqualTo(Sort.by("featureFile", "name", "line"));
+    }
+
+    @Test
+    void findAllOfRun_should_exclude_all_functionalities_of_teams_when_filtering_scenarios_without_team() throws BadRequestException {
+        // GIVEN
+        ExecutionCriteriaDTO criteria = new ExecutionCriteriaDTO();
+        TestUtil.setField(criteria, "team", Long.valueOf(ExecutedScenarioService.NO_TEAM));
+        when(functionalityRepository.getFunctionalityTeamIds(PROJECT_ID)).thenReturn(Map.of(
+                Long.valueOf(1), Long.valueOf(10),
+                Long.valueOf(2), Long.valueOf(20)));
+        when(executedScenarioRepository.findAll(any(ExecutedScenarioFilter.class), any(Pageable.class)))
+                .thenAnswer(invocation -> Page.empty(invocation.getArgument(1)));
+
+        // WHEN
+        cut.findAllOfRun(PROJECT_ID, 2, 3, criteria, PageRequest.of(0, 50, Sort.by("name")));
+
+        // THEN
+        ArgumentCaptor<ExecutedScenarioFilter> filter = ArgumentCaptor.forClass(ExecutedScenarioFilter.class);
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(executedScenarioRepository).findAll(filter.capture(), pageable.capture());
+        assertThat(filter.getValue().getFunctionalityIds()).isNull();
+        assertThat(filter.getValue().getBlamedTeamId()).isNull();
+        assertThat(filter.getValue().getExcludedFunctionalityIds()).containsExactlyInAnyOrder(Long.valueOf(1), Long.valueOf(2));
+        assertThat(pageable.getValue().getSort()).isEqualTo(Sort.by("name"));
+    }
+
+    @Test
+    void findAllOfRun_should_throw_BadRequestException_on_unknown_handling() {
+        // GIVEN
+        ExecutionCriteriaDTO criteria = new ExecutionCriteriaDTO();
+        TestUtil.setField(criteria, "handling", "FLAKY");
+        when(functionalityRepository.getFunctionalityTeamIds(PROJECT_ID)).thenReturn(Map.of());
+
+        // WHEN / THEN
+        assertThatThrownBy(() -> cut.findAllOfRun(PROJECT_ID, 2, 3, criteria, PageRequest.of(0, 50)))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void findHistory_should_map_each_problem_once_for_all_its_errors() throws BadRequestException {
+        // GIVEN
+        ExecutedScenarioHistoryInputDTO input = new ExecutedScenarioHistoryInputDTO();
+        TestUtil.setField(input, "cucumberId", "feature;scenario");
+        List<ExecutedScenario> executedScenarios = List.of(executedScenario(11), executedScenario(12), executedScenario(13));
+        List<ExecutedScenarioWithRunAndTeamIdsAndExecutionAndErrorsAndProblemsDTO> dtos = List.of(
+                executedScenarioDto(11), executedScenarioDto(12), executedScenarioDto(13));
+        Problem problem = new Problem();
+        problem.setId(Long.valueOf(42));
+        ProblemDTO problemDto = new ProblemDTO();
+        when(executedScenarioRepository.findHistory(eq(PROJECT_ID), eq("feature;scenario"), any(), any(), any(), any(), any()))
+                .thenReturn(executedScenarios);
+        when(mapper.mapCollection(eq(executedScenarios), eq(ExecutedScenarioWithRunAndTeamIdsAndExecutionAndErrorsAndProblemsDTO.class), any(BiConsumer.class)))
+                .thenReturn(dtos);
+        when(errorRepository.getErrorsProblems(List.of(Long.valueOf(11), Long.valueOf(12), Long.valueOf(13))))
+                .thenReturn(Map.of(Long.valueOf(11), List.of(problem), Long.valueOf(13), List.of(problem)));
+        when(mapper.map(problem, ProblemDTO.class)).thenReturn(problemDto);
+
+        // WHEN
+        cut.findHistory(PROJECT_ID, input);
+
+        // THEN
+        assertThat(dtos.get(0).getErrors().get(0).getProblems()).containsExactly(problemDto);
+        assertThat(dtos.get(1).getErrors().get(0).getProblems()).isEmpty();
+        assertThat(dtos.get(2).getErrors().get(0).getProblems()).containsExactly(problemDto);
+        verify(mapper, times(1)).map(problem, ProblemDTO.class);
+    }
+
+    private static ExecutedScenario executedScenario(long errorId) {
+        Error error = new Error();
+        error.setId(Long.valueOf(errorId));
+        ExecutedScenario executedScenario = new ExecutedScenario();
+        executedScenario.setName("Scenario " + errorId);
+        executedScenario.addError(error);
+        return executedScenario;
+    }
+
+    private static ExecutedScenarioWithRunAndTeamIdsAndExecutionAndErrorsAndProblemsDTO executedScenarioDto(long errorId) {
+        ErrorWithProblemsDTO errorDto = new ErrorWithProblemsDTO();
+        TestUtil.setField(errorDto, "id", Long.valueOf(errorId));
+        ExecutedScenarioWithRunAndTeamIdsAndExecutionAndErrorsAndProblemsDTO executedScenarioDto = new ExecutedScenarioWithRunAndTeamIdsAndExecutionAndErrorsAndProblemsDTO();
+        TestUtil.setField(executedScenarioDto, "errors", List.of(errorDto));
+        return executedScenarioDto;
+    }
+
+}
@@ -0,0 +1,154 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.scenario.cucumber.indexer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.decathlon.ara.domain.ExecutedScenario;
+import com.decathlon.ara.scenario.cucumber.asset.AssetService;
+import com.decathlon.ara.scenario.cucumber.service.ExecutedScenarioExtractorService;
+import com.decathlon.ara.service.FileProcessorService;
+import com.decathlon.ara.service.TechnologySettingService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@ExtendWith(MockitoExtension.class)
+class CucumberScenariosIndexerTest {
+
+    // Cucumber writes the feature properties after its elements: they must be applied once the feature is over
+    private static final String REPORT = """
+            [
+              {
+                "line": 1,
+                "elements": [
+                  {
+                    "line": 3,
+                    "name": "Background",
+                    "keyword": "Background",
+                    "type": "background",
+                    "steps": [
+                      { "line": 4, "keyword": "Given ", "name": "A background step", "result": { "status": "passed", "duration": 1 } }
+                    ]
+                  },
+                  {
+                    "id": "feature-1;scenario-1",
+                    "line": 6,
+                    "name": "Functionality 1: Scenario 1",
+                    "keyword": "Scenario",
+                    "type": "scenario",
+                    "tags": [ { "name": "@severity-high" } ],
+                    "steps": [
+                      {
+                        "line": 7, "keyword": "Given ", "name": "A step", "result": { "status": "passed", "duration": 2 },
+                        "embeddings": [ { "mime_type": "image/png", "data": "UE5H" } ]
+                      }
+                    ]
+                  },
+                  {
+                    "id": "feature-1;scenario-2",
+                    "line": 9,
+                    "name": "Scenario 2",
+                    "keyword": "Scenario",
+                    "type": "scenario",
+                    "steps": []
+                  }
+                ],
+                "name": "Feature 1",
+                "id": "feature-1",
+                "keyword": "Feature",
+                "uri": "features/feature1.feature",
+                "tags": [ { "name": "@feature-tag" } ]
+              }
+            ]
+            """;
+
+    @Mock
+    private AssetService assetService;
+
+    @Mock
+    private TechnologySettingService technologySettingService;
+
+    @Mock
+    private FileProcessorService fileProcessorService;
+
+    @TempDir
+    Path tempDirectory;
+
+    @Test
+    void streamExecutedScenariosFromReport_should_extract_each_scenario_with_its_feature_and_screenshot() throws IOException {
+        // Given
+        File report = tempDirectory.resolve("report.json").toFile();
+        Files.writeString(report.toPath(), REPORT, StandardCharsets.UTF_8);
+        when(assetService.saveScreenshot(ArgumentMatchers.aryEq("PNG".getBytes(StandardCharsets.UTF_8)), anyString()))
+                .thenReturn("http://screenshots/1.png");
+        CucumberScenariosIndexer cut = indexer();
+
+        // When
+        List<ExecutedScenario> executedScenarios = cut.streamExecutedScenariosFromReport(report, Collections.emptyList(), "http://job/");
+
+        // Then
+        assertThat(executedScenarios)
+                .extracting(ExecutedScenario::getName, ExecutedScenario::getFeatureFile, ExecutedScenario::getFeatureName,
+                        ExecutedScenario::getSeverity, ExecutedScenario::getScreenshotUrl)
+                .containsExactly(
+                        tuple("Functionality 1: Scenario 1", "features/feature1.feature", "Feature 1", "high", "http://screenshots/1.png"),
+                        tuple("Scenario 2", "features/feature1.feature", "Feature 1", "", null));
+        assertThat(executedScenarios.get(0).getFeatureTags()).isEqualTo("@feature-tag");
+        assertThat(executedScenarios.get(0).getContent()).contains("0:element:Background:\n4:passed:1:Given A background step");
+        assertThat(executedScenarios.get(1).getContent()).doesNotContain("Background");
+        assertThat(executedScenarios.get(0).getCucumberReportUrl())
+                .isEqualTo("http://job/cucumber-html-reports/report-feature_features-feature1-feature.html");
+    }
+
+    @Test
+    void streamExecutedScenariosFromReport_should_return_no_scenario_when_the_report_is_malformed() throws IOException {
+        // Given
+        File report = tempDirectory.resolve("report.json").toFile();
+        Files.writeString(report.toPath(), REPORT.substring(0, REPORT.indexOf("\"name\": \"Scenario 2\"")), StandardCharsets.UTF_8);
+        CucumberScenariosIndexer cut = indexer();
+
+        // When
+        List<ExecutedScenario> executedScenarios = cut.streamExecutedScenariosFromReport(report, Collections.emptyList(), "http://job/");
+
+        // Then
+        assertThat(executedScenarios).isEmpty();
+    }
+
+    private CucumberScenariosIndexer indexer() {
+        return new CucumberScenariosIndexer(new ObjectMapper(), new ExecutedScenarioExtractorService(assetService),
+                technologySettingService, fileProcessorService);
+    }
+
+}
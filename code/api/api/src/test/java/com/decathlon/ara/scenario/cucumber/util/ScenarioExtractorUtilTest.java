@@ -196,6 +196,27 @@ class ScenarioExtractorUtilTest {
         assertFunctionalityIds("Functionality STRING and 42: Title", 42);
     }
 
+    @Test
+    void testFormatFunctionalityIds() {
+        assertThat(ScenarioExtractorUtil.formatFunctionalityIds("Functionalities 42, 43 & 44: Title")).isEqualTo("42,43,44");
+        assertThat(ScenarioExtractorUtil.formatFunctionalityIds("Functionality 42, STRING: Title")).isEqualTo("42");
+        assertThat(ScenarioExtractorUtil.formatFunctionalityIds("No functionality")).isEmpty();
+        assertThat(ScenarioExtractorUtil.formatFunctionalityIds(null)).isNull();
+        assertThat(ScenarioExtractorUtil.formatFunctionalityIds("Functionalities " + "1234567890, ".repeat(30) + "1: Too long")).isNull();
+    }
+
+    @Test
+    void testGetFunctionalityIds() {
+        // Stored IDs win over the name
+        assertThat(ScenarioExtractorUtil.getFunctionalityIds("42,43", "Functionality 1: Renamed")).containsExactly(longs(42, 43));
+        assertThat(ScenarioExtractorUtil.getFunctionalityIds("", "Functionality 1: Renamed")).isEmpty();
+
+        // Not stored: extracted from the name
+        assertThat(ScenarioExtractorUtil.getFunctionalityIds(null, "Functionalities 42 & 43: Title")).containsExactly(longs(42, 43));
+        assertThat(ScenarioExtractorUtil.getFunctionalityIds(null, "Functionalities 42 & 43: Title")).containsExactly(longs(42, 43));
+        assertThat(ScenarioExtractorUtil.getFunctionalityIds(null, null)).isEmpty();
+    }
+
     @Test
     void testExtractWrongFunctionalityIds() {
         List<Functionality> functionalities = Arrays.asList(
@@ -0,0 +1,202 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.scenario.postman.indexer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.decathlon.ara.configuration.AraConfiguration;
+import com.decathlon.ara.domain.ExecutedScenario;
+import com.decathlon.ara.domain.Run;
+import com.decathlon.ara.scenario.postman.bean.Collection;
+import com.decathlon.ara.scenario.postman.model.NewmanParsingResult;
+import com.decathlon.ara.scenario.postman.service.PostmanService;
+import com.decathlon.ara.scenario.postman.settings.PostmanSettings;
+import com.decathlon.ara.service.FileProcessorService;
+import com.decathlon.ara.service.TechnologySettingService;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class PostmanScenariosIndexerTest {
+
+    private static final Long PROJECT_ID = Long.valueOf(1);
+
+    @Mock
+    private PostmanService postmanService;
+
+    @Mock
+    private TechnologySettingService technologySettingService;
+
+    @Mock
+    private FileProcessorService fileProcessorService;
+
+    @Mock
+    private AraConfiguration araConfiguration;
+
+    @TempDir
+    File postmanFolder;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private PostmanScenariosIndexer cut;
+
+    @BeforeEach
+    void setUp() {
+        when(araConfiguration.getPostmanReportParallelism()).thenReturn(Integer.valueOf(3));
+        cut = new PostmanScenariosIndexer(postmanService, new JsonFactory(), technologySettingService,
+                fileProcessorService, araConfiguration, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cut.shutdown();
+    }
+
+    @Test
+    void getExecutedScenarios_should_reserve_positions_in_file_order_and_skip_the_reports_failing_to_parse() throws IOException {
+        // GIVEN
+        File reportFolder = new File(postmanFolder, "reports");
+        for (String name : List.of("c.json", "result.json", "b.json", "a.json")) {
+            FileUtils.writeStringToFile(new File(reportFolder, name), "{}", StandardCharsets.UTF_8);
+        }
+        Run run = new Run();
+        when(technologySettingService.getSettingValue(PROJECT_ID, PostmanSettings.REPORTS_PATH)).thenReturn(Optional.of("reports"));
+        when(technologySettingService.getSettingValue(PROJECT_ID, PostmanSettings.RESULT_FILE_NAME)).thenReturn(Optional.of("result.json"));
+        when(fileProcessorService.getMatchingDirectory(postmanFolder, "reports")).thenReturn(Optional.of(reportFolder));
+        // Three items in the collection of each report
+        Collection collection = new ObjectMapper().readValue(
+                "{\"item\":[{\"id\":\"folder\",\"item\":[{\"id\":\"request-1\"},{\"id\":\"request-2\"}]}]}", Collection.class);
+        doAnswer(invocation -> {
+            NewmanParsingResult result = invocation.getArgument(1);
+            if ("b.json".equals(result.getReportFile().getName())) {
+                throw new IOException("Malformed report");
+            }
+            result.setCollection(collection);
+            return null;
+        }).when(postmanService).parse(any(JsonParser.class), any(NewmanParsingResult.class));
+        when(postmanService.postProcess(same(run), any(NewmanParsingResult.class), anyString(), any(AtomicInteger.class)))
+                .thenAnswer(invocation -> {
+                    ExecutedScenario executedScenario = new ExecutedScenario();
+                    executedScenario.setFeatureFile(invocation.getArgument(2));
+                    executedScenario.setLine(invocation.<AtomicInteger> getArgument(3).incrementAndGet());
+                    return List.of(executedScenario);
+                });
+
+        // WHEN
+        List<ExecutedScenario> executedScenarios = cut.getExecutedScenarios(postmanFolder, run, PROJECT_ID);
+
+        // THEN
+        assertThat(executedScenarios)
+                .extracting(ExecutedScenario::getFeatureFile, ExecutedScenario::getLine)
+                .containsExactly(
+                        tuple("a.json", Integer.valueOf(1)),
+                        tuple("c.json", Integer.valueOf(4)));
+        assertThat(meterRegistry.counter("ara.indexing.postman.report.failures").count()).isEqualTo(1);
+        assertThat(meterRegistry.timer("ara.indexing.postman.report.parsing").count()).isEqualTo(3);
+    }
+
+    @Test
+    void getExecutedScenarios_should_post_process_each_report_from_position_0_and_shift_its_lines_after_the_previous_reports() throws IOException {
+        // GIVEN
+        File reportFolder = new File(postmanFolder, "reports");
+        for (String name : List.of("c.json", "result.json", "b.json", "a.json")) {
+            FileUtils.writeStringToFile(new File(reportFolder, name), "{}", StandardCharsets.UTF_8);
+        }
+        Run run = new Run();
+        when(technologySettingService.getSettingValue(PROJECT_ID, PostmanSettings.REPORTS_PATH)).thenReturn(Optional.of("reports"));
+        when(technologySettingService.getSettingValue(PROJECT_ID, PostmanSettings.RESULT_FILE_NAME)).thenReturn(Optional.of("result.json"));
+        when(fileProcessorService.getMatchingDirectory(postmanFolder, "reports")).thenReturn(Optional.of(reportFolder));
+        // Two items in the collection of each report
+        Collection collection = new ObjectMapper().readValue(
+                "{\"item\":[{\"id\":\"request-1\"},{\"id\":\"request-2\"}]}", Collection.class);
+        doAnswer(invocation -> {
+            invocation.<NewmanParsingResult> getArgument(1).setCollection(collection);
+            return null;
+        }).when(postmanService).parse(any(JsonParser.class), any(NewmanParsingResult.class));
+        when(postmanService.postProcess(same(run), any(NewmanParsingResult.class), anyString(), any(AtomicInteger.class)))
+                .thenAnswer(invocation -> {
+                    AtomicInteger requestPosition = invocation.getArgument(3);
+                    assertThat(requestPosition.get()).isZero();
+                    if ("b.json".equals(invocation.getArgument(2))) {
+                        throw new IllegalStateException("Cannot post-process the report");
+                    }
+                    ExecutedScenario firstExecutedScenario = new ExecutedScenario();
+                    firstExecutedScenario.setFeatureFile(invocation.getArgument(2));
+                    firstExecutedScenario.setLine(requestPosition.incrementAndGet());
+                    ExecutedScenario secondExecutedScenario = new ExecutedScenario();
+                    secondExecutedScenario.setFeatureFile(invocation.getArgument(2));
+                    secondExecutedScenario.setLine(requestPosition.incrementAndGet());
+                    return List.of(firstExecutedScenario, secondExecutedScenario);
+                });
+
+        // WHEN
+        List<ExecutedScenario> executedScenarios = cut.getExecutedScenarios(postmanFolder, run, PROJECT_ID);
+
+        // THEN the positions of b.json stay reserved, even if its requests are not indexed
+        assertThat(executedScenarios)
+                .extracting(ExecutedScenario::getFeatureFile, ExecutedScenario::getLine)
+                .containsExactly(
+                        tuple("a.json", Integer.valueOf(1)),
+                        tuple("a.json", Integer.valueOf(2)),
+                        tuple("c.json", Integer.valueOf(5)),
+                        tuple("c.json", Integer.valueOf(6)));
+        assertThat(meterRegistry.counter("ara.indexing.postman.report.failures").count()).isEqualTo(1);
+    }
+
+    @Test
+    void getExecutedScenarios_should_return_nothing_without_result_file() throws IOException {
+        // GIVEN
+        File reportFolder = new File(postmanFolder, "reports");
+        FileUtils.writeStringToFile(new File(reportFolder, "a.json"), "{}", StandardCharsets.UTF_8);
+        when(technologySettingService.getSettingValue(PROJECT_ID, PostmanSettings.REPORTS_PATH)).thenReturn(Optional.of("reports"));
+        when(technologySettingService.getSettingValue(PROJECT_ID, PostmanSettings.RESULT_FILE_NAME)).thenReturn(Optional.of("result.json"));
+        when(fileProcessorService.getMatchingDirectory(postmanFolder, "reports")).thenReturn(Optional.of(reportFolder));
+
+        // WHEN
+        List<ExecutedScenario> executedScenarios = cut.getExecutedScenarios(postmanFolder, new Run(), PROJECT_ID);
+
+        // THEN
+        assertThat(executedScenarios).isEmpty();
+    }
+
+}
@@ -22,6 +22,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
@@ -50,7 +51,6 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.AdditionalMatchers;
-import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
@@ -166,13 +166,10 @@ class PostmanServiceTest {
         JsonParser jsonParser = new JsonFactory().createParser(json);
         NewmanParsingResult result = new NewmanParsingResult();
 
-        doAnswer(invocation -> null).when(cut).saveExecutionStreamToFile(any(Execution.class));
-
         // WHEN
         cut.parse(jsonParser, result);
 
         // THEN
-        verify(cut, times(2)).saveExecutionStreamToFile(any(Execution.class));
         assertThat(result.getCollection().getInfo().getName()).isEqualTo("collection-name");
         assertThat(result.getExecutions()).hasSize(2);
         assertThat(result.getExecutions().get(0).getItem().getId()).isEqualTo("execution-item-id");
@@ -183,52 +180,65 @@ class PostmanServiceTest {
     }
 
     @Test
-    void saveExecutionStreamToFile_should_not_crash_if_execution_has_null_response() throws IOException {
+    void parse_should_keep_only_the_position_of_response_bodies_in_a_report_file() throws IOException {
         // GIVEN
-        Execution execution = new Execution();
+        File reportFile = File.createTempFile("ara_temp_unit_test_file_", ".json");
+        reportFile.deleteOnExit();
 
-        // WHEN
-        Assertions.assertDoesNotThrow(() -> cut.saveExecutionStreamToFile(execution));
-        ;
+        try {
+            FileUtils.writeStringToFile(reportFile, "{\"run\":{\"executions\":[" +
+                    "{\"response\":{\"stream\":{\"type\":\"Buffer\",\"data\":[97, 98, 99]}}}]}}", StandardCharsets.UTF_8);
+            NewmanParsingResult result = new NewmanParsingResult();
+
+            // WHEN
+            try (JsonParser jsonParser = new JsonFactory().createParser(reportFile)) {
+                cut.parse(jsonParser, result);
+            }
+
+            // THEN
+            final Response response = result.getExecutions().get(0).getResponse();
+            assertThat(response.getStream().getData()).isNull();
+            assertThat(response.getStream().hasDataRange()).isTrue();
+            cut.loadResponseBody(reportFile, response);
+            assertThat(response.getStream().getData()).isEqualTo(new byte[] { 'a', 'b', 'c' });
+        } finally {
+            FileUtils.deleteQuietly(reportFile);
+        }
     }
 
     @Test
-    void saveExecutionStreamToFile_should_not_crash_if_response_has_null_stream() throws IOException {
+    void parse_should_keep_response_bodies_in_memory_when_parsing_without_byte_positions() throws IOException {
         // GIVEN
-        Execution execution = execution(null, null, new Response(), null);
+        JsonParser jsonParser = new JsonFactory().createParser("{\"run\":{\"executions\":[" +
+                "{\"response\":{\"stream\":{\"type\":\"Buffer\",\"data\":[97, 98, 99]}}}]}}");
+        NewmanParsingResult result = new NewmanParsingResult();
 
         // WHEN
-        Assertions.assertDoesNotThrow(() -> cut.saveExecutionStreamToFile(execution));
-        ;
+        cut.parse(jsonParser, result);
+
+        // THEN
+        final Stream stream = result.getExecutions().get(0).getResponse().getStream();
+        assertThat(stream.getData()).isEqualTo(new byte[] { 'a', 'b', 'c' });
+        assertThat(stream.hasDataRange()).isFalse();
     }
 
     @Test
-    void saveExecutionStreamToFile_should_not_crash_if_stream_has_null_data() throws IOException {
-        // GIVEN
-        Execution execution = execution(null, null, response(0, null, new Stream(), 0, null), null);
-
+    void loadResponseBody_should_not_crash_if_response_has_null_stream() {
         // WHEN
-        Assertions.assertDoesNotThrow(() -> cut.saveExecutionStreamToFile(execution));
-        ;
+        Assertions.assertDoesNotThrow(() -> cut.loadResponseBody(new File("any"), new Response()));
     }
 
     @Test
-    void saveExecutionStreamToFile_should_save_execution_stream_to_file() throws IOException {
+    void loadResponseBody_should_keep_the_data_in_memory_if_stream_has_no_data_range() throws IOException {
         // GIVEN
-        final Stream stream = stream(new byte[] { 'a', 'b', 'c' }, null);
-        Execution execution = execution(null, null, response(0, null, stream, 0, null), null);
+        final Stream stream = new Stream();
+        stream.setData(new byte[] { 'a', 'b', 'c' });
 
-        try {
-            // WHEN
-            cut.saveExecutionStreamToFile(execution);
+        // WHEN
+        cut.loadResponseBody(new File("nonexistent"), response(0, null, stream, 0, null));
 
-            // THEN
-            assertThat(stream.getData()).isNull();
-            assertThat(stream.getTempFile()).isNotNull();
-            assertThat(FileUtils.readFileToString(stream.getTempFile(), StandardCharsets.UTF_8)).isEqualTo("abc");
-        } finally {
-            FileUtils.deleteQuietly(stream.getTempFile());
-        }
+        // THEN
+        assertThat(stream.getData()).isEqualTo(new byte[] { 'a', 'b', 'c' });
     }
 
     @Test
@@ -501,6 +511,23 @@ class PostmanServiceTest {
         assertThat(newmanScenario2.getExecution()).isSameAs(execution2);
     }
 
+    @Test
+    void mapExecutionsToScenarios_should_match_the_first_scenario_when_several_items_have_the_same_id() {
+        // GIVEN
+        final Execution execution = execution(itemId("id1"), null, null, null);
+
+        final NewmanScenario newmanScenario1 = newmanScenario(null, item("id1", null, null, null), null);
+        final NewmanScenario newmanScenario2 = newmanScenario(null, item("id1", null, null, null), null);
+        List<NewmanScenario> newmanScenarios = Arrays.asList(newmanScenario1, newmanScenario2);
+
+        // WHEN
+        cut.mapExecutionsToScenarios(Collections.singletonList(execution), newmanScenarios);
+
+        // THEN
+        assertThat(newmanScenario1.getExecution()).isSameAs(execution);
+        assertThat(newmanScenario2.getExecution()).isNull();
+    }
+
     @Test
     void mapFailuresToScenarios_should_match_failures_to_scenarios_if_any() {
         // GIVEN
@@ -521,6 +548,26 @@ class PostmanServiceTest {
         assertThat(newmanScenario2.getFailures().get(0)).isSameAs(failure2);
     }
 
+    @Test
+    void mapFailuresToScenarios_should_append_all_failures_of_a_scenario_in_their_order() {
+        // GIVEN
+        final Failure failure1 = failure(null, "first", postmanSource("id1"));
+        final Failure failure2 = failure(null, null, postmanSource("id2"));
+        final Failure failure3 = failure(null, "second", postmanSource("id1"));
+        List<Failure> failures = Arrays.asList(failure1, failure2, failure3);
+
+        final NewmanScenario newmanScenario1 = newmanScenario(null, item("id1", null, null, null), null);
+        final NewmanScenario newmanScenario2 = newmanScenario(null, item("id1", null, null, null), null);
+        List<NewmanScenario> newmanScenarios = Arrays.asList(newmanScenario1, newmanScenario2);
+
+        // WHEN
+        cut.mapFailuresToScenarios(failures, newmanScenarios);
+
+        // THEN
+        assertThat(newmanScenario1.getFailures()).containsExactly(failure1, failure3);
+        assertThat(newmanScenario2.getFailures()).isEmpty();
+    }
+
     @Test
     @MockitoSettings(strictness = Strictness.LENIENT)
     void buildScenarioContents_should_build_the_scenario_content() {
@@ -1141,10 +1188,10 @@ class PostmanServiceTest {
         doNothing().when(cut).mapFailuresToScenarios(same(failures), same(newmanScenarios));
         doNothing().when(cut).buildScenarioContents(same(newmanScenarios));
         doNothing().when(cut).buildScenarioErrors(same(newmanScenarios));
-        doNothing().when(cut).deleteTempFile(same(response1));
+        doNothing().when(cut).releaseResponseBody(same(response1));
         doReturn("collection-file-name").when(cut).toCollectionFileName(source, newmanReportPath);
-        doReturn("http-log-url-1").when(cut).uploadHttpLog(same(newmanScenarioWithExecution));
-        doReturn("http-log-url-2").when(cut).uploadHttpLog(same(newmanScenarioWithExecutionAndFailure));
+        doReturn("http-log-url-1").when(cut).uploadHttpLog(same(newmanScenarioWithExecution), isNull());
+        doReturn("http-log-url-2").when(cut).uploadHttpLog(same(newmanScenarioWithExecutionAndFailure), isNull());
         doReturn(Optional.of(Instant.EPOCH)).when(cut).getStartDateTime(response1);
         doReturn(Optional.of(Instant.EPOCH)).when(cut).getStartDateTime(response2);
 
@@ -1156,8 +1203,8 @@ class PostmanServiceTest {
         verify(cut, times(1)).mapFailuresToScenarios(same(failures), same(newmanScenarios));
         verify(cut, times(1)).buildScenarioContents(same(newmanScenarios));
         verify(cut, times(1)).buildScenarioErrors(same(newmanScenarios));
-        verify(cut, times(1)).deleteTempFile(same(response1));
-        verify(cut, never()).deleteTempFile(same(response2));
+        verify(cut, times(1)).releaseResponseBody(same(response1));
+        verify(cut, never()).releaseResponseBody(same(response2));
 
         assertThat(executedScenarios).hasSize(2);
         assertThat(executedScenarios.get(0).getFeatureFile()).isEqualTo("collection-file-name");
@@ -1168,73 +1215,29 @@ class PostmanServiceTest {
     }
 
     @Test
-    void deleteTempFile_should_not_crash_if_response_is_null() {
+    void releaseResponseBody_should_not_crash_if_response_is_null() {
         // WHEN
-        Assertions.assertDoesNotThrow(() -> cut.deleteTempFile(null));
+        Assertions.assertDoesNotThrow(() -> cut.releaseResponseBody(null));
     }
 
     @Test
-    void deleteTempFile_should_not_crash_if_response_stream_is_null() {
+    void releaseResponseBody_should_not_crash_if_response_stream_is_null() {
         // WHEN
-        Assertions.assertDoesNotThrow(() -> cut.deleteTempFile(new Response()));
+        Assertions.assertDoesNotThrow(() -> cut.releaseResponseBody(new Response()));
     }
 
     @Test
-    void deleteTempFile_should_not_crash_if_tempFile_is_null() {
-        // WHEN
-        Assertions.assertDoesNotThrow(() -> cut.deleteTempFile(response(0, null, new Stream(), 0, null)));
-    }
-
-    @Test
-    void deleteTempFile_should_delete_the_temporary_file_and_set_it_to_null() throws IOException {
+    void releaseResponseBody_should_set_the_stream_data_to_null() {
         // GIVEN
-        File tempFile = File.createTempFile("ara_temp_unit_test_file_", ".bin");
-        tempFile.deleteOnExit();
         Stream stream = new Stream();
-        stream.setTempFile(tempFile);
+        stream.setData(new byte[] { 'a', 'b', 'c' });
         Response response = response(0, null, stream, 0, null);
 
-        try {
-            // WHEN
-            cut.deleteTempFile(response);
-
-            // THEN
-            assertThat(tempFile.exists()).isFalse();
-            assertThat(response.getStream().getTempFile()).isNull();
-        } finally {
-            FileUtils.deleteQuietly(tempFile);
-        }
-    }
-
-    @Test
-    void deleteTempFiles_should_so_nothing_on_null_executions() {
-        // GIVEN
-        NewmanParsingResult newmanParsingResult = new NewmanParsingResult();
-
-        // WHEN
-        cut.deleteTempFiles(newmanParsingResult);
-
-        // THEN
-        verify(cut, never()).deleteTempFile(any());
-    }
-
-    @Test
-    void deleteTempFiles_should_delete_all_files() {
-        // GIVEN
-        final Response response1 = new Response();
-        final Response response2 = new Response();
-        NewmanParsingResult newmanParsingResult = newmanParsingResult(null, Arrays.asList(
-                execution(null, null, response1, null),
-                execution(null, null, response2, null)), null);
-
-        ArgumentCaptor<Response> argument = ArgumentCaptor.forClass(Response.class);
-        doNothing().when(cut).deleteTempFile(argument.capture());
-
         // WHEN
-        cut.deleteTempFiles(newmanParsingResult);
+        cut.releaseResponseBody(response);
 
         // THEN
-        assertThat(argument.getAllValues()).containsExactly(response1, response2);
+        assertThat(response.getStream().getData()).isNull();
     }
 
     @Test
@@ -1243,12 +1246,12 @@ class PostmanServiceTest {
         NewmanScenario newmanScenario = new NewmanScenario(); // Empty failures by default
 
         // WHEN
-        final String url = cut.uploadHttpLog(newmanScenario);
+        final String url = cut.uploadHttpLog(newmanScenario, null);
 
         // THEN
         assertThat(url).isNull();
         verify(cut, never()).generateHttpLogHtml(any());
-        verify(cut, never()).deleteTempFile(any());
+        verify(cut, never()).releaseResponseBody(any());
     }
 
     @Test
@@ -1258,30 +1261,33 @@ class PostmanServiceTest {
         newmanScenario.getFailures().add(new Failure());
         doReturn("html").when(cut).generateHttpLogHtml(same(newmanScenario));
         when(assetService.saveHttpLogs("html")).thenReturn("url");
-        doNothing().when(cut).deleteTempFile(any());
+        doNothing().when(cut).releaseResponseBody(any());
 
         // WHEN
-        final String url = cut.uploadHttpLog(newmanScenario);
+        final String url = cut.uploadHttpLog(newmanScenario, null);
 
         // THEN
         assertThat(url).isEqualTo("url");
     }
 
     @Test
-    void uploadHttpLog_should_delete_temp_file_after_upload() {
+    void uploadHttpLog_should_load_the_response_body_before_and_release_it_after_upload() throws IOException {
         // GIVEN
         final Response response = new Response();
+        final File reportFile = new File("report.json");
         NewmanScenario newmanScenario = newmanScenario(null, null, execution(null, null, response, null));
         newmanScenario.getFailures().add(new Failure());
+        doNothing().when(cut).loadResponseBody(same(reportFile), same(response));
         doReturn("any").when(cut).generateHttpLogHtml(any());
         when(assetService.saveHttpLogs(any())).thenReturn("any");
-        doNothing().when(cut).deleteTempFile(any());
+        doNothing().when(cut).releaseResponseBody(any());
 
         // WHEN
-        cut.uploadHttpLog(newmanScenario);
+        cut.uploadHttpLog(newmanScenario, reportFile);
 
         // THEN
-        verify(cut, times(1)).deleteTempFile(same(response));
+        verify(cut, times(1)).loadResponseBody(same(reportFile), same(response));
+        verify(cut, times(1)).releaseResponseBody(same(response));
     }
 
     @Test
@@ -1564,7 +1570,7 @@ class PostmanServiceTest {
     }
 
     @Test
-    void appendResponseBody_should_append_nothing_when_null_stream_file() {
+    void appendResponseBody_should_append_nothing_when_null_stream_data() {
         // GIVEN
         StringBuilder html = new StringBuilder();
 
@@ -1576,26 +1582,18 @@ class PostmanServiceTest {
     }
 
     @Test
-    void appendResponseBody_should_append_pretty_file_content() throws IOException {
+    void appendResponseBody_should_append_pretty_data() {
         // GIVEN
-        File tempFile = File.createTempFile("ara_temp_unit_test_file_", ".bin");
-        tempFile.deleteOnExit();
-
-        try {
-            StringBuilder html = new StringBuilder();
-            FileUtils.writeStringToFile(tempFile, "content", StandardCharsets.UTF_8);
-            Stream stream = new Stream();
-            stream.setTempFile(tempFile);
-            doReturn("<p>pretty</p>").when(cut).prettyPrint(eq("content"), eq("application/json"));
+        StringBuilder html = new StringBuilder();
+        Stream stream = new Stream();
+        stream.setData("content".getBytes(StandardCharsets.UTF_8));
+        doReturn("<p>pretty</p>").when(cut).prettyPrint(eq("content"), eq("application/json"));
 
-            // WHEN
-            cut.appendResponseBody(html, stream, "application/json");
+        // WHEN
+        cut.appendResponseBody(html, stream, "application/json");
 
-            // THEN
-            assertThat(html.toString()).isEqualTo("<pre>&lt;p&gt;pretty&lt;/p&gt;</pre>\n");
-        } finally {
-            FileUtils.deleteQuietly(tempFile);
-        }
+        // THEN
+        assertThat(html.toString()).isEqualTo("<pre>&lt;p&gt;pretty&lt;/p&gt;</pre>\n");
     }
 
     @Test
@@ -1774,13 +1772,6 @@ class PostmanServiceTest {
         return request;
     }
 
-    private Stream stream(byte[] data, File tempFile) {
-        Stream stream = new Stream();
-        stream.setData(data);
-        stream.setTempFile(tempFile);
-        return stream;
-    }
-
     private Response response(int code, String status, Stream stream, long responseTime, KeyValue[] header) {
         Response response = new Response();
         TestUtil.setField(response, "code", code);
@@ -0,0 +1,77 @@
+package com.decathlon.ara.scheduler.purge;
+
+import com.decathlon.ara.purge.service.ExecutionDeletionService;
+import com.decathlon.ara.repository.CountryDeploymentRepository;
+import com.decathlon.ara.repository.ErrorRepository;
+import com.decathlon.ara.repository.ExecutedScenarioRepository;
+import com.decathlon.ara.repository.ExecutionRepository;
+import com.decathlon.ara.repository.ProblemOccurrenceRepository;
+import com.decathlon.ara.repository.RunRepository;
+import com.decathlon.ara.repository.StoredProblemAggregateRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExecutionDeletionServiceTest {
+
+    @Mock
+    private StoredProblemAggregateRepository storedProblemAggregateRepository;
+
+    @Mock
+    private ProblemOccurrenceRepository problemOccurrenceRepository;
+
+    @Mock
+    private ErrorRepository errorRepository;
+
+    @Mock
+    private ExecutedScenarioRepository executedScenarioRepository;
+
+    @Mock
+    private RunRepository runRepository;
+
+    @Mock
+    private CountryDeploymentRepository countryDeploymentRepository;
+
+    @Mock
+    private ExecutionRepository executionRepository;
+
+    @InjectMocks
+    private ExecutionDeletionService executionDeletionService;
+
+    @Test
+    void deleteExecutions_deleteChildrenFirst_andReturnTheNumberOfDeletedRows() {
+        // Given
+        var executionIds = List.of(1L, 2L);
+
+        // When
+        when(storedProblemAggregateRepository.deleteByExecutionIds(executionIds)).thenReturn(3);
+        when(problemOccurrenceRepository.deleteByExecutionIds(executionIds)).thenReturn(1);
+        when(errorRepository.deleteByExecutionIds(executionIds)).thenReturn(2);
+        when(executedScenarioRepository.deleteByExecutionIds(executionIds)).thenReturn(10);
+        when(runRepository.deleteByExecutionIds(executionIds)).thenReturn(4);
+        when(countryDeploymentRepository.deleteByExecutionIds(executionIds)).thenReturn(2);
+        when(executionRepository.deleteByIds(executionIds)).thenReturn(2);
+
+        // Then
+        var deletedRows = executionDeletionService.deleteExecutions(executionIds);
+        assertThat(deletedRows).isEqualTo(24);
+        InOrder inOrder = inOrder(storedProblemAggregateRepository, problemOccurrenceRepository, errorRepository, executedScenarioRepository, runRepository,
+                countryDeploymentRepository, executionRepository);
+        inOrder.verify(storedProblemAggregateRepository).deleteByExecutionIds(executionIds);
+        inOrder.verify(problemOccurrenceRepository).deleteByExecutionIds(executionIds);
+        inOrder.verify(errorRepository).deleteByExecutionIds(executionIds);
+        inOrder.verify(executedScenarioRepository).deleteByExecutionIds(executionIds);
+        inOrder.verify(runRepository).deleteByExecutionIds(executionIds);
+        inOrder.verify(countryDeploymentRepository).deleteByExecutionIds(executionIds);
+        inOrder.verify(executionRepository).deleteByIds(executionIds);
+    }
+}
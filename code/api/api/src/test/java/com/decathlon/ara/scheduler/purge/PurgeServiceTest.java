@@ -1,20 +1,25 @@
 package com.decathlon.ara.scheduler.purge;
 
-import com.decathlon.ara.domain.Execution;
+import com.decathlon.ara.configuration.AraConfiguration;
+import com.decathlon.ara.purge.service.ExecutionDeletionService;
 import com.decathlon.ara.purge.service.PurgeService;
 import com.decathlon.ara.repository.ExecutionRepository;
+import com.decathlon.ara.service.CycleLastExecutionsService;
 import com.decathlon.ara.service.ProjectService;
 import com.decathlon.ara.service.SettingService;
 import com.decathlon.ara.service.dto.project.ProjectDTO;
 import com.decathlon.ara.service.exception.NotFoundException;
 import com.decathlon.ara.service.support.Settings;
 import com.decathlon.ara.service.util.DateService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
 import java.util.Date;
 import java.util.List;
@@ -32,15 +37,30 @@ class PurgeServiceTest {
     @Mock
     private ExecutionRepository executionRepository;
 
+    @Mock
+    private ExecutionDeletionService executionDeletionService;
+
+    @Mock
+    private CycleLastExecutionsService cycleLastExecutionsService;
+
     @Mock
     private SettingService settingService;
 
     @Mock
     private DateService dateService;
 
-    @InjectMocks
+    private final AraConfiguration araConfiguration = new AraConfiguration();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     private PurgeService purgeService;
 
+    @BeforeEach
+    void setUp() {
+        purgeService = new PurgeService(executionRepository, executionDeletionService, cycleLastExecutionsService, projectService,
+                settingService, dateService, araConfiguration, meterRegistry);
+    }
+
     @Test
     void purgeExecutionsByProjectCode_doNothing_whenProjectCodeUnknown() throws NotFoundException {
         // Given
@@ -51,7 +71,7 @@ class PurgeServiceTest {
 
         // Then
         purgeService.purgeExecutionsByProjectCode(projectCode);
-        verify(executionRepository, never()).deleteAllByIdInBatch(anyList());
+        verify(executionDeletionService, never()).deleteExecutions(anyList());
     }
 
     @Test
@@ -67,7 +87,7 @@ class PurgeServiceTest {
 
         // Then
         purgeService.purgeExecutionsByProjectCode(projectCode);
-        verify(executionRepository, never()).deleteAllByIdInBatch(anyList());
+        verify(executionDeletionService, never()).deleteExecutions(anyList());
     }
 
     @Test
@@ -83,7 +103,7 @@ class PurgeServiceTest {
 
         // Then
         purgeService.purgeExecutionsByProjectCode(projectCode);
-        verify(executionRepository, never()).deleteAllByIdInBatch(anyList());
+        verify(executionDeletionService, never()).deleteExecutions(anyList());
     }
 
     @Test
@@ -99,7 +119,7 @@ class PurgeServiceTest {
 
         // Then
         purgeService.purgeExecutionsByProjectCode(projectCode);
-        verify(executionRepository, never()).deleteAllByIdInBatch(anyList());
+        verify(executionDeletionService, never()).deleteExecutions(anyList());
     }
 
     @Test
@@ -117,7 +137,7 @@ class PurgeServiceTest {
 
         // Then
         purgeService.purgeExecutionsByProjectCode(projectCode);
-        verify(executionRepository, never()).deleteAllByIdInBatch(anyList());
+        verify(executionDeletionService, never()).deleteExecutions(anyList());
     }
 
     @Test
@@ -136,41 +156,38 @@ class PurgeServiceTest {
 
         // Then
         purgeService.purgeExecutionsByProjectCode(projectCode);
-        verify(executionRepository, never()).deleteAllByIdInBatch(anyList());
+        verify(executionDeletionService, never()).deleteExecutions(anyList());
     }
 
     @Test
-    void purgeExecutionsByProjectCode_purgeOlderExecutions_whenValueAndTypeSettingsFoundAndCorrect() throws NotFoundException {
+    void purgeExecutionsByProjectCode_purgeOlderExecutionsByChunk_whenValueAndTypeSettingsFoundAndCorrect() throws NotFoundException {
         // Given
         var projectCode = "project-code";
         var projectId = 1L;
         var value = "3";
         var type = "anyDurationType";
         var startDate = mock(Date.class);
-
-        Execution execution1 = mock(Execution.class);
-        Long executionId1 = 1L;
-        Execution execution2 = mock(Execution.class);
-        Long executionId2 = 2L;
-        Execution execution3 = mock(Execution.class);
-        Long executionId3 = 3L;
-        List<Execution> executionsToDelete = List.of(execution1, execution2, execution3);
+        araConfiguration.setPurgeChunkSize(Integer.valueOf(2));
 
         // When
         when(projectService.toId(projectCode)).thenReturn(projectId);
         when(settingService.get(projectId, Settings.EXECUTION_PURGE_DURATION_VALUE)).thenReturn(value);
         when(settingService.get(projectId, Settings.EXECUTION_PURGE_DURATION_TYPE)).thenReturn(type);
         when(dateService.getTodayDateMinusPeriod(3, type)).thenReturn(Optional.of(startDate));
-        when(executionRepository.findByCycleDefinitionProjectIdAndTestDateTimeBefore(projectId, startDate)).thenReturn(executionsToDelete);
-        when(execution1.getId()).thenReturn(executionId1);
-        when(execution2.getId()).thenReturn(executionId2);
-        when(execution3.getId()).thenReturn(executionId3);
+        when(executionRepository.countByCycleDefinitionProjectIdAndTestDateTimeBefore(projectId, startDate)).thenReturn(3L);
+        when(executionRepository.findIdsToPurge(projectId, startDate, PageRequest.of(0, 2)))
+                .thenReturn(List.of(1L, 2L), List.of(3L), List.of());
+        when(executionDeletionService.deleteExecutions(anyList())).thenReturn(10L, 5L);
 
         // Then
         purgeService.purgeExecutionsByProjectCode(projectCode);
         var executionIdsToDeleteArgumentCaptor = ArgumentCaptor.forClass(List.class);
-        verify(executionRepository).deleteAllByIdInBatch(executionIdsToDeleteArgumentCaptor.capture());
-        assertThat(executionIdsToDeleteArgumentCaptor.getValue()).containsExactlyInAnyOrder(executionId1, executionId2, executionId3);
+        verify(executionDeletionService, times(2)).deleteExecutions(executionIdsToDeleteArgumentCaptor.capture());
+        assertThat(executionIdsToDeleteArgumentCaptor.getAllValues()).containsExactly(List.of(1L, 2L), List.of(3L));
+        assertThat(meterRegistry.counter("ara.purge.executions.deleted").count()).isEqualTo(3);
+        assertThat(meterRegistry.counter("ara.purge.rows.deleted").count()).isEqualTo(15);
+        assertThat(meterRegistry.timer("ara.purge.chunk.duration").count()).isEqualTo(2);
+        verify(cycleLastExecutionsService).evict(projectId);
     }
 
     @Test
@@ -184,9 +201,7 @@ class PurgeServiceTest {
         var value1 = "1";
         var type1 = "anyDurationType1";
         var startDate1 = mock(Date.class);
-        Execution executionToDelete11 = mock(Execution.class);
         Long executionId11 = 11L;
-        List<Execution> executionsToDelete1 = List.of(executionToDelete11);
 
         // Project 2
         var project2 = mock(ProjectDTO.class);
@@ -195,11 +210,8 @@ class PurgeServiceTest {
         var value2 = "2";
         var type2 = "anyDurationType2";
         var startDate2 = mock(Date.class);
-        Execution executionToDelete21 = mock(Execution.class);
-        Execution executionToDelete22 = mock(Execution.class);
         Long executionId21 = 21L;
         Long executionId22 = 22L;
-        List<Execution> executionsToDelete2 = List.of(executionToDelete21, executionToDelete22);
 
         // Project 3
         var project3 = mock(ProjectDTO.class);
@@ -208,13 +220,9 @@ class PurgeServiceTest {
         var value3 = "3";
         var type3 = "anyDurationType3";
         var startDate3 = mock(Date.class);
-        Execution executionToDelete31 = mock(Execution.class);
-        Execution executionToDelete32 = mock(Execution.class);
-        Execution executionToDelete33 = mock(Execution.class);
         Long executionId31 = 31L;
         Long executionId32 = 32L;
         Long executionId33 = 33L;
-        List<Execution> executionsToDelete3 = List.of(executionToDelete31, executionToDelete32, executionToDelete33);
 
         // When
         when(projectService.findAll()).thenReturn(List.of(project1, project2, project3));
@@ -224,32 +232,29 @@ class PurgeServiceTest {
         when(settingService.get(projectId1, Settings.EXECUTION_PURGE_DURATION_VALUE)).thenReturn(value1);
         when(settingService.get(projectId1, Settings.EXECUTION_PURGE_DURATION_TYPE)).thenReturn(type1);
         when(dateService.getTodayDateMinusPeriod(1, type1)).thenReturn(Optional.of(startDate1));
-        when(executionRepository.findByCycleDefinitionProjectIdAndTestDateTimeBefore(projectId1, startDate1)).thenReturn(executionsToDelete1);
-        when(executionToDelete11.getId()).thenReturn(executionId11);
+        when(executionRepository.findIdsToPurge(eq(projectId1), eq(startDate1), any(Pageable.class)))
+                .thenReturn(List.of(executionId11), List.of());
 
         when(project2.getId()).thenReturn(projectId2);
         when(project2.getCode()).thenReturn(projectCode2);
         when(settingService.get(projectId2, Settings.EXECUTION_PURGE_DURATION_VALUE)).thenReturn(value2);
         when(settingService.get(projectId2, Settings.EXECUTION_PURGE_DURATION_TYPE)).thenReturn(type2);
         when(dateService.getTodayDateMinusPeriod(2, type2)).thenReturn(Optional.of(startDate2));
-        when(executionRepository.findByCycleDefinitionProjectIdAndTestDateTimeBefore(projectId2, startDate2)).thenReturn(executionsToDelete2);
-        when(executionToDelete21.getId()).thenReturn(executionId21);
-        when(executionToDelete22.getId()).thenReturn(executionId22);
+        when(executionRepository.findIdsToPurge(eq(projectId2), eq(startDate2), any(Pageable.class)))
+                .thenReturn(List.of(executionId21, executionId22), List.of());
 
         when(project3.getId()).thenReturn(projectId3);
         when(project3.getCode()).thenReturn(projectCode3);
         when(settingService.get(projectId3, Settings.EXECUTION_PURGE_DURATION_VALUE)).thenReturn(value3);
         when(settingService.get(projectId3, Settings.EXECUTION_PURGE_DURATION_TYPE)).thenReturn(type3);
         when(dateService.getTodayDateMinusPeriod(3, type3)).thenReturn(Optional.of(startDate3));
-        when(executionRepository.findByCycleDefinitionProjectIdAndTestDateTimeBefore(projectId3, startDate3)).thenReturn(executionsToDelete3);
-        when(executionToDelete31.getId()).thenReturn(executionId31);
-        when(executionToDelete32.getId()).thenReturn(executionId32);
-        when(executionToDelete33.getId()).thenReturn(executionId33);
+        when(executionRepository.findIdsToPurge(eq(projectId3), eq(startDate3), any(Pageable.class)))
+                .thenReturn(List.of(executionId31, executionId32, executionId33), List.of());
 
         // Then
         purgeService.purgeAllProjects();
         var executionIdsToDeleteArgumentCaptor = ArgumentCaptor.forClass(List.class);
-        verify(executionRepository, times(3)).deleteAllByIdInBatch(executionIdsToDeleteArgumentCaptor.capture());
+        verify(executionDeletionService, times(3)).deleteExecutions(executionIdsToDeleteArgumentCaptor.capture());
         assertThat(executionIdsToDeleteArgumentCaptor.getAllValues())
                 .hasSize(3)
                 .containsExactlyInAnyOrder(List.of(executionId11), List.of(executionId21, executionId22), List.of(executionId31, executionId32, executionId33));
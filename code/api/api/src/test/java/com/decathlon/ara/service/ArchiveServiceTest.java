@@ -22,6 +22,7 @@ import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.web.multipart.MultipartFile;
@@ -31,14 +32,21 @@ import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Date;
+import java.util.List;
+
+import com.decathlon.ara.configuration.AraConfiguration;
 
 @ExtendWith(MockitoExtension.class)
 class ArchiveServiceTest {
 
     private static final String ZIP_TYPE = "application/zip";
 
+    @Spy
+    private AraConfiguration araConfiguration = new AraConfiguration();
+
     @InjectMocks
     private ArchiveService cut;
 
@@ -75,7 +83,10 @@ class ArchiveServiceTest {
 
         // WHEN
         try {
-            this.cut.unzip(zipFile, targetDir);
+            List<Path> extractedFiles = this.cut.unzip(zipFile, targetDir);
+
+            // THEN
+            Assertions.assertThat(extractedFiles).isEmpty();
         } finally {
             FileUtils.deleteQuietly(targetDir);
         }
@@ -93,4 +104,34 @@ class ArchiveServiceTest {
             FileUtils.deleteQuietly(targetDir);
         }
     }
+
+    @Test
+    void unzip_ShouldReturnTheExtractedFiles_WhenUnzippingInParallel() throws IOException, URISyntaxException {
+        // GIVEN
+        File targetDir = new File(System.getProperty("java.io.tmpdir"),
+                "ara-unzip_ShouldReturnTheExtractedFiles_" + new Date().getTime());
+        Path root = targetDir.toPath().toAbsolutePath().normalize();
+        String zipName = "files-in-folders.zip";
+        URI zipURI = ClassLoader.getSystemResource("postman/" + zipName).toURI();
+        byte[] content = Files.readAllBytes(Paths.get(zipURI));
+        MultipartFile zipFile = new MockMultipartFile("zip", zipName, ZIP_TYPE, content);
+        AraConfiguration parallelConfiguration = new AraConfiguration();
+        parallelConfiguration.setUnzipParallelism(Integer.valueOf(4));
+        ArchiveService parallelCut = new ArchiveService(parallelConfiguration);
+
+        // WHEN
+        try {
+            List<Path> extractedFiles = parallelCut.unzip(zipFile, targetDir);
+
+            // THEN
+            Assertions.assertThat(extractedFiles).contains(
+                    root.resolve("root-file1.json"),
+                    root.resolve("folder/sub-file1.json"),
+                    root.resolve("folder/sub-folder/sub-sub-file2.json"));
+            Assertions.assertThat(extractedFiles).allMatch(Files::isRegularFile);
+        } finally {
+            parallelCut.shutdown();
+            FileUtils.deleteQuietly(targetDir);
+        }
+    }
 }
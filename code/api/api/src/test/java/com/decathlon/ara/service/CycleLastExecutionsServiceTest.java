@@ -0,0 +1,129 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.decathlon.ara.cache.InProcessCacheInvalidationBus;
+import com.decathlon.ara.domain.Execution;
+import com.decathlon.ara.repository.CycleDefinitionRepository;
+import com.decathlon.ara.repository.ExecutionRepository;
+import com.decathlon.ara.repository.custom.util.TransactionAppenderUtil;
+import com.decathlon.ara.service.CycleLastExecutionsService.CycleLastExecutions;
+import com.decathlon.ara.service.CycleLastExecutionsService.LastExecution;
+import com.decathlon.ara.util.factory.CycleDefinitionFactory;
+
+@ExtendWith(MockitoExtension.class)
+class CycleLastExecutionsServiceTest {
+
+    private static final long PROJECT_ID = 1;
+
+    @Mock
+    private CycleDefinitionRepository cycleDefinitionRepository;
+
+    @Mock
+    private ExecutionRepository executionRepository;
+
+    @Mock
+    private TransactionAppenderUtil transactionAppenderUtil;
+
+    private CycleLastExecutionsService cut;
+
+    @BeforeEach
+    void setUp() {
+        cut = new CycleLastExecutionsService(cycleDefinitionRepository, executionRepository,
+                new InProcessCacheInvalidationBus(transactionAppenderUtil));
+    }
+
+    @Test
+    void getLastExecutions_ShouldLoadTheLastExecutionsOfEachCycleOnlyOnce_WhenCalledTwice() {
+        // GIVEN
+        when(cycleDefinitionRepository.findAllByProjectIdOrderByBranchPositionAscBranchAscNameAsc(PROJECT_ID))
+                .thenReturn(List.of(
+                        CycleDefinitionFactory.get(Long.valueOf(1), PROJECT_ID, "develop", "day", 1),
+                        CycleDefinitionFactory.get(Long.valueOf(2), PROJECT_ID, "develop", "night", 1)));
+        when(executionRepository.findTop10ByCycleDefinitionProjectIdAndCycleDefinitionBranchAndCycleDefinitionNameOrderByTestDateTimeDesc(PROJECT_ID, "develop", "day"))
+                .thenReturn(List.of(execution(12, 2000), execution(11, 1000)));
+        when(executionRepository.findTop10ByCycleDefinitionProjectIdAndCycleDefinitionBranchAndCycleDefinitionNameOrderByTestDateTimeDesc(PROJECT_ID, "develop", "night"))
+                .thenReturn(Collections.emptyList());
+
+        // WHEN
+        cut.getLastExecutions(PROJECT_ID);
+        List<CycleLastExecutions> cycles = cut.getLastExecutions(PROJECT_ID);
+
+        // THEN
+        assertThat(cycles).extracting("branch", "name", "executions").containsExactly(
+                tuple("develop", "day", List.of(new LastExecution(Long.valueOf(12), new Date(2000)), new LastExecution(Long.valueOf(11), new Date(1000)))),
+                tuple("develop", "night", Collections.emptyList()));
+        verify(cycleDefinitionRepository).findAllByProjectIdOrderByBranchPositionAscBranchAscNameAsc(PROJECT_ID);
+    }
+
+    @Test
+    void getLastExecutions_ShouldReloadTheLastExecutions_WhenEvictedOutsideOfATransaction() {
+        // GIVEN
+        when(cycleDefinitionRepository.findAllByProjectIdOrderByBranchPositionAscBranchAscNameAsc(PROJECT_ID))
+                .thenReturn(Collections.emptyList());
+        cut.getLastExecutions(PROJECT_ID);
+
+        // WHEN
+        cut.evict(PROJECT_ID);
+        cut.getLastExecutions(PROJECT_ID);
+
+        // THEN
+        verify(cycleDefinitionRepository, times(2)).findAllByProjectIdOrderByBranchPositionAscBranchAscNameAsc(PROJECT_ID);
+    }
+
+    @Test
+    void getLastExecutions_ShouldNotCacheTheLastExecutions_WhenEvictedWhileLoadingThem() {
+        // GIVEN an indexation committed (and evicted) after the load read the cycles
+        when(cycleDefinitionRepository.findAllByProjectIdOrderByBranchPositionAscBranchAscNameAsc(PROJECT_ID))
+                .thenAnswer(invocation -> {
+                    cut.evict(PROJECT_ID);
+                    return Collections.emptyList();
+                });
+
+        // WHEN
+        cut.getLastExecutions(PROJECT_ID);
+        cut.getLastExecutions(PROJECT_ID);
+
+        // THEN the possibly stale executions of the first load are not kept
+        verify(cycleDefinitionRepository, times(2)).findAllByProjectIdOrderByBranchPositionAscBranchAscNameAsc(PROJECT_ID);
+    }
+
+    private static Execution execution(long id, long testDateTime) {
+        Execution execution = new Execution();
+        execution.setId(Long.valueOf(id));
+        execution.setTestDateTime(new Date(testDateTime));
+        return execution;
+    }
+
+}
@@ -24,6 +24,7 @@ import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -45,6 +46,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.context.ApplicationContext;
 
 import com.decathlon.ara.ci.util.FetchException;
+import com.decathlon.ara.cluster.ClusterCoordinator;
 import com.decathlon.ara.defect.DefectAdapter;
 import com.decathlon.ara.defect.bean.Defect;
 import com.decathlon.ara.domain.Problem;
@@ -56,6 +58,8 @@ import com.decathlon.ara.repository.ProjectRepository;
 import com.decathlon.ara.service.util.DateService;
 import com.decathlon.ara.util.TestUtil;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 @ExtendWith(MockitoExtension.class)
 class DefectServiceTest {
 
@@ -77,6 +81,15 @@ class DefectServiceTest {
     @Mock
     private DateService dateService;
 
+    @Mock
+    private RunHandlingCountsService runHandlingCountsService;
+
+    @Mock
+    private ClusterCoordinator clusterCoordinator;
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @Spy
     @InjectMocks
     private DefectService cut;
@@ -90,6 +103,18 @@ class DefectServiceTest {
     @Captor
     private ArgumentCaptor<List<String>> stringListArgument;
 
+    @Test
+    void updateStatuses_should_do_nothing_when_this_instance_is_not_the_leader() {
+        // GIVEN
+        when(clusterCoordinator.isLeader()).thenReturn(false);
+
+        // WHEN
+        cut.updateStatuses();
+
+        // THEN
+        verify(projectRepository, never()).findAllByOrderByName();
+    }
+
     @Test
     void updateStatuses_should_call_needFullIndexing_with_current_date_time() throws FetchException {
         // GIVEN
@@ -255,6 +280,7 @@ class DefectServiceTest {
         final List<Defect> statuses = Collections.singletonList(
                 new Defect("2", ProblemStatus.CLOSED, new Date()));
         when(defectAdapter.getStatuses(aProjectId, Arrays.asList("1", "2"))).thenReturn(statuses);
+        when(defectAdapter.getCode()).thenReturn("test");
         doNothing().when(cut).updateDefectAssignations(problemListArgument.capture(), defectListArgument.capture());
 
         // WHEN
@@ -263,6 +289,30 @@ class DefectServiceTest {
         // THEN
         assertThat(problemListArgument.getValue().stream().map(Problem::getDefectId)).containsExactly("1", "2");
         assertThat(defectListArgument.getValue()).isSameAs(statuses);
+        assertThat(meterRegistry.find("ara.defects.fetch").tag("adapter", "test").tag("operation", "statuses").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void fullIndexing_should_request_each_defect_once_even_if_assigned_to_several_problems() throws FetchException {
+        // GIVEN
+        final long aProjectId = 42;
+        Project project = project(Long.valueOf(aProjectId));
+        List<Problem> problemsWithDefects = Arrays.asList(
+                problem("1", null, null, null),
+                problem("2", null, null, null),
+                problem("1", null, null, null));
+        when(problemRepository.findAllByProjectIdAndDefectIdIsNotEmpty(aProjectId)).thenReturn(problemsWithDefects);
+        when(defectAdapter.getStatuses(eq(aProjectId), stringListArgument.capture())).thenReturn(Collections.emptyList());
+        when(defectAdapter.getCode()).thenReturn("test");
+        doNothing().when(cut).updateDefectAssignations(problemListArgument.capture(), defectListArgument.capture());
+
+        // WHEN
+        cut.fullIndex(project, defectAdapter);
+
+        // THEN
+        assertThat(stringListArgument.getValue()).containsExactly("1", "2");
+        assertThat(problemListArgument.getValue()).hasSize(3);
     }
 
     @Test
@@ -285,6 +335,7 @@ class DefectServiceTest {
                 new Defect("updated-open", ProblemStatus.OPEN, null),
                 new Defect("any2", ProblemStatus.CLOSED, closeDate),
                 new Defect("updated-closed", ProblemStatus.CLOSED, closeDate)));
+        when(defectAdapter.getCode()).thenReturn("test");
         doReturn(null).when(problemRepository).saveAll(problemListArgument.capture());
 
         // WHEN
@@ -299,6 +350,37 @@ class DefectServiceTest {
         assertThat(updatedClosedProblem.getDefectExistence()).isEqualTo(DefectExistence.EXISTS);
         assertThat(updatedClosedProblem.getStatus()).isEqualTo(ProblemStatus.CLOSED);
         assertThat(updatedClosedProblem.getClosingDateTime()).isEqualTo(closeDate);
+        assertThat(meterRegistry.find("ara.defects.fetch").tag("adapter", "test").tag("operation", "changes").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void incrementalIndex_should_update_all_problems_of_a_changed_defect() throws FetchException {
+        // GIVEN
+        final long aProjectId = 42;
+        Project project = project(Long.valueOf(aProjectId));
+        Date since = new Date();
+        final Problem firstProblem = problem("shared", null, null, null);
+        final Problem secondProblem = problem("shared", null, null, null);
+        List<Problem> problemsWithDefects = Arrays.asList(
+                firstProblem,
+                problem("not-updated", null, null, null),
+                secondProblem);
+        when(problemRepository.findAllByProjectIdAndDefectIdIsNotEmpty(aProjectId)).thenReturn(problemsWithDefects);
+        Date closeDate = new Date();
+        when(defectAdapter.getChangedDefects(eq(aProjectId), same(since))).thenReturn(Collections.singletonList(
+                new Defect("shared", ProblemStatus.CLOSED, closeDate)));
+        when(defectAdapter.getCode()).thenReturn("test");
+        doReturn(null).when(problemRepository).saveAll(problemListArgument.capture());
+
+        // WHEN
+        cut.incrementalIndex(project, defectAdapter, since);
+
+        // THEN
+        assertThat(problemListArgument.getValue()).containsExactly(firstProblem, secondProblem);
+        assertThat(firstProblem.getStatus()).isEqualTo(ProblemStatus.CLOSED);
+        assertThat(secondProblem.getStatus()).isEqualTo(ProblemStatus.CLOSED);
+        assertThat(secondProblem.getClosingDateTime()).isEqualTo(closeDate);
     }
 
     @Test
@@ -316,6 +398,7 @@ class DefectServiceTest {
         when(defectAdapter.getChangedDefects(eq(aProjectId), same(since))).thenReturn(Collections.emptyList());
         List<Defect> defectStatuses = Collections.emptyList();
         when(defectAdapter.getStatuses(eq(aProjectId), stringListArgument.capture())).thenReturn(defectStatuses);
+        when(defectAdapter.getCode()).thenReturn("test");
         doNothing().when(cut).updateDefectAssignations(problemListArgument.capture(), same(defectStatuses));
 
         // WHEN
@@ -1,25 +1,42 @@
 package com.decathlon.ara.service;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 
 import com.decathlon.ara.domain.Error;
+import com.decathlon.ara.domain.ExecutedScenario;
+import com.decathlon.ara.domain.Execution;
+import com.decathlon.ara.domain.Problem;
+import com.decathlon.ara.domain.ProblemOccurrence;
 import com.decathlon.ara.domain.ProblemPattern;
+import com.decathlon.ara.domain.Run;
 import com.decathlon.ara.repository.ErrorRepository;
+import com.decathlon.ara.repository.ProblemOccurrenceRepository;
+import com.decathlon.ara.repository.ProblemPatternRepository;
 import com.decathlon.ara.service.dto.error.ErrorWithExecutedScenarioAndRunAndExecutionDTO;
 import com.decathlon.ara.service.exception.NotFoundException;
 import com.decathlon.ara.service.mapper.GenericMapper;
+import com.decathlon.ara.util.TestUtil;
 
 @ExtendWith(MockitoExtension.class)
 class ErrorServiceTest {
@@ -28,7 +45,11 @@ class ErrorServiceTest {
 
     private GenericMapper mapper = mock(GenericMapper.class);
 
-    private ErrorService errorService = new ErrorService(errorRepository, null, null, null, null, null, null, mapper, null, null);
+    private ProblemOccurrenceRepository problemOccurrenceRepository = mock(ProblemOccurrenceRepository.class);
+
+    private ProblemPatternRepository problemPatternRepository = mock(ProblemPatternRepository.class);
+
+    private ErrorService errorService = new ErrorService(errorRepository, null, null, null, null, problemOccurrenceRepository, problemPatternRepository, null, mapper, null, "h2");
 
     @Test
     void getProblemErrors_returnNoErrors_whenNoErrorFound() throws NotFoundException {
@@ -82,4 +103,68 @@ class ErrorServiceTest {
         Assertions.assertEquals(result3, errors.getContent().get(2));
     }
 
+    @Test
+    void autoAssignProblemsToNewErrors_should_load_the_errors_once_and_save_all_matching_occurrences() {
+        // GIVEN
+        Problem problem1 = new Problem();
+        problem1.setName("Problem 1");
+        Problem problem2 = new Problem();
+        problem2.setName("Problem 2");
+        ProblemPattern pattern1 = pattern(problem1, "java.lang.NullPointerException");
+        ProblemPattern pattern2 = pattern(problem2, "java.lang.IllegalStateException");
+        ProblemPattern pattern3 = pattern(problem2, "java.lang.Null");
+        Error error1 = error(1, "java.lang.NullPointerException: null");
+        Error error2 = error(2, "java.lang.AssertionError: expected");
+        List<Long> errorIds = Arrays.asList(Long.valueOf(1), Long.valueOf(2));
+        when(problemPatternRepository.findAllByProjectId(42)).thenReturn(Arrays.asList(pattern1, pattern2, pattern3));
+        when(errorRepository.findAllForProblemMatching(42, errorIds)).thenReturn(Arrays.asList(error1, error2));
+
+        // WHEN
+        Set<Problem> updatedProblems = errorService.autoAssignProblemsToNewErrors(42, errorIds);
+
+        // THEN
+        assertThat(updatedProblems).containsExactlyInAnyOrder(problem1, problem2);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ProblemOccurrence>> occurrences = ArgumentCaptor.forClass(List.class);
+        verify(problemOccurrenceRepository).saveAll(occurrences.capture());
+        assertThat(occurrences.getValue())
+                .extracting(ProblemOccurrence::getError, ProblemOccurrence::getProblemPattern)
+                .containsExactlyInAnyOrder(
+                        tuple(error1, pattern1),
+                        tuple(error1, pattern3));
+        assertThat(occurrences.getValue()).allMatch(ProblemOccurrence::isNew);
+    }
+
+    @Test
+    void autoAssignProblemsToNewErrors_should_not_load_errors_when_the_project_has_no_pattern() {
+        // GIVEN
+        when(problemPatternRepository.findAllByProjectId(42)).thenReturn(Collections.emptyList());
+
+        // WHEN
+        Set<Problem> updatedProblems = errorService.autoAssignProblemsToNewErrors(42, Arrays.asList(Long.valueOf(1)));
+
+        // THEN
+        assertThat(updatedProblems).isEmpty();
+        verify(errorRepository, never()).findAllForProblemMatching(anyLong(), anyList());
+    }
+
+    private static ProblemPattern pattern(Problem problem, String exception) {
+        ProblemPattern pattern = new ProblemPattern();
+        pattern.setProblem(problem);
+        TestUtil.setField(pattern, "exception", exception);
+        return pattern;
+    }
+
+    private static Error error(long id, String exception) {
+        Run run = new Run();
+        run.setExecution(new Execution());
+        ExecutedScenario executedScenario = new ExecutedScenario();
+        executedScenario.setRun(run);
+        Error error = new Error();
+        TestUtil.setField(error, "id", Long.valueOf(id));
+        error.setExecutedScenario(executedScenario);
+        error.setException(exception);
+        return error;
+    }
+
 }
@@ -20,6 +20,8 @@ package com.decathlon.ara.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -34,6 +36,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -48,10 +52,13 @@ import com.decathlon.ara.ci.bean.PlatformRule;
 import com.decathlon.ara.ci.bean.QualityThreshold;
 import com.decathlon.ara.ci.service.QualityService;
 import com.decathlon.ara.ci.util.JsonParserConsumer;
+import com.decathlon.ara.configuration.AraConfiguration;
 import com.decathlon.ara.domain.Country;
 import com.decathlon.ara.domain.CycleDefinition;
+import com.decathlon.ara.domain.ExecutedScenario;
 import com.decathlon.ara.domain.Execution;
 import com.decathlon.ara.domain.ExecutionCompletionRequest;
+import com.decathlon.ara.domain.Run;
 import com.decathlon.ara.domain.Source;
 import com.decathlon.ara.domain.Type;
 import com.decathlon.ara.domain.enumeration.ExecutionAcceptance;
@@ -64,6 +71,7 @@ import com.decathlon.ara.repository.ExecutionCompletionRequestRepository;
 import com.decathlon.ara.repository.ExecutionRepository;
 import com.decathlon.ara.repository.ProjectRepository;
 import com.decathlon.ara.repository.TypeRepository;
+import com.decathlon.ara.scenario.common.indexer.ScenariosIndexer;
 import com.decathlon.ara.scenario.common.strategy.ScenariosIndexerStrategy;
 import com.decathlon.ara.service.support.Settings;
 import com.fasterxml.jackson.core.JsonParser;
@@ -115,6 +123,9 @@ class ExecutionFilesProcessorServiceTest {
     @Mock
     private FileProcessorService fileProcessorService;
 
+    @Mock
+    private AraConfiguration araConfiguration;
+
     @InjectMocks
     private ExecutionFilesProcessorService cut;
 
@@ -1782,4 +1793,94 @@ class ExecutionFilesProcessorServiceTest {
         verify(scenariosIndexerStrategy).getScenariosIndexer(Technology.POSTMAN);
     }
 
+    @Test
+    void getExecution_parseTypeFoldersConcurrentlyAndAddScenariosToTheirOwnRuns_whenParsingParallelismIsSet() {
+        // Given
+        PlannedIndexation plannedIndexation = mock(PlannedIndexation.class);
+        File executionFile = mock(File.class);
+        CycleDefinition cycleDefinition = mock(CycleDefinition.class);
+        CycleDef cycleDef = mock(CycleDef.class);
+        PlatformRule platformRule = mock(PlatformRule.class);
+        Country frCountry = mock(Country.class);
+        Type apiType = mock(Type.class);
+        Type webType = mock(Type.class);
+        Source source = mock(Source.class);
+        File frFolder = mock(File.class);
+        File apiTypeFolder = mock(File.class);
+        File webTypeFolder = mock(File.class);
+        ScenariosIndexer scenariosIndexer = mock(ScenariosIndexer.class);
+        AraConfiguration parallelConfiguration = mock(AraConfiguration.class);
+
+        ExecutedScenario apiScenario = new ExecutedScenario();
+        apiScenario.setName("API scenario");
+        ExecutedScenario webScenario = new ExecutedScenario();
+        webScenario.setName("Web scenario");
+        CountDownLatch bothParsingsStarted = new CountDownLatch(2);
+
+        // When
+        when(parallelConfiguration.getIndexingParsingParallelism()).thenReturn(2);
+        when(plannedIndexation.getExecutionFolder()).thenReturn(executionFile);
+        when(plannedIndexation.getCycleDefinition()).thenReturn(cycleDefinition);
+        when(cycleDefinition.getProjectId()).thenReturn(1L);
+        when(settingService.get(1L, Settings.EXECUTION_INDEXER_FILE_BUILD_INFORMATION_PATH)).thenReturn(BUILD_INFORMATION_FILE_NAME);
+        when(settingService.get(1L, Settings.EXECUTION_INDEXER_FILE_CYCLE_DEFINITION_PATH)).thenReturn(CYCLE_DEFINITION_FILE_NAME);
+        when(fileProcessorService.getMappedObjectFromFile(executionFile, BUILD_INFORMATION_FILE_NAME, Build.class))
+                .thenReturn(Optional.of(new Build("http://build.fr/execution", Result.SUCCESS, 1589200515000L)));
+        when(fileProcessorService.getMappedObjectFromFile(executionFile, CYCLE_DEFINITION_FILE_NAME, CycleDef.class)).thenReturn(Optional.of(cycleDef));
+        when(cycleDef.getPlatformsRules()).thenReturn(Map.of("integration", List.of(platformRule)));
+        when(platformRule.isEnabled()).thenReturn(true);
+        when(platformRule.getCountry()).thenReturn("fr");
+        when(platformRule.getTestTypes()).thenReturn("api,web");
+        when(countryRepository.findAllByProjectIdOrderByCode(1L)).thenReturn(List.of(frCountry));
+        when(typeRepository.findAllByProjectIdOrderByCode(1L)).thenReturn(List.of(apiType, webType));
+        when(frCountry.getCode()).thenReturn("fr");
+        when(apiType.getCode()).thenReturn("api");
+        when(apiType.getSource()).thenReturn(source);
+        when(webType.getCode()).thenReturn("web");
+        when(webType.getSource()).thenReturn(source);
+        when(source.getTechnology()).thenReturn(Technology.CUCUMBER);
+        when(scenariosIndexerStrategy.getScenariosIndexer(Technology.CUCUMBER)).thenReturn(Optional.of(scenariosIndexer));
+        when(executionFile.listFiles()).thenReturn(new File[] { frFolder });
+        when(frFolder.isDirectory()).thenReturn(true);
+        when(frFolder.getName()).thenReturn("fr");
+        when(frFolder.listFiles()).thenReturn(new File[] { apiTypeFolder, webTypeFolder });
+        when(apiTypeFolder.isDirectory()).thenReturn(true);
+        when(apiTypeFolder.getName()).thenReturn("api");
+        when(webTypeFolder.isDirectory()).thenReturn(true);
+        when(webTypeFolder.getName()).thenReturn("web");
+        doAnswer(invocation -> {
+            bothParsingsStarted.countDown();
+            // Would time out if the two type folders were parsed one after the other
+            return bothParsingsStarted.await(5, TimeUnit.SECONDS) ? List.of(apiScenario) : List.of();
+        }).when(scenariosIndexer).getExecutedScenarios(eq(apiTypeFolder), any(Run.class), eq(1L));
+        doAnswer(invocation -> {
+            bothParsingsStarted.countDown();
+            return bothParsingsStarted.await(5, TimeUnit.SECONDS) ? List.of(webScenario) : List.of();
+        }).when(scenariosIndexer).getExecutedScenarios(eq(webTypeFolder), any(Run.class), eq(1L));
+
+        ExecutionFilesProcessorService parallelCut = new ExecutionFilesProcessorService(settingService, objectMapper,
+                executionCompletionRequestRepository, executionRepository, countryRepository, typeRepository,
+                qualityService, scenariosIndexerStrategy, fileProcessorService, parallelConfiguration);
+
+        // Then
+        try {
+            Optional<Execution> execution = parallelCut.getExecution(plannedIndexation);
+            assertThat(execution).isNotEmpty();
+            assertThat(execution.get().getRuns())
+                    .hasSize(2)
+                    .extracting(run -> run.getType().getCode(), run -> run.getExecutedScenarios().size())
+                    .containsOnly(tuple("api", 1), tuple("web", 1));
+            assertThat(execution.get().getRuns())
+                    .filteredOn(run -> run.getType() == apiType)
+                    .flatExtracting(Run::getExecutedScenarios)
+                    .containsExactly(apiScenario);
+            assertThat(execution.get().getRuns())
+                    .filteredOn(run -> run.getType() == webType)
+                    .flatExtracting(Run::getExecutedScenarios)
+                    .containsExactly(webScenario);
+        } finally {
+            parallelCut.shutdown();
+        }
+    }
+
 }
@@ -18,11 +18,15 @@
 package com.decathlon.ara.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -30,14 +34,16 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import com.decathlon.ara.domain.projection.ExecutedScenarioWithErrorAndProblemJoin;
-import com.decathlon.ara.repository.ExecutedScenarioRepository;
+import com.decathlon.ara.domain.Execution;
+import com.decathlon.ara.domain.Run;
 import com.decathlon.ara.repository.ExecutionRepository;
 import com.decathlon.ara.repository.FunctionalityRepository;
+import com.decathlon.ara.service.dto.run.ExecutedScenarioGroupHandlingCountsDTO;
 import com.decathlon.ara.service.dto.run.ExecutedScenarioHandlingCountsDTO;
 import com.decathlon.ara.service.dto.run.RunDTO;
 import com.decathlon.ara.service.dto.run.RunWithQualitiesDTO;
 import com.decathlon.ara.util.TestUtil;
+import com.decathlon.ara.util.factory.CountryFactory;
 
 @ExtendWith(MockitoExtension.class)
 class ExecutionHistoryServiceTest {
@@ -46,7 +52,7 @@ class ExecutionHistoryServiceTest {
     private ExecutionRepository executionRepository;
 
     @Mock
-    private ExecutedScenarioRepository executedScenarioRepository;
+    private RunHandlingCountsService runHandlingCountsService;
 
     @Mock
     private FunctionalityRepository functionalityRepository;
@@ -66,13 +72,12 @@ class ExecutionHistoryServiceTest {
         String defaultSeverityCode = "medium";
         Map<Long, Long> functionalityTeamIds = new HashMap<>();
         functionalityTeamIds.put(Long.valueOf(1), Long.valueOf(11));
-        List<ExecutedScenarioWithErrorAndProblemJoin> allErrorCounts = Arrays.asList(
-                new ExecutedScenarioWithErrorAndProblemJoin(111, runId.longValue(), "medium", "Functionality 1: A Title", 1, 0),
-                new ExecutedScenarioWithErrorAndProblemJoin(112, runId.longValue(), "medium", "No functionality => no team", 1, 0),
-                new ExecutedScenarioWithErrorAndProblemJoin(111, 404, "medium", "From another run", 1, 0));
+        List<ExecutedScenarioGroupHandlingCountsDTO> countsOfRun = Arrays.asList(
+                counts("medium", Collections.singletonList(Long.valueOf(1)), 0, 1, 0),
+                counts("medium", Collections.emptyList(), 0, 1, 0)); // No functionality => no team
 
         // WHEN
-        cut.fillQualities(allErrorCounts, run, functionalityTeamIds, defaultSeverityCode);
+        cut.fillQualities(countsOfRun, run, functionalityTeamIds, defaultSeverityCode);
 
         // THEN
         assertThat(run.getQualitiesPerSeverity().get("medium").getTotal()).isEqualTo(2);
@@ -86,13 +91,13 @@ class ExecutionHistoryServiceTest {
     }
 
     @Test
-    void addScenario_should_increment_severity_and_global() {
+    void addScenarios_should_increment_severity_and_global() {
         // GIVEN
-        ExecutedScenarioWithErrorAndProblemJoin executedScenarioJoin = new ExecutedScenarioWithErrorAndProblemJoin(0, 0, "medium", null, 0, 0);
+        ExecutedScenarioGroupHandlingCountsDTO counts = counts("medium", Collections.emptyList(), 1, 0, 0);
         Map<String, ExecutedScenarioHandlingCountsDTO> qualitiesPerSeverity = new HashMap<>();
 
         // WHEN
-        cut.addScenario(executedScenarioJoin, qualitiesPerSeverity, "medium");
+        cut.addScenarios(counts, qualitiesPerSeverity, "medium");
 
         // THEN
         assertThat(qualitiesPerSeverity.size()).isEqualTo(2);
@@ -103,13 +108,13 @@ class ExecutionHistoryServiceTest {
     }
 
     @Test
-    void addScenario_should_increment_severity_and_global_for_default_severity() {
+    void addScenarios_should_increment_severity_and_global_for_default_severity() {
         // GIVEN
-        ExecutedScenarioWithErrorAndProblemJoin executedScenarioJoin = new ExecutedScenarioWithErrorAndProblemJoin(0, 0, "", null, 0, 0);
+        ExecutedScenarioGroupHandlingCountsDTO counts = counts("", Collections.emptyList(), 1, 0, 0);
         Map<String, ExecutedScenarioHandlingCountsDTO> qualitiesPerSeverity = new HashMap<>();
 
         // WHEN
-        cut.addScenario(executedScenarioJoin, qualitiesPerSeverity, "medium");
+        cut.addScenarios(counts, qualitiesPerSeverity, "medium");
 
         // THEN
         assertThat(qualitiesPerSeverity.size()).isEqualTo(2);
@@ -120,48 +125,57 @@ class ExecutionHistoryServiceTest {
     }
 
     @Test
-    void addScenarioForSeverity_should_increment_total_and_passed_for_succeed_scenario() {
+    void addScenariosForSeverity_should_add_all_handling_counts() {
         // GIVEN
-        ExecutedScenarioWithErrorAndProblemJoin executedScenarioJoin = new ExecutedScenarioWithErrorAndProblemJoin();
         Map<String, ExecutedScenarioHandlingCountsDTO> qualitiesPerSeverity = new HashMap<>();
 
         // WHEN
-        cut.addScenarioForSeverity(executedScenarioJoin, qualitiesPerSeverity, "medium");
+        cut.addScenariosForSeverity(counts(null, Collections.emptyList(), 1, 2, 3), qualitiesPerSeverity, "medium");
+        cut.addScenariosForSeverity(counts(null, Collections.emptyList(), 10, 20, 30), qualitiesPerSeverity, "medium");
 
         // THEN
         assertThat(qualitiesPerSeverity.size()).isEqualTo(1);
-        assertThat(qualitiesPerSeverity.get("medium").getTotal()).isEqualTo(1);
-        assertThat(qualitiesPerSeverity.get("medium").getPassed()).isEqualTo(1);
+        assertThat(qualitiesPerSeverity.get("medium").getTotal()).isEqualTo(66);
+        assertThat(qualitiesPerSeverity.get("medium").getPassed()).isEqualTo(11);
+        assertThat(qualitiesPerSeverity.get("medium").getUnhandled()).isEqualTo(22);
+        assertThat(qualitiesPerSeverity.get("medium").getHandled()).isEqualTo(33);
     }
 
     @Test
-    void addScenarioForSeverity_should_increment_total_and_unhandled_for_failed_scenario_without_problem() {
+    void getExecutedScenarioHandlingCountsFor_should_compute_and_store_the_counts_of_runs_not_materialized_yet() {
         // GIVEN
-        ExecutedScenarioWithErrorAndProblemJoin executedScenarioJoin = new ExecutedScenarioWithErrorAndProblemJoin(0, 0, null, null, 1, 0);
-        Map<String, ExecutedScenarioHandlingCountsDTO> qualitiesPerSeverity = new HashMap<>();
+        Execution execution = new Execution();
+        Run storedRun = new Run();
+        storedRun.setId(Long.valueOf(1));
+        storedRun.setCountry(CountryFactory.get("be"));
+        Run missingRun = new Run();
+        missingRun.setId(Long.valueOf(2));
+        missingRun.setCountry(CountryFactory.get("nl"));
+        execution.addRun(storedRun);
+        execution.addRun(missingRun);
+        Map<Long, List<ExecutedScenarioGroupHandlingCountsDTO>> storedCounts = new HashMap<>();
+        storedCounts.put(Long.valueOf(1), Collections.singletonList(counts("high", Collections.emptyList(), 1, 2, 3)));
+        Map<Long, List<ExecutedScenarioGroupHandlingCountsDTO>> computedCounts = new HashMap<>();
+        computedCounts.put(Long.valueOf(2), Collections.singletonList(counts("low", Collections.emptyList(), 10, 20, 30)));
+        when(runHandlingCountsService.findCounts(Set.of(Long.valueOf(1), Long.valueOf(2)))).thenReturn(storedCounts);
+        when(runHandlingCountsService.computeCounts(Set.of(Long.valueOf(2)))).thenReturn(computedCounts);
 
         // WHEN
-        cut.addScenarioForSeverity(executedScenarioJoin, qualitiesPerSeverity, "medium");
+        ExecutedScenarioHandlingCountsDTO counts = cut.getExecutedScenarioHandlingCountsFor(execution);
 
         // THEN
-        assertThat(qualitiesPerSeverity.size()).isEqualTo(1);
-        assertThat(qualitiesPerSeverity.get("medium").getTotal()).isEqualTo(1);
-        assertThat(qualitiesPerSeverity.get("medium").getUnhandled()).isEqualTo(1);
+        assertThat(counts.getPassed()).isEqualTo(11);
+        assertThat(counts.getUnhandled()).isEqualTo(22);
+        assertThat(counts.getHandled()).isEqualTo(33);
+        verify(runHandlingCountsService).saveCounts(computedCounts);
     }
 
-    @Test
-    void addScenarioForSeverity_should_increment_total_and_handled_for_failed_scenario_with_problem() {
-        // GIVEN
-        ExecutedScenarioWithErrorAndProblemJoin executedScenarioJoin = new ExecutedScenarioWithErrorAndProblemJoin(0, 0, null, null, 2, 1);
-        Map<String, ExecutedScenarioHandlingCountsDTO> qualitiesPerSeverity = new HashMap<>();
-
-        // WHEN
-        cut.addScenarioForSeverity(executedScenarioJoin, qualitiesPerSeverity, "medium");
-
-        // THEN
-        assertThat(qualitiesPerSeverity.size()).isEqualTo(1);
-        assertThat(qualitiesPerSeverity.get("medium").getTotal()).isEqualTo(1);
-        assertThat(qualitiesPerSeverity.get("medium").getHandled()).isEqualTo(1);
+    private static ExecutedScenarioGroupHandlingCountsDTO counts(String severity, List<Long> functionalityIds, int passed, int unhandled, int handled) {
+        ExecutedScenarioGroupHandlingCountsDTO counts = new ExecutedScenarioGroupHandlingCountsDTO(severity, functionalityIds);
+        counts.setPassed(passed);
+        counts.setUnhandled(unhandled);
+        counts.setHandled(handled);
+        return counts;
     }
 
 }
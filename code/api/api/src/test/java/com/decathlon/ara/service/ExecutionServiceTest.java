@@ -24,20 +24,22 @@ import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.apache.commons.io.FileUtils;
 import org.junit.jupiter.api.Test;
@@ -50,7 +52,9 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.decathlon.ara.ci.bean.PlannedIndexation;
 import com.decathlon.ara.ci.service.ExecutionIndexerService;
+import com.decathlon.ara.ci.service.ExecutionIndexingEngine;
 import com.decathlon.ara.domain.CycleDefinition;
 import com.decathlon.ara.domain.Execution;
 import com.decathlon.ara.domain.ExecutionCompletionRequest;
@@ -60,6 +64,7 @@ import com.decathlon.ara.repository.CycleDefinitionRepository;
 import com.decathlon.ara.repository.ExecutionCompletionRequestRepository;
 import com.decathlon.ara.repository.ExecutionRepository;
 import com.decathlon.ara.repository.FunctionalityRepository;
+import com.decathlon.ara.scenario.common.service.ExecutedScenarioService;
 import com.decathlon.ara.service.mapper.GenericMapper;
 import com.decathlon.ara.service.support.Settings;
 import com.decathlon.ara.util.factory.CycleDefinitionFactory;
@@ -99,7 +104,10 @@ class ExecutionServiceTest {
     private FeatureService featureService;
 
     @Mock
-    private ProblemService problemService;
+    private ExecutionIndexingEngine executionIndexingEngine;
+
+    @Mock
+    private ExecutedScenarioService executedScenarioService;
 
     @Spy
     @InjectMocks
@@ -390,7 +398,28 @@ class ExecutionServiceTest {
 
         // Then
         cut.uploadExecutionReport(projectId, projectCode, branch, cycle, zip);
-        verify(cut).launchExecutionDirectoriesProcessingThread(anyLong(), anyList(), any(CycleDefinition.class));
+        verify(cut).queueExecutionDirectoriesProcessing(anyLong(), anyList(), any(CycleDefinition.class));
+    }
+
+    @Test
+    void queueExecutionDirectoriesProcessing_should_submit_each_directory_to_the_indexing_engine() {
+        // Given
+        CycleDefinition cycleDefinition = CycleDefinitionFactory.get(1L, 23L, "master", "day", 1);
+        File firstDirectory = new File("/opt/executions/123");
+        File secondDirectory = new File("/opt/executions/456");
+        ArgumentCaptor<PlannedIndexation> plannedIndexations = ArgumentCaptor.forClass(PlannedIndexation.class);
+
+        // When
+        cut.queueExecutionDirectoriesProcessing(23L, List.of(firstDirectory, secondDirectory), cycleDefinition);
+
+        // Then
+        verify(executionIndexingEngine, times(2)).submit(plannedIndexations.capture(), any(Runnable.class));
+        assertThat(plannedIndexations.getAllValues())
+                .extracting(PlannedIndexation::getExecutionFolder)
+                .containsExactly(firstDirectory, secondDirectory);
+        assertThat(plannedIndexations.getAllValues())
+                .extracting(PlannedIndexation::getCycleDefinition)
+                .containsOnly(cycleDefinition);
     }
 
     @Test
@@ -411,20 +440,19 @@ class ExecutionServiceTest {
         // GIVEN
         File target = new File(System.getProperty("java.io.tmpdir"), "ara-unzipExecutions-" +
                 new Date().getTime());
-        target.mkdir(); // Will log in warning level due to the fact that cut will try to recreate it.
-        new File(target, "tmp").createNewFile(); // To make the directory not empty.
         MultipartFile file = new MockMultipartFile("zip", "test.zip", "application/zip", new byte[0]);
-        doNothing().when(archiveService).unzip(file, target);
+        List<Path> extractedFiles = List.of(target.toPath().resolve("123/buildInformation.json"));
+        doReturn(extractedFiles).when(archiveService).unzip(file, target);
         List<File> executions = new ArrayList<>();
-        executions.add(new File(target, "execution1"));
-        doReturn(executions).when(cut).retrieveAllExecutionDirectories(target, "buildInformation.json");
+        executions.add(new File(target, "123"));
+        doReturn(executions).when(cut).retrieveAllExecutionDirectories(target, extractedFiles, "buildInformation.json");
         try {
             // WHEN
             List<File> files = this.cut.unzipExecutions(target, file, "buildInformation.json");
             // THEN
             verify(archiveService).unzip(file, target);
             assertThat(files).hasSize(1);
-            assertThat(files.get(0)).isEqualTo(new File(target, "execution1"));
+            assertThat(files.get(0)).isEqualTo(new File(target, "123"));
         } finally {
             FileUtils.deleteQuietly(target);
         }
@@ -449,60 +477,45 @@ class ExecutionServiceTest {
     @Test
     void retrieveAllExecutionDirectories_should_return_the_current_directory() {
         // GIVEN
-        File directory = new File(System.getProperty("java.io.tmpdir"), "ara-retrieveAllExeDir-" +
-                new Date().getTime());
-        directory.mkdir();
-        doReturn(true).when(this.cut).isExecutionDirectory(directory, "buildInformation.json");
-        File subdir = new File(directory, "subdir");
-        subdir.mkdir();
+        File directory = new File("/opt/incoming/1666098000000");
+        Path root = directory.toPath().toAbsolutePath().normalize();
+        List<Path> extractedFiles = List.of(
+                root.resolve("buildInformation.json"),
+                root.resolve("subdir/report.json"));
         // WHEN
-        List<File> paths = cut.retrieveAllExecutionDirectories(directory, "buildInformation.json");
-        FileUtils.deleteQuietly(directory);
+        List<File> paths = cut.retrieveAllExecutionDirectories(directory, extractedFiles, "buildInformation.json");
         // THEN
-        assertThat(paths).hasSize(1);
-        assertThat(paths.get(0)).isEqualTo(directory);
+        assertThat(paths).containsExactly(directory);
     }
 
     @Test
     void retrieveAllExecutionDirectories_should_return_sub_directories() {
         // GIVEN
-        File directory = new File(System.getProperty("java.io.tmpdir"), "ara-retrieveAllExeDirSubDir-" +
-                new Date().getTime());
-        directory.mkdir();
-        doReturn(false).when(this.cut).isExecutionDirectory(directory, "buildInformation.json");
-        File subdir1 = new File(directory, "subdir1");
-        subdir1.mkdir();
-        doReturn(true).when(this.cut).isExecutionDirectory(subdir1, "buildInformation.json");
-        File subdir2 = new File(directory, "subdir2");
-        subdir2.mkdir();
-        doReturn(false).when(this.cut).isExecutionDirectory(subdir2, "buildInformation.json");
-        File subdir3 = new File(directory, "subdir3");
-        subdir3.mkdir();
-        doReturn(true).when(this.cut).isExecutionDirectory(subdir3, "buildInformation.json");
+        File directory = new File("/opt/incoming");
+        Path root = directory.toPath().toAbsolutePath().normalize();
+        List<Path> extractedFiles = List.of(
+                root.resolve("123/buildInformation.json"),
+                root.resolve("123/fr/api/result.json"),
+                root.resolve("456/fr/api/result.json"),
+                root.resolve("not_a_timestamp/buildInformation.json"),
+                root.resolve("789/buildInformation.json"),
+                root.resolve("root-file.json"));
         // WHEN
-        List<File> paths = cut.retrieveAllExecutionDirectories(directory, "buildInformation.json");
-        FileUtils.deleteQuietly(directory);
+        List<File> paths = cut.retrieveAllExecutionDirectories(directory, extractedFiles, "buildInformation.json");
         // THEN
-        assertThat(paths).hasSize(2);
-        assertThat(paths).containsOnly(subdir1, subdir3);
+        assertThat(paths).containsExactly(root.resolve("123").toFile(), root.resolve("789").toFile());
     }
 
     @Test
     void retrieveAllExecutionDirectories_should_return_empty_if_not_an_execution_directory() {
         // GIVEN
-        File directory = new File(System.getProperty("java.io.tmpdir"), "ara-retrieveAllExeDir-" +
-                new Date().getTime());
-        directory.mkdir();
-        doReturn(false).when(this.cut).isExecutionDirectory(directory, "buildInformation.json");
-        File subdir1 = new File(directory, "subdir1");
-        subdir1.mkdir();
-        doReturn(false).when(this.cut).isExecutionDirectory(subdir1, "buildInformation.json");
-        File subdir2 = new File(directory, "subdir2");
-        subdir2.mkdir();
-        doReturn(false).when(this.cut).isExecutionDirectory(subdir2, "buildInformation.json");
+        File directory = new File("/opt/incoming");
+        Path root = directory.toPath().toAbsolutePath().normalize();
+        List<Path> extractedFiles = List.of(
+                root.resolve("subdir1/buildInformation.json"),
+                root.resolve("456/fr/api/result.json"));
         // WHEN
-        List<File> paths = cut.retrieveAllExecutionDirectories(directory, "buildInformation.json");
-        FileUtils.deleteQuietly(directory);
+        List<File> paths = cut.retrieveAllExecutionDirectories(directory, extractedFiles, "buildInformation.json");
         // THEN
         assertThat(paths).isEmpty();
     }
@@ -510,76 +523,54 @@ class ExecutionServiceTest {
     @Test
     void retrieveAllExecutionDirectories_should_return_empty_if_is_empty() {
         // GIVEN
-        File directory = new File(System.getProperty("java.io.tmpdir"), "ara-retrieveAllExeDir-" +
-                new Date().getTime());
-        directory.mkdir();
+        File directory = new File("/opt/incoming");
         // WHEN
-        List<File> paths = cut.retrieveAllExecutionDirectories(directory, "buildInformation.json");
-        FileUtils.deleteQuietly(directory);
+        List<File> paths = cut.retrieveAllExecutionDirectories(directory, List.of(), "buildInformation.json");
         // THEN
         assertThat(paths).isEmpty();
     }
 
     @Test
-    void isExecutionDirectory_should_return_true() throws IOException {
+    void isExecutionDirectory_should_return_true() {
         // Given
-        String timestamp = String.valueOf(new Date().getTime());
-        File directory = new File(System.getProperty("java.io.tmpdir"), timestamp);
-        directory.mkdirs();
-        try {
-            new File(directory, "buildInformation.json").createNewFile();
-            // When
-            boolean result = cut.isExecutionDirectory(directory, "buildInformation.json");
-            // Then
-            assertThat(result).isTrue();
-        } finally {
-            FileUtils.deleteQuietly(directory);
-        }
+        Path directory = Path.of("/opt/incoming/1666098000000");
+        Set<Path> extractedFiles = Set.of(directory.resolve("buildInformation.json"));
+        // When
+        boolean result = cut.isExecutionDirectory(directory, extractedFiles, "buildInformation.json");
+        // Then
+        assertThat(result).isTrue();
     }
 
     @Test
-    void isExecutionDirectory_should_return_false_if_its_not_a_directory() throws IOException {
-        File test = new File(System.getProperty("java.io.tmpdir"), "buildInformation.json");
-        try {
-            test.createNewFile();
-            // When
-            boolean result = cut.isExecutionDirectory(test, "buildInformation.json");
-            // Then
-            assertThat(result).isFalse();
-        } finally {
-            FileUtils.deleteQuietly(test);
-        }
+    void isExecutionDirectory_should_return_true_if_buildInformation_is_in_a_sub_directory() {
+        // Given
+        Path directory = Path.of("/opt/incoming/1666098000000");
+        Set<Path> extractedFiles = Set.of(directory.resolve("build/buildInformation.json"));
+        // When
+        boolean result = cut.isExecutionDirectory(directory, extractedFiles, "./build/buildInformation.json");
+        // Then
+        assertThat(result).isTrue();
     }
 
     @Test
-    void isExecutionDirectory_should_return_false_if_name_is_not_a_timestamp() throws IOException {
+    void isExecutionDirectory_should_return_false_if_name_is_not_a_timestamp() {
         // Given
-        File directory = new File(System.getProperty("java.io.tmpdir"), "not_a_timestamp");
-        directory.mkdirs();
-        try {
-            new File(directory, "buildInformation.json").createNewFile();
-            // When
-            boolean result = cut.isExecutionDirectory(directory, "buildInformation.json");
-            // Then
-            assertThat(result).isFalse();
-        } finally {
-            FileUtils.deleteQuietly(directory);
-        }
+        Path directory = Path.of("/opt/incoming/not_a_timestamp");
+        Set<Path> extractedFiles = Set.of(directory.resolve("buildInformation.json"));
+        // When
+        boolean result = cut.isExecutionDirectory(directory, extractedFiles, "buildInformation.json");
+        // Then
+        assertThat(result).isFalse();
     }
 
     @Test
     void isExecutionDirectory_should_return_false_if_dont_contains_buildInformation() {
         // Given
-        String timestamp = String.valueOf(new Date().getTime());
-        File directory = new File(System.getProperty("java.io.tmpdir"), timestamp);
-        directory.mkdirs();
-        try {
-            // When
-            boolean result = cut.isExecutionDirectory(directory, "buildInformation.json");
-            // Then
-            assertThat(result).isFalse();
-        } finally {
-            FileUtils.deleteQuietly(directory);
-        }
+        Path directory = Path.of("/opt/incoming/1666098000000");
+        Set<Path> extractedFiles = Set.of(directory.resolve("fr/api/result.json"));
+        // When
+        boolean result = cut.isExecutionDirectory(directory, extractedFiles, "buildInformation.json");
+        // Then
+        assertThat(result).isFalse();
     }
 }
@@ -46,6 +46,7 @@ import org.springframework.data.domain.Sort.Order;
 
 import com.decathlon.ara.Entities;
 import com.decathlon.ara.Messages;
+import com.decathlon.ara.cache.JpaCacheInvalidationService;
 import com.decathlon.ara.ci.util.FetchException;
 import com.decathlon.ara.defect.DefectAdapter;
 import com.decathlon.ara.defect.bean.Defect;
@@ -53,13 +54,10 @@ import com.decathlon.ara.domain.Problem;
 import com.decathlon.ara.domain.ProblemPattern;
 import com.decathlon.ara.domain.enumeration.DefectExistence;
 import com.decathlon.ara.domain.enumeration.ProblemStatus;
-import com.decathlon.ara.repository.CycleDefinitionRepository;
-import com.decathlon.ara.repository.ExecutionRepository;
 import com.decathlon.ara.repository.ProblemPatternRepository;
 import com.decathlon.ara.repository.ProblemRepository;
 import com.decathlon.ara.repository.RootCauseRepository;
-import com.decathlon.ara.repository.custom.util.JpaCacheManager;
-import com.decathlon.ara.repository.custom.util.TransactionAppenderUtil;
+import com.decathlon.ara.repository.StoredProblemAggregateRepository;
 import com.decathlon.ara.service.dto.error.ErrorWithExecutedScenarioAndRunAndExecutionDTO;
 import com.decathlon.ara.service.dto.problem.ProblemDTO;
 import com.decathlon.ara.service.exception.BadRequestException;
@@ -80,10 +78,10 @@ class ProblemServiceTest {
     private ProblemPatternRepository problemPatternRepository;
 
     @Mock
-    private ExecutionRepository executionRepository;
+    private StoredProblemAggregateRepository storedProblemAggregateRepository;
 
     @Mock
-    private CycleDefinitionRepository cycleDefinitionRepository;
+    private CycleLastExecutionsService cycleLastExecutionsService;
 
     @Mock
     private RootCauseRepository rootCauseRepository;
@@ -113,10 +111,10 @@ class ProblemServiceTest {
     private GenericMapper mapper;
 
     @Mock
-    private JpaCacheManager jpaCacheManager;
+    private RunHandlingCountsService runHandlingCountsService;
 
     @Mock
-    private TransactionAppenderUtil transactionService;
+    private JpaCacheInvalidationService jpaCacheInvalidationService;
 
     @InjectMocks
     private ProblemService cut;
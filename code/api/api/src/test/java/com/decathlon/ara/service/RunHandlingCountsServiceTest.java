@@ -0,0 +1,115 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.decathlon.ara.domain.RunHandlingCounts;
+import com.decathlon.ara.domain.projection.ExecutedScenarioWithErrorAndProblemJoin;
+import com.decathlon.ara.repository.ExecutedScenarioRepository;
+import com.decathlon.ara.repository.RunHandlingCountsRepository;
+import com.decathlon.ara.service.dto.run.ExecutedScenarioGroupHandlingCountsDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@ExtendWith(MockitoExtension.class)
+class RunHandlingCountsServiceTest {
+
+    @Mock
+    private RunHandlingCountsRepository runHandlingCountsRepository;
+
+    @Mock
+    private ExecutedScenarioRepository executedScenarioRepository;
+
+    @Test
+    void aggregate_should_count_scenarios_by_run_severity_and_functionalities() {
+        // GIVEN
+        List<ExecutedScenarioWithErrorAndProblemJoin> executedScenarioJoins = Arrays.asList(
+                new ExecutedScenarioWithErrorAndProblemJoin(1, 8, "medium", "Functionalities 2 & 1: Passed", 0, 0),
+                new ExecutedScenarioWithErrorAndProblemJoin(2, 8, "medium", "Functionalities 1 & 2: Unhandled", 1, 0),
+                new ExecutedScenarioWithErrorAndProblemJoin(3, 8, "medium", "Functionality 1,2: Handled", 2, 1),
+                new ExecutedScenarioWithErrorAndProblemJoin(4, 8, null, "No functionality", 0, 0),
+                new ExecutedScenarioWithErrorAndProblemJoin(5, 9, "medium", "Functionality 1: From another run", 1, 0));
+
+        // WHEN
+        Map<Long, List<ExecutedScenarioGroupHandlingCountsDTO>> countsByRunId = RunHandlingCountsService.aggregate(executedScenarioJoins);
+
+        // THEN
+        assertThat(countsByRunId.get(Long.valueOf(8)))
+                .extracting("severity", "functionalityIds", "passed", "unhandled", "handled")
+                .containsExactly(
+                        tuple("medium", Arrays.asList(Long.valueOf(1), Long.valueOf(2)), 1, 1, 1),
+                        tuple(null, Collections.emptyList(), 1, 0, 0));
+        assertThat(countsByRunId.get(Long.valueOf(9)))
+                .extracting("severity", "functionalityIds", "passed", "unhandled", "handled")
+                .containsExactly(tuple("medium", Collections.singletonList(Long.valueOf(1)), 0, 1, 0));
+    }
+
+    @Test
+    void computeCounts_should_return_empty_counts_for_runs_without_scenarios() {
+        // GIVEN
+        RunHandlingCountsService cut = new RunHandlingCountsService(runHandlingCountsRepository, executedScenarioRepository, new ObjectMapper());
+        Set<Long> runIds = Set.of(Long.valueOf(8), Long.valueOf(9));
+        when(executedScenarioRepository.findAllErrorAndProblemCounts(runIds)).thenReturn(Collections.singletonList(
+                new ExecutedScenarioWithErrorAndProblemJoin(1, 8, "medium", "Functionality 1: Title", 0, 0)));
+
+        // WHEN
+        Map<Long, List<ExecutedScenarioGroupHandlingCountsDTO>> countsByRunId = cut.computeCounts(runIds);
+
+        // THEN
+        assertThat(countsByRunId.get(Long.valueOf(8))).hasSize(1);
+        assertThat(countsByRunId.get(Long.valueOf(9))).isEmpty();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void findCounts_should_read_the_counts_saved_by_refreshCounts() {
+        // GIVEN
+        RunHandlingCountsService cut = new RunHandlingCountsService(runHandlingCountsRepository, executedScenarioRepository, new ObjectMapper());
+        Set<Long> runIds = Set.of(Long.valueOf(8));
+        when(executedScenarioRepository.findAllErrorAndProblemCounts(runIds)).thenReturn(Collections.singletonList(
+                new ExecutedScenarioWithErrorAndProblemJoin(1, 8, "medium", "Functionality 1: Title", 1, 0)));
+        ArgumentCaptor<List<RunHandlingCounts>> savedEntities = ArgumentCaptor.forClass(List.class);
+        cut.refreshCounts(runIds);
+        verify(runHandlingCountsRepository).saveAll(savedEntities.capture());
+        when(runHandlingCountsRepository.findAllByRunIdIn(runIds)).thenReturn(savedEntities.getValue());
+
+        // WHEN
+        Map<Long, List<ExecutedScenarioGroupHandlingCountsDTO>> countsByRunId = cut.findCounts(runIds);
+
+        // THEN
+        assertThat(countsByRunId.get(Long.valueOf(8)))
+                .extracting("severity", "functionalityIds", "passed", "unhandled", "handled")
+                .containsExactly(tuple("medium", Collections.singletonList(Long.valueOf(1)), 0, 1, 0));
+    }
+
+}
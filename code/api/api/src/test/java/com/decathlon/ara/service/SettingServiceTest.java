@@ -36,6 +36,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -45,6 +46,7 @@ import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import com.decathlon.ara.cache.CacheInvalidationBus;
 import com.decathlon.ara.domain.Setting;
 import com.decathlon.ara.repository.SettingRepository;
 import com.decathlon.ara.service.dto.setting.SettingDTO;
@@ -65,6 +67,9 @@ class SettingServiceTest {
     @Mock
     private SettingProviderService settingProviderService;
 
+    @Mock
+    private CacheInvalidationBus cacheInvalidationBus;
+
     @Spy
     @InjectMocks
     private SettingService cut;
@@ -91,7 +96,7 @@ class SettingServiceTest {
         // GIVEN
         Map<String, String> values = new HashMap<>();
         values.put("code", "value");
-        doReturn(values).when(cut).getValues(A_PROJECT_ID);
+        when(repository.getProjectSettings(A_PROJECT_ID)).thenReturn(values);
 
         // WHEN
         final String value = cut.get(A_PROJECT_ID, "code");
@@ -105,8 +110,8 @@ class SettingServiceTest {
         // GIVEN
         Map<String, String> values = new HashMap<>();
         values.put("code", "");
-        doReturn(values).when(cut).getValues(A_PROJECT_ID);
-        when(settingProviderService.getDefinitions(eq(A_PROJECT_ID), same(values))).thenReturn(
+        when(repository.getProjectSettings(A_PROJECT_ID)).thenReturn(values);
+        when(settingProviderService.getDefinitions(eq(A_PROJECT_ID), eq(values))).thenReturn(
                 Collections.singletonList(new SettingGroupDTO(null, Collections.singletonList(
                         new SettingDTO.SettingDTOBuilder()
                                 .withCode("code")
@@ -123,8 +128,8 @@ class SettingServiceTest {
     void get_ShouldReturnDefaultValue_WhenValueIsAbsentInDatabase() {
         // GIVEN
         Map<String, String> values = new HashMap<>();
-        doReturn(values).when(cut).getValues(A_PROJECT_ID);
-        when(settingProviderService.getDefinitions(eq(A_PROJECT_ID), same(values))).thenReturn(
+        when(repository.getProjectSettings(A_PROJECT_ID)).thenReturn(values);
+        when(settingProviderService.getDefinitions(eq(A_PROJECT_ID), eq(values))).thenReturn(
                 Collections.singletonList(new SettingGroupDTO(null, Collections.singletonList(
                         new SettingDTO.SettingDTOBuilder()
                                 .withCode("code")
@@ -137,6 +142,33 @@ class SettingServiceTest {
         assertThat(value).isEqualTo("default-value");
     }
 
+    @Test
+    void get_ShouldResolveDefinitionsOnlyOnce_WhenCalledSeveralTimesForAProject() {
+        // GIVEN
+        Map<String, String> values = new HashMap<>();
+        values.put("int", "42");
+        values.put("list", "a,b");
+        when(repository.getProjectSettings(A_PROJECT_ID)).thenReturn(values);
+        when(settingProviderService.getDefinitions(eq(A_PROJECT_ID), eq(values))).thenReturn(
+                Collections.singletonList(new SettingGroupDTO(null, Arrays.asList(
+                        new SettingDTO.SettingDTOBuilder().withCode("int").withDefaultValue("1").build(),
+                        new SettingDTO.SettingDTOBuilder().withCode("boolean").withDefaultValue("true").build()))));
+
+        // WHEN
+        final int intValue = cut.getInt(A_PROJECT_ID, "int");
+        final boolean booleanValue = cut.getBoolean(A_PROJECT_ID, "boolean");
+        final List<String> listValue = cut.getList(A_PROJECT_ID, "list");
+        final String absentValue = cut.get(A_PROJECT_ID, "absent");
+
+        // THEN
+        assertThat(intValue).isEqualTo(42);
+        assertThat(booleanValue).isTrue();
+        assertThat(listValue).containsExactly("a", "b");
+        assertThat(absentValue).isNull();
+        verify(repository, times(1)).getProjectSettings(A_PROJECT_ID);
+        verify(settingProviderService, times(1)).getDefinitions(eq(A_PROJECT_ID), any());
+    }
+
     @Test
     void update_ShouldFailAsNotFound_WhenSettingCodeIsUnknown() {
         // GIVEN
@@ -211,14 +243,58 @@ class SettingServiceTest {
         when(repository.findByProjectIdAndCode(A_PROJECT_ID, "code")).thenReturn(null);
         ArgumentCaptor<Setting> argument = ArgumentCaptor.forClass(Setting.class);
         doReturn(null).when(repository).save(argument.capture());
-        Map<String, String> cache = new HashMap<>();
-        doReturn(cache).when(cut).getValues(A_PROJECT_ID);
+        Map<String, String> values = new HashMap<>();
+        values.put("code", "old-value");
+        when(repository.getProjectSettings(A_PROJECT_ID)).thenReturn(values);
 
         // WHEN
         cut.update(A_PROJECT_ID, "code", "value");
 
         // THEN
-        assertThat(cache.get("code")).isEqualTo("value");
+        assertThat(cut.get(A_PROJECT_ID, "code")).isEqualTo("value");
+        assertThat(cut.getValues(A_PROJECT_ID)).containsEntry("code", "value");
+        verify(repository, times(1)).getProjectSettings(A_PROJECT_ID);
+        verify(cacheInvalidationBus).publish("settings", String.valueOf(A_PROJECT_ID));
+    }
+
+    @Test
+    void update_ShouldKeepTheOtherUpdatedValuesInCache_WhenSeveralSettingsAreUpdated() throws BadRequestException {
+        // GIVEN
+        doReturn(Optional.of(new SettingDTO())).when(cut).getSettingDefinition(eq(A_PROJECT_ID), any());
+        doNothing().when(cut).validateNewValue(any(), any());
+        when(repository.findByProjectIdAndCode(eq(A_PROJECT_ID), any())).thenReturn(null);
+        doReturn(null).when(repository).save(any(Setting.class));
+        Map<String, String> values = new HashMap<>();
+        values.put("code1", "old-value1");
+        values.put("code2", "old-value2");
+        when(repository.getProjectSettings(A_PROJECT_ID)).thenReturn(values);
+
+        // WHEN
+        cut.update(A_PROJECT_ID, "code1", "value1");
+        cut.update(A_PROJECT_ID, "code2", "value2");
+
+        // THEN
+        assertThat(cut.getValues(A_PROJECT_ID))
+                .containsEntry("code1", "value1")
+                .containsEntry("code2", "value2");
+        verify(repository, times(1)).getProjectSettings(A_PROJECT_ID);
+    }
+
+    @Test
+    void getValues_ShouldReloadValues_WhenEvictedByTheCacheInvalidationBus() {
+        // GIVEN
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Consumer<String>> evictor = ArgumentCaptor.forClass(Consumer.class);
+        verify(cacheInvalidationBus).subscribe(eq("settings"), evictor.capture());
+        when(repository.getProjectSettings(A_PROJECT_ID)).thenReturn(new HashMap<>());
+        cut.getValues(A_PROJECT_ID);
+
+        // WHEN
+        evictor.getValue().accept(String.valueOf(A_PROJECT_ID));
+        cut.getValues(A_PROJECT_ID);
+
+        // THEN
+        verify(repository, times(2)).getProjectSettings(A_PROJECT_ID);
     }
 
     @Test
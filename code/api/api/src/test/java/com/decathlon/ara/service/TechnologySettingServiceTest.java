@@ -17,9 +17,11 @@
 
 package com.decathlon.ara.service;
 
+import com.decathlon.ara.cache.InProcessCacheInvalidationBus;
 import com.decathlon.ara.domain.TechnologySetting;
 import com.decathlon.ara.domain.enumeration.Technology;
 import com.decathlon.ara.repository.TechnologySettingRepository;
+import com.decathlon.ara.repository.custom.util.TransactionAppenderUtil;
 import com.decathlon.ara.scenario.cucumber.settings.CucumberSettings;
 import com.decathlon.ara.scenario.postman.settings.PostmanSettings;
 import com.decathlon.ara.service.dto.setting.SettingDTO;
@@ -27,10 +29,11 @@ import com.decathlon.ara.service.dto.setting.SettingType;
 import com.decathlon.ara.service.dto.setting.TechnologySettingGroupDTO;
 import com.decathlon.ara.service.exception.BadRequestException;
 import com.decathlon.ara.service.exception.NotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -54,9 +57,19 @@ class TechnologySettingServiceTest {
     @Mock
     private SettingService settingService;
 
-    @InjectMocks
+    @Mock
+    private TransactionAppenderUtil transactionAppenderUtil;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     private TechnologySettingService technologySettingService;
 
+    @BeforeEach
+    void setUp() {
+        technologySettingService = new TechnologySettingService(technologySettingRepository, settingService,
+                new InProcessCacheInvalidationBus(transactionAppenderUtil), meterRegistry);
+    }
+
     @Test
     void getAllGroups_returnAllGroups() {
         // Given
@@ -169,7 +182,9 @@ class TechnologySettingServiceTest {
         TechnologySetting savedSetting = mock(TechnologySetting.class);
 
         // When
-        when(technologySettingRepository.findByProjectIdAndCodeAndTechnology(projectId, CucumberSettings.REPORT_PATH.getCode(), Technology.CUCUMBER)).thenReturn(Optional.of(savedSetting));
+        when(technologySettingRepository.findByProjectId(projectId)).thenReturn(List.of(savedSetting));
+        when(savedSetting.getTechnology()).thenReturn(Technology.CUCUMBER);
+        when(savedSetting.getCode()).thenReturn(CucumberSettings.REPORT_PATH.getCode());
         when(savedSetting.getValue()).thenReturn("/new/cucumber/path");
 
         // Then
@@ -186,7 +201,10 @@ class TechnologySettingServiceTest {
         TechnologySetting savedSetting = mock(TechnologySetting.class);
 
         // When
-        when(technologySettingRepository.findByProjectIdAndCodeAndTechnology(projectId, CucumberSettings.REPORT_PATH.getCode(), Technology.CUCUMBER)).thenReturn(Optional.empty());
+        when(technologySettingRepository.findByProjectId(projectId)).thenReturn(List.of(savedSetting));
+        when(savedSetting.getTechnology()).thenReturn(Technology.POSTMAN);
+        when(savedSetting.getCode()).thenReturn(CucumberSettings.REPORT_PATH.getCode());
+        when(savedSetting.getValue()).thenReturn("/postman/path");
 
         // Then
         Optional<String> value = technologySettingService.getSettingValue(projectId, CucumberSettings.REPORT_PATH);
@@ -194,6 +212,28 @@ class TechnologySettingServiceTest {
         assertThat(value).hasValue(CucumberSettings.REPORT_PATH.getDefaultValue());
     }
 
+    @Test
+    void getSettingValue_readSavedSettingsOnlyOnce_untilUpdated() throws BadRequestException {
+        // Given
+        Long projectId = 1L;
+
+        // When
+        when(technologySettingRepository.findByProjectId(projectId)).thenReturn(List.of());
+        when(technologySettingRepository.findByProjectIdAndCodeAndTechnology(projectId, "report.path", Technology.CUCUMBER)).thenReturn(Optional.empty());
+
+        // Then
+        technologySettingService.getSettingValue(projectId, CucumberSettings.REPORT_PATH);
+        technologySettingService.getSettingValue(projectId, CucumberSettings.STEP_DEFINITIONS_PATH);
+        technologySettingService.getSettingValue(projectId, PostmanSettings.REPORTS_PATH);
+        verify(technologySettingRepository, times(1)).findByProjectId(projectId);
+        assertThat(meterRegistry.get("ara.settings.technology.cache").tag("result", "hit").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("ara.settings.technology.cache").tag("result", "miss").counter().count()).isEqualTo(1);
+
+        technologySettingService.update(projectId, "report.path", Technology.CUCUMBER, "someValue");
+        technologySettingService.getSettingValue(projectId, CucumberSettings.REPORT_PATH);
+        verify(technologySettingRepository, times(2)).findByProjectId(projectId);
+    }
+
     @Test
     void update_throwNotFoundException_whenCodeIsUnknown() throws BadRequestException {
         // Given
@@ -3,6 +3,7 @@ package com.decathlon.ara.service.mapper;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Date;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
@@ -13,7 +14,20 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import com.decathlon.ara.domain.CountryDeployment;
+import com.decathlon.ara.domain.Error;
+import com.decathlon.ara.domain.ExecutedScenario;
+import com.decathlon.ara.domain.Execution;
+import com.decathlon.ara.domain.Run;
+import com.decathlon.ara.domain.enumeration.ExecutionAcceptance;
+import com.decathlon.ara.domain.enumeration.JobStatus;
+import com.decathlon.ara.domain.enumeration.QualityStatus;
+import com.decathlon.ara.domain.enumeration.Result;
+import com.decathlon.ara.service.dto.execution.ExecutionWithCountryDeploymentsAndRunsAndExecutedScenariosAndTeamIdsAndErrorsAndProblemsDTO;
 import com.decathlon.ara.util.TestUtil;
+import com.decathlon.ara.util.factory.CountryFactory;
+import com.decathlon.ara.util.factory.CycleDefinitionFactory;
+import com.decathlon.ara.util.factory.TypeFactory;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
@@ -25,6 +39,8 @@ class GenericMapperTest {
 
     private GenericMapper mapper = new GenericMapper();
 
+    private GenericMapper jacksonMapper = new GenericMapper(false);
+
     private static class From {
         @JsonProperty("modified_field_a")
         private String fieldA;
@@ -254,4 +270,112 @@ class GenericMapperTest {
         Assertions.assertEquals("{\"fieldA\":\"a0\",\"fieldB\":\"a1\",\"elements\":[{\"elementFieldC\":\"a5\"},{\"elementFieldC\":\"a9\"}],\"elementMap\":{\"toto\":{\"elementFieldC\":\"a13\"},\"titi\":{\"elementFieldC\":\"a17\"}}}", objectMapper.writeValueAsString(from));
     }
 
+    @Test
+    void shouldMapLikeTheJacksonRoundTrip() {
+        From from = contructFrom("a", 2, "toto", "titi");
+        To mapped = mapper.map(from, To.class);
+        To expected = jacksonMapper.map(from, To.class);
+        ObjectMapper objectMapper = new ObjectMapper();
+        Assertions.assertEquals(objectMapper.valueToTree(expected), objectMapper.valueToTree(mapped));
+    }
+
+    @Test
+    void shouldMapAnExecutionGraphLikeTheJacksonRoundTrip() {
+        Execution execution = execution(2, 3, 2);
+        ExecutionWithCountryDeploymentsAndRunsAndExecutedScenariosAndTeamIdsAndErrorsAndProblemsDTO mapped = mapper.map(execution,
+                ExecutionWithCountryDeploymentsAndRunsAndExecutedScenariosAndTeamIdsAndErrorsAndProblemsDTO.class);
+        ExecutionWithCountryDeploymentsAndRunsAndExecutedScenariosAndTeamIdsAndErrorsAndProblemsDTO expected = jacksonMapper.map(execution,
+                ExecutionWithCountryDeploymentsAndRunsAndExecutedScenariosAndTeamIdsAndErrorsAndProblemsDTO.class);
+        ObjectMapper objectMapper = new ObjectMapper();
+        Assertions.assertEquals(objectMapper.valueToTree(expected), objectMapper.valueToTree(mapped));
+        Assertions.assertEquals(2, mapped.getQualityThresholds().size());
+        Assertions.assertEquals(2, mapped.getQualitySeverities().size());
+        Assertions.assertEquals(6, mapped.getRuns().stream().mapToInt(run -> run.getExecutedScenarios().size()).sum());
+        Assertions.assertEquals(execution.getTestDateTime(), mapped.getTestDateTime());
+        Assertions.assertNotSame(execution.getTestDateTime(), mapped.getTestDateTime());
+    }
+
+    /**
+     * @param runCount               the number of runs (one per country/type), each with its country deployment
+     * @param scenarioCountPerRun    the number of executed scenarios of each run
+     * @param errorCountPerScenario  the number of errors of each executed scenario
+     * @return an execution with all the fields mapped by the execution screen
+     */
+    private static Execution execution(int runCount, int scenarioCountPerRun, int errorCountPerScenario) {
+        Execution execution = new Execution();
+        execution.setId(Long.valueOf(1));
+        execution.setBranch("develop");
+        execution.setName("day");
+        execution.setRelease("v2");
+        execution.setVersion("1.0.0-SNAPSHOT");
+        execution.setBuildDateTime(new Date(1_600_000_000_000L));
+        execution.setTestDateTime(new Date(1_600_000_100_000L));
+        execution.setJobUrl("https://build.company.com/job/develop/day/42/");
+        execution.setStatus(JobStatus.DONE);
+        execution.setResult(Result.SUCCESS);
+        execution.setAcceptance(ExecutionAcceptance.NEW);
+        execution.setCycleDefinition(CycleDefinitionFactory.get(Long.valueOf(1), 1, "develop", "day", 1));
+        execution.setBlockingValidation(Boolean.TRUE);
+        execution.setQualityThresholds("{\"sanity-check\":{\"failure\":100,\"warning\":100},\"high\":{\"failure\":90,\"warning\":95}}");
+        execution.setQualityStatus(QualityStatus.PASSED);
+        execution.setQualitySeverities("[{\"percent\":100,\"status\":\"PASSED\"},{\"percent\":97,\"status\":\"WARNING\"}]");
+        execution.setDuration(Long.valueOf(3_600_000));
+        execution.setEstimatedDuration(Long.valueOf(3_500_000));
+
+        long nextId = 1;
+        for (int r = 0; r < runCount; r++) {
+            CountryDeployment countryDeployment = new CountryDeployment();
+            countryDeployment.setCountry(CountryFactory.get("c" + r));
+            countryDeployment.setPlatform("integ");
+            countryDeployment.setJobUrl(execution.getJobUrl() + "c" + r + "/");
+            countryDeployment.setStatus(JobStatus.DONE);
+            countryDeployment.setResult(Result.SUCCESS);
+            countryDeployment.setStartDateTime(new Date(1_600_000_000_000L + r));
+            countryDeployment.setDuration(Long.valueOf(60_000));
+            execution.addCountryDeployment(countryDeployment);
+
+            Run run = new Run();
+            run.setId(Long.valueOf(nextId++));
+            run.setCountry(countryDeployment.getCountry());
+            run.setType(TypeFactory.get(Long.valueOf(r), 1, "type" + r, "Type " + r, r % 2 == 0, r % 2 == 1, null));
+            run.setPlatform("integ");
+            run.setJobUrl(countryDeployment.getJobUrl() + "type" + r + "/");
+            run.setStatus(JobStatus.DONE);
+            run.setCountryTags("all");
+            run.setStartDateTime(new Date(1_600_000_000_000L + r));
+            run.setDuration(Long.valueOf(600_000));
+            run.setSeverityTags("all");
+            run.setIncludeInThresholds(Boolean.TRUE);
+            execution.addRun(run);
+
+            for (int s = 0; s < scenarioCountPerRun; s++) {
+                ExecutedScenario executedScenario = new ExecutedScenario();
+                executedScenario.setFeatureFile("features/feature" + (s / 10) + ".feature");
+                executedScenario.setFeatureName("Feature " + (s / 10));
+                executedScenario.setFeatureTags("@country-all");
+                executedScenario.setTags("@severity-high @country-all");
+                executedScenario.setSeverity("high");
+                executedScenario.setName("Functionality " + s + ": Scenario " + s);
+                executedScenario.setCucumberId("feature-" + (s / 10) + ";scenario-" + s);
+                executedScenario.setLine(s);
+                executedScenario.setContent("1:passed:Given a step\n2:passed:When an action\n3:failed:Then a result");
+                executedScenario.setStartDateTime(new Date(1_600_000_000_000L + s));
+                executedScenario.setScreenshotUrl("https://assets.company.com/screenshots/" + s + ".png");
+                executedScenario.setVideoUrl("https://assets.company.com/videos/" + s + ".mp4");
+                executedScenario.setCucumberReportUrl(run.getJobUrl() + "cucumber-html-reports/");
+                run.addExecutedScenario(executedScenario);
+
+                for (int e = 0; e < errorCountPerScenario; e++) {
+                    Error error = new Error();
+                    error.setStep("Then a result");
+                    error.setStepDefinition("^a result$");
+                    error.setStepLine(3 + e);
+                    error.setException("java.lang.AssertionError: expected result\n\tat com.company.Steps.aResult(Steps.java:42)");
+                    executedScenario.addError(error);
+                }
+            }
+        }
+        return execution;
+    }
+
 }
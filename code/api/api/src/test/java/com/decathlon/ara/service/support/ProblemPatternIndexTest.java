@@ -0,0 +1,179 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.service.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+import com.decathlon.ara.domain.Error;
+import com.decathlon.ara.domain.ExecutedScenario;
+import com.decathlon.ara.domain.Execution;
+import com.decathlon.ara.domain.ProblemPattern;
+import com.decathlon.ara.domain.Run;
+import com.decathlon.ara.util.TestUtil;
+import com.decathlon.ara.util.factory.CountryFactory;
+import com.decathlon.ara.util.factory.TypeFactory;
+
+class ProblemPatternIndexTest {
+
+    @Test
+    void findMatchingPatterns_should_match_exact_and_starting_fields_like_the_sql_specification() {
+        // Given
+        ProblemPattern exactFeature = pattern("featureFile", "a.feature");
+        ProblemPattern otherFeature = pattern("featureFile", "b.feature");
+        ProblemPattern exactScenario = pattern("scenarioName", "Functionality 1: Scenario");
+        ProblemPattern scenarioStart = pattern("scenarioName", "Functionality 1");
+        TestUtil.setField(scenarioStart, "scenarioNameStartsWith", Boolean.TRUE);
+        ProblemPattern scenarioNotExact = pattern("scenarioName", "Functionality 1");
+        ProblemPattern exceptionStart = pattern("exception", "java.lang.Null");
+        ProblemPattern otherException = pattern("exception", "java.lang.Illegal");
+        ProblemPatternIndex cut = new ProblemPatternIndex(Arrays.asList(
+                exactFeature, otherFeature, exactScenario, scenarioStart, scenarioNotExact, exceptionStart, otherException));
+
+        // When
+        Iterable<ProblemPattern> matchingPatterns = cut.findMatchingPatterns(error());
+
+        // Then
+        assertThat(matchingPatterns).containsExactlyInAnyOrder(exactFeature, exactScenario, scenarioStart, exceptionStart);
+    }
+
+    @Test
+    void findMatchingPatterns_should_require_all_fields_of_a_pattern() {
+        // Given
+        ProblemPattern matching = pattern("featureFile", "a.feature");
+        TestUtil.setField(matching, "exception", "java.lang.NullPointer");
+        TestUtil.setField(matching, "release", "v1");
+        TestUtil.setField(matching, "platform", "euin");
+        matching.setCountry(CountryFactory.get("be"));
+        matching.setType(TypeFactory.get("desktop"));
+        TestUtil.setField(matching, "typeIsBrowser", Boolean.TRUE);
+        ProblemPattern wrongRelease = pattern("featureFile", "a.feature");
+        TestUtil.setField(wrongRelease, "release", "v2");
+        ProblemPattern wrongCountry = pattern("exception", "java");
+        wrongCountry.setCountry(CountryFactory.get("fr"));
+        ProblemPattern wrongMobile = pattern("exception", "java");
+        TestUtil.setField(wrongMobile, "typeIsMobile", Boolean.TRUE);
+        ProblemPatternIndex cut = new ProblemPatternIndex(Arrays.asList(matching, wrongRelease, wrongCountry, wrongMobile));
+
+        // When
+        Iterable<ProblemPattern> matchingPatterns = cut.findMatchingPatterns(error());
+
+        // Then
+        assertThat(matchingPatterns).containsExactly(matching);
+    }
+
+    @Test
+    void findMatchingPatterns_should_handle_like_wildcards_and_escapes() {
+        // Given
+        ProblemPattern anyCharacters = pattern("exception", "java.lang.%Exception: message");
+        ProblemPattern oneCharacter = pattern("exception", "java_lang.NullPointerException");
+        ProblemPattern startsWithWildcard = pattern("exception", "%Pointer");
+        ProblemPattern escapedWildcard = pattern("exception", "java\\_lang");
+        ProblemPattern caseSensitive = pattern("exception", "JAVA");
+        ProblemPatternIndex cut = new ProblemPatternIndex(Arrays.asList(
+                anyCharacters, oneCharacter, startsWithWildcard, escapedWildcard, caseSensitive));
+
+        // When
+        Iterable<ProblemPattern> matchingPatterns = cut.findMatchingPatterns(error());
+
+        // Then
+        assertThat(matchingPatterns).containsExactlyInAnyOrder(anyCharacters, oneCharacter, startsWithWildcard);
+    }
+
+    @Test
+    void findMatchingPatterns_should_ignore_case_like_mysql_when_not_case_sensitive() {
+        // Given
+        ProblemPattern exactFeature = pattern("featureFile", "A.Feature");
+        ProblemPattern exceptionStart = pattern("exception", "JAVA.LANG.NULL");
+        ProblemPattern exceptionWildcard = pattern("exception", "Java.Lang.%pointerexception: MESSAGE");
+        ProblemPattern scenarioStart = pattern("scenarioName", "FUNCTIONALITY 1");
+        TestUtil.setField(scenarioStart, "scenarioNameStartsWith", Boolean.TRUE);
+        ProblemPattern country = pattern("release", "V1");
+        country.setCountry(CountryFactory.get("BE"));
+        ProblemPattern otherFeature = pattern("featureFile", "B.FEATURE");
+        ProblemPatternIndex cut = new ProblemPatternIndex(Arrays.asList(
+                exactFeature, exceptionStart, exceptionWildcard, scenarioStart, country, otherFeature), false);
+
+        // When
+        Iterable<ProblemPattern> matchingPatterns = cut.findMatchingPatterns(error());
+
+        // Then
+        assertThat(matchingPatterns).containsExactlyInAnyOrder(exactFeature, exceptionStart, exceptionWildcard, scenarioStart, country);
+    }
+
+    @Test
+    void findMatchingPatterns_should_match_everything_with_an_empty_pattern_but_not_errors_missing_a_required_value() {
+        // Given
+        ProblemPattern empty = pattern("featureFile", "");
+        ProblemPattern step = pattern("step", "When");
+        TestUtil.setField(step, "stepStartsWith", Boolean.TRUE);
+        ProblemPatternIndex cut = new ProblemPatternIndex(Arrays.asList(empty, step));
+        Error errorWithoutStep = error();
+        errorWithoutStep.setStep(null);
+
+        // When
+        Iterable<ProblemPattern> matchingPatterns = cut.findMatchingPatterns(errorWithoutStep);
+
+        // Then
+        assertThat(matchingPatterns).containsExactly(empty);
+    }
+
+    @Test
+    void findMatchingPatterns_should_match_nothing_without_patterns() {
+        // Given
+        ProblemPatternIndex cut = new ProblemPatternIndex(Collections.emptyList());
+
+        // When
+        Iterable<ProblemPattern> matchingPatterns = cut.findMatchingPatterns(error());
+
+        // Then
+        assertThat(matchingPatterns).isEmpty();
+    }
+
+    private static ProblemPattern pattern(String field, String value) {
+        ProblemPattern pattern = new ProblemPattern();
+        TestUtil.setField(pattern, field, value);
+        return pattern;
+    }
+
+    private static Error error() {
+        Execution execution = new Execution();
+        execution.setRelease("v1");
+        Run run = new Run();
+        run.setExecution(execution);
+        run.setPlatform("euin");
+        run.setCountry(CountryFactory.get("be"));
+        run.setType(TypeFactory.get(null, 1, "desktop", null, true, false, null));
+        ExecutedScenario executedScenario = new ExecutedScenario();
+        executedScenario.setRun(run);
+        executedScenario.setFeatureFile("a.feature");
+        executedScenario.setFeatureName("Feature A");
+        executedScenario.setName("Functionality 1: Scenario");
+        Error error = new Error();
+        error.setExecutedScenario(executedScenario);
+        error.setStep("When something happens");
+        error.setStepDefinition("^something happens$");
+        error.setException("java.lang.NullPointerException: message\n\tat com.decathlon.Foo");
+        return error;
+    }
+
+}
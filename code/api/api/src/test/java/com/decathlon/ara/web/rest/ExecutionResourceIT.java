@@ -24,6 +24,7 @@ import static com.decathlon.ara.util.TestUtil.timestamp;
 import static com.decathlon.ara.web.rest.ProblemResourceIT.assertProblem1001;
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -50,6 +51,7 @@ import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.support.DependencyInjectionTestExecutionListener;
 import org.springframework.test.context.transaction.TransactionalTestExecutionListener;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.decathlon.ara.ci.bean.PlannedIndexation;
 import com.decathlon.ara.ci.service.ExecutionIndexerService;
@@ -65,6 +67,7 @@ import com.decathlon.ara.service.dto.run.RunDTO;
 import com.decathlon.ara.service.dto.run.RunWithExecutedScenariosAndTeamIdsAndErrorsAndProblemsDTO;
 import com.decathlon.ara.util.factory.CycleDefinitionFactory;
 import com.decathlon.ara.web.rest.util.HeaderUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.springtestdbunit.DbUnitTestExecutionListener;
 import com.github.springtestdbunit.annotation.DatabaseSetup;
 
@@ -88,6 +91,9 @@ class ExecutionResourceIT {
     @Autowired
     private ExecutionResource cut;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @DatabaseSetup("/dbunit/full-small-fake-dataset.xml")
     private static void assertExecutionId2(ExecutionDTO execution) {
         assertThat(execution.getId()).isEqualTo(2);
@@ -217,6 +223,25 @@ class ExecutionResourceIT {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
     }
 
+    @Test
+    @DatabaseSetup("/dbunit/full-small-fake-dataset.xml")
+    void testGetOneStreamed() throws IOException {
+        // Streamed first: getOne() removes the succeeded scenarios from the managed runs
+        ResponseEntity<StreamingResponseBody> response = cut.getOneStreamed(PROJECT_CODE, 2, false);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        response.getBody().writeTo(body);
+
+        ResponseEntity<ExecutionWithCountryDeploymentsAndRunsAndExecutedScenariosAndTeamIdsAndErrorsAndProblemsDTO> expected = cut.getOne(PROJECT_CODE, 2);
+        assertThat(objectMapper.readTree(body.toByteArray())).isEqualTo(objectMapper.valueToTree(expected.getBody()));
+    }
+
+    @Test
+    void testGetOneStreamedNonexistent() {
+        ResponseEntity<StreamingResponseBody> response = cut.getOneStreamed(PROJECT_CODE, NONEXISTENT, false);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
     @Test
     @DatabaseSetup("/dbunit/full-small-fake-dataset.xml")
     void testDiscard() {
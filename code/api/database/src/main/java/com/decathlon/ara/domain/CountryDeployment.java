@@ -47,7 +47,7 @@ public class CountryDeployment implements Comparable<CountryDeployment> {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "country_deployment_id")
-    @SequenceGenerator(name = "country_deployment_id", sequenceName = "country_deployment_id", allocationSize = 1)
+    @SequenceGenerator(name = "country_deployment_id", sequenceName = "country_deployment_id", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -131,6 +131,10 @@ public class CountryDeployment implements Comparable<CountryDeployment> {
         return id;
     }
 
+    public void setId(Long id) {
+        this.id = id;
+    }
+
     public Long getExecutionId() {
         return execution == null ? null : execution.getId();
     }
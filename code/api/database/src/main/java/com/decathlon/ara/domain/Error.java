@@ -50,9 +50,14 @@ public class Error implements Comparable<Error> {
 
     public static final String PROBLEM_OCCURRENCES_COLLECTION_CACHE = "com.decathlon.ara.domain.Error.problemOccurrences";
 
+    /**
+     * The length of the indexed prefixes of the step, step definition and exception.
+     */
+    public static final int PREFIX_LENGTH = 255;
+
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "error_id")
-    @SequenceGenerator(name = "error_id", sequenceName = "error_id", allocationSize = 1)
+    @SequenceGenerator(name = "error_id", sequenceName = "error_id", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -71,6 +76,18 @@ public class Error implements Comparable<Error> {
     @org.hibernate.annotations.Type(type = "org.hibernate.type.TextType")
     private String exception;
 
+    // The prefixes are indexed (unlike the long values themselves), to find the errors matching a problem pattern
+    // without scanning the whole table: they are kept up to date by the setters of the full values
+
+    @Column(length = PREFIX_LENGTH)
+    private String stepPrefix;
+
+    @Column(length = PREFIX_LENGTH)
+    private String stepDefinitionPrefix;
+
+    @Column(length = PREFIX_LENGTH)
+    private String exceptionPrefix;
+
     @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY, mappedBy = "error", orphanRemoval = true)
     @OnDelete(action = OnDeleteAction.CASCADE)
     private Set<ProblemOccurrence> problemOccurrences = new HashSet<>();
@@ -108,6 +125,10 @@ public class Error implements Comparable<Error> {
         return id;
     }
 
+    public void setId(Long id) {
+        this.id = id;
+    }
+
     public Long getExecutedScenarioId() {
         return executedScenario == null ? null : executedScenario.getId();
     }
@@ -118,6 +139,7 @@ public class Error implements Comparable<Error> {
 
     public void setStep(String step) {
         this.step = step;
+        this.stepPrefix = toPrefix(step);
     }
 
     public String getStepDefinition() {
@@ -126,6 +148,7 @@ public class Error implements Comparable<Error> {
 
     public void setStepDefinition(String stepDefinition) {
         this.stepDefinition = stepDefinition;
+        this.stepDefinitionPrefix = toPrefix(stepDefinition);
     }
 
     public int getStepLine() {
@@ -142,6 +165,32 @@ public class Error implements Comparable<Error> {
 
     public void setException(String exception) {
         this.exception = exception;
+        this.exceptionPrefix = toPrefix(exception);
+    }
+
+    public String getStepPrefix() {
+        return stepPrefix;
+    }
+
+    public String getStepDefinitionPrefix() {
+        return stepDefinitionPrefix;
+    }
+
+    public String getExceptionPrefix() {
+        return exceptionPrefix;
+    }
+
+    /**
+     * @param value a step, step definition or exception
+     * @return the first {@link #PREFIX_LENGTH} characters of the value (without splitting a surrogate pair), as stored
+     * in the indexed prefix column
+     */
+    public static String toPrefix(String value) {
+        if (value == null || value.length() <= PREFIX_LENGTH) {
+            return value;
+        }
+        int length = Character.isHighSurrogate(value.charAt(PREFIX_LENGTH - 1)) ? PREFIX_LENGTH - 1 : PREFIX_LENGTH;
+        return value.substring(0, length);
     }
 
     public Set<ProblemOccurrence> getProblemOccurrences() {
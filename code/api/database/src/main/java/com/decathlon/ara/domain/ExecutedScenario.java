@@ -60,7 +60,7 @@ public class ExecutedScenario implements Comparable<ExecutedScenario> {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "executed_scenario_id")
-    @SequenceGenerator(name = "executed_scenario_id", sequenceName = "executed_scenario_id", allocationSize = 1)
+    @SequenceGenerator(name = "executed_scenario_id", sequenceName = "executed_scenario_id", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -81,6 +81,13 @@ public class ExecutedScenario implements Comparable<ExecutedScenario> {
     @Column(length = 512)
     private String name;
 
+    /**
+     * The IDs of the functionalities covered by this scenario, comma-separated, as extracted from its name when indexed:
+     * null if indexed before they were stored (or if they were too long to be stored), to be extracted from the name.
+     */
+    @Column(length = 255)
+    private String functionalityIds;
+
     @Column(length = 640)
     private String cucumberId;
 
@@ -210,6 +217,10 @@ public class ExecutedScenario implements Comparable<ExecutedScenario> {
         return id;
     }
 
+    public void setId(Long id) {
+        this.id = id;
+    }
+
     public Long getRunId() {
         return run == null ? null : run.getId();
     }
@@ -262,6 +273,14 @@ public class ExecutedScenario implements Comparable<ExecutedScenario> {
         this.name = name;
     }
 
+    public String getFunctionalityIds() {
+        return functionalityIds;
+    }
+
+    public void setFunctionalityIds(String functionalityIds) {
+        this.functionalityIds = functionalityIds;
+    }
+
     public String getCucumberId() {
         return cucumberId;
     }
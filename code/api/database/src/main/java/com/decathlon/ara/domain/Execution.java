@@ -56,7 +56,7 @@ public class Execution {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "execution_id")
-    @SequenceGenerator(name = "execution_id", sequenceName = "execution_id", allocationSize = 1)
+    @SequenceGenerator(name = "execution_id", sequenceName = "execution_id", allocationSize = 50)
     private Long id;
 
     @Column(length = 16)
@@ -7,9 +7,14 @@ import javax.persistence.Entity;
 import javax.persistence.FetchType;
 import javax.persistence.ManyToOne;
 import javax.persistence.MapsId;
+import javax.persistence.PostLoad;
+import javax.persistence.PostPersist;
+import javax.persistence.Transient;
+
+import org.springframework.data.domain.Persistable;
 
 @Entity
-public class ProblemOccurrence {
+public class ProblemOccurrence implements Persistable<ProblemOccurrence.ProblemOccurrenceId> {
 
     public static class ProblemOccurrenceId implements Serializable {
 
@@ -40,6 +45,13 @@ public class ProblemOccurrence {
     @ManyToOne(fetch = FetchType.LAZY)
     private ProblemPattern problemPattern;
 
+    /**
+     * The ID is assigned by the application, so Spring Data merges occurrences by default (one SELECT per occurrence).
+     * Occurrences known to be new are persisted instead, with batchable INSERTs.
+     */
+    @Transient
+    private boolean isNew;
+
     public ProblemOccurrence() {
     }
 
@@ -49,6 +61,33 @@ public class ProblemOccurrence {
         this.problemPattern = problemPattern;
     }
 
+    /**
+     * @param error          an error created in the current transaction, thus without any occurrence yet
+     * @param problemPattern the pattern matching the error
+     * @return an occurrence that will be inserted without first checking if it exists
+     */
+    public static ProblemOccurrence ofNewError(Error error, ProblemPattern problemPattern) {
+        ProblemOccurrence problemOccurrence = new ProblemOccurrence(error, problemPattern);
+        problemOccurrence.isNew = true;
+        return problemOccurrence;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public ProblemOccurrenceId getId() {
+        return problemOccurrenceId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
     public Error getError() {
         return error;
     }
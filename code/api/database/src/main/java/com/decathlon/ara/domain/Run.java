@@ -59,7 +59,7 @@ public class Run implements Comparable<Run> {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "run_id")
-    @SequenceGenerator(name = "run_id", sequenceName = "run_id", allocationSize = 1)
+    @SequenceGenerator(name = "run_id", sequenceName = "run_id", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -0,0 +1,59 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.domain;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Lob;
+
+/**
+ * The handling counts of the executed-scenarios of a {@link Run}, materialized to display the execution history
+ * without joining all scenarios, errors and problems of all runs on each request.<br>
+ * Rows are deleted when the problems of the run change, and recomputed when next needed.
+ */
+@Entity
+public class RunHandlingCounts {
+
+    // No access to the parent run entity: the row is deleted by the database when the run is deleted
+    @Id
+    private Long runId;
+
+    /**
+     * A JSON array of the scenario counts of the run, grouped by severity and functionality IDs.
+     */
+    @Lob
+    @org.hibernate.annotations.Type(type = "org.hibernate.type.TextType")
+    private String counts;
+
+    public RunHandlingCounts() {
+    }
+
+    public RunHandlingCounts(Long runId, String counts) {
+        this.runId = runId;
+        this.counts = counts;
+    }
+
+    public Long getRunId() {
+        return runId;
+    }
+
+    public String getCounts() {
+        return counts;
+    }
+
+}
@@ -74,6 +74,13 @@ public class Scenario implements Comparable<Scenario> {
     @Column(length = 512)
     private String name;
 
+    /**
+     * The IDs of the functionalities covered by this scenario, comma-separated, as extracted from its name when indexed:
+     * null if indexed before they were stored (or if they were too long to be stored), to be extracted from the name.
+     */
+    @Column(length = 255)
+    private String functionalityIds;
+
     private String wrongFunctionalityIds;
 
     private String wrongCountryCodes;
@@ -209,6 +216,14 @@ public class Scenario implements Comparable<Scenario> {
         this.name = name;
     }
 
+    public String getFunctionalityIds() {
+        return functionalityIds;
+    }
+
+    public void setFunctionalityIds(String functionalityIds) {
+        this.functionalityIds = functionalityIds;
+    }
+
     public String getWrongFunctionalityIds() {
         return wrongFunctionalityIds;
     }
@@ -0,0 +1,217 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.domain;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * The statistics of the errors assigned to a {@link Problem}, materialized to display the list of problems without
+ * aggregating all their occurrences on each request.<br>
+ * Rows are updated when the occurrences of the problem change, and deleted with their problem (or when their problem's
+ * errors are purged: they are then computed again the next time they are needed).
+ */
+@Entity
+@Table(name = "problem_aggregate")
+public class StoredProblemAggregate {
+
+    // No access to the parent problem entity: the row is deleted by the database when the problem is deleted
+    @Id
+    private Long problemId;
+
+    private long patternCount;
+
+    private long errorCount;
+
+    private long scenarioCount;
+
+    @Column(length = 512)
+    private String firstScenarioName;
+
+    private long branchCount;
+
+    @Column(length = 16)
+    private String firstBranch;
+
+    private long releaseCount;
+
+    @Column(length = 32)
+    private String firstRelease;
+
+    private long versionCount;
+
+    @Column(length = 64)
+    private String firstVersion;
+
+    private long countryCount;
+
+    @Column(length = 2)
+    private String firstCountryCode;
+
+    private long typeCount;
+
+    @Column(length = 16)
+    private String firstTypeCode;
+
+    private long platformCount;
+
+    @Column(length = 32)
+    private String firstPlatform;
+
+    public StoredProblemAggregate() {
+    }
+
+    public StoredProblemAggregate(Long problemId) {
+        this.problemId = problemId;
+    }
+
+    public Long getProblemId() {
+        return problemId;
+    }
+
+    public long getPatternCount() {
+        return patternCount;
+    }
+
+    public void setPatternCount(long patternCount) {
+        this.patternCount = patternCount;
+    }
+
+    public long getErrorCount() {
+        return errorCount;
+    }
+
+    public void setErrorCount(long errorCount) {
+        this.errorCount = errorCount;
+    }
+
+    public long getScenarioCount() {
+        return scenarioCount;
+    }
+
+    public void setScenarioCount(long scenarioCount) {
+        this.scenarioCount = scenarioCount;
+    }
+
+    public String getFirstScenarioName() {
+        return firstScenarioName;
+    }
+
+    public void setFirstScenarioName(String firstScenarioName) {
+        this.firstScenarioName = firstScenarioName;
+    }
+
+    public long getBranchCount() {
+        return branchCount;
+    }
+
+    public void setBranchCount(long branchCount) {
+        this.branchCount = branchCount;
+    }
+
+    public String getFirstBranch() {
+        return firstBranch;
+    }
+
+    public void setFirstBranch(String firstBranch) {
+        this.firstBranch = firstBranch;
+    }
+
+    public long getReleaseCount() {
+        return releaseCount;
+    }
+
+    public void setReleaseCount(long releaseCount) {
+        this.releaseCount = releaseCount;
+    }
+
+    public String getFirstRelease() {
+        return firstRelease;
+    }
+
+    public void setFirstRelease(String firstRelease) {
+        this.firstRelease = firstRelease;
+    }
+
+    public long getVersionCount() {
+        return versionCount;
+    }
+
+    public void setVersionCount(long versionCount) {
+        this.versionCount = versionCount;
+    }
+
+    public String getFirstVersion() {
+        return firstVersion;
+    }
+
+    public void setFirstVersion(String firstVersion) {
+        this.firstVersion = firstVersion;
+    }
+
+    public long getCountryCount() {
+        return countryCount;
+    }
+
+    public void setCountryCount(long countryCount) {
+        this.countryCount = countryCount;
+    }
+
+    public String getFirstCountryCode() {
+        return firstCountryCode;
+    }
+
+    public void setFirstCountryCode(String firstCountryCode) {
+        this.firstCountryCode = firstCountryCode;
+    }
+
+    public long getTypeCount() {
+        return typeCount;
+    }
+
+    public void setTypeCount(long typeCount) {
+        this.typeCount = typeCount;
+    }
+
+    public String getFirstTypeCode() {
+        return firstTypeCode;
+    }
+
+    public void setFirstTypeCode(String firstTypeCode) {
+        this.firstTypeCode = firstTypeCode;
+    }
+
+    public long getPlatformCount() {
+        return platformCount;
+    }
+
+    public void setPlatformCount(long platformCount) {
+        this.platformCount = platformCount;
+    }
+
+    public String getFirstPlatform() {
+        return firstPlatform;
+    }
+
+    public void setFirstPlatform(String firstPlatform) {
+        this.firstPlatform = firstPlatform;
+    }
+
+}
@@ -0,0 +1,216 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+package com.decathlon.ara.domain.filter;
+
+import java.util.Collection;
+
+import com.decathlon.ara.domain.enumeration.Handling;
+
+/**
+ * Input of the executed-scenario filtering repository query: the executed scenarios of one run of an execution, as
+ * filtered on the execution page.<br>
+ * Null or empty criteria do not filter anything.
+ */
+public class ExecutedScenarioFilter {
+
+    private long projectId;
+
+    private long executionId;
+
+    private long runId;
+
+    private String countryCode;
+
+    private String typeCode;
+
+    /**
+     * Match the executed scenarios with this severity code.
+     */
+    private String severity;
+
+    /**
+     * True to also match the executed scenarios without severity (the ones indexed without severity tag).
+     */
+    private boolean severityMissing;
+
+    private String featureName;
+
+    private String scenarioName;
+
+    private String step;
+
+    private String exception;
+
+    private Long problemId;
+
+    /**
+     * If not null, match the executed scenarios covering at least one of these functionalities (or having a problem
+     * blamed on {@link #blamedTeamId}, if not null).
+     */
+    private Collection<Long> functionalityIds;
+
+    private Long blamedTeamId;
+
+    /**
+     * If not null, match the executed scenarios covering none of these functionalities.
+     */
+    private Collection<Long> excludedFunctionalityIds;
+
+    private Handling handling;
+
+    /**
+     * False to only match the executed scenarios with errors.
+     */
+    private boolean withSucceed;
+
+    public long getProjectId() {
+        return projectId;
+    }
+
+    public void setProjectId(long projectId) {
+        this.projectId = projectId;
+    }
+
+    public long getExecutionId() {
+        return executionId;
+    }
+
+    public void setExecutionId(long executionId) {
+        this.executionId = executionId;
+    }
+
+    public long getRunId() {
+        return runId;
+    }
+
+    public void setRunId(long runId) {
+        this.runId = runId;
+    }
+
+    public String getCountryCode() {
+        return countryCode;
+    }
+
+    public void setCountryCode(String countryCode) {
+        this.countryCode = countryCode;
+    }
+
+    public String getTypeCode() {
+        return typeCode;
+    }
+
+    public void setTypeCode(String typeCode) {
+        this.typeCode = typeCode;
+    }
+
+    public String getSeverity() {
+        return severity;
+    }
+
+    public void setSeverity(String severity) {
+        this.severity = severity;
+    }
+
+    public boolean isSeverityMissing() {
+        return severityMissing;
+    }
+
+    public void setSeverityMissing(boolean severityMissing) {
+        this.severityMissing = severityMissing;
+    }
+
+    public String getFeatureName() {
+        return featureName;
+    }
+
+    public void setFeatureName(String featureName) {
+        this.featureName = featureName;
+    }
+
+    public String getScenarioName() {
+        return scenarioName;
+    }
+
+    public void setScenarioName(String scenarioName) {
+        this.scenarioName = scenarioName;
+    }
+
+    public String getStep() {
+        return step;
+    }
+
+    public void setStep(String step) {
+        this.step = step;
+    }
+
+    public String getException() {
+        return exception;
+    }
+
+    public void setException(String exception) {
+        this.exception = exception;
+    }
+
+    public Long getProblemId() {
+        return problemId;
+    }
+
+    public void setProblemId(Long problemId) {
+        this.problemId = problemId;
+    }
+
+    public Collection<Long> getFunctionalityIds() {
+        return functionalityIds;
+    }
+
+    public void setFunctionalityIds(Collection<Long> functionalityIds) {
+        this.functionalityIds = functionalityIds;
+    }
+
+    public Long getBlamedTeamId() {
+        return blamedTeamId;
+    }
+
+    public void setBlamedTeamId(Long blamedTeamId) {
+        this.blamedTeamId = blamedTeamId;
+    }
+
+    public Collection<Long> getExcludedFunctionalityIds() {
+        return excludedFunctionalityIds;
+    }
+
+    public void setExcludedFunctionalityIds(Collection<Long> excludedFunctionalityIds) {
+        this.excludedFunctionalityIds = excludedFunctionalityIds;
+    }
+
+    public Handling getHandling() {
+        return handling;
+    }
+
+    public void setHandling(Handling handling) {
+        this.handling = handling;
+    }
+
+    public boolean isWithSucceed() {
+        return withSucceed;
+    }
+
+    public void setWithSucceed(boolean withSucceed) {
+        this.withSucceed = withSucceed;
+    }
+
+}
@@ -0,0 +1,52 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.domain.projection;
+
+import static java.util.Comparator.comparing;
+import static java.util.Comparator.naturalOrder;
+import static java.util.Comparator.nullsFirst;
+
+import java.util.Comparator;
+
+import com.decathlon.ara.domain.ExecutedScenario;
+
+/**
+ * The ID of an {@link ExecutedScenario} with the fields of its business key, to sort the executed scenarios of a run
+ * without loading them.<br>
+ * The order is the one of {@link ExecutedScenario#compareTo(ExecutedScenario)} for scenarios of the same run (Java
+ * String order, null first), whatever the collation of the database.
+ *
+ * @param id          the {@link ExecutedScenario#getId()} of the scenario
+ * @param featureFile the {@link ExecutedScenario#getFeatureFile()} of the scenario
+ * @param name        the {@link ExecutedScenario#getName()} of the scenario
+ * @param line        the {@link ExecutedScenario#getLine()} of the scenario
+ */
+public record ExecutedScenarioSortKey(Long id, String featureFile, String name, int line)
+        implements Comparable<ExecutedScenarioSortKey> {
+
+    private static final Comparator<ExecutedScenarioSortKey> ORDER =
+            comparing(ExecutedScenarioSortKey::featureFile, nullsFirst(naturalOrder()))
+                    .thenComparing(ExecutedScenarioSortKey::name, nullsFirst(naturalOrder()))
+                    .thenComparingInt(ExecutedScenarioSortKey::line);
+
+    @Override
+    public int compareTo(ExecutedScenarioSortKey other) {
+        return ORDER.compare(this, other);
+    }
+
+}
@@ -49,6 +49,12 @@ public class ExecutedScenarioWithErrorAndProblemJoin {
      */
     private String name;
 
+    /**
+     * The functionality IDs stored with this scenario (see {@link ExecutedScenario#getFunctionalityIds()}), or null if
+     * they must be extracted from its name.
+     */
+    private String functionalityIds;
+
     /**
      * Is greater than 0 if there are any unhandled errors for this scenario.<br>
      * If both {@code unhandledCount} and {@link #handledCount} are greater than 1, the scenario is considered handled.<br>
@@ -67,10 +73,16 @@ public class ExecutedScenarioWithErrorAndProblemJoin {
     }
 
     public ExecutedScenarioWithErrorAndProblemJoin(long id, long runId, String severity, String name, long unhandledCount, long handledCount) {
+        this(id, runId, severity, name, null, unhandledCount, handledCount);
+    }
+
+    public ExecutedScenarioWithErrorAndProblemJoin(long id, long runId, String severity, String name, String functionalityIds,
+            long unhandledCount, long handledCount) {
         this.id = id;
         this.runId = runId;
         this.severity = severity;
         this.name = name;
+        this.functionalityIds = functionalityIds;
         this.unhandledCount = unhandledCount;
         this.handledCount = handledCount;
     }
@@ -91,6 +103,10 @@ public class ExecutedScenarioWithErrorAndProblemJoin {
         return name;
     }
 
+    public String getFunctionalityIds() {
+        return functionalityIds;
+    }
+
     public long getUnhandledCount() {
         return unhandledCount;
     }
@@ -18,8 +18,13 @@
 package com.decathlon.ara.repository;
 
 import com.decathlon.ara.domain.CountryDeployment;
+import java.util.Collection;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Spring Data JPA repository for the CountryDeployment entity.
@@ -29,4 +34,12 @@ public interface CountryDeploymentRepository extends JpaRepository<CountryDeploy
 
     boolean existsByCountryId(long countryId);
 
+    /**
+     * @param executionIds the IDs of the executions being purged
+     * @return the number of deleted country deployments of these executions
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM CountryDeployment countryDeployment WHERE countryDeployment.execution.id IN (:executionIds)")
+    int deleteByExecutionIds(@Param("executionIds") Collection<Long> executionIds);
 }
@@ -18,6 +18,7 @@
 package com.decathlon.ara.repository;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -26,9 +27,11 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.decathlon.ara.domain.Error;
 import com.decathlon.ara.domain.Problem;
@@ -65,28 +68,84 @@ public interface ErrorRepository extends JpaRepository<Error, Long>, JpaSpecific
         return findAll(SpecificationUtil.toErrorSpecification(projectId, problemPattern, null), pageable);
     }
 
-    default List<Error> findByProjectIdAndProblemPatternAndErrorIds(@Param("projectId") long projectId, @Param("pattern") ProblemPattern problemPattern, @Param("errorIds") List<Long> errorIds) {
-        return findAll(SpecificationUtil.toErrorSpecification(projectId, problemPattern, errorIds));
-    }
+    /**
+     * @param projectId the ID of the project in which to work
+     * @param errorIds  the IDs of the errors to load
+     * @return the errors of the project having one of the given IDs, with their executed scenario, run (with country and
+     * type) and execution fetched in the same query, ready to be matched against problem patterns in memory
+     */
+    @Query("""
+            select error from Error error
+            join fetch error.executedScenario executedScenario
+            join fetch executedScenario.run run
+            join fetch run.execution execution
+            left join fetch run.country
+            left join fetch run.type
+            where execution.cycleDefinition.projectId = :projectId
+            and error.id in (:errorIds)
+            """)
+    List<Error> findAllForProblemMatching(@Param("projectId") long projectId, @Param("errorIds") List<Long> errorIds);
+
+    /**
+     * Load the problem occurrences, patterns and problems of the errors of the given executed scenarios in one query,
+     * instead of one query per error when computing their handling.
+     *
+     * @param executedScenarioIds the IDs of the executed scenarios of the errors
+     * @return the errors of these executed scenarios, with their problem occurrences initialized
+     */
+    @Query("""
+            select distinct error from Error error
+            left join fetch error.problemOccurrences problemOccurrence
+            left join fetch problemOccurrence.problemPattern problemPattern
+            left join fetch problemPattern.problem
+            where error.executedScenario.id in (:executedScenarioIds)
+            """)
+    List<Error> findAllWithProblemsByExecutedScenarioIdIn(@Param("executedScenarioIds") Collection<Long> executedScenarioIds);
+
+    /**
+     * The maximum number of error IDs bound to one query of {@link #getErrorsProblems(Collection)} (databases limit the
+     * number of parameters of a statement).
+     */
+    int ERROR_IDS_PER_QUERY = 1000;
 
     @Query("""
-            select problemOccurrence.error, problem from Problem problem
+            select distinct problemOccurrence.error.id, problem from Problem problem
             join problem.patterns pattern
             join pattern.problemOccurrences problemOccurrence
             where problemOccurrence.error.id in (:errorIds)
             """)
-    List<Object[]> getErrorsProblemsNotFormated(@Param("errorIds") List<Long> errorIds);
-
-    default Map<Error, List<Problem>> getErrorsProblems(List<Error> errors) {
-        List<Object[]> errorProblemsNotFormated = getErrorsProblemsNotFormated(errors.stream().map(Error::getId).toList());
-        Map<Error, List<Problem>> errorProblems = new HashMap<>();
-        for (Object[] errorProblem : errorProblemsNotFormated) {
-            Error error = (Error) errorProblem[0];
-            Problem problem = (Problem) errorProblem[1];
-            List<Problem> problemList = errorProblems.computeIfAbsent(error, key -> new ArrayList<>());
-            problemList.add(problem);
+    List<Object[]> getErrorIdsAndProblems(@Param("errorIds") Collection<Long> errorIds);
+
+    /**
+     * @param errorIds the IDs of the errors for which to get the problems
+     * @return the problems of the given errors, by error ID (errors without problem are absent); a problem occurring in
+     * several errors is the same instance in all their lists
+     */
+    default Map<Long, List<Problem>> getErrorsProblems(Collection<Long> errorIds) {
+        List<Long> ids = List.copyOf(errorIds);
+        Map<Long, List<Problem>> errorsProblems = new HashMap<>();
+        for (int start = 0; start < ids.size(); start += ERROR_IDS_PER_QUERY) {
+            List<Long> idsOfQuery = ids.subList(start, Math.min(start + ERROR_IDS_PER_QUERY, ids.size()));
+            for (Object[] errorIdAndProblem : getErrorIdsAndProblems(idsOfQuery)) {
+                Long errorId = (Long) errorIdAndProblem[0];
+                Problem problem = (Problem) errorIdAndProblem[1];
+                errorsProblems.computeIfAbsent(errorId, key -> new ArrayList<>()).add(problem);
+            }
         }
-        return errorProblems;
+        return errorsProblems;
     }
 
+    /**
+     * @param executionIds the IDs of the executions being purged (their problem occurrences must have been deleted)
+     * @return the number of deleted errors of these executions
+     */
+    @Modifying
+    @Transactional
+    @Query("""
+            delete from Error error
+            where error.executedScenario.id in (
+              select executedScenario.id from ExecutedScenario executedScenario
+              where executedScenario.run.execution.id in (:executionIds))
+            """)
+    int deleteByExecutionIds(@Param("executionIds") Collection<Long> executionIds);
 }
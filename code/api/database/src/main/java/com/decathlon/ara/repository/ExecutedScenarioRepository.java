@@ -18,17 +18,24 @@
 package com.decathlon.ara.repository;
 
 import java.time.Period;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.decathlon.ara.domain.ExecutedScenario;
+import com.decathlon.ara.domain.filter.ExecutedScenarioFilter;
+import com.decathlon.ara.domain.projection.ExecutedScenarioSortKey;
 import com.decathlon.ara.domain.projection.ExecutedScenarioWithErrorAndProblemJoin;
 import com.decathlon.ara.repository.util.SpecificationUtil;
 
@@ -72,6 +79,7 @@ public interface ExecutedScenarioRepository extends JpaRepository<ExecutedScenar
               executedScenario.run.id,
               executedScenario.severity,
               executedScenario.name,
+              executedScenario.functionalityIds,
               sum(CASE WHEN error.id IS NOT NULL AND
                 (problem.id IS NULL OR
                   (problem.status = 'CLOSED' AND
@@ -96,8 +104,40 @@ public interface ExecutedScenarioRepository extends JpaRepository<ExecutedScenar
             """)
     List<ExecutedScenarioWithErrorAndProblemJoin> findAllErrorAndProblemCounts(@Param("runIds") Set<Long> runIds);
 
+    /**
+     * @param runId       the ID of the run of the executed scenarios
+     * @param withSucceed true to include the executed scenarios without error
+     * @return the IDs and business keys of the executed scenarios of the run, in no particular order: sort them in Java
+     * (the order of the database depends on its collation)
+     */
+    @Query("""
+            select new com.decathlon.ara.domain.projection.ExecutedScenarioSortKey(executedScenario.id,
+                executedScenario.featureFile, executedScenario.name, executedScenario.line)
+            from ExecutedScenario executedScenario
+            where executedScenario.run.id = :runId
+            and (:withSucceed = true or executedScenario.errors is not empty)
+            """)
+    List<ExecutedScenarioSortKey> findSortKeysByRunId(@Param("runId") long runId, @Param("withSucceed") boolean withSucceed);
+
+    default Page<ExecutedScenario> findAll(ExecutedScenarioFilter filter, Pageable pageable) {
+        return findAll(SpecificationUtil.toExecutedScenarioSpecification(filter), pageable);
+    }
+
     default List<ExecutedScenario> findHistory(long projectId, String cucumberId, String branch, String cycleName, String countryCode, String runTypeCode, Optional<Period> duration) {
         return findAll(SpecificationUtil.toExecutedScenarioSpecification(projectId, cucumberId, branch, cycleName, countryCode, runTypeCode, duration));
     }
 
+    /**
+     * @param executionIds the IDs of the executions being purged (their errors must have been deleted)
+     * @return the number of deleted executed scenarios of these executions
+     */
+    @Modifying
+    @Transactional
+    @Query("""
+            delete from ExecutedScenario executedScenario
+            where executedScenario.run.id in (
+              select run.id from Run run
+              where run.execution.id in (:executionIds))
+            """)
+    int deleteByExecutionIds(@Param("executionIds") Collection<Long> executionIds);
 }
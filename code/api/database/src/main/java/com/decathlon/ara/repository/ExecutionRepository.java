@@ -26,6 +26,7 @@ import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -80,7 +81,28 @@ public interface ExecutionRepository extends JpaRepository<Execution, Long> {
 
     boolean existsByCycleDefinitionId(Long id);
 
-    List<Execution> findByCycleDefinitionProjectIdAndTestDateTimeBefore(long projectId, Date startDate);
+    long countByCycleDefinitionProjectIdAndTestDateTimeBefore(long projectId, Date startDate);
+
+    /**
+     * @param projectId the ID of the project of the executions to purge
+     * @param startDate the date before which executions are to be purged
+     * @param pageable  the maximum number of IDs to return (the first page: the returned executions are meant to be deleted)
+     * @return the lowest IDs of the executions to purge
+     */
+    @Query("SELECT execution.id " +
+            "FROM Execution execution " +
+            "WHERE execution.cycleDefinition.projectId = :projectId AND execution.testDateTime < :startDate " +
+            "ORDER BY execution.id")
+    List<Long> findIdsToPurge(@Param("projectId") long projectId, @Param("startDate") Date startDate, Pageable pageable);
+
+    /**
+     * @param executionIds the IDs of the executions to delete (their runs and country deployments must have been deleted)
+     * @return the number of deleted executions
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Execution execution WHERE execution.id IN (:executionIds)")
+    int deleteByIds(@Param("executionIds") Collection<Long> executionIds);
 
     List<Execution> findTop10ByCycleDefinitionProjectIdAndCycleDefinitionBranchAndCycleDefinitionNameOrderByTestDateTimeDesc(long projectId, String branch, String name);
 
@@ -1,9 +1,28 @@
 package com.decathlon.ara.repository;
 
+import java.util.Collection;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.decathlon.ara.domain.ProblemOccurrence;
 
 public interface ProblemOccurrenceRepository extends JpaRepository<ProblemOccurrence, ProblemOccurrence.ProblemOccurrenceId> {
 
+    /**
+     * @param executionIds the IDs of the executions being purged
+     * @return the number of deleted occurrences of the errors of these executions
+     */
+    @Modifying
+    @Transactional
+    @Query("""
+            delete from ProblemOccurrence problemOccurrence
+            where problemOccurrence.problemOccurrenceId.errorId in (
+              select error.id from Error error
+              where error.executedScenario.run.execution.id in (:executionIds))
+            """)
+    int deleteByExecutionIds(@Param("executionIds") Collection<Long> executionIds);
 }
@@ -0,0 +1,47 @@
+package com.decathlon.ara.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.decathlon.ara.domain.RunHandlingCounts;
+
+public interface RunHandlingCountsRepository extends JpaRepository<RunHandlingCounts, Long> {
+
+    List<RunHandlingCounts> findAllByRunIdIn(Collection<Long> runIds);
+
+    /**
+     * @param problemIds the IDs of the problems being created, modified or deleted (to call while their patterns still
+     *                   reference the errors they used to match)
+     * @return the number of runs whose counts got stale
+     */
+    @Modifying
+    @Transactional
+    @Query("""
+            delete from RunHandlingCounts runHandlingCounts
+            where runHandlingCounts.runId in (
+              select error.executedScenario.run.id from Error error
+              join error.problemOccurrences problemOccurrence
+              where problemOccurrence.problemPattern.problem.id in (:problemIds))
+            """)
+    int deleteByProblemIds(@Param("problemIds") Collection<Long> problemIds);
+
+    /**
+     * @param errorIds the IDs of the errors whose problems got (re)assigned
+     * @return the number of runs whose counts got stale
+     */
+    @Modifying
+    @Transactional
+    @Query("""
+            delete from RunHandlingCounts runHandlingCounts
+            where runHandlingCounts.runId in (
+              select error.executedScenario.run.id from Error error
+              where error.id in (:errorIds))
+            """)
+    int deleteByErrorIds(@Param("errorIds") Collection<Long> errorIds);
+}
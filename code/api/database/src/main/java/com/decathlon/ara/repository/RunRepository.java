@@ -20,10 +20,14 @@ package com.decathlon.ara.repository;
 import com.decathlon.ara.domain.Country;
 import com.decathlon.ara.domain.Run;
 import com.decathlon.ara.domain.Type;
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Spring Data JPA repository for the Run entity.
@@ -53,4 +57,12 @@ public interface RunRepository extends JpaRepository<Run, Long> {
 
     boolean existsByTypeId(long typeId);
 
+    /**
+     * @param executionIds the IDs of the executions being purged (their executed scenarios must have been deleted)
+     * @return the number of deleted runs of these executions
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Run run WHERE run.execution.id IN (:executionIds)")
+    int deleteByExecutionIds(@Param("executionIds") Collection<Long> executionIds);
 }
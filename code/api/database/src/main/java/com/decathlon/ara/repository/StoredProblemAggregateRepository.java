@@ -0,0 +1,31 @@
+package com.decathlon.ara.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.decathlon.ara.domain.StoredProblemAggregate;
+
+public interface StoredProblemAggregateRepository extends JpaRepository<StoredProblemAggregate, Long> {
+
+    List<StoredProblemAggregate> findAllByProblemIdIn(Collection<Long> problemIds);
+
+    /**
+     * @param executionIds the IDs of the executions being purged (to call while their errors still exist)
+     * @return the number of deleted aggregates of the problems having errors in these executions
+     */
+    @Modifying
+    @Transactional
+    @Query("""
+            delete from StoredProblemAggregate storedProblemAggregate
+            where storedProblemAggregate.problemId in (
+              select problemOccurrence.problemPattern.problem.id from ProblemOccurrence problemOccurrence
+              where problemOccurrence.error.executedScenario.run.execution.id in (:executionIds))
+            """)
+    int deleteByExecutionIds(@Param("executionIds") Collection<Long> executionIds);
+}
@@ -0,0 +1,214 @@
+package com.decathlon.ara.repository.custom;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+import javax.persistence.EntityManager;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlTypeValue;
+import org.springframework.jdbc.core.StatementCreatorUtils;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.decathlon.ara.domain.CountryDeployment;
+import com.decathlon.ara.domain.Error;
+import com.decathlon.ara.domain.ExecutedScenario;
+import com.decathlon.ara.domain.Execution;
+import com.decathlon.ara.domain.Run;
+
+/**
+ * Inserts new executions, with their country deployments, runs, executed scenarios and errors, through JDBC batches
+ * instead of cascading persist operations: an execution can have tens of thousands of scenarios, each of them being
+ * snapshotted and dirty-checked by the persistence context on flush.<br>
+ * IDs still come from the Hibernate generators of the entities (pooled sequences, allocating IDs by ranges), and the
+ * SQL uses the table and column names of the Hibernate mapping: the inserted rows are the same as with
+ * {@link com.decathlon.ara.repository.ExecutionRepository#save(Object)}. The inserted entities are NOT managed by the
+ * persistence context: they must be read again to be modified in the same transaction.
+ */
+@Repository
+public class ExecutionBulkInsertRepository {
+
+    /**
+     * The number of rows sent to the database in one JDBC batch.
+     */
+    private static final int BATCH_SIZE = 500;
+
+    private static final List<Column<Execution>> EXECUTION_COLUMNS = List.of(
+            new Column<>("branch", Execution::getBranch),
+            new Column<>("name", Execution::getName),
+            new Column<>("release", Execution::getRelease),
+            new Column<>("version", Execution::getVersion),
+            new Column<>("buildDateTime", Execution::getBuildDateTime),
+            new Column<>("testDateTime", Execution::getTestDateTime),
+            new Column<>("jobUrl", Execution::getJobUrl),
+            new Column<>("jobLink", Execution::getJobLink),
+            new Column<>("status", execution -> name(execution.getStatus())),
+            new Column<>("result", execution -> name(execution.getResult())),
+            new Column<>("acceptance", execution -> name(execution.getAcceptance())),
+            new Column<>("discardReason", Execution::getDiscardReason),
+            new Column<>("cycleDefinition", execution -> execution.getCycleDefinition().getId()),
+            new Column<>("blockingValidation", Execution::getBlockingValidation),
+            new Column<>("qualityThresholds", Execution::getQualityThresholds),
+            new Column<>("qualityStatus", execution -> name(execution.getQualityStatus())),
+            new Column<>("qualitySeverities", Execution::getQualitySeverities),
+            new Column<>("duration", Execution::getDuration),
+            new Column<>("estimatedDuration", Execution::getEstimatedDuration));
+
+    private static final List<Column<CountryDeployment>> COUNTRY_DEPLOYMENT_COLUMNS = List.of(
+            new Column<>("execution", CountryDeployment::getExecutionId),
+            new Column<>("country", countryDeployment -> countryDeployment.getCountry().getId()),
+            new Column<>("platform", CountryDeployment::getPlatform),
+            new Column<>("jobUrl", CountryDeployment::getJobUrl),
+            new Column<>("jobLink", CountryDeployment::getJobLink),
+            new Column<>("status", countryDeployment -> name(countryDeployment.getStatus())),
+            new Column<>("result", countryDeployment -> name(countryDeployment.getResult())),
+            new Column<>("startDateTime", CountryDeployment::getStartDateTime),
+            new Column<>("estimatedDuration", CountryDeployment::getEstimatedDuration),
+            new Column<>("duration", CountryDeployment::getDuration));
+
+    private static final List<Column<Run>> RUN_COLUMNS = List.of(
+            new Column<>("execution", Run::getExecutionId),
+            new Column<>("country", run -> run.getCountry().getId()),
+            new Column<>("type", run -> run.getType().getId()),
+            new Column<>("comment", Run::getComment),
+            new Column<>("platform", Run::getPlatform),
+            new Column<>("jobUrl", Run::getJobUrl),
+            new Column<>("jobLink", Run::getJobLink),
+            new Column<>("status", run -> name(run.getStatus())),
+            new Column<>("countryTags", Run::getCountryTags),
+            new Column<>("startDateTime", Run::getStartDateTime),
+            new Column<>("estimatedDuration", Run::getEstimatedDuration),
+            new Column<>("duration", Run::getDuration),
+            new Column<>("severityTags", Run::getSeverityTags),
+            new Column<>("includeInThresholds", Run::getIncludeInThresholds));
+
+    private static final List<Column<ExecutedScenario>> EXECUTED_SCENARIO_COLUMNS = List.of(
+            new Column<>("run", ExecutedScenario::getRunId),
+            new Column<>("featureFile", ExecutedScenario::getFeatureFile),
+            new Column<>("featureName", ExecutedScenario::getFeatureName),
+            new Column<>("featureTags", ExecutedScenario::getFeatureTags),
+            new Column<>("tags", ExecutedScenario::getTags),
+            new Column<>("severity", ExecutedScenario::getSeverity),
+            new Column<>("name", ExecutedScenario::getName),
+            new Column<>("functionalityIds", ExecutedScenario::getFunctionalityIds),
+            new Column<>("cucumberId", ExecutedScenario::getCucumberId),
+            new Column<>("line", executedScenario -> Integer.valueOf(executedScenario.getLine())),
+            new Column<>("content", ExecutedScenario::getContent),
+            new Column<>("startDateTime", ExecutedScenario::getStartDateTime),
+            new Column<>("screenshotUrl", ExecutedScenario::getScreenshotUrl),
+            new Column<>("videoUrl", ExecutedScenario::getVideoUrl),
+            new Column<>("logsUrl", ExecutedScenario::getLogsUrl),
+            new Column<>("httpRequestsUrl", ExecutedScenario::getHttpRequestsUrl),
+            new Column<>("javaScriptErrorsUrl", ExecutedScenario::getJavaScriptErrorsUrl),
+            new Column<>("diffReportUrl", ExecutedScenario::getDiffReportUrl),
+            new Column<>("cucumberReportUrl", ExecutedScenario::getCucumberReportUrl),
+            new Column<>("apiServer", ExecutedScenario::getApiServer),
+            new Column<>("seleniumNode", ExecutedScenario::getSeleniumNode));
+
+    private static final List<Column<Error>> ERROR_COLUMNS = List.of(
+            new Column<>("executedScenario", Error::getExecutedScenarioId),
+            new Column<>("step", Error::getStep),
+            new Column<>("stepDefinition", Error::getStepDefinition),
+            new Column<>("stepLine", error -> Integer.valueOf(error.getStepLine())),
+            new Column<>("exception", Error::getException),
+            new Column<>("stepPrefix", Error::getStepPrefix),
+            new Column<>("stepDefinitionPrefix", Error::getStepDefinitionPrefix),
+            new Column<>("exceptionPrefix", Error::getExceptionPrefix));
+
+    private final EntityManager entityManager;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ExecutionBulkInsertRepository(EntityManager entityManager, JdbcTemplate jdbcTemplate) {
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Insert a new execution and all its children.
+     *
+     * @param execution the new execution (without ID) to insert
+     * @return the given execution, with the IDs of itself and all its children
+     */
+    @Transactional
+    public Execution insert(Execution execution) {
+        if (execution.getId() != null) {
+            throw new IllegalArgumentException("Execution " + execution.getId() + " already exists: it cannot be bulk-inserted");
+        }
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+
+        List<CountryDeployment> countryDeployments = List.copyOf(execution.getCountryDeployments());
+        List<Run> runs = List.copyOf(execution.getRuns());
+        List<ExecutedScenario> executedScenarios = runs.stream()
+                .flatMap(run -> run.getExecutedScenarios().stream())
+                .toList();
+        List<Error> errors = executedScenarios.stream()
+                .flatMap(executedScenario -> executedScenario.getErrors().stream())
+                .toList();
+
+        // The children sorted-sets are ordered by their parent ID first: all children of a set share the same parent,
+        // so assigning IDs does not change the order of these sets
+        execution.setId(generateId(session, execution));
+        countryDeployments.forEach(countryDeployment -> countryDeployment.setId(generateId(session, countryDeployment)));
+        runs.forEach(run -> run.setId(generateId(session, run)));
+        executedScenarios.forEach(executedScenario -> executedScenario.setId(generateId(session, executedScenario)));
+        errors.forEach(error -> error.setId(generateId(session, error)));
+
+        // Parents first, for the foreign keys
+        insert(session, Execution.class, List.of(execution), Execution::getId, EXECUTION_COLUMNS);
+        insert(session, CountryDeployment.class, countryDeployments, CountryDeployment::getId, COUNTRY_DEPLOYMENT_COLUMNS);
+        insert(session, Run.class, runs, Run::getId, RUN_COLUMNS);
+        insert(session, ExecutedScenario.class, executedScenarios, ExecutedScenario::getId, EXECUTED_SCENARIO_COLUMNS);
+        insert(session, Error.class, errors, Error::getId, ERROR_COLUMNS);
+        return execution;
+    }
+
+    private static Long generateId(SharedSessionContractImplementor session, Object entity) {
+        return (Long) persister(session, entity.getClass()).getIdentifierGenerator().generate(session, entity);
+    }
+
+    private <T> void insert(SharedSessionContractImplementor session, Class<T> entityClass, Collection<T> entities,
+            Function<T, Long> id, List<Column<T>> columns) {
+        if (entities.isEmpty()) {
+            return;
+        }
+        AbstractEntityPersister persister = persister(session, entityClass);
+        StringBuilder sql = new StringBuilder("insert into ")
+                .append(persister.getTableName())
+                .append(" (")
+                .append(persister.getIdentifierColumnNames()[0]);
+        for (Column<T> column : columns) {
+            sql.append(", ").append(persister.getPropertyColumnNames(column.property())[0]);
+        }
+        sql.append(") values (?").append(", ?".repeat(columns.size())).append(')');
+
+        jdbcTemplate.batchUpdate(sql.toString(), entities, BATCH_SIZE, (statement, entity) -> {
+            StatementCreatorUtils.setParameterValue(statement, 1, SqlTypeValue.TYPE_UNKNOWN, id.apply(entity));
+            for (int i = 0; i < columns.size(); i++) {
+                StatementCreatorUtils.setParameterValue(statement, i + 2, SqlTypeValue.TYPE_UNKNOWN,
+                        columns.get(i).value().apply(entity));
+            }
+        });
+    }
+
+    private static AbstractEntityPersister persister(SharedSessionContractImplementor session, Class<?> entityClass) {
+        return (AbstractEntityPersister) session.getFactory().getMetamodel().entityPersister(entityClass);
+    }
+
+    private static String name(Enum<?> value) {
+        return value == null ? null : value.name();
+    }
+
+    /**
+     * @param property the name of the mapped property of the entity (the SQL column name comes from the mapping)
+     * @param value    extracts the value to insert from the entity (enumerations by name, associations by ID)
+     * @param <T>      the type of the entity
+     */
+    private record Column<T>(String property, Function<T, Object> value) {
+    }
+
+}
@@ -0,0 +1,104 @@
+package com.decathlon.ara.repository.custom;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * The queue of the execution directories waiting to be indexed by any of the ARA instances sharing the database (the
+ * directories must be on a file system shared by these instances).<br>
+ * Each operation is committed right away, in a transaction of its own: the other instances must see a queued execution
+ * as soon as it is queued, whatever the transaction of the caller becomes.
+ */
+@Repository
+@Transactional(propagation = Propagation.REQUIRES_NEW)
+public class IndexingQueueRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IndexingQueueRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @param cycleDefinitionId the ID of the cycle definition of the execution
+     * @param executionFolder   the absolute path of the execution directory
+     * @param finished          true if the job of the execution is finished, to index it before the running ones
+     * @return the ID of the queued execution
+     */
+    public long add(long cycleDefinitionId, String executionFolder, boolean finished) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement("insert into indexing_queue " +
+                    "(cycle_definition_id, execution_folder, finished, creation_date_time) values (?, ?, ?, ?)", new String[] { "id" });
+            statement.setLong(1, cycleDefinitionId);
+            statement.setString(2, executionFolder);
+            statement.setBoolean(3, finished);
+            statement.setTimestamp(4, new Timestamp(System.currentTimeMillis()));
+            return statement;
+        }, keyHolder);
+        return keyHolder.getKey().longValue();
+    }
+
+    /**
+     * @return all queued executions, the finished jobs first, then in queuing order
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public List<QueuedExecution> findAll() {
+        return jdbcTemplate.query("select id, cycle_definition_id, execution_folder, finished from indexing_queue " +
+                        "order by finished desc, id",
+                (resultSet, rowNum) -> new QueuedExecution(resultSet.getLong(1), resultSet.getLong(2),
+                        resultSet.getString(3), resultSet.getBoolean(4)));
+    }
+
+    /**
+     * @param ids the IDs of queued executions
+     * @return the given IDs that are still in the queue (the other ones are indexed)
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public Set<Long> findQueuedIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptySet();
+        }
+        String parameters = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        return new HashSet<>(jdbcTemplate.queryForList("select id from indexing_queue where id in (" + parameters + ")",
+                Long.class, ids.toArray()));
+    }
+
+    /**
+     * @param id the ID of the queued execution to remove from the queue, once indexed
+     */
+    public void delete(long id) {
+        jdbcTemplate.update("delete from indexing_queue where id = ?", Long.valueOf(id));
+    }
+
+    /**
+     * @param date the date before which queued executions are abandoned (eg. their directory was removed)
+     * @return the number of removed executions
+     */
+    public int deleteQueuedBefore(Date date) {
+        return jdbcTemplate.update("delete from indexing_queue where creation_date_time < ?", new Timestamp(date.getTime()));
+    }
+
+    /**
+     * @param id                the ID of the queued execution
+     * @param cycleDefinitionId the ID of the cycle definition of the execution
+     * @param executionFolder   the absolute path of the execution directory
+     * @param finished          true if the job of the execution was finished when queued
+     */
+    public record QueuedExecution(long id, long cycleDefinitionId, String executionFolder, boolean finished) {
+    }
+
+}
@@ -0,0 +1,98 @@
+package com.decathlon.ara.repository.custom;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * The outbox of the quality emails of indexed executions, waiting to be sent by any of the ARA instances sharing the
+ * database.<br>
+ * The emails are rendered when queued: sending them does not need the execution anymore. There is at most one email per
+ * execution: queuing an email for an execution replaces the one not sent yet.<br>
+ * Each operation is committed right away, in a transaction of its own: a queued email must not be lost (nor sent twice)
+ * whatever the transaction of the caller becomes.
+ */
+@Repository
+@Transactional(propagation = Propagation.REQUIRES_NEW)
+public class QualityEmailOutboxRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public QualityEmailOutboxRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @param projectId   the ID of the project of the execution
+     * @param executionId the ID of the execution of the email, replacing its email not sent yet, if any
+     * @param sender      the email address of the sender
+     * @param recipients  the comma-separated email addresses of the recipients
+     * @param subject     the subject of the email
+     * @param content     the rendered HTML body of the email
+     */
+    public void add(long projectId, long executionId, String sender, String recipients, String subject, String content) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        jdbcTemplate.update("delete from quality_email_outbox where execution_id = ?", Long.valueOf(executionId));
+        jdbcTemplate.update("insert into quality_email_outbox (project_id, execution_id, sender, recipients, subject, " +
+                        "content, attempts, next_attempt_date_time, creation_date_time) values (?, ?, ?, ?, ?, ?, 0, ?, ?)",
+                Long.valueOf(projectId), Long.valueOf(executionId), sender, recipients, subject, content, now, now);
+    }
+
+    /**
+     * @param date     the date at which to send the emails
+     * @param maxCount the maximum number of emails to return
+     * @return the emails to send at the given date, the ones waiting for the longest time first
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public List<QueuedEmail> findToSend(Date date, int maxCount) {
+        return jdbcTemplate.query(connection -> {
+                    PreparedStatement statement = connection.prepareStatement("select id, project_id, execution_id, sender, " +
+                            "recipients, subject, content, attempts from quality_email_outbox " +
+                            "where next_attempt_date_time <= ? order by next_attempt_date_time, id");
+                    statement.setTimestamp(1, new Timestamp(date.getTime()));
+                    statement.setMaxRows(maxCount);
+                    return statement;
+                },
+                (resultSet, rowNum) -> new QueuedEmail(resultSet.getLong(1), resultSet.getLong(2), resultSet.getLong(3),
+                        resultSet.getString(4), resultSet.getString(5), resultSet.getString(6), resultSet.getString(7),
+                        resultSet.getInt(8)));
+    }
+
+    /**
+     * @param id the ID of the sent (or abandoned) email to remove from the outbox
+     */
+    public void delete(long id) {
+        jdbcTemplate.update("delete from quality_email_outbox where id = ?", Long.valueOf(id));
+    }
+
+    /**
+     * @param id              the ID of an email that failed to be sent
+     * @param attempts        the number of failed attempts to send the email
+     * @param nextAttemptDate the date of the next attempt
+     */
+    public void postpone(long id, int attempts, Date nextAttemptDate) {
+        jdbcTemplate.update("update quality_email_outbox set attempts = ?, next_attempt_date_time = ? where id = ?",
+                Integer.valueOf(attempts), new Timestamp(nextAttemptDate.getTime()), Long.valueOf(id));
+    }
+
+    /**
+     * @param id          the ID of the queued email
+     * @param projectId   the ID of the project of the execution
+     * @param executionId the ID of the execution of the email
+     * @param sender      the email address of the sender
+     * @param recipients  the comma-separated email addresses of the recipients
+     * @param subject     the subject of the email
+     * @param content     the rendered HTML body of the email
+     * @param attempts    the number of failed attempts to send the email
+     */
+    public record QueuedEmail(long id, long projectId, long executionId, String sender, String recipients, String subject,
+            String content, int attempts) {
+    }
+
+}
@@ -55,4 +55,26 @@ public class TransactionAppenderUtil {
                     "(OK for tests, but not for production environment!)");
         }
     }
+
+    /**
+     * Execute the given code right before the transaction commits: if it throws an exception, the transaction is
+     * roll-backed instead, and the exception is thrown to the code committing the transaction.
+     *
+     * @param runnable the code to run before transaction commit
+     */
+    public void doBeforeCommit(Runnable runnable) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            @SuppressWarnings("squid:S1604") // Anonymous inner classes containing only one method should become lambdas
+            final TransactionSynchronization synchronization = new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    runnable.run();
+                }
+            };
+            TransactionSynchronizationManager.registerSynchronization(synchronization);
+        } else {
+            LOG.error("Transaction synchronization is not active: doBeforeCommit(Runnable) is skipped " +
+                    "(OK for tests, but not for production environment!)");
+        }
+    }
 }
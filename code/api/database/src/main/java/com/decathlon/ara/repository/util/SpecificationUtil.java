@@ -3,25 +3,32 @@ package com.decathlon.ara.repository.util;
 import com.decathlon.ara.domain.Error;
 import com.decathlon.ara.domain.*;
 import com.decathlon.ara.domain.enumeration.DefectExistence;
+import com.decathlon.ara.domain.enumeration.Handling;
 import com.decathlon.ara.domain.enumeration.ProblemStatus;
 import com.decathlon.ara.domain.enumeration.ProblemStatusFilter;
+import com.decathlon.ara.domain.filter.ExecutedScenarioFilter;
 import com.decathlon.ara.domain.filter.ProblemFilter;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.data.jpa.domain.Specification;
 
 import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Expression;
 import javax.persistence.criteria.Path;
 import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
 import java.time.LocalDateTime;
 import java.time.Period;
 import java.time.ZoneId;
 import java.time.chrono.ChronoZonedDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.BiFunction;
+import java.util.function.Function;
 
 public class SpecificationUtil {
 
@@ -71,6 +78,26 @@ public class SpecificationUtil {
         }
     }
 
+    /**
+     * Add a predicate on the indexed prefix of a column, implied by the equals or start-with predicate on the column
+     * itself: the database can use the index of the prefix to find the candidate rows, instead of scanning the table.
+     */
+    private static void addPrefixPredicate(List<Predicate> predicates, CriteriaBuilder criteriaBuilder, Expression<String> prefixExpression, String value, boolean startWith) {
+        if (StringUtils.isEmpty(value)) {
+            return;
+        }
+        if (!startWith && value.length() <= Error.PREFIX_LENGTH) {
+            predicates.add(criteriaBuilder.equal(prefixExpression, value));
+            return;
+        }
+        // The LIKE pattern of the prefix stops before the first wildcard (or escape character) of the value
+        int wildcardIndex = StringUtils.indexOfAny(value, '%', '_', '\\');
+        String prefix = Error.toPrefix(wildcardIndex < 0 ? value : value.substring(0, wildcardIndex));
+        if (StringUtils.isNotEmpty(prefix)) {
+            predicates.add(startsWith(criteriaBuilder, prefixExpression, prefix));
+        }
+    }
+
     private static void addEqualsPredicate(List<Predicate> predicates, CriteriaBuilder criteriaBuilder, Expression<String> expression, String value) {
         if (StringUtils.isNotEmpty(value)) {
             predicates.add(criteriaBuilder.equal(expression, value));
@@ -88,18 +115,22 @@ public class SpecificationUtil {
         }
     }
 
+    private static Predicate reappeared(CriteriaBuilder criteriaBuilder, Path<Problem> problem) {
+        Path<Date> closingDateTime = problem.get("closingDateTime");
+        Path<Date> lastSeenDateTime = problem.get("lastSeenDateTime");
+        // This business logic is also present in another form in Problem.getEffectiveStatus()
+        return criteriaBuilder.and(criteriaBuilder.equal(problem.get("status"), ProblemStatus.CLOSED),
+                criteriaBuilder.isNotNull(closingDateTime), criteriaBuilder.isNotNull(lastSeenDateTime),
+                criteriaBuilder.lessThan(closingDateTime, lastSeenDateTime));
+    }
+
     private static void addProblemStatusPredicate(List<Predicate> predicates, CriteriaBuilder criteriaBuilder, Path<Problem> problem, ProblemStatusFilter problemStatusFilter) {
         if (problemStatusFilter != null) {
             Path<ProblemStatus> status = problem.get("status");
             final Predicate open = criteriaBuilder.equal(status, ProblemStatus.OPEN);
             final Predicate closed = criteriaBuilder.equal(status, ProblemStatus.CLOSED);
 
-            Path<Date> closingDateTime = problem.get("closingDateTime");
-            Path<Date> lastSeenDateTime = problem.get("lastSeenDateTime");
-            // This business logic is also present in another form in Problem.getEffectiveStatus()
-            final Predicate reappeared = criteriaBuilder.and(criteriaBuilder.equal(status, ProblemStatus.CLOSED),
-                    criteriaBuilder.isNotNull(closingDateTime), criteriaBuilder.isNotNull(lastSeenDateTime),
-                    criteriaBuilder.lessThan(closingDateTime, lastSeenDateTime));
+            final Predicate reappeared = reappeared(criteriaBuilder, problem);
 
             predicates.add(switch (problemStatusFilter) {
                 case OPEN -> open;
@@ -174,6 +205,114 @@ public class SpecificationUtil {
         };
     }
 
+    /**
+     * The filters of the execution page, as SQL: see {@link ExecutedScenario#getHandling()} for the handling and
+     * {@link ExecutedScenario#getFunctionalityIds()} for the functionalities (executed scenarios indexed before their
+     * functionality IDs were stored cover no functionality for this specification).
+     */
+    public static Specification<ExecutedScenario> toExecutedScenarioSpecification(ExecutedScenarioFilter filter) {
+        return (root, criteriaQuery, criteriaBuilder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            Path<Run> run = root.get("run");
+            Path<Execution> execution = run.get("execution");
+            predicates.add(criteriaBuilder.equal(execution.get("cycleDefinition").get(PROJECT_ID_ATTRIBUTE), filter.getProjectId()));
+            predicates.add(criteriaBuilder.equal(execution.get("id"), filter.getExecutionId()));
+            predicates.add(criteriaBuilder.equal(run.get("id"), filter.getRunId()));
+            addEqualsPredicate(predicates, criteriaBuilder, run.get("country").get(CODE_ATTRIBUTE), filter.getCountryCode());
+            addEqualsPredicate(predicates, criteriaBuilder, run.get("type").get(CODE_ATTRIBUTE), filter.getTypeCode());
+            addSeverityPredicate(predicates, criteriaBuilder, root.get("severity"), filter.getSeverity(), filter.isSeverityMissing());
+
+            if (StringUtils.isNotEmpty(filter.getFeatureName())) {
+                predicates.add(containsIgnoreCase(criteriaBuilder, root.get("featureName"), filter.getFeatureName()));
+            }
+            if (StringUtils.isNotEmpty(filter.getScenarioName())) {
+                predicates.add(containsIgnoreCase(criteriaBuilder, root.get(NAME_ATTRIBUTE), filter.getScenarioName()));
+            }
+            if (StringUtils.isNotEmpty(filter.getStep())) {
+                predicates.add(criteriaBuilder.exists(errorSubquery(criteriaQuery, criteriaBuilder, root,
+                        error -> containsIgnoreCase(criteriaBuilder, error.get("step"), filter.getStep()))));
+            }
+            if (StringUtils.isNotEmpty(filter.getException())) {
+                predicates.add(criteriaBuilder.exists(errorSubquery(criteriaQuery, criteriaBuilder, root,
+                        error -> containsIgnoreCase(criteriaBuilder, error.get("exception"), filter.getException()))));
+            }
+            if (filter.getProblemId() != null) {
+                predicates.add(criteriaBuilder.exists(problemSubquery(criteriaQuery, criteriaBuilder, root,
+                        problem -> criteriaBuilder.equal(problem.get("id"), filter.getProblemId()))));
+            }
+
+            if (filter.getFunctionalityIds() != null) {
+                Predicate covering = coversAny(criteriaBuilder, root, filter.getFunctionalityIds());
+                if (filter.getBlamedTeamId() != null) {
+                    covering = criteriaBuilder.or(covering, criteriaBuilder.exists(problemSubquery(criteriaQuery, criteriaBuilder, root,
+                            problem -> criteriaBuilder.equal(problem.get("blamedTeam").get("id"), filter.getBlamedTeamId()))));
+                }
+                predicates.add(covering);
+            }
+            if (filter.getExcludedFunctionalityIds() != null) {
+                predicates.add(coversAny(criteriaBuilder, root, filter.getExcludedFunctionalityIds()).not());
+            }
+
+            Predicate failed = criteriaBuilder.isNotEmpty(root.get("errors"));
+            if (!filter.isWithSucceed()) {
+                predicates.add(failed);
+            }
+            Handling handling = filter.getHandling();
+            if (handling != null) {
+                Predicate handled = criteriaBuilder.exists(problemSubquery(criteriaQuery, criteriaBuilder, root,
+                        problem -> reappeared(criteriaBuilder, problem).not()));
+                predicates.add(switch (handling) {
+                    case SUCCESS -> failed.not();
+                    case HANDLED -> handled;
+                    case UNHANDLED -> criteriaBuilder.and(failed, handled.not());
+                });
+            }
+
+            return criteriaBuilder.and(predicates.toArray(new Predicate[predicates.size()]));
+        };
+    }
+
+    private static void addSeverityPredicate(List<Predicate> predicates, CriteriaBuilder criteriaBuilder, Path<String> severity, String code, boolean severityMissing) {
+        if (StringUtils.isNotEmpty(code)) {
+            Predicate equal = criteriaBuilder.equal(severity, code);
+            if (severityMissing) {
+                // "_" is the severity of the scenarios without severity tag in some old reports
+                equal = criteriaBuilder.or(equal, criteriaBuilder.isNull(severity), severity.in("", "_"));
+            }
+            predicates.add(equal);
+        }
+    }
+
+    /**
+     * @return a predicate true if the executed scenario covers at least one of the functionalities (false if empty)
+     */
+    private static Predicate coversAny(CriteriaBuilder criteriaBuilder, Root<ExecutedScenario> executedScenario, Collection<Long> functionalityIds) {
+        // Comma-separated IDs: surround them with commas to only match whole IDs
+        Expression<String> ids = criteriaBuilder.concat(criteriaBuilder.concat(",",
+                criteriaBuilder.coalesce(executedScenario.get("functionalityIds"), "")), ",");
+        return criteriaBuilder.or(functionalityIds.stream()
+                .map(functionalityId -> criteriaBuilder.like(ids, "%," + functionalityId + ",%"))
+                .toArray(Predicate[]::new));
+    }
+
+    private static Subquery<Long> errorSubquery(CriteriaQuery<?> criteriaQuery, CriteriaBuilder criteriaBuilder, Root<ExecutedScenario> executedScenario,
+            Function<Path<Error>, Predicate> errorPredicate) {
+        Subquery<Long> subquery = criteriaQuery.subquery(Long.class);
+        Root<Error> error = subquery.from(Error.class);
+        return subquery.select(error.get("id"))
+                .where(criteriaBuilder.equal(error.get("executedScenario"), executedScenario), errorPredicate.apply(error));
+    }
+
+    private static Subquery<Long> problemSubquery(CriteriaQuery<?> criteriaQuery, CriteriaBuilder criteriaBuilder, Root<ExecutedScenario> executedScenario,
+            Function<Path<Problem>, Predicate> problemPredicate) {
+        Subquery<Long> subquery = criteriaQuery.subquery(Long.class);
+        Root<ProblemOccurrence> problemOccurrence = subquery.from(ProblemOccurrence.class);
+        Path<Error> error = problemOccurrence.join("error");
+        Path<Problem> problem = problemOccurrence.join("problemPattern").join("problem");
+        return subquery.select(error.get("id"))
+                .where(criteriaBuilder.equal(error.get("executedScenario"), executedScenario), problemPredicate.apply(problem));
+    }
+
     public static Specification<Error> toErrorSpecification(long projectId, ProblemPattern problemPattern, List<Long> errorIds) {
         return (root, criteriaQuery, criteriaBuilder) -> {
             List<Predicate> predicates = new ArrayList<>();
@@ -186,8 +325,11 @@ public class SpecificationUtil {
             addEqualsPredicate(predicates, criteriaBuilder, executedScenario.get("featureName"), problemPattern.getFeatureName());
             addEqualsOrStartWithPredicate(predicates, criteriaBuilder, executedScenario.get(NAME_ATTRIBUTE), problemPattern.getScenarioName(), problemPattern.isScenarioNameStartsWith());
             addEqualsOrStartWithPredicate(predicates, criteriaBuilder, root.get("step"), problemPattern.getStep(), problemPattern.isStepStartsWith());
+            addPrefixPredicate(predicates, criteriaBuilder, root.get("stepPrefix"), problemPattern.getStep(), problemPattern.isStepStartsWith());
             addEqualsOrStartWithPredicate(predicates, criteriaBuilder, root.get("stepDefinition"), problemPattern.getStepDefinition(), problemPattern.isStepDefinitionStartsWith());
+            addPrefixPredicate(predicates, criteriaBuilder, root.get("stepDefinitionPrefix"), problemPattern.getStepDefinition(), problemPattern.isStepDefinitionStartsWith());
             addEqualsOrStartWithPredicate(predicates, criteriaBuilder, root.get("exception"), problemPattern.getException(), true);
+            addPrefixPredicate(predicates, criteriaBuilder, root.get("exceptionPrefix"), problemPattern.getException(), true);
             addEqualsPredicate(predicates, criteriaBuilder, execution.get("release"), problemPattern.getRelease());
             Country country = problemPattern.getCountry();
             if (country != null && StringUtils.isNotEmpty(country.getCode())) {